@@ -11,7 +11,9 @@ import org.lfenergy.compas.sct.commons.dto.HeaderDTO;
 import org.lfenergy.compas.sct.commons.dto.SubNetworkDTO;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.SclRules;
 import org.lfenergy.compas.sct.commons.scl.SclService;
+import org.lfenergy.compas.sct.commons.scl.SclSession;
 import org.lfenergy.compas.sct.commons.scl.SubstationService;
 
 import java.util.*;
@@ -23,6 +25,9 @@ import java.util.*;
  * </p>
  * <ul>
  *   <li>{@link SclAutomationService#createSCD(SCL, HeaderDTO, Set) Adds all elements under the <b>SCL </b> object from given <b>SSD </b> and <b>STD </b> files}
+ *   <li>{@link SclAutomationService#createSCD(SCL, HeaderDTO, Set, SclPipeline) Creates a <b>SCD </b> and runs given stages on it in one session}
+ *   <li>{@link SclAutomationService#updateScdPipeline() Gets a stage running the updates and checks of a <b>SCD </b> in a single walk}
+ *   <li>{@link SclAutomationService#updateSCD(SCL, HeaderDTO, Set) Updates elements under the <b>SCL </b> object from given changed <b>STD </b> files}
  *  </ul>
  */
 public class SclAutomationService {
@@ -35,6 +40,8 @@ public class SclAutomationService {
             Pair.of("RSPACE_PROCESS_NETWORK", SubNetworkDTO.SubnetworkType.MMS.toString()), Arrays.asList("PROCESS_AP", "TOTO_AP_GE"),
             Pair.of("RSPACE_ADMIN_NETWORK", SubNetworkDTO.SubnetworkType.IP.toString()), Arrays.asList("ADMIN_AP", "TATA_AP_EFFACEC"));
 
+    private static final String UPDATE_SCD_STAGE = "updateLDeviceStatusAndDoInRefAndAnalyzeDataGroups";
+
     private SclAutomationService() {
         throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
     }
@@ -49,15 +56,94 @@ public class SclAutomationService {
      * @throws ScdException
      */
     public static SclRootAdapter createSCD(@NonNull SCL ssd, @NonNull HeaderDTO headerDTO, Set<SCL> stds) throws ScdException {
+        return createSCD(ssd, headerDTO, stds, SclPipeline.builder().build()).sclRootAdapter();
+    }
+
+    /**
+     * Create a SCD file from specified parameters, then run the given stages on it. All stages share one {@link SclSession}, so
+     * indexes of the SCD are built once for all of them.
+     * @param ssd : (mandatory) file contains substation datas
+     * @param headerDTO : (mandatory) object which hold header datas and historys' one
+     * @param stds : (optional) list of STD files containing IED datas (IED, Communication and DataTypeTemplate)
+     * @param nextStages : (mandatory) stages to run on the created SCD, like
+     *                   {@link SclSession#updateLDeviceStatus()} or {@link SclSession#createDataSetAndControlBlocks()}
+     * @return report of all stages, with the SCD file encapsuled in object SclRootAdapter
+     * @throws ScdException
+     * @see #createScdPipeline(SCL, HeaderDTO, Set)
+     */
+    public static SclPipeline.PipelineReport createSCD(@NonNull SCL ssd, @NonNull HeaderDTO headerDTO, Set<SCL> stds,
+                                                       @NonNull SclPipeline nextStages) throws ScdException {
         SclRootAdapter scdAdapter = SclService.initScl(Optional.ofNullable(headerDTO.getId()),
                 headerDTO.getVersion(), headerDTO.getRevision());
+        SclPipeline sclPipeline = SclPipeline.builder()
+                .stages(createScdPipeline(ssd, headerDTO, stds))
+                .stages(nextStages)
+                .build();
+        return sclPipeline.run(SclSession.open(scdAdapter.getCurrentElem()));
+    }
+
+    /**
+     * Gets stages filling an initialized SCD: history item, Substation from SSD, IEDs from STDs, and removal of ControlBlocks,
+     * DataSets and ExtRef source bindings
+     * @param ssd : (mandatory) file contains substation datas
+     * @param headerDTO : (mandatory) object which hold historys' data
+     * @param stds : (optional) list of STD files containing IED datas (IED, Communication and DataTypeTemplate)
+     * @return pipeline of the SCD creation stages
+     */
+    public static SclPipeline createScdPipeline(@NonNull SCL ssd, @NonNull HeaderDTO headerDTO, Set<SCL> stds) {
+        SclPipeline.Builder builder = SclPipeline.builder();
+        if (!headerDTO.getHistoryItems().isEmpty()) {
+            HeaderDTO.HistoryItem hItem = headerDTO.getHistoryItems().get(0);
+            // Header and Substation are not indexed by the session: these stages keep all indexes
+            builder.action("addHistoryItem", sclSession -> sclSession.execute("addHistoryItem", Set.of(), sclRootAdapter -> {
+                sclRootAdapter.getHeaderAdapter().addHistoryItem(hItem.getWho(), hItem.getWhat(), hItem.getWhy());
+                return sclRootAdapter;
+            }));
+        }
+        return builder
+                .action("addSubstation", sclSession -> sclSession.execute("addSubstation", Set.of(), sclRootAdapter ->
+                        SubstationService.addSubstation(sclRootAdapter.getCurrentElem(), ssd)))
+                .action("importSTDElementsInSCD", sclSession -> sclSession.importSTDElementsInSCD(stds, comMap))
+                .action("removeAllControlBlocksAndDatasetsAndExtRefSrcBindings", sclSession ->
+                        sclSession.execute("removeAllControlBlocksAndDatasetsAndExtRefSrcBindings", EnumSet.of(SclSession.Index.CONTROL_BLOCKS),
+                                sclRootAdapter -> {
+                                    SclService.removeAllControlBlocksAndDatasetsAndExtRefSrcBindings(sclRootAdapter);
+                                    return null;
+                                }))
+                .build();
+    }
+
+    /**
+     * Gets a stage activating or deactivating LDevices, updating DO InRef and checking data groups of the IEDs, in a single walk of
+     * the SCD instead of one walk per update or check
+     * @return pipeline of the stage, to be given as next stages to {@link #createSCD(SCL, HeaderDTO, Set, SclPipeline)}
+     * @see SclSession#walk(String, List)
+     */
+    public static SclPipeline updateScdPipeline() {
+        return SclPipeline.builder()
+                .stage(UPDATE_SCD_STAGE, sclSession -> sclSession.walk(UPDATE_SCD_STAGE,
+                        List.of(SclRules.updateLDeviceStatus(), SclRules.updateDoInRef(), SclRules.analyzeDataGroups())))
+                .build();
+    }
+
+    /**
+     * Update a SCD file created by {@link SclAutomationService#createSCD(SCL, HeaderDTO, Set)} when some STD files changed.
+     * Only IEDs whose COMPAS-ICDHeader changed in Substation are imported again (with their DataTypeTemplate and ConnectedAPs),
+     * other IEDs are kept as is.
+     * @param scd : (mandatory) SCD file to update
+     * @param headerDTO : (mandatory) object which hold historys' data
+     * @param stds : (optional) list of STD files of new or changed IEDs
+     * @return updated SCD file encapsuled in object SclRootAdapter
+     * @throws ScdException
+     * @see SclService#updateSTDElementsInSCD(SclRootAdapter, Set, Map)
+     */
+    public static SclRootAdapter updateSCD(@NonNull SCL scd, @NonNull HeaderDTO headerDTO, Set<SCL> stds) throws ScdException {
+        SclRootAdapter scdAdapter = new SclRootAdapter(scd);
         if (!headerDTO.getHistoryItems().isEmpty()) {
             HeaderDTO.HistoryItem hItem = headerDTO.getHistoryItems().get(0);
-            SclService.addHistoryItem(scdAdapter.getCurrentElem(), hItem.getWho(), hItem.getWhat(), hItem.getWhy());
+            SclService.addHistoryItem(scd, hItem.getWho(), hItem.getWhat(), hItem.getWhy());
         }
-        SubstationService.addSubstation(scdAdapter.getCurrentElem(), ssd);
-        SclService.importSTDElementsInSCD(scdAdapter, stds, comMap);
-        SclService.removeAllControlBlocksAndDatasetsAndExtRefSrcBindings(scdAdapter.getCurrentElem());
+        SclService.updateSTDElementsInSCD(scdAdapter, stds, comMap);
         return scdAdapter;
     }
 }
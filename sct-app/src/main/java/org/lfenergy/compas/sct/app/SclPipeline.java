@@ -0,0 +1,193 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.app;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.lfenergy.compas.sct.commons.dto.SclReport;
+import org.lfenergy.compas.sct.commons.dto.SclReportItem;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.SclSession;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Ordered list of stages run on one SCD.
+ * <p>
+ * All stages of a run share one {@link SclSession}, so indexes built by a stage (IEDs, LDevices, DataTypeTemplates,
+ * Communication) are reused by the next ones instead of being rebuilt from the SCL. Stages returning a {@link SclReport} stop the
+ * run when their report has a fatal item: the following stages are not run. Each stage run is timed, and the memory allocated
+ * by the thread during the stage is measured when the JVM supports it.
+ * </p>
+ * <p>
+ * Stages are run one after the other, on the calling thread: all of them modify the same SCL, which is not thread safe.
+ * </p>
+ */
+@Slf4j
+public final class SclPipeline {
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = findThreadMXBean();
+
+    private final List<Stage> stages;
+
+    private SclPipeline(List<Stage> stages) {
+        this.stages = List.copyOf(stages);
+    }
+
+    /**
+     * Creates a builder of pipeline
+     * @return new builder, without stage
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets names of the stages, in run order
+     * @return stage names
+     */
+    public List<String> getStageNames() {
+        return stages.stream().map(Stage::name).toList();
+    }
+
+    /**
+     * Runs all stages on the SCL of the given session, until a stage reports a fatal error.
+     * Exceptions thrown by a stage are not caught.
+     * @param sclSession session on the SCL to process
+     * @return report of the run, with the processed SCD, report items of all run stages and their metrics
+     */
+    public PipelineReport run(@NonNull SclSession sclSession) {
+        List<SclReportItem> sclReportItems = new ArrayList<>();
+        List<StageMetrics> stageMetrics = new ArrayList<>(stages.size());
+        for (Stage stage : stages) {
+            long allocatedBytesBefore = getAllocatedBytes();
+            long start = System.nanoTime();
+            SclReport sclReport = stage.step().run(sclSession);
+            long elapsedNanos = System.nanoTime() - start;
+            long allocatedBytes = allocatedBytesBefore < 0 ? -1 : getAllocatedBytes() - allocatedBytesBefore;
+            boolean success = sclReport == null || sclReport.isSuccess();
+            if (sclReport != null) {
+                sclReportItems.addAll(sclReport.getSclReportItems());
+            }
+            stageMetrics.add(new StageMetrics(stage.name(), elapsedNanos, allocatedBytes, success));
+            log.debug("Stage {} run in {} ms", stage.name(), elapsedNanos / 1_000_000);
+            if (!success) {
+                log.info("Stage {} reported fatal errors, following stages are skipped", stage.name());
+                break;
+            }
+        }
+        return new PipelineReport(new SclRootAdapter(sclSession.getScd()), sclReportItems, stageMetrics);
+    }
+
+    private static long getAllocatedBytes() {
+        return THREAD_MX_BEAN == null ? -1 : THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean findThreadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+            && threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return threadMXBean;
+        }
+        return null;
+    }
+
+    /**
+     * Step of a pipeline
+     */
+    @FunctionalInterface
+    public interface Step {
+        /**
+         * Runs the step
+         * @param sclSession session on the processed SCL
+         * @return report of the step, or null when the step does not report errors
+         */
+        SclReport run(SclSession sclSession);
+    }
+
+    private record Stage(String name, Step step) {
+    }
+
+    /**
+     * Metrics of a stage run
+     * @param stage name of the stage
+     * @param elapsedNanos duration of the stage, in nanoseconds
+     * @param allocatedBytes memory allocated by the stage, in bytes, or -1 when the JVM does not measure it
+     * @param success false when the stage reported a fatal error
+     */
+    public record StageMetrics(String stage, long elapsedNanos, long allocatedBytes, boolean success) {
+    }
+
+    /**
+     * Report of a pipeline run
+     * @param sclRootAdapter processed SCD
+     * @param sclReportItems report items of all run stages, in run order
+     * @param stageMetrics metrics of all run stages, in run order. Stages skipped after a fatal error have no metrics.
+     */
+    public record PipelineReport(SclRootAdapter sclRootAdapter, List<SclReportItem> sclReportItems, List<StageMetrics> stageMetrics) {
+
+        /**
+         * @return true when no stage reported a fatal error, false otherwise
+         */
+        public boolean isSuccess() {
+            return stageMetrics.stream().allMatch(StageMetrics::success);
+        }
+    }
+
+    /**
+     * Builder of {@link SclPipeline}
+     */
+    public static final class Builder {
+
+        private final List<Stage> stages = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a stage reporting errors at the end of the pipeline
+         * @param name name of the stage, used in metrics
+         * @param step step of the stage
+         * @return this builder
+         */
+        public Builder stage(@NonNull String name, @NonNull Step step) {
+            stages.add(new Stage(name, step));
+            return this;
+        }
+
+        /**
+         * Adds a stage without report at the end of the pipeline
+         * @param name name of the stage, used in metrics
+         * @param action action of the stage
+         * @return this builder
+         */
+        public Builder action(@NonNull String name, @NonNull Consumer<SclSession> action) {
+            return stage(name, sclSession -> {
+                action.accept(sclSession);
+                return null;
+            });
+        }
+
+        /**
+         * Adds all stages of the given pipeline at the end of the pipeline
+         * @param sclPipeline pipeline which stages are added
+         * @return this builder
+         */
+        public Builder stages(@NonNull SclPipeline sclPipeline) {
+            stages.addAll(sclPipeline.stages);
+            return this;
+        }
+
+        /**
+         * Builds the pipeline
+         * @return pipeline with stages added so far
+         */
+        public SclPipeline build() {
+            return new SclPipeline(stages);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.lfenergy.compas.scl2007b4.model.LN0;
 import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TIED;
 import org.lfenergy.compas.sct.commons.dto.HeaderDTO;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.SclElementAdapter;
@@ -157,6 +158,27 @@ class SclAutomationServiceTest {
         assertIsMarshallable(expectedSCD.getCurrentElem());
     }
 
+    @Test
+    void updateSCD_when_STD_unchanged_should_keep_IED_and_add_history() throws Exception {
+        // Given
+        SCL ssd = SclTestMarshaller.getSCLFromFile("/scd-ied-dtt-com-import-stds/scd.xml");
+        SCL std = SclTestMarshaller.getSCLFromFile("/scd-ied-dtt-com-import-stds/std.xml");
+        SCL scd = SclAutomationService.createSCD(ssd, headerDTO, Set.of(std)).getCurrentElem();
+        TIED ied = scd.getIED().get(0);
+        HeaderDTO.HistoryItem historyItem = new HeaderDTO.HistoryItem();
+        historyItem.setWhat("what");
+        historyItem.setWho("me");
+        historyItem.setWhy("because");
+        headerDTO.getHistoryItems().add(historyItem);
+        // When
+        SclRootAdapter expectedSCD = SclAutomationService.updateSCD(scd, headerDTO, new HashSet<>());
+        // Then
+        assertThat(expectedSCD.getCurrentElem().getIED()).containsExactly(ied);
+        assertEquals(1, expectedSCD.getCurrentElem().getHeader().getHistory().getHitem().size());
+        assertEquals(2, expectedSCD.getCurrentElem().getCommunication().getSubNetwork().size());
+        assertIsMarshallable(expectedSCD.getCurrentElem());
+    }
+
     @Test
     void class_should_not_be_instantiable() {
         // Given
@@ -0,0 +1,91 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.app;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.sct.commons.dto.HeaderDTO;
+import org.lfenergy.compas.sct.commons.dto.SclReport;
+import org.lfenergy.compas.sct.commons.dto.SclReportItem;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.SclSession;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller.assertIsMarshallable;
+
+class SclPipelineTest {
+
+    @Test
+    void run_should_run_stages_in_order_and_measure_them() {
+        // Given
+        List<String> runStages = new ArrayList<>();
+        SclPipeline sclPipeline = SclPipeline.builder()
+            .action("first", sclSession -> runStages.add("first"))
+            .stage("second", sclSession -> {
+                runStages.add("second");
+                return new SclReport(null, new ArrayList<>(List.of(SclReportItem.warning("/SCL", "warning"))));
+            })
+            .build();
+        SclSession sclSession = SclSession.open(new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION).getCurrentElem());
+        // When
+        SclPipeline.PipelineReport pipelineReport = sclPipeline.run(sclSession);
+        // Then
+        assertThat(runStages).containsExactly("first", "second");
+        assertThat(pipelineReport.isSuccess()).isTrue();
+        assertThat(pipelineReport.sclReportItems()).extracting(SclReportItem::getMessage).containsExactly("warning");
+        assertThat(pipelineReport.stageMetrics())
+            .extracting(SclPipeline.StageMetrics::stage, SclPipeline.StageMetrics::success)
+            .containsExactly(tuple("first", true), tuple("second", true));
+        assertThat(pipelineReport.stageMetrics()).allSatisfy(stageMetrics -> assertThat(stageMetrics.elapsedNanos()).isNotNegative());
+        assertThat(pipelineReport.sclRootAdapter().getCurrentElem()).isSameAs(sclSession.getScd());
+    }
+
+    @Test
+    void run_when_stage_reports_fatal_error_should_skip_following_stages() {
+        // Given
+        List<String> runStages = new ArrayList<>();
+        SclPipeline sclPipeline = SclPipeline.builder()
+            .stage("failing", sclSession -> {
+                runStages.add("failing");
+                return new SclReport(null, new ArrayList<>(List.of(SclReportItem.fatal("/SCL", "fatal error"))));
+            })
+            .action("skipped", sclSession -> runStages.add("skipped"))
+            .build();
+        SclSession sclSession = SclSession.open(new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION).getCurrentElem());
+        // When
+        SclPipeline.PipelineReport pipelineReport = sclPipeline.run(sclSession);
+        // Then
+        assertThat(runStages).containsExactly("failing");
+        assertThat(pipelineReport.isSuccess()).isFalse();
+        assertThat(pipelineReport.stageMetrics()).extracting(SclPipeline.StageMetrics::stage).containsExactly("failing");
+    }
+
+    @Test
+    void createSCD_should_run_next_stages_on_created_scd() {
+        // Given
+        HeaderDTO headerDTO = new HeaderDTO();
+        headerDTO.setRevision("hRevision");
+        headerDTO.setVersion("hVersion");
+        SCL ssd = SclTestMarshaller.getSCLFromFile("/scd-ied-dtt-com-import-stds/scd.xml");
+        SCL std = SclTestMarshaller.getSCLFromFile("/scd-ied-dtt-com-import-stds/std.xml");
+        SclPipeline nextStages = SclPipeline.builder()
+            .stage("updateAllExtRefIedNames", SclSession::updateAllExtRefIedNames)
+            .build();
+        // When
+        SclPipeline.PipelineReport pipelineReport = SclAutomationService.createSCD(ssd, headerDTO, Set.of(std), nextStages);
+        // Then
+        assertThat(pipelineReport.stageMetrics()).extracting(SclPipeline.StageMetrics::stage)
+            .containsExactly("addSubstation", "importSTDElementsInSCD", "removeAllControlBlocksAndDatasetsAndExtRefSrcBindings",
+                "updateAllExtRefIedNames");
+        assertThat(pipelineReport.sclRootAdapter().getCurrentElem().getIED()).hasSize(1);
+        assertIsMarshallable(pipelineReport.sclRootAdapter().getCurrentElem());
+    }
+}
@@ -0,0 +1,121 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.dto;
+
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.TDataSet;
+import org.lfenergy.compas.scl2007b4.model.TExtRef;
+import org.lfenergy.compas.sct.commons.scl.dtt.LNodeTypeAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.AbstractLNAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.LDeviceAdapter;
+
+/**
+ * Streaming projection of IED, LDevice and LN.
+ * <p>
+ * Same content as {@link IedDTO#from}, {@link LDeviceDTO#from} and {@link LNodeDTO#from}, but each record is pushed to an
+ * {@link IedProjectionConsumer} as soon as it is built, instead of being collected in a DTO graph. Memory used by a projection does
+ * not depend on the size of the SCL, so full SCD can be exported (for example with {@link JsonIedProjectionConsumer}).
+ * </p>
+ * <p>
+ * LNodeType are expanded lazily when {@link LogicalNodeOptions#isWithDataAttributeRef()}: each Data Attribute Reference is pushed
+ * while walking DOType and DAType, without building the list of all Data Attribute References of the LN.
+ * </p>
+ * <p>
+ * A null {@link LogicalNodeOptions} pushes only the structure (IED, LDevice and LN), as {@link LNodeDTO#from} does.
+ * </p>
+ */
+public final class IedProjection {
+
+    private IedProjection() {
+        throw new IllegalStateException("IedProjection class");
+    }
+
+    /**
+     * Pushes given IED, all its LDevices, and all their LNs (LN0 first) to the consumer
+     * @param iedAdapter IED to project
+     * @param options records to push for each LN
+     * @param consumer receives the records
+     */
+    public static void project(@NonNull IEDAdapter iedAdapter, LogicalNodeOptions options, @NonNull IedProjectionConsumer consumer) {
+        consumer.startIed(iedAdapter.getName());
+        iedAdapter.streamLDeviceAdapters().forEach(lDeviceAdapter -> project(lDeviceAdapter, options, consumer));
+        consumer.endIed();
+    }
+
+    /**
+     * Pushes given LDevice and all its LNs (LN0 first) to the consumer
+     * @param lDeviceAdapter LDevice to project
+     * @param options records to push for each LN
+     * @param consumer receives the records
+     */
+    public static void project(@NonNull LDeviceAdapter lDeviceAdapter, LogicalNodeOptions options, @NonNull IedProjectionConsumer consumer) {
+        consumer.startLDevice(lDeviceAdapter.getInst(), lDeviceAdapter.getLdName());
+        if (lDeviceAdapter.hasLN0()) {
+            project(lDeviceAdapter.getLN0Adapter(), options, consumer);
+        }
+        lDeviceAdapter.getLNAdapters().forEach(lnAdapter -> project(lnAdapter, options, consumer));
+        consumer.endLDevice();
+    }
+
+    /**
+     * Pushes given LN and its ExtRefs, DataSets and Data Attribute References (according to options) to the consumer
+     * @param lnAdapter LN to project
+     * @param options records to push
+     * @param consumer receives the records
+     * @throws IllegalArgumentException when Data Attribute References are requested and the LN refers to an unknown lnType
+     */
+    public static void project(@NonNull AbstractLNAdapter<?> lnAdapter, LogicalNodeOptions options, @NonNull IedProjectionConsumer consumer) {
+        String lnClass = lnAdapter.getLNClass();
+        String lnInst = lnAdapter.getLNInst();
+        String prefix = lnAdapter.getPrefix().isBlank() ? null : lnAdapter.getPrefix();
+        consumer.startLNode(lnClass, lnInst, prefix, lnAdapter.getLnType());
+        if (options != null) {
+            if (options.isWithExtRef()) {
+                projectExtRefs(lnAdapter, lnClass, lnInst, prefix, consumer);
+            }
+            if (options.isWithDatSet()) {
+                for (TDataSet tDataSet : lnAdapter.getDataSetMatchingExtRefInfo(null)) {
+                    consumer.dataSet(DataSetInfo.from(tDataSet));
+                }
+            }
+            if (options.isWithDataAttributeRef()) {
+                projectDataAttributeRefs(lnAdapter, consumer);
+            }
+        }
+        consumer.endLNode();
+    }
+
+    /**
+     * Pushes ExtRefs of given LN to the consumer
+     * @param lnAdapter LN holding the ExtRefs
+     * @param consumer receives the ExtRefs
+     */
+    public static void projectExtRefs(@NonNull AbstractLNAdapter<?> lnAdapter, @NonNull IedProjectionConsumer consumer) {
+        String prefix = lnAdapter.getPrefix().isBlank() ? null : lnAdapter.getPrefix();
+        projectExtRefs(lnAdapter, lnAdapter.getLNClass(), lnAdapter.getLNInst(), prefix, consumer);
+    }
+
+    private static void projectExtRefs(AbstractLNAdapter<?> lnAdapter, String lnClass, String lnInst, String prefix, IedProjectionConsumer consumer) {
+        LDeviceAdapter lDeviceAdapter = lnAdapter.getParentAdapter();
+        String holderIedName = lDeviceAdapter.getParentAdapter().getName();
+        String holderLDInst = lDeviceAdapter.getInst();
+        for (TExtRef tExtRef : lnAdapter.getExtRefs(null)) {
+            consumer.extRef(ExtRefInfo.from(tExtRef, holderIedName, holderLDInst, lnClass, lnInst, prefix));
+        }
+    }
+
+    private static void projectDataAttributeRefs(AbstractLNAdapter<?> lnAdapter, IedProjectionConsumer consumer) {
+        LNodeTypeAdapter lNodeTypeAdapter = lnAdapter.getDataTypeTemplateAdapter().getLNodeTypeAdapterById(lnAdapter.getLnType())
+            .orElseThrow(() -> new IllegalArgumentException(
+                String.format("Corrupted SCD file: reference to unknown lnType(%s)", lnAdapter.getLnType())));
+        DataAttributeRef filter = DataAttributeRef.builder()
+            .lnInst(lnAdapter.getLNInst())
+            .lnClass(lnAdapter.getLNClass())
+            .prefix(lnAdapter.getPrefix())
+            .lnType(lnAdapter.getLnType()).build();
+        lNodeTypeAdapter.forEachDataAttributeRef(filter, consumer::dataAttributeRef);
+    }
+}
@@ -0,0 +1,91 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.dto;
+
+/**
+ * Receives the records pushed by {@link IedProjection}, in document order:
+ * <pre>
+ * startIed
+ *   startLDevice
+ *     startLNode
+ *       extRef*  dataSet*  dataAttributeRef*
+ *     endLNode
+ *   endLDevice
+ * endIed
+ * </pre>
+ * Records of a kind disabled in {@link LogicalNodeOptions} are never pushed.
+ * All methods do nothing by default, so implementations only override the records they need.
+ * Records are built for the call only: they are not kept by the projection, and can be garbage collected as soon as the consumer
+ * returns.
+ *
+ * @see IedProjection
+ * @see JsonIedProjectionConsumer
+ */
+public interface IedProjectionConsumer {
+
+    /**
+     * Beginning of an IED
+     * @param iedName IED name
+     */
+    default void startIed(String iedName) {
+    }
+
+    /**
+     * End of the current IED
+     */
+    default void endIed() {
+    }
+
+    /**
+     * Beginning of an LDevice of the current IED
+     * @param ldInst LDevice inst
+     * @param ldName LDevice ldName, can be null
+     */
+    default void startLDevice(String ldInst, String ldName) {
+    }
+
+    /**
+     * End of the current LDevice
+     */
+    default void endLDevice() {
+    }
+
+    /**
+     * Beginning of an LN (or LN0) of the current LDevice
+     * @param lnClass LN lnClass
+     * @param lnInst LN inst
+     * @param prefix LN prefix, null when blank
+     * @param lnType LN lnType
+     */
+    default void startLNode(String lnClass, String lnInst, String prefix, String lnType) {
+    }
+
+    /**
+     * End of the current LN
+     */
+    default void endLNode() {
+    }
+
+    /**
+     * ExtRef of the current LN, pushed when {@link LogicalNodeOptions#isWithExtRef()}
+     * @param extRefInfo ExtRef with its holder IED, LDevice and LN
+     */
+    default void extRef(ExtRefInfo extRefInfo) {
+    }
+
+    /**
+     * DataSet of the current LN, pushed when {@link LogicalNodeOptions#isWithDatSet()}
+     * @param dataSetInfo DataSet with its FCDA
+     */
+    default void dataSet(DataSetInfo dataSetInfo) {
+    }
+
+    /**
+     * Data Attribute Reference of the LNodeType of the current LN, pushed when {@link LogicalNodeOptions#isWithDataAttributeRef()}
+     * @param dataAttributeRef summarized DataTypeTemplate of one DA or BDA
+     */
+    default void dataAttributeRef(DataAttributeRef dataAttributeRef) {
+    }
+}
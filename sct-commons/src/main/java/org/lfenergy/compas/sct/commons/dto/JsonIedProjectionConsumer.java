@@ -0,0 +1,145 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+/**
+ * Writes records pushed by {@link IedProjection} to a Jackson {@link JsonGenerator}, as they come.
+ * <p>
+ * Written JSON uses the field names of {@link IedDTO} serialization:
+ * </p>
+ * <pre>
+ * {"name": ..., "lDevices": [{"ldInst": ..., "ldName": ..., "lNodes": [
+ *     {"nodeClass": ..., "inst": ..., "prefix": ..., "nodeType": ..., "extRefs": [...], "datSets": [...], "dataAttributeRefs": [...]}
+ * ]}]}
+ * </pre>
+ * <p>
+ * Unlike {@link IedDTO}, which holds Sets, records are written in document order, one per SCL element, and control blocks are not
+ * written. "extRefs", "datSets" and "dataAttributeRefs" arrays are only written when the LN has at least one such record.
+ * ExtRef, DataSet and Data Attribute Reference records are written with {@link JsonGenerator#writeObject(Object)}: the generator must
+ * have a codec, which is the case when it is created by an ObjectMapper.
+ * The generator is neither flushed nor closed by this class.
+ * </p>
+ */
+public class JsonIedProjectionConsumer implements IedProjectionConsumer {
+
+    private final JsonGenerator jsonGenerator;
+    private String openRecordArray;
+
+    /**
+     * Constructor
+     * @param jsonGenerator generator to write to, with a codec
+     */
+    public JsonIedProjectionConsumer(@NonNull JsonGenerator jsonGenerator) {
+        this.jsonGenerator = jsonGenerator;
+    }
+
+    @Override
+    public void startIed(String iedName) {
+        write(() -> {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeStringField("name", iedName);
+            jsonGenerator.writeArrayFieldStart("lDevices");
+        });
+    }
+
+    @Override
+    public void endIed() {
+        write(() -> {
+            jsonGenerator.writeEndArray();
+            jsonGenerator.writeEndObject();
+        });
+    }
+
+    @Override
+    public void startLDevice(String ldInst, String ldName) {
+        write(() -> {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeStringField("ldInst", ldInst);
+            jsonGenerator.writeStringField("ldName", ldName);
+            jsonGenerator.writeArrayFieldStart("lNodes");
+        });
+    }
+
+    @Override
+    public void endLDevice() {
+        write(() -> {
+            jsonGenerator.writeEndArray();
+            jsonGenerator.writeEndObject();
+        });
+    }
+
+    @Override
+    public void startLNode(String lnClass, String lnInst, String prefix, String lnType) {
+        write(() -> {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeStringField("nodeClass", lnClass);
+            jsonGenerator.writeStringField("inst", lnInst);
+            jsonGenerator.writeStringField("prefix", prefix);
+            jsonGenerator.writeStringField("nodeType", lnType);
+        });
+        openRecordArray = null;
+    }
+
+    @Override
+    public void endLNode() {
+        write(() -> {
+            closeRecordArray();
+            jsonGenerator.writeEndObject();
+        });
+    }
+
+    @Override
+    public void extRef(ExtRefInfo extRefInfo) {
+        writeRecord("extRefs", extRefInfo);
+    }
+
+    @Override
+    public void dataSet(DataSetInfo dataSetInfo) {
+        writeRecord("datSets", dataSetInfo);
+    }
+
+    @Override
+    public void dataAttributeRef(DataAttributeRef dataAttributeRef) {
+        writeRecord("dataAttributeRefs", dataAttributeRef);
+    }
+
+    private void writeRecord(String arrayName, Object value) {
+        write(() -> {
+            if (!Objects.equals(openRecordArray, arrayName)) {
+                closeRecordArray();
+                jsonGenerator.writeArrayFieldStart(arrayName);
+                openRecordArray = arrayName;
+            }
+            jsonGenerator.writeObject(value);
+        });
+    }
+
+    private void closeRecordArray() throws IOException {
+        if (openRecordArray != null) {
+            jsonGenerator.writeEndArray();
+            openRecordArray = null;
+        }
+    }
+
+    private static void write(JsonWriting jsonWriting) {
+        try {
+            jsonWriting.write();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonWriting {
+        void write() throws IOException;
+    }
+}
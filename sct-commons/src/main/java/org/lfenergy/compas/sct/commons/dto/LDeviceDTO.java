@@ -6,10 +6,8 @@ package org.lfenergy.compas.sct.commons.dto;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.lfenergy.compas.sct.commons.scl.ied.LDeviceAdapter;
 import org.lfenergy.compas.sct.commons.scl.ied.LNAdapter;
-import org.lfenergy.compas.sct.commons.util.Utils;
 
 import java.util.HashSet;
 import java.util.List;
@@ -30,7 +28,6 @@ import java.util.stream.Collectors;
  *
  * @see org.lfenergy.compas.scl2007b4.model.TIED
  */
-@Slf4j
 @Getter
 @NoArgsConstructor
 public class LDeviceDTO {
@@ -56,7 +53,6 @@ public class LDeviceDTO {
      * @return LDevice DTO object
      */
     public static LDeviceDTO from(LDeviceAdapter lDeviceAdapter, LogicalNodeOptions options) {
-        log.info(Utils.entering());
         LDeviceDTO lDeviceDTO = new LDeviceDTO();
         if(lDeviceAdapter != null) {
             lDeviceDTO.ldInst = lDeviceAdapter.getInst();
@@ -67,7 +63,6 @@ public class LDeviceDTO {
                     .map(lnAdapter -> LNodeDTO.from(lnAdapter, options))
                     .collect(Collectors.toSet());
         }
-        log.info(Utils.leaving());
         return lDeviceDTO;
     }
 
@@ -6,20 +6,13 @@ package org.lfenergy.compas.sct.commons.dto;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.lfenergy.compas.scl2007b4.model.TAnyLN;
-import org.lfenergy.compas.scl2007b4.model.TExtRef;
-import org.lfenergy.compas.sct.commons.scl.dtt.DataTypeTemplateAdapter;
-import org.lfenergy.compas.sct.commons.scl.dtt.LNodeTypeAdapter;
 import org.lfenergy.compas.sct.commons.scl.ied.AbstractLNAdapter;
-import org.lfenergy.compas.sct.commons.scl.ied.LDeviceAdapter;
 import org.lfenergy.compas.sct.commons.scl.ied.LNAdapter;
-import org.lfenergy.compas.sct.commons.util.Utils;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * A representation of the model object <em><b>LNode</b></em>.
@@ -42,7 +35,6 @@ import java.util.stream.Collectors;
  * @see org.lfenergy.compas.scl2007b4.model.TLNode
  */
 
-@Slf4j
 @Getter
 @NoArgsConstructor
 public class LNodeDTO {
@@ -79,64 +71,33 @@ public class LNodeDTO {
      * @param <T> LNode type (LLN0 or other LN's)
      */
     public static <T extends TAnyLN> LNodeDTO from(AbstractLNAdapter<T> nodeAdapter, LogicalNodeOptions options) {
-        log.info(Utils.entering());
         LNodeDTO lNodeDTO = new LNodeDTO();
         if(nodeAdapter == null) return lNodeDTO;
 
-        lNodeDTO.nodeType = nodeAdapter.getLnType();
-        lNodeDTO.nodeClass = nodeAdapter.getLNClass();
-        if(!nodeAdapter.getPrefix().isBlank()){
-            lNodeDTO.prefix = nodeAdapter.getPrefix();
-        }
-        lNodeDTO.inst = nodeAdapter.getLNInst();
-        if(options == null) {
-            log.info(Utils.leaving());
-            return lNodeDTO;
-        }
-
-        if(options.isWithExtRef()) {
-            List<TExtRef> extRefList =  nodeAdapter.getExtRefs(null);
-            LDeviceAdapter lDeviceAdapter = nodeAdapter.getParentAdapter();
-            String holderIedName = lDeviceAdapter.getParentAdapter().getName();
-            String holderLDInst = lDeviceAdapter.getInst();
-            lNodeDTO.extRefs.addAll(
-                    extRefList.stream()
-                            .map(tExtRef ->
-                                ExtRefInfo.from(tExtRef,holderIedName,holderLDInst,lNodeDTO.nodeClass,
-                                        lNodeDTO.inst,lNodeDTO.prefix
-                                ))
-                            .collect(Collectors.toList())
-            );
-        }
-
-        if(options.isWithDatSet()) {
-            lNodeDTO.datSets = DataSetInfo.getDataSets(nodeAdapter);
-        }
-
-        if(options.isWithDataAttributeRef()) {
-            DataTypeTemplateAdapter dttAdapter = nodeAdapter.getDataTypeTemplateAdapter();
-            LNodeTypeAdapter lNodeTypeAdapter = dttAdapter.getLNodeTypeAdapterById(nodeAdapter.getLnType())
-                    .orElseThrow(
-                            () -> new IllegalArgumentException(
-                                    String.format(
-                                            "Corrupted SCD file: reference to unknown lnType(%s)",
-                                            nodeAdapter.getLnType()
-                                    )
-                            )
-                    );
-            DataAttributeRef filter = DataAttributeRef.builder()
-                .lnInst(nodeAdapter.getLNInst())
-                .lnClass(nodeAdapter.getLNClass())
-                .prefix(nodeAdapter.getPrefix())
-                .lnType(nodeAdapter.getLnType()).build();
-            List<DataAttributeRef> dataAttributeRefList = lNodeTypeAdapter.getDataAttributeRefs(filter);
-            lNodeDTO.addAllDataAttributeRef(dataAttributeRefList);
-        }
-
-        if(options.isWithCB()) {
-            //TODO
-        }
-        log.info(Utils.leaving());
+        IedProjection.project(nodeAdapter, options, new IedProjectionConsumer() {
+            @Override
+            public void startLNode(String lnClass, String lnInst, String prefix, String lnType) {
+                lNodeDTO.nodeClass = lnClass;
+                lNodeDTO.inst = lnInst;
+                lNodeDTO.prefix = prefix;
+                lNodeDTO.nodeType = lnType;
+            }
+
+            @Override
+            public void extRef(ExtRefInfo extRefInfo) {
+                lNodeDTO.addExtRefInfo(extRefInfo);
+            }
+
+            @Override
+            public void dataSet(DataSetInfo dataSetInfo) {
+                lNodeDTO.addDataSet(dataSetInfo);
+            }
+
+            @Override
+            public void dataAttributeRef(DataAttributeRef dataAttributeRef) {
+                lNodeDTO.addDataAttributeRef(dataAttributeRef);
+            }
+        });
         return lNodeDTO;
     }
 
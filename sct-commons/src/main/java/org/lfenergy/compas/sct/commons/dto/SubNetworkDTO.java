@@ -153,10 +153,11 @@ public class SubNetworkDTO {
      */
     public static Set<SubNetworkDTO> createDefaultSubnetwork(String iedName, CommunicationAdapter comAdapter, Map<Pair<String, String>, List<String>> comMap){
         Set<SubNetworkDTO> subNetworkDTOS = new HashSet<>();
+        Set<String> stdConnectedApNames = getStdConnectedApNames(comAdapter);
         comMap.forEach((subnetworkNameType, apNames) -> {
             SubNetworkDTO subNetworkDTO = new SubNetworkDTO(subnetworkNameType.getLeft(), subnetworkNameType.getRight());
             apNames.forEach(s -> {
-                if(getStdConnectedApNames(comAdapter).contains(s)){
+                if(stdConnectedApNames.contains(s)){
                     ConnectedApDTO connectedApDTO = new ConnectedApDTO(iedName, s);
                     subNetworkDTO.addConnectedAP(connectedApDTO);}
             });
@@ -170,10 +171,10 @@ public class SubNetworkDTO {
      * @param comAdapter Communication node object value
      * @return
      */
-    private static List<String> getStdConnectedApNames(CommunicationAdapter comAdapter){
+    private static Set<String> getStdConnectedApNames(CommunicationAdapter comAdapter){
         return comAdapter.getSubNetworkAdapters().stream()
                 .map(SubNetworkAdapter::getConnectedAPAdapters)
                 .flatMap(connectedAPAdapters -> connectedAPAdapters.stream().map(ConnectedAPAdapter::getApName))
-                .collect(Collectors.toList());
+                .collect(Collectors.toSet());
     }
 }
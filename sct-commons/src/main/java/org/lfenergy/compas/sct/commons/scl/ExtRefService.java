@@ -7,6 +7,9 @@ package org.lfenergy.compas.sct.commons.scl;
 import org.apache.commons.lang3.StringUtils;
 import org.lfenergy.compas.sct.commons.dto.*;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.com.NetworkAddressAllocator;
+import org.lfenergy.compas.sct.commons.scl.com.NetworkAddressAllocator.AllocationOrError;
+import org.lfenergy.compas.sct.commons.scl.com.NetworkAddressAllocator.NetworkAddress;
 import org.lfenergy.compas.sct.commons.scl.ied.*;
 import org.lfenergy.compas.sct.commons.util.ControlBlockEnum;
 import org.lfenergy.compas.sct.commons.util.ILDEPFSettings;
@@ -44,7 +47,16 @@ public final class ExtRefService {
      * @return list of encountered errors
      */
     public static SclReport updateAllExtRefIedNames(SCL scd) {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        return updateAllExtRefIedNames(new SclRootAdapter(scd));
+    }
+
+    /**
+     * Updates iedName attribute of all ExtRefs in the Scd.
+     *
+     * @param sclRootAdapter adapter of the SCD
+     * @return list of encountered errors
+     */
+    public static SclReport updateAllExtRefIedNames(SclRootAdapter sclRootAdapter) {
         List<SclReportItem> iedErrors = validateIed(sclRootAdapter);
         if (!iedErrors.isEmpty()) {
             return new SclReport(sclRootAdapter, iedErrors);
@@ -118,7 +130,16 @@ public final class ExtRefService {
      * @return a report with all errors encountered
      */
     public static SclReport createDataSetAndControlBlocks(SCL scd) {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        return createDataSetAndControlBlocks(new SclRootAdapter(scd));
+    }
+
+    /**
+     * Create All DataSet and ControlBlock in the SCL based on the ExtRef
+     *
+     * @param sclRootAdapter adapter of the input SCD. It could be modified by adding new DataSet and ControlBlocks
+     * @return a report with all errors encountered
+     */
+    public static SclReport createDataSetAndControlBlocks(SclRootAdapter sclRootAdapter) {
         Stream<LDeviceAdapter> lDeviceAdapters = sclRootAdapter.streamIEDAdapters().flatMap(IEDAdapter::streamLDeviceAdapters);
         return createDataSetAndControlBlocks(sclRootAdapter, lDeviceAdapters);
     }
@@ -131,10 +152,19 @@ public final class ExtRefService {
      * @return a report with all the errors encountered
      */
     public static SclReport createDataSetAndControlBlocks(SCL scd, String targetIedName) {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        return createDataSetAndControlBlocks(new SclRootAdapter(scd), targetIedName);
+    }
+
+    /**
+     * Create All DataSet and ControlBlock for the ExtRef in given IED
+     *
+     * @param sclRootAdapter adapter of the input SCD. The object will be modified with the new DataSet and ControlBlocks
+     * @param targetIedName  the name of the IED where the ExtRef are
+     * @return a report with all the errors encountered
+     */
+    public static SclReport createDataSetAndControlBlocks(SclRootAdapter sclRootAdapter, String targetIedName) {
         IEDAdapter iedAdapter = sclRootAdapter.getIEDAdapterByName(targetIedName);
         return createDataSetAndControlBlocks(sclRootAdapter, iedAdapter.streamLDeviceAdapters());
-
     }
 
     /**
@@ -168,6 +198,8 @@ public final class ExtRefService {
      * Create (or update if already existing) these elements
      * - the Communication/SubNetwork/ConnectedAP/GSE element, for the GSEControl blocks
      * - the Communication/SubNetwork/ConnectedAP/SMV element, for the SampledValueControl blocks
+     * APPID and MAC-Address already present in the Communication section are never given to another ControlBlock,
+     * and a ControlBlock which is already configured keeps its APPID and MAC-Address.
      *
      * @param scd                         input SCD object. The object will be modified with the new DataGSESet and SMV elements
      * @param controlBlockNetworkSettings a method tha gives the network configuration information for a given ControlBlock
@@ -178,33 +210,46 @@ public final class ExtRefService {
      * @see ControlBlockNetworkSettings
      * @see ControlBlockNetworkSettings.RangesPerCbType
      * @see ControlBlockNetworkSettings.NetworkRanges
+     * @see NetworkAddressAllocator
      */
     public static SclReport configureNetworkForAllControlBlocks(SCL scd, ControlBlockNetworkSettings controlBlockNetworkSettings,
                                                                 RangesPerCbType rangesPerCbType) {
+        return configureNetworkForAllControlBlocks(new SclRootAdapter(scd), controlBlockNetworkSettings, rangesPerCbType);
+    }
+
+    /**
+     * Configure the network for all the ControlBlocks.
+     *
+     * @param sclRootAdapter              adapter of the input SCD. The object will be modified with the new GSE and SMV elements
+     * @param controlBlockNetworkSettings a method tha gives the network configuration information for a given ControlBlock
+     * @param rangesPerCbType             provide NetworkRanges for GSEControl and SampledValueControl
+     * @return a report with all the errors encountered
+     * @see #configureNetworkForAllControlBlocks(SCL, ControlBlockNetworkSettings, RangesPerCbType)
+     */
+    public static SclReport configureNetworkForAllControlBlocks(SclRootAdapter sclRootAdapter, ControlBlockNetworkSettings controlBlockNetworkSettings,
+                                                                RangesPerCbType rangesPerCbType) {
         List<SclReportItem> sclReportItems = new ArrayList<>();
-        sclReportItems.addAll(configureNetworkForControlBlocks(scd, controlBlockNetworkSettings, rangesPerCbType.gse(), ControlBlockEnum.GSE));
-        sclReportItems.addAll(configureNetworkForControlBlocks(scd, controlBlockNetworkSettings, rangesPerCbType.sampledValue(), ControlBlockEnum.SAMPLED_VALUE));
-        return new SclReport(new SclRootAdapter(scd), sclReportItems);
+        sclReportItems.addAll(configureNetworkForControlBlocks(sclRootAdapter, controlBlockNetworkSettings, rangesPerCbType.gse(), ControlBlockEnum.GSE));
+        sclReportItems.addAll(configureNetworkForControlBlocks(sclRootAdapter, controlBlockNetworkSettings, rangesPerCbType.sampledValue(), ControlBlockEnum.SAMPLED_VALUE));
+        return new SclReport(sclRootAdapter, sclReportItems);
     }
 
-    private static List<SclReportItem> configureNetworkForControlBlocks(SCL scd, ControlBlockNetworkSettings controlBlockNetworkSettings,
+    private static List<SclReportItem> configureNetworkForControlBlocks(SclRootAdapter sclRootAdapter, ControlBlockNetworkSettings controlBlockNetworkSettings,
                                                                         NetworkRanges networkRanges, ControlBlockEnum controlBlockEnum) {
-        PrimitiveIterator.OfLong appIdIterator = Utils.sequence(networkRanges.appIdStart(), networkRanges.appIdEnd());
-        Iterator<String> macAddressIterator = Utils.macAddressSequence(networkRanges.macAddressStart(), networkRanges.macAddressEnd());
+        NetworkAddressAllocator networkAddressAllocator = new NetworkAddressAllocator(sclRootAdapter.getCurrentElem(), controlBlockEnum, networkRanges);
 
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
         return sclRootAdapter.streamIEDAdapters()
                 .flatMap(iedAdapter ->
                         iedAdapter.streamLDeviceAdapters()
                                 .filter(LDeviceAdapter::hasLN0)
                                 .map(LDeviceAdapter::getLN0Adapter)
                                 .flatMap(ln0Adapter -> ln0Adapter.streamControlBlocks(controlBlockEnum))
-                                .map(controlBlockAdapter -> configureControlBlockNetwork(controlBlockNetworkSettings, appIdIterator, macAddressIterator, controlBlockAdapter)))
+                                .map(controlBlockAdapter -> configureControlBlockNetwork(controlBlockNetworkSettings, networkAddressAllocator, controlBlockAdapter)))
                 .flatMap(Optional::stream)
                 .toList();
     }
 
-    private static Optional<SclReportItem> configureControlBlockNetwork(ControlBlockNetworkSettings controlBlockNetworkSettings, PrimitiveIterator.OfLong appIdIterator, Iterator<String> macAddressIterator, ControlBlockAdapter controlBlockAdapter) {
+    private static Optional<SclReportItem> configureControlBlockNetwork(ControlBlockNetworkSettings controlBlockNetworkSettings, NetworkAddressAllocator networkAddressAllocator, ControlBlockAdapter controlBlockAdapter) {
         SettingsOrError settingsOrError = controlBlockNetworkSettings.getNetworkSettings(controlBlockAdapter);
         if (settingsOrError.errorMessage() != null) {
             return Optional.of(controlBlockAdapter.buildFatalReportItem(
@@ -219,17 +264,19 @@ public final class ExtRefService {
             return Optional.of(controlBlockAdapter.buildFatalReportItem(
                     "Cannot configure network for this ControlBlock because no Vlan Id was provided in the settings"));
         }
-        if (!appIdIterator.hasNext()) {
+        AllocationOrError allocationOrError = networkAddressAllocator.allocate(controlBlockAdapter.getParentIedAdapter().getName(),
+                controlBlockAdapter.getParentLDeviceAdapter().getInst(), controlBlockAdapter.getName());
+        if (allocationOrError.errorMessage() != null) {
             return Optional.of(controlBlockAdapter.buildFatalReportItem(
-                    "Cannot configure network for this ControlBlock because range of appId is exhausted"));
+                    "Cannot configure network for this ControlBlock because " + allocationOrError.errorMessage()));
         }
-        if (!macAddressIterator.hasNext()) {
-            return Optional.of(controlBlockAdapter.buildFatalReportItem(
-                    "Cannot configure network for this ControlBlock because range of MAC Address is exhausted"));
+        NetworkAddress networkAddress = allocationOrError.networkAddress();
+        Optional<SclReportItem> sclReportItem = controlBlockAdapter.configureNetwork(networkAddress.appId(), networkAddress.macAddressText(), settings.vlanId(),
+                settings.vlanPriority(), settings.minTime(), settings.maxTime());
+        if (sclReportItem.isPresent()) {
+            networkAddressAllocator.release(networkAddress);
         }
-
-        return controlBlockAdapter.configureNetwork(appIdIterator.nextLong(), macAddressIterator.next(), settings.vlanId(), settings.vlanPriority(),
-                settings.minTime(), settings.maxTime());
+        return sclReportItem;
     }
 
 
@@ -255,7 +302,16 @@ public final class ExtRefService {
      * @return a report contains errors
      */
     public static SclReport manageBindingForLDEPF(SCL scd, ILDEPFSettings settings) {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        return manageBindingForLDEPF(new SclRootAdapter(scd), settings);
+    }
+
+    /**
+     * ExtRef Binding For LDevice (inst=LDEPF) that matching LDEPF configuration
+     * @param sclRootAdapter adapter of the SCL
+     * @param settings ILDEPFSettings
+     * @return a report contains errors
+     */
+    public static SclReport manageBindingForLDEPF(SclRootAdapter sclRootAdapter, ILDEPFSettings settings) {
         List<SclReportItem> sclReportItems = new ArrayList<>();
         sclRootAdapter.streamIEDAdapters()
                 .filter(iedAdapter -> !iedAdapter.getName().equals(IED_TEST_NAME))
@@ -267,7 +323,7 @@ public final class ExtRefService {
                                         .ifPresent(lDPFSettingMatchingExtRef -> {
                                             List<TIED> iedSources = settings.getIedSources(sclRootAdapter, extRefBayRef.compasBay(), lDPFSettingMatchingExtRef);
                                             if (iedSources.size() == 1) {
-                                                updateLDEPFExtRefBinding(extRefBayRef.extRef(), iedSources.get(0), lDPFSettingMatchingExtRef);
+                                                updateLDEPFExtRefBinding(lDeviceAdapter, extRefBayRef.extRef(), iedSources.get(0), lDPFSettingMatchingExtRef);
                                                 sclReportItems.addAll(updateLDEPFDos(lDeviceAdapter, extRefBayRef.extRef(), lDPFSettingMatchingExtRef));
                                             } else {
                                                 if (iedSources.size() > 1) {
@@ -283,7 +339,9 @@ public final class ExtRefService {
     }
 
 
-    private static void updateLDEPFExtRefBinding(TExtRef extRef, TIED iedSource, LDEPFSettingData setting) {
+    private static void updateLDEPFExtRefBinding(LDeviceAdapter lDeviceAdapter, TExtRef extRef, TIED iedSource, LDEPFSettingData setting) {
+        // ExtRef is modified directly: its IED must be journaled first
+        lDeviceAdapter.beforeChange();
         extRef.setIedName(iedSource.getName());
         extRef.setLdInst(setting.getLdInst());
         extRef.getLnClass().add(setting.getLnClass());
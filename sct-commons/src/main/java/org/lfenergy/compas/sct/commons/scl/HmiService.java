@@ -22,7 +22,16 @@ public final class HmiService {
      * @param fcdas List of FCDA for which we must create the DataSet and ReportControl Blocks
      */
     public static void createAllHmiReportControlBlocks(SCL scd, List<TFCDA> fcdas) {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        createAllHmiReportControlBlocks(new SclRootAdapter(scd), fcdas);
+    }
+
+    /**
+     * Create the DataSet and ReportControl Blocks for the HMI with the given FCDAs.
+     *
+     * @param sclRootAdapter adapter of the SCD
+     * @param fcdas List of FCDA for which we must create the DataSet and ReportControl Blocks
+     */
+    public static void createAllHmiReportControlBlocks(SclRootAdapter sclRootAdapter, List<TFCDA> fcdas) {
         sclRootAdapter.streamIEDAdapters()
                 .flatMap(IEDAdapter::streamLDeviceAdapters)
                 .forEach(lDeviceAdapter -> lDeviceAdapter.createHmiReportControlBlocks(fcdas));
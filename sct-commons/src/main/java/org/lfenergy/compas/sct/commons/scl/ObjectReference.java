@@ -74,18 +74,30 @@ public class ObjectReference {
         this.reference = this.ldName + "/" + this.lNodeName + "." + this.dataAttributes;
     }
 
+    /**
+     * Splits the reference in LDName, LNName and data attributes, reading it once without regular expression
+     * @throws IllegalArgumentException when the reference is not LDName/LNName.DataName[…]
+     */
     public final void init(){
-        String[] objRefPart = reference.split("/");
-        if(objRefPart.length != 2 || StringUtils.isBlank(objRefPart[0]) || StringUtils.isBlank(objRefPart[1])){
+        // like String#split, trailing "/" are ignored
+        int end = reference.length();
+        while (end > 0 && reference.charAt(end - 1) == '/') {
+            end--;
+        }
+        int slash = reference.indexOf('/');
+        int nextSlash = slash < 0 ? -1 : reference.indexOf('/', slash + 1);
+        int dot = slash < 0 ? -1 : reference.indexOf('.', slash + 1);
+        if(slash < 0 || slash >= end || (nextSlash >= 0 && nextSlash < end) || dot < 0 || dot >= end){
             throw new IllegalArgumentException(String.format(MALFORMED_OBJ_REF, reference));
         }
-        ldName = objRefPart[0];
-        String refCopy = objRefPart[1];
-        objRefPart = refCopy.split("[.]", 2);
-        if(objRefPart.length != 2 || StringUtils.isBlank(objRefPart[0]) || StringUtils.isBlank(objRefPart[1])){
+        String ldNamePart = reference.substring(0, slash);
+        String lNodeNamePart = reference.substring(slash + 1, dot);
+        String dataAttributesPart = reference.substring(dot + 1, end);
+        if(StringUtils.isBlank(ldNamePart) || StringUtils.isBlank(lNodeNamePart) || StringUtils.isBlank(dataAttributesPart)){
             throw new IllegalArgumentException(String.format(MALFORMED_OBJ_REF, reference));
         }
-        lNodeName = objRefPart[0];
-        dataAttributes = objRefPart[1];
+        ldName = ldNamePart;
+        lNodeName = lNodeNamePart;
+        dataAttributes = dataAttributesPart;
     }
 }
@@ -0,0 +1,152 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+import org.lfenergy.compas.scl2007b4.model.*;
+import org.lfenergy.compas.sct.commons.dto.DataAttributeRef;
+import org.lfenergy.compas.sct.commons.scl.dtt.DataTypeTemplateAdapter;
+import org.lfenergy.compas.sct.commons.scl.dtt.LNodeTypeAdapter;
+
+import java.util.*;
+
+/**
+ * Index of the IEDs of an SCL, to resolve {@link ObjectReference} without walking all IEDs, LDevices and LNodeTypes:
+ * <ul>
+ *   <li>LDevice by LDName ("name" attribute of IED + "inst" attribute of LDevice)</li>
+ *   <li>LN by LNName ("prefix" + "lnClass" + "inst"), in a given LDevice</li>
+ *   <li>DataName[.DataName[…]].DataAttributeName of a LNodeType, sorted to find one starting with given data attributes</li>
+ * </ul>
+ * LDevices are indexed when the resolver is created. LNs of a LDevice are indexed on first lookup in this LDevice, and data
+ * attributes of a LNodeType on first lookup with this LNodeType. DataSet and ReportControl names are read from the LN on each
+ * lookup. The resolution gives the same IED as {@link org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter#matches(ObjectReference)}
+ * called on each IED in document order.
+ * <p>
+ * The resolver is dropped by {@link SclRootAdapter#addIED} and {@link SclRootAdapter#removeIED}, and rebuilt when the IED list or
+ * DataTypeTemplates of the SCL have been replaced. LDevices, LNs or LNodeTypes added or removed otherwise are not seen:
+ * call {@link SclRootAdapter#invalidateObjectReferenceResolver()} after such changes.
+ * </p>
+ * @see SclRootAdapter#getObjectReferenceResolver()
+ */
+public final class ObjectReferenceResolver {
+
+    private final SclRootAdapter sclRootAdapter;
+    private final List<TIED> tieds;
+    private final TDataTypeTemplates tDataTypeTemplates;
+    private final Map<String, List<LDeviceEntry>> lDevicesByLdName = new HashMap<>();
+    private final Map<TLDevice, Map<String, List<TLN>>> lnsByLDevice = new IdentityHashMap<>();
+    private final Map<String, NavigableSet<String>> dataAttributesByLnType = new HashMap<>();
+
+    /**
+     * Constructor, indexes LDevices of all IEDs
+     * @param sclRootAdapter SCL which IEDs are indexed
+     */
+    public ObjectReferenceResolver(@NonNull SclRootAdapter sclRootAdapter) {
+        this.sclRootAdapter = sclRootAdapter;
+        this.tieds = sclRootAdapter.getCurrentElem().getIED();
+        this.tDataTypeTemplates = sclRootAdapter.getCurrentElem().getDataTypeTemplates();
+        for (TIED tied : tieds) {
+            if (StringUtils.isBlank(tied.getName()) || !tied.isSetAccessPoint()) {
+                continue;
+            }
+            Set<String> ldInsts = new HashSet<>();
+            tied.getAccessPoint().stream()
+                .filter(tAccessPoint -> tAccessPoint.getServer() != null)
+                .flatMap(tAccessPoint -> tAccessPoint.getServer().getLDevice().stream())
+                // the first LDevice of an IED with a given inst wins, as in IEDAdapter#findLDeviceAdapterByLdInst
+                .filter(tlDevice -> StringUtils.isNotBlank(tlDevice.getInst()) && ldInsts.add(tlDevice.getInst()))
+                .forEach(tlDevice -> lDevicesByLdName.computeIfAbsent(tied.getName() + tlDevice.getInst(), key -> new ArrayList<>(1))
+                    .add(new LDeviceEntry(tied, tlDevice)));
+        }
+    }
+
+    /**
+     * Checks if this resolver was built for the given SCL as it is now
+     * @param scl SCL
+     * @return true if IED list and DataTypeTemplates of the SCL are the indexed instances
+     */
+    public boolean isIndexOf(SCL scl) {
+        return scl.getIED() == tieds && scl.getDataTypeTemplates() == tDataTypeTemplates;
+    }
+
+    /**
+     * Finds the first IED, in document order, containing the element referenced by the given ObjectReference
+     * @param objRef reference to resolve
+     * @return IED containing the referenced LN and DataSet, ReportControl or data attribute, or empty Optional when no IED matches
+     * @throws AssertionError when a LN with a matching LNName references an unknown LNodeType
+     */
+    public Optional<TIED> findIed(@NonNull ObjectReference objRef) {
+        List<LDeviceEntry> lDeviceEntries = lDevicesByLdName.get(objRef.getLdName());
+        if (lDeviceEntries == null) {
+            return Optional.empty();
+        }
+        boolean isLN0 = TLLN0Enum.LLN_0.value().equals(objRef.getLNodeName());
+        for (LDeviceEntry lDeviceEntry : lDeviceEntries) {
+            List<? extends TAnyLN> tAnyLNs = isLN0 ? ln0Of(lDeviceEntry.tlDevice()) : findLNs(lDeviceEntry.tlDevice(), objRef.getLNodeName());
+            for (TAnyLN tAnyLN : tAnyLNs) {
+                if (matches(tAnyLN, objRef.getDataAttributes())) {
+                    return Optional.of(lDeviceEntry.tied());
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<TLN0> ln0Of(TLDevice tlDevice) {
+        return tlDevice.getLN0() == null ? List.of() : List.of(tlDevice.getLN0());
+    }
+
+    private List<TLN> findLNs(TLDevice tlDevice, String lNodeName) {
+        return lnsByLDevice.computeIfAbsent(tlDevice, key -> {
+            Map<String, List<TLN>> lnsByName = new HashMap<>();
+            tlDevice.getLN().forEach(tln -> lnsByName.computeIfAbsent(lNodeNameOf(tln), name -> new ArrayList<>(1)).add(tln));
+            return lnsByName;
+        }).getOrDefault(lNodeName, List.of());
+    }
+
+    /**
+     * Same name as {@link org.lfenergy.compas.sct.commons.scl.ied.AbstractLNAdapter#getLNodeName()}
+     */
+    private static String lNodeNameOf(TLN tln) {
+        String lnClass = tln.isSetLnClass() ? tln.getLnClass().get(0) : null;
+        if (TLLN0Enum.LLN_0.value().equals(lnClass)) {
+            return TLLN0Enum.LLN_0.value();
+        }
+        return new StringBuilder().append(tln.getPrefix()).append(lnClass).append(tln.getInst()).toString();
+    }
+
+    /**
+     * Same check as {@link org.lfenergy.compas.sct.commons.scl.ied.AbstractLNAdapter#matches(ObjectReference)}
+     */
+    private boolean matches(TAnyLN tAnyLN, String dataAttributes) {
+        NavigableSet<String> lnTypeDataAttributes = getDataAttributes(tAnyLN.getLnType());
+        if (tAnyLN.getDataSet().stream().anyMatch(tDataSet -> tDataSet.getName().equals(dataAttributes))
+            || tAnyLN.getReportControl().stream().anyMatch(tReportControl -> tReportControl.getName().equals(dataAttributes))) {
+            return true;
+        }
+        // the smallest element not lower than dataAttributes starts with it, if any element does
+        String ceiling = lnTypeDataAttributes.ceiling(dataAttributes);
+        return ceiling != null && ceiling.startsWith(dataAttributes);
+    }
+
+    private NavigableSet<String> getDataAttributes(String lnType) {
+        NavigableSet<String> dataAttributes = dataAttributesByLnType.get(lnType);
+        if (dataAttributes == null) {
+            LNodeTypeAdapter lNodeTypeAdapter = Optional.ofNullable(tDataTypeTemplates)
+                .flatMap(dtt -> new DataTypeTemplateAdapter(sclRootAdapter, dtt).getLNodeTypeAdapterById(lnType))
+                .orElseThrow(() -> new AssertionError(String.format("Corrupted  SCD file: Reference to unknown LNodeType(%s)", lnType)));
+            NavigableSet<String> lnTypeDataAttributes = new TreeSet<>();
+            lNodeTypeAdapter.forEachDataAttributeRef(DataAttributeRef.builder().lnType(lnType).build(),
+                dataAttributeRef -> lnTypeDataAttributes.add(dataAttributeRef.getDataAttributes()));
+            dataAttributes = lnTypeDataAttributes;
+            dataAttributesByLnType.put(lnType, dataAttributes);
+        }
+        return dataAttributes;
+    }
+
+    private record LDeviceEntry(TIED tied, TLDevice tlDevice) {
+    }
+}
@@ -0,0 +1,179 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.lfenergy.compas.scl2007b4.model.*;
+import org.lfenergy.compas.sct.commons.dto.SclReportItem;
+import org.lfenergy.compas.sct.commons.scl.ied.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Position of a {@link SclWalker} walk in the SCD, given to each {@link SclRule} callback.
+ * <p>
+ * A single cursor is moved over all the elements of the walk. It gives access to the JAXB elements enclosing the visited
+ * element and creates their adapters on demand only: an adapter is created at most once per element, and shared by all the rules
+ * visiting this element. Elements deeper than the visited element are null.
+ * </p>
+ */
+@Getter
+public final class SclCursor {
+
+    private final SclRootAdapter sclRootAdapter;
+    private final List<SclReportItem> sclReportItems = new ArrayList<>();
+
+    private TIED ied;
+    private TAccessPoint accessPoint;
+    private TLDevice lDevice;
+    private TAnyLN ln;
+    private TDOI doi;
+    private TExtRef extRef;
+
+    @Getter(AccessLevel.NONE)
+    private IEDAdapter iedAdapter;
+    @Getter(AccessLevel.NONE)
+    private LDeviceAdapter lDeviceAdapter;
+    @Getter(AccessLevel.NONE)
+    private LN0Adapter ln0Adapter;
+    @Getter(AccessLevel.NONE)
+    private LNAdapter lnAdapter;
+    @Getter(AccessLevel.NONE)
+    private DOIAdapter doiAdapter;
+
+    SclCursor(SclRootAdapter sclRootAdapter) {
+        this.sclRootAdapter = sclRootAdapter;
+    }
+
+    /**
+     * @return adapter of the visited IED, or of the IED enclosing the visited element
+     * @throws IllegalStateException when the cursor is not in an IED
+     */
+    public IEDAdapter getIedAdapter() {
+        if (iedAdapter == null) {
+            iedAdapter = new IEDAdapter(sclRootAdapter, requireVisited(ied, "IED"));
+        }
+        return iedAdapter;
+    }
+
+    /**
+     * @return adapter of the visited LDevice, or of the LDevice enclosing the visited element
+     * @throws IllegalStateException when the cursor is not in an LDevice
+     */
+    public LDeviceAdapter getLDeviceAdapter() {
+        if (lDeviceAdapter == null) {
+            lDeviceAdapter = new LDeviceAdapter(getIedAdapter(), requireVisited(lDevice, "LDevice"));
+        }
+        return lDeviceAdapter;
+    }
+
+    /**
+     * @return adapter of the LN0 of the visited LDevice, or of the LDevice enclosing the visited element
+     * @throws IllegalStateException when the cursor is not in an LDevice
+     * @throws IllegalArgumentException when the LDevice has no LN0
+     */
+    public LN0Adapter getLN0Adapter() {
+        if (ln0Adapter == null) {
+            ln0Adapter = new LN0Adapter(getLDeviceAdapter(), requireVisited(lDevice, "LDevice").getLN0());
+        }
+        return ln0Adapter;
+    }
+
+    /**
+     * @return adapter of the visited LN, or of the LN enclosing the visited element: a {@link LN0Adapter} for the LN0,
+     * a {@link LNAdapter} otherwise
+     * @throws IllegalStateException when the cursor is not in an LN
+     */
+    public AbstractLNAdapter<? extends TAnyLN> getLnAdapter() {
+        if (requireVisited(ln, "LN") instanceof LN0) {
+            return getLN0Adapter();
+        }
+        if (lnAdapter == null) {
+            lnAdapter = new LNAdapter(getLDeviceAdapter(), (TLN) ln);
+        }
+        return lnAdapter;
+    }
+
+    /**
+     * @return adapter of the visited DOI
+     * @throws IllegalStateException when the cursor is not on a DOI
+     */
+    public DOIAdapter getDoiAdapter() {
+        if (doiAdapter == null) {
+            doiAdapter = getLnAdapter().toAdapter(requireVisited(doi, "DOI"));
+        }
+        return doiAdapter;
+    }
+
+    /**
+     * @return true when the visited LN, or the LN enclosing the visited element, is the LN0 of its LDevice
+     */
+    public boolean isLn0() {
+        return ln instanceof LN0;
+    }
+
+    /**
+     * Adds an item to the report of the walk
+     *
+     * @param sclReportItem item to add
+     */
+    public void addSclReportItem(SclReportItem sclReportItem) {
+        sclReportItems.add(sclReportItem);
+    }
+
+    /**
+     * Adds items to the report of the walk
+     *
+     * @param items items to add
+     */
+    public void addSclReportItems(Collection<SclReportItem> items) {
+        sclReportItems.addAll(items);
+    }
+
+    void enterIed(TIED tied) {
+        ied = tied;
+        iedAdapter = null;
+        enterAccessPoint(null);
+    }
+
+    void enterAccessPoint(TAccessPoint tAccessPoint) {
+        accessPoint = tAccessPoint;
+        enterLDevice(null);
+    }
+
+    void enterLDevice(TLDevice tlDevice) {
+        lDevice = tlDevice;
+        lDeviceAdapter = null;
+        ln0Adapter = null;
+        enterLn(null);
+    }
+
+    void enterLn(TAnyLN tAnyLN) {
+        ln = tAnyLN;
+        lnAdapter = null;
+        enterDoi(null);
+    }
+
+    void enterDoi(TDOI tdoi) {
+        doi = tdoi;
+        doiAdapter = null;
+        extRef = null;
+    }
+
+    void enterExtRef(TExtRef tExtRef) {
+        enterDoi(null);
+        extRef = tExtRef;
+    }
+
+    private static <T> T requireVisited(T element, String elementName) {
+        if (element == null) {
+            throw new IllegalStateException("The cursor is not in a " + elementName);
+        }
+        return element;
+    }
+}
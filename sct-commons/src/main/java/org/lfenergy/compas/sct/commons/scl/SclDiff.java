@@ -0,0 +1,333 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.*;
+
+import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Structural comparison of two SCL.
+ * <p>
+ * Each element of both SCL is hashed with its whole subtree (see {@link SclSubtreeHasher}). Elements are matched by their
+ * identifying attributes, and the comparison only descends into matched elements whose hashes differ: identical IEDs, LDevices,
+ * LNs, DOIs or types are skipped after a single hash comparison, confirmed by a comparison of both subtrees.
+ * </p>
+ * Elements are matched as follows:
+ * <ul>
+ *   <li>Substation by name</li>
+ *   <li>SubNetwork by name, ConnectedAP by iedName and apName, GSE and SMV by ldInst and cbName</li>
+ *   <li>IED by name, LDevice by inst, LN by prefix, lnClass and inst</li>
+ *   <li>DOI, SDI and DAI by name, DataSet and control blocks by name</li>
+ *   <li>ExtRef by desc (or intAddr when it has no desc). When an ExtRef of an LN has neither, or when two ExtRefs of an LN have
+ *   the same key, all ExtRefs of this LN are matched by position instead, and their key is their position, for example
+ *   <em>ExtRef[#1]</em></li>
+ *   <li>LNodeType, DOType, DAType and EnumType by id</li>
+ * </ul>
+ * <p>
+ * A modified element is reported before the changes of its children, so a change of a DAI is reported as a modification of its IED,
+ * LDevice, LN and DOI followed by the modification of the DAI itself. An added or removed element is reported alone, without its
+ * children. When several siblings have the same key, an occurrence number is appended to the key of the following ones.
+ * Neither SCL is modified by the comparison.
+ * </p>
+ */
+public final class SclDiff {
+
+    private final SclSubtreeHasher beforeHasher = new SclSubtreeHasher();
+    private final SclSubtreeHasher afterHasher = new SclSubtreeHasher();
+    private final List<SclChange> changes = new ArrayList<>();
+
+    private SclDiff() {
+    }
+
+    /**
+     * Kind of change
+     */
+    public enum ChangeType {
+        ADDED, REMOVED, MODIFIED
+    }
+
+    /**
+     * Kind of changed element
+     */
+    public enum ElementType {
+        HEADER, SUBSTATION, SUB_NETWORK, CONNECTED_AP, GSE, SMV, IED, LDEVICE, LN, DOI, SDI, DAI, DATA_SET, CONTROL_BLOCK, EXT_REF,
+        LNODE_TYPE, DO_TYPE, DA_TYPE, ENUM_TYPE
+    }
+
+    /**
+     * Change of an element between two SCL
+     * @param changeType kind of change
+     * @param elementType kind of changed element
+     * @param path path of the element, made of the keys of its ancestors, for example <em>IED[IED1]/LDevice[LD1]/LN[LLN0]</em>
+     */
+    public record SclChange(ChangeType changeType, ElementType elementType, String path) {
+    }
+
+    /**
+     * Compares two SCL
+     * @param before SCL before changes
+     * @param after SCL after changes
+     * @return changes, in document order. Empty when both SCL are identical.
+     */
+    public static List<SclChange> compare(@NonNull SclRootAdapter before, @NonNull SclRootAdapter after) {
+        SclDiff sclDiff = new SclDiff();
+        sclDiff.compareScl(before.getCurrentElem(), after.getCurrentElem());
+        return Collections.unmodifiableList(sclDiff.changes);
+    }
+
+    private void compareScl(SCL before, SCL after) {
+        if (!hasChanged(before, after)) {
+            return;
+        }
+        if (hasChanged(before.getHeader(), after.getHeader())) {
+            changes.add(new SclChange(ChangeType.MODIFIED, ElementType.HEADER, "Header"));
+        }
+        compareChildren("", "Substation", ElementType.SUBSTATION,
+            list(before::isSetSubstation, before::getSubstation), list(after::isSetSubstation, after::getSubstation),
+            TSubstation::getName, null);
+        compareChildren("", "SubNetwork", ElementType.SUB_NETWORK, subNetworks(before), subNetworks(after),
+            TSubNetwork::getName, this::compareSubNetworks);
+        compareChildren("", "IED", ElementType.IED,
+            list(before::isSetIED, before::getIED), list(after::isSetIED, after::getIED),
+            TIED::getName, this::compareIEDs);
+        compareDataTypeTemplates(before.getDataTypeTemplates(), after.getDataTypeTemplates());
+    }
+
+    private void compareSubNetworks(String path, TSubNetwork before, TSubNetwork after) {
+        compareChildren(path, "ConnectedAP", ElementType.CONNECTED_AP,
+            list(before::isSetConnectedAP, before::getConnectedAP), list(after::isSetConnectedAP, after::getConnectedAP),
+            tConnectedAP -> tConnectedAP.getIedName() + "/" + tConnectedAP.getApName(), this::compareConnectedAPs);
+    }
+
+    private void compareConnectedAPs(String path, TConnectedAP before, TConnectedAP after) {
+        compareChildren(path, "GSE", ElementType.GSE,
+            list(before::isSetGSE, before::getGSE), list(after::isSetGSE, after::getGSE),
+            tgse -> tgse.getLdInst() + "/" + tgse.getCbName(), null);
+        compareChildren(path, "SMV", ElementType.SMV,
+            list(before::isSetSMV, before::getSMV), list(after::isSetSMV, after::getSMV),
+            tsmv -> tsmv.getLdInst() + "/" + tsmv.getCbName(), null);
+    }
+
+    private void compareIEDs(String path, TIED before, TIED after) {
+        compareChildren(path, "LDevice", ElementType.LDEVICE, lDevices(before), lDevices(after),
+            TLDevice::getInst, this::compareLDevices);
+    }
+
+    private void compareLDevices(String path, TLDevice before, TLDevice after) {
+        compareChildren(path, "LN", ElementType.LN, lns(before), lns(after), SclDiff::lnName, this::compareLNs);
+    }
+
+    private void compareLNs(String path, TAnyLN before, TAnyLN after) {
+        compareChildren(path, "DOI", ElementType.DOI,
+            list(before::isSetDOI, before::getDOI), list(after::isSetDOI, after::getDOI),
+            TDOI::getName, (doiPath, beforeDoi, afterDoi) -> compareDataInstances(doiPath,
+                list(beforeDoi::isSetSDIOrDAI, beforeDoi::getSDIOrDAI), list(afterDoi::isSetSDIOrDAI, afterDoi::getSDIOrDAI)));
+        compareChildren(path, "DataSet", ElementType.DATA_SET,
+            list(before::isSetDataSet, before::getDataSet), list(after::isSetDataSet, after::getDataSet),
+            TDataSet::getName, null);
+        compareChildren(path, "", ElementType.CONTROL_BLOCK, controlBlocks(before), controlBlocks(after),
+            SclDiff::controlBlockKey, null);
+        List<TExtRef> beforeExtRefs = extRefs(before);
+        List<TExtRef> afterExtRefs = extRefs(after);
+        compareChildren(path, "ExtRef", ElementType.EXT_REF, beforeExtRefs, afterExtRefs,
+            extRefKeyMapper(beforeExtRefs, afterExtRefs), null);
+    }
+
+    private void compareDataInstances(String path, List<TUnNaming> before, List<TUnNaming> after) {
+        compareChildren(path, "", null, before, after, SclDiff::dataInstanceKey, (childPath, beforeChild, afterChild) -> {
+            if (beforeChild instanceof TSDI beforeSdi && afterChild instanceof TSDI afterSdi) {
+                compareDataInstances(childPath,
+                    list(beforeSdi::isSetSDIOrDAI, beforeSdi::getSDIOrDAI), list(afterSdi::isSetSDIOrDAI, afterSdi::getSDIOrDAI));
+            }
+        });
+    }
+
+    private void compareDataTypeTemplates(TDataTypeTemplates before, TDataTypeTemplates after) {
+        if (!hasChanged(before, after)) {
+            return;
+        }
+        compareChildren("", "LNodeType", ElementType.LNODE_TYPE,
+            dttList(before, TDataTypeTemplates::isSetLNodeType, TDataTypeTemplates::getLNodeType),
+            dttList(after, TDataTypeTemplates::isSetLNodeType, TDataTypeTemplates::getLNodeType),
+            TLNodeType::getId, null);
+        compareChildren("", "DOType", ElementType.DO_TYPE,
+            dttList(before, TDataTypeTemplates::isSetDOType, TDataTypeTemplates::getDOType),
+            dttList(after, TDataTypeTemplates::isSetDOType, TDataTypeTemplates::getDOType),
+            TDOType::getId, null);
+        compareChildren("", "DAType", ElementType.DA_TYPE,
+            dttList(before, TDataTypeTemplates::isSetDAType, TDataTypeTemplates::getDAType),
+            dttList(after, TDataTypeTemplates::isSetDAType, TDataTypeTemplates::getDAType),
+            TDAType::getId, null);
+        compareChildren("", "EnumType", ElementType.ENUM_TYPE,
+            dttList(before, TDataTypeTemplates::isSetEnumType, TDataTypeTemplates::getEnumType),
+            dttList(after, TDataTypeTemplates::isSetEnumType, TDataTypeTemplates::getEnumType),
+            TEnumType::getId, null);
+    }
+
+    /**
+     * Matches children by key, reports added, removed and modified children, and descends into modified children
+     * @param parentPath path of the parent, empty for children of the SCL
+     * @param elementName name of the children in the path, or empty when the key already contains it
+     * @param elementType type of the children, or null when the key already contains it
+     * @param before children before changes
+     * @param after children after changes
+     * @param keyMapper identifying key of a child
+     * @param descent comparison of modified children, or null to stop at this level
+     */
+    private <T> void compareChildren(String parentPath, String elementName, ElementType elementType, List<T> before, List<T> after,
+                                     Function<T, String> keyMapper, Descent<T> descent) {
+        if (before.isEmpty() && after.isEmpty()) {
+            return;
+        }
+        Map<String, T> beforeByKey = indexByKey(before, keyMapper);
+        Map<String, T> afterByKey = indexByKey(after, keyMapper);
+        beforeByKey.forEach((key, beforeChild) -> {
+            if (!afterByKey.containsKey(key)) {
+                changes.add(new SclChange(ChangeType.REMOVED, typeOf(elementType, beforeChild), path(parentPath, elementName, key)));
+            }
+        });
+        afterByKey.forEach((key, afterChild) -> {
+            String path = path(parentPath, elementName, key);
+            T beforeChild = beforeByKey.get(key);
+            if (beforeChild == null) {
+                changes.add(new SclChange(ChangeType.ADDED, typeOf(elementType, afterChild), path));
+            } else if (hasChanged(beforeChild, afterChild)) {
+                changes.add(new SclChange(ChangeType.MODIFIED, typeOf(elementType, afterChild), path));
+                if (descent != null) {
+                    descent.compare(path, beforeChild, afterChild);
+                }
+            }
+        });
+    }
+
+    private boolean hasChanged(Object before, Object after) {
+        return beforeHasher.hash(before) != afterHasher.hash(after) || !SclSubtreeHasher.isSameSubtree(before, after);
+    }
+
+    private static <T> Map<String, T> indexByKey(List<T> elements, Function<T, String> keyMapper) {
+        Map<String, T> elementsByKey = new LinkedHashMap<>();
+        Map<String, Integer> occurrencesByKey = new HashMap<>();
+        for (T element : elements) {
+            String key = keyMapper.apply(element);
+            int occurrence = occurrencesByKey.merge(key, 1, Integer::sum);
+            elementsByKey.put(occurrence == 1 ? key : key + "#" + occurrence, element);
+        }
+        return elementsByKey;
+    }
+
+    private static String path(String parentPath, String elementName, String key) {
+        String element = elementName.isEmpty() ? key : elementName + "[" + key + "]";
+        return parentPath.isEmpty() ? element : parentPath + "/" + element;
+    }
+
+    private static ElementType typeOf(ElementType elementType, Object element) {
+        if (elementType != null) {
+            return elementType;
+        }
+        return element instanceof TSDI ? ElementType.SDI : ElementType.DAI;
+    }
+
+    private static <T> List<T> list(BooleanSupplier isSet, Supplier<List<T>> getter) {
+        // avoids creating lazy JAXB lists, to keep both SCL untouched
+        return isSet.getAsBoolean() ? getter.get() : List.of();
+    }
+
+    private static <T> List<T> dttList(TDataTypeTemplates dtt, Predicate<TDataTypeTemplates> isSet,
+                                       Function<TDataTypeTemplates, List<T>> getter) {
+        return dtt != null && isSet.test(dtt) ? getter.apply(dtt) : List.of();
+    }
+
+    private static List<TSubNetwork> subNetworks(SCL scl) {
+        TCommunication tCommunication = scl.getCommunication();
+        return tCommunication == null ? List.of() : list(tCommunication::isSetSubNetwork, tCommunication::getSubNetwork);
+    }
+
+    private static List<TLDevice> lDevices(TIED tied) {
+        return list(tied::isSetAccessPoint, tied::getAccessPoint).stream()
+            .filter(TAccessPoint::isSetServer)
+            .flatMap(tAccessPoint -> list(tAccessPoint.getServer()::isSetLDevice, tAccessPoint.getServer()::getLDevice).stream())
+            .toList();
+    }
+
+    private static List<TAnyLN> lns(TLDevice tlDevice) {
+        return Stream.concat(Stream.ofNullable(tlDevice.getLN0()), list(tlDevice::isSetLN, tlDevice::getLN).stream())
+            .map(TAnyLN.class::cast)
+            .toList();
+    }
+
+    private static String lnName(TAnyLN tAnyLN) {
+        if (!(tAnyLN instanceof TLN tln)) {
+            return TLLN0Enum.LLN_0.value();
+        }
+        return Objects.toString(tln.getPrefix(), "")
+            + (tln.isSetLnClass() ? tln.getLnClass().get(0) : "")
+            + Objects.toString(tln.getInst(), "");
+    }
+
+    private static List<TControl> controlBlocks(TAnyLN tAnyLN) {
+        List<TControl> controlBlocks = new ArrayList<>(list(tAnyLN::isSetReportControl, tAnyLN::getReportControl));
+        controlBlocks.addAll(list(tAnyLN::isSetLogControl, tAnyLN::getLogControl));
+        if (tAnyLN instanceof TLN0 tln0) {
+            controlBlocks.addAll(list(tln0::isSetGSEControl, tln0::getGSEControl));
+            controlBlocks.addAll(list(tln0::isSetSampledValueControl, tln0::getSampledValueControl));
+        }
+        return controlBlocks;
+    }
+
+    private static String controlBlockKey(TControl tControl) {
+        String elementName = tControl.getClass().getSimpleName().substring(1);
+        return elementName + "[" + tControl.getName() + "]";
+    }
+
+    private static List<TExtRef> extRefs(TAnyLN tAnyLN) {
+        TInputs tInputs = tAnyLN.isSetInputs() ? tAnyLN.getInputs() : null;
+        return tInputs == null ? List.of() : list(tInputs::isSetExtRef, tInputs::getExtRef);
+    }
+
+    private static Function<TExtRef, String> extRefKeyMapper(List<TExtRef> before, List<TExtRef> after) {
+        if (hasUniqueExtRefKeys(before) && hasUniqueExtRefKeys(after)) {
+            return SclDiff::extRefKey;
+        }
+        Map<TExtRef, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < before.size(); i++) {
+            positions.put(before.get(i), i + 1);
+        }
+        for (int i = 0; i < after.size(); i++) {
+            positions.put(after.get(i), i + 1);
+        }
+        return tExtRef -> "#" + positions.get(tExtRef);
+    }
+
+    private static boolean hasUniqueExtRefKeys(List<TExtRef> tExtRefs) {
+        Set<String> keys = new HashSet<>();
+        return tExtRefs.stream().map(SclDiff::extRefKey).allMatch(key -> key != null && keys.add(key));
+    }
+
+    private static String extRefKey(TExtRef tExtRef) {
+        return tExtRef.isSetDesc() ? tExtRef.getDesc() : tExtRef.getIntAddr();
+    }
+
+    private static String dataInstanceKey(TUnNaming tUnNaming) {
+        if (tUnNaming instanceof TSDI tsdi) {
+            return "SDI[" + tsdi.getName() + "]";
+        }
+        if (tUnNaming instanceof TDAI tdai) {
+            return "DAI[" + tdai.getName() + "]";
+        }
+        return tUnNaming.getClass().getSimpleName();
+    }
+
+    @FunctionalInterface
+    private interface Descent<T> {
+        void compare(String path, T before, T after);
+    }
+}
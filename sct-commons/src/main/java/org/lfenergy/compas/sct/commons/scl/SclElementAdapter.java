@@ -79,6 +79,15 @@ public abstract class SclElementAdapter<P extends SclElementAdapter, T> {
         // do nothing
     }
 
+    /**
+     * Records the enclosing IED, Communication, DataTypeTemplates, Substation or Header in the journal active on this thread, if any,
+     * before its first change. Must be called by adapter methods before they modify the SCL.
+     * @see SclJournal
+     */
+    protected void beforeChange() {
+        SclJournal.beforeChange(this);
+    }
+
     /**
      * Sets current element
      * @param currentElem new value of current element
@@ -102,6 +111,7 @@ public abstract class SclElementAdapter<P extends SclElementAdapter, T> {
      */
     public void addPrivate(TPrivate tPrivate){
         if (currentElem instanceof TBaseElement){
+            beforeChange();
             ((TBaseElement) currentElem).getPrivate().add(tPrivate);
         } else {
             throw new UnsupportedOperationException("Not implemented for class " + this.getClass().getName());
@@ -0,0 +1,179 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.*;
+import org.lfenergy.compas.sct.commons.dto.SclReport;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.util.Utils;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Undo journal of an SCL, to roll back speculative changes without deep copying the whole SCL beforehand.
+ * <p>
+ * Starting a journal only keeps references to the IEDs and Substations of the SCL and to its Header, Communication and
+ * DataTypeTemplates. Changes are then run with {@link #record}: before an adapter modifies one of these sections for the first
+ * time, the section is copied (see {@link SclElementAdapter#beforeChange()}). {@link #rollback()} puts the copies and the
+ * initial references back. Memory and time spent are proportional to the number and size of changed sections, not to the size of
+ * the SCL: a step changing two IEDs of an SCD only copies these two IEDs.
+ * </p>
+ * <p>
+ * Only changes made through adapters while {@link #record} runs are journaled, on the calling thread. Adding or removing IEDs
+ * and Substations, and replacing the Header, Communication or DataTypeTemplates, are always undone, whichever way they are done.
+ * Adapters obtained before a rollback must not be used afterwards, as restored sections are copies.
+ * </p>
+ */
+public final class SclJournal {
+
+    private static final ThreadLocal<SclJournal> ACTIVE_JOURNAL = new ThreadLocal<>();
+
+    private final SCL scl;
+    private final THeader tHeader;
+    private final List<TSubstation> tSubstations;
+    private final TCommunication tCommunication;
+    private final List<TIED> tieds;
+    private final TDataTypeTemplates tDataTypeTemplates;
+    private final Set<Object> journaledSections = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<Object, Object> copiesBySection = new IdentityHashMap<>();
+    private boolean rolledBack;
+
+    private SclJournal(SCL scl) {
+        this.scl = scl;
+        this.tHeader = scl.getHeader();
+        this.tSubstations = scl.isSetSubstation() ? new ArrayList<>(scl.getSubstation()) : List.of();
+        this.tCommunication = scl.getCommunication();
+        this.tieds = scl.isSetIED() ? new ArrayList<>(scl.getIED()) : List.of();
+        this.tDataTypeTemplates = scl.getDataTypeTemplates();
+        journaledSections.addAll(tSubstations);
+        journaledSections.addAll(tieds);
+        Stream.of(tHeader, tCommunication, tDataTypeTemplates).filter(Objects::nonNull).forEach(journaledSections::add);
+    }
+
+    /**
+     * Starts a journal on the given SCL
+     * @param scl SCL which changes should be journaled
+     * @return new journal
+     */
+    public static SclJournal start(@NonNull SCL scl) {
+        return new SclJournal(scl);
+    }
+
+    /**
+     * Runs a step on the SCL and rolls it back when it fails
+     * @param scl SCL to modify
+     * @param step step to run, returning a report
+     * @return report of the step. When the report is not successful, the SCL has been rolled back.
+     * @throws RuntimeException thrown by the step, after the SCL has been rolled back
+     */
+    public static SclReport runOrRollback(@NonNull SCL scl, Supplier<SclReport> step) {
+        SclJournal sclJournal = start(scl);
+        SclReport sclReport;
+        try {
+            sclReport = sclJournal.record(step);
+        } catch (RuntimeException e) {
+            sclJournal.rollback();
+            throw e;
+        }
+        if (!sclReport.isSuccess()) {
+            sclJournal.rollback();
+        }
+        return sclReport;
+    }
+
+    /**
+     * Runs changes on the SCL, recording sections before their first change
+     * @param changes changes to run
+     * @return result of the changes
+     * @param <R> type of the result
+     * @throws ScdException when the journal has already been rolled back
+     */
+    public <R> R record(Supplier<R> changes) {
+        if (rolledBack) {
+            throw new ScdException("SCL journal has already been rolled back");
+        }
+        SclJournal previousJournal = ACTIVE_JOURNAL.get();
+        ACTIVE_JOURNAL.set(this);
+        try {
+            return changes.get();
+        } finally {
+            if (previousJournal == null) {
+                ACTIVE_JOURNAL.remove();
+            } else {
+                ACTIVE_JOURNAL.set(previousJournal);
+            }
+        }
+    }
+
+    /**
+     * Restores the SCL as it was when the journal was started. The journal cannot be used afterwards.
+     * @throws ScdException when the journal has already been rolled back
+     */
+    public void rollback() {
+        if (rolledBack) {
+            throw new ScdException("SCL journal has already been rolled back");
+        }
+        rolledBack = true;
+        scl.setHeader(restored(tHeader));
+        scl.unsetSubstation();
+        tSubstations.forEach(tSubstation -> scl.getSubstation().add(restored(tSubstation)));
+        scl.setCommunication(restored(tCommunication));
+        scl.unsetIED();
+        tieds.forEach(tied -> scl.getIED().add(restored(tied)));
+        scl.setDataTypeTemplates(restored(tDataTypeTemplates));
+    }
+
+    /**
+     * Gets the number of sections copied since the journal was started
+     * @return number of copied IEDs, Substations, Header, Communication and DataTypeTemplates
+     */
+    public int getCopiedSectionCount() {
+        return copiesBySection.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T restored(T section) {
+        return section == null ? null : (T) copiesBySection.getOrDefault(section, section);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void copyBeforeChange(T section) {
+        if (journaledSections.contains(section) && !copiesBySection.containsKey(section)) {
+            copiesBySection.put(section, Utils.copySclElement(section, (Class<T>) section.getClass()));
+        }
+    }
+
+    /**
+     * Copies the section enclosing the element of the given adapter, when a journal of its SCL is active on this thread
+     * @param sclElementAdapter adapter about to modify its element
+     */
+    static void beforeChange(SclElementAdapter<?, ?> sclElementAdapter) {
+        SclJournal sclJournal = ACTIVE_JOURNAL.get();
+        if (sclJournal == null) {
+            return;
+        }
+        Object section = null;
+        SclElementAdapter<?, ?> adapter = sclElementAdapter;
+        while (adapter.getParentAdapter() != null) {
+            Object element = adapter.getCurrentElem();
+            if (section == null && isSection(element)) {
+                section = element;
+            }
+            adapter = adapter.getParentAdapter();
+        }
+        // ignores adapters of other SCL, such as ICD being imported
+        if (section != null && adapter.getCurrentElem() == sclJournal.scl) {
+            sclJournal.copyBeforeChange(section);
+        }
+    }
+
+    private static boolean isSection(Object element) {
+        return element instanceof TIED || element instanceof TCommunication || element instanceof TDataTypeTemplates
+            || element instanceof TSubstation || element instanceof THeader;
+    }
+}
@@ -5,6 +5,7 @@
 package org.lfenergy.compas.sct.commons.scl;
 
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
@@ -12,12 +13,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.lfenergy.compas.scl2007b4.model.*;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.com.CommunicationAdapter;
+import org.lfenergy.compas.sct.commons.scl.com.CommunicationIndex;
 import org.lfenergy.compas.sct.commons.scl.com.ConnectedAPAdapter;
+import org.lfenergy.compas.sct.commons.scl.com.SubNetworkAdapter;
 import org.lfenergy.compas.sct.commons.scl.dtt.DataTypeTemplateAdapter;
 import org.lfenergy.compas.sct.commons.scl.header.HeaderAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.ControlBlockIndex;
 import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.LDeviceAdapter;
 import org.lfenergy.compas.sct.commons.scl.sstation.SubstationAdapter;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -43,6 +50,7 @@ import java.util.stream.Stream;
  *      <li>{@link SclRootAdapter#addPrivate <em>Add <b>Private </b>under this object</em>}</li>
  *      <li>{@link SclRootAdapter#addHeader(String, String, String) <em>Adds <b>Header </b> describing the children under this object</em>}</li>
  *      <li>{@link SclRootAdapter#addIED(SCL, String) <em>Adds <b>IED </b> describing the children under this object</em>}</li>
+ *      <li>{@link SclRootAdapter#removeIED(String) <em>Removes <b>IED </b> and its <b>ConnectedAP </b> from this object</em>}</li>
  *      <li>{@link SclRootAdapter#addPrivate(TPrivate) <em>Add  given <b>TPrivate </b> describing the children under this object</em>}</li>
  *      <li>{@link SclRootAdapter#getSclRevision() <em>Returns the value of the <b>revision </b> attribute</em>}</li>
  *      <li>{@link SclRootAdapter#getSclRelease() <em>Returns the value of the <b>release </b> attribute</em>}</li>
@@ -64,6 +72,18 @@ public class SclRootAdapter extends SclElementAdapter<SclRootAdapter, SCL> {
     public static final String VERSION = "2007";
     private static final String MESSAGE_IED_NAME_NOT_FOUND = "IED.name '%s' not found in SCD";
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private CommunicationIndex communicationIndex;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ObjectReferenceResolver objectReferenceResolver;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<TLDevice, ControlBlockIndex> controlBlockIndexes = new IdentityHashMap<>();
+
     /**
      * Constructor
      * @param hId SCL Header ID
@@ -206,9 +226,30 @@ public class SclRootAdapter extends SclElementAdapter<SclRootAdapter, SCL> {
         prvIEDAdapter.updateLDeviceNodesType(pairOldNewId);
         //add IED
         currentElem.getIED().add(prvIEDAdapter.currentElem);
+        invalidateObjectReferenceResolver();
         return getIEDAdapterByName(iedName);
     }
 
+    /**
+     * Removes IED from current SCL, with all ConnectedAPs referencing it in Communication.
+     * Subnetworks left without any ConnectedAP are removed too.
+     * DataTypeTemplates are not modified: types used only by the removed IED are kept
+     * (see {@link DataTypeTemplateAdapter#removeUnusedDataTypes()}).
+     * @param iedName name of IED to remove from SCL
+     * @return true if an IED has been removed, false if no IED has this name
+     */
+    public boolean removeIED(String iedName) {
+        boolean removed = currentElem.getIED().removeIf(tied -> Objects.equals(tied.getName(), iedName));
+        if (removed) {
+            invalidateObjectReferenceResolver();
+            invalidateControlBlockIndexes();
+        }
+        if (removed && currentElem.getCommunication() != null) {
+            getCommunicationAdapter(false).removeConnectedAPsOfIed(iedName);
+        }
+        return removed;
+    }
+
     /**
      * Gets Header from current SCL
      * @return <em>HeaderAdapter</em> object as Header of SCL
@@ -283,13 +324,30 @@ public class SclRootAdapter extends SclElementAdapter<SclRootAdapter, SCL> {
      */
     public IEDAdapter checkObjRef(String val) throws ScdException {
         ObjectReference objRef = new ObjectReference(val);
-        for(TIED tied : currentElem.getIED()){
-            IEDAdapter iedAdapter = new IEDAdapter(this,tied);
-            if(iedAdapter.matches(objRef)){
-                return iedAdapter;
-            }
+        return getObjectReferenceResolver().findIed(objRef)
+            .map(tied -> new IEDAdapter(this, tied))
+            .orElseThrow(() -> new ScdException("Invalid ObjRef: " + val));
+    }
+
+    /**
+     * Gets the resolver of ObjectReference, built on first call and kept by this adapter.
+     * The resolver is rebuilt when the IED list or the DataTypeTemplates of the SCL have been replaced.
+     * @return resolver of ObjectReference on IEDs of SCL
+     * @see ObjectReferenceResolver
+     */
+    public ObjectReferenceResolver getObjectReferenceResolver() {
+        if (objectReferenceResolver == null || !objectReferenceResolver.isIndexOf(currentElem)) {
+            objectReferenceResolver = new ObjectReferenceResolver(this);
         }
-        throw new ScdException("Invalid ObjRef: " + val);
+        return objectReferenceResolver;
+    }
+
+    /**
+     * Drops the resolver of ObjectReference. Must be called after LDevice, LN or LNodeType have been added or removed
+     * without using this adapter. The resolver will be rebuilt on next lookup.
+     */
+    public void invalidateObjectReferenceResolver() {
+        objectReferenceResolver = null;
     }
 
     /**
@@ -299,13 +357,61 @@ public class SclRootAdapter extends SclElementAdapter<SclRootAdapter, SCL> {
      * @return the first ConnectedAp which match the given iedName and apName, or empty Optional if none found
      */
     public Optional<ConnectedAPAdapter> findConnectedApAdapter(String iedName, String apName) {
+        return findCommunicationIndex()
+            .flatMap(index -> index.findConnectedAP(iedName, apName))
+            .map(connectedApEntry -> new ConnectedAPAdapter(
+                new SubNetworkAdapter(new CommunicationAdapter(this, currentElem.getCommunication()), connectedApEntry.tSubNetwork()),
+                connectedApEntry.tConnectedAP()));
+    }
+
+    /**
+     * Gets the index of the Communication section, built on first call and kept by this adapter.
+     * The index is rebuilt when the Communication section has been replaced.
+     * @return index of Communication section, or empty Optional when SCL has no Communication
+     * @see CommunicationIndex
+     */
+    public Optional<CommunicationIndex> findCommunicationIndex() {
         if (!currentElem.isSetCommunication()) {
             return Optional.empty();
         }
-        CommunicationAdapter communicationAdapter = new CommunicationAdapter(this, currentElem.getCommunication());
-        return communicationAdapter.getSubNetworkAdapters().stream()
-            .map(subNetworkAdapter -> subNetworkAdapter.findConnectedAPAdapter(iedName, apName))
-            .flatMap(Optional::stream)
-            .findFirst();
+        if (communicationIndex == null || !communicationIndex.isIndexOf(currentElem.getCommunication())) {
+            communicationIndex = new CommunicationIndex(currentElem.getCommunication());
+        }
+        return Optional.of(communicationIndex);
+    }
+
+    /**
+     * Drops the index of the Communication section. Must be called after SubNetwork, ConnectedAP, GSE or SMV have been added or removed
+     * without using the adapters. The index will be rebuilt on next lookup.
+     */
+    public void invalidateCommunicationIndex() {
+        communicationIndex = null;
+    }
+
+    /**
+     * Gets the index of DataSets and ControlBlocks of the given LDevice, built on first call and kept by this adapter
+     * @param lDeviceAdapter LDevice of an IED of this SCL
+     * @return index of DataSets and ControlBlocks of the LDevice
+     * @see ControlBlockIndex
+     */
+    public ControlBlockIndex getControlBlockIndex(@NonNull LDeviceAdapter lDeviceAdapter) {
+        return controlBlockIndexes.computeIfAbsent(lDeviceAdapter.getCurrentElem(), tlDevice -> new ControlBlockIndex(lDeviceAdapter));
+    }
+
+    /**
+     * Finds the index of DataSets and ControlBlocks of the given LDevice, without building it
+     * @param tlDevice LDevice of an IED of this SCL
+     * @return index of DataSets and ControlBlocks of the LDevice, or empty Optional when it has not been built
+     */
+    public Optional<ControlBlockIndex> findControlBlockIndex(TLDevice tlDevice) {
+        return Optional.ofNullable(controlBlockIndexes.get(tlDevice));
+    }
+
+    /**
+     * Drops the indexes of DataSets and ControlBlocks of all LDevices. Must be called after DataSet, FCDA or ControlBlock have been
+     * added or removed without using the adapters. The indexes will be rebuilt on next lookup.
+     */
+    public void invalidateControlBlockIndexes() {
+        controlBlockIndexes.clear();
     }
 }
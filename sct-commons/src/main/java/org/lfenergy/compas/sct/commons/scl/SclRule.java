@@ -0,0 +1,110 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+/**
+ * Check or update of the SCD, run by {@link SclWalker} during a single traversal shared with other rules.
+ * <p>
+ * Each callback receives the cursor of the walk, positioned on the visited element. The cursor is reused for all elements:
+ * rules must read what they need during the callback and not keep the cursor, nor the adapters it returns.
+ * Errors are reported with {@link SclCursor#addSclReportItem}.
+ * </p>
+ * <p>
+ * Callbacks of the different rules are interleaved element by element, so rules sharing a walk must be independent: a rule must
+ * not rely on changes made by another rule elsewhere in the SCD. A rule may update the visited element and its children,
+ * but must not add or remove IED, AccessPoint, LDevice, LN, DOI or ExtRef elements.
+ * </p>
+ * <p>
+ * The walk does not go deeper than the deepest {@link #depth()} of its rules: a rule only handling IEDs or LDevices declares it,
+ * so that LNs, DOIs and ExtRefs are not visited for it.
+ * </p>
+ */
+public interface SclRule {
+
+    /**
+     * Deepest elements a rule may handle, in walk order
+     */
+    enum Depth {
+        /**
+         * {@link #onStart} and {@link #onIed} only
+         */
+        IED,
+        /**
+         * Callbacks down to {@link #onLDevice}
+         */
+        LDEVICE,
+        /**
+         * Callbacks down to {@link #onLn}
+         */
+        LN,
+        /**
+         * All callbacks, including {@link #onDoi} and {@link #onExtRef}
+         */
+        LN_CONTENT
+    }
+
+    /**
+     * Gets the deepest elements handled by this rule. Callbacks of deeper elements are not called.
+     *
+     * @return depth of the rule, {@link Depth#LN_CONTENT} by default
+     */
+    default Depth depth() {
+        return Depth.LN_CONTENT;
+    }
+
+    /**
+     * Called once, before visiting any IED
+     *
+     * @param cursor cursor positioned on the SCL root
+     */
+    default void onStart(SclCursor cursor) {
+        // do nothing
+    }
+
+    /**
+     * Called for each IED
+     *
+     * @param cursor cursor positioned on the IED
+     */
+    default void onIed(SclCursor cursor) {
+        // do nothing
+    }
+
+    /**
+     * Called for each LDevice of the Server of each AccessPoint of the IED
+     *
+     * @param cursor cursor positioned on the LDevice
+     */
+    default void onLDevice(SclCursor cursor) {
+        // do nothing
+    }
+
+    /**
+     * Called for the LN0 and then for each LN of the LDevice
+     *
+     * @param cursor cursor positioned on the LN
+     */
+    default void onLn(SclCursor cursor) {
+        // do nothing
+    }
+
+    /**
+     * Called for each DOI of the LN
+     *
+     * @param cursor cursor positioned on the DOI
+     */
+    default void onDoi(SclCursor cursor) {
+        // do nothing
+    }
+
+    /**
+     * Called for each ExtRef of the Inputs of the LN, after its DOIs
+     *
+     * @param cursor cursor positioned on the ExtRef
+     */
+    default void onExtRef(SclCursor cursor) {
+        // do nothing
+    }
+}
@@ -0,0 +1,90 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
+
+import java.util.List;
+
+/**
+ * Checks and updates of {@link SclService}, as {@link SclRule} which can share a single {@link SclWalker} walk.
+ * Each method returns a new rule, to be used for one walk only.
+ */
+public final class SclRules {
+
+    private SclRules() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Activate used LDevice and Deactivate unused LDevice, on LDevice events
+     *
+     * @return new rule
+     * @see SclService#updateLDeviceStatus
+     */
+    public static SclRule updateLDeviceStatus() {
+        return new SclRule() {
+            private List<Pair<String, String>> iedNameLdInstList;
+
+            @Override
+            public Depth depth() {
+                return Depth.LDEVICE;
+            }
+
+            @Override
+            public void onStart(SclCursor cursor) {
+                iedNameLdInstList = cursor.getSclRootAdapter().getSubstationAdapter().getIedAndLDeviceNamesForLN0FromLNode();
+            }
+
+            @Override
+            public void onLDevice(SclCursor cursor) {
+                cursor.getLN0Adapter().updateLDeviceStatus(iedNameLdInstList).ifPresent(cursor::addSclReportItem);
+            }
+        };
+    }
+
+    /**
+     * Update DAIs of DO InRef in all LN0 using matching ExtRef information, on LDevice events
+     *
+     * @return new rule
+     * @see SclService#updateDoInRef
+     */
+    public static SclRule updateDoInRef() {
+        return new SclRule() {
+            @Override
+            public Depth depth() {
+                return Depth.LDEVICE;
+            }
+
+            @Override
+            public void onLDevice(SclCursor cursor) {
+                cursor.addSclReportItems(cursor.getLN0Adapter().updateDoInRef());
+            }
+        };
+    }
+
+    /**
+     * Checks Control Blocks, DataSets and FCDA number limitation into Access Points, on IED events
+     *
+     * @return new rule
+     * @see SclService#analyzeDataGroups
+     */
+    public static SclRule analyzeDataGroups() {
+        return new SclRule() {
+            @Override
+            public Depth depth() {
+                return Depth.IED;
+            }
+
+            @Override
+            public void onIed(SclCursor cursor) {
+                IEDAdapter iedAdapter = cursor.getIedAdapter();
+                cursor.addSclReportItems(iedAdapter.checkDataGroupCoherence());
+                cursor.addSclReportItems(iedAdapter.checkBindingDataGroupCoherence());
+            }
+        };
+    }
+}
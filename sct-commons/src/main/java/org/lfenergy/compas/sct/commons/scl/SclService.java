@@ -18,7 +18,6 @@ import org.lfenergy.compas.sct.commons.scl.dtt.EnumTypeAdapter;
 import org.lfenergy.compas.sct.commons.scl.dtt.LNodeTypeAdapter;
 import org.lfenergy.compas.sct.commons.scl.header.HeaderAdapter;
 import org.lfenergy.compas.sct.commons.scl.ied.*;
-import org.lfenergy.compas.sct.commons.scl.sstation.SubstationAdapter;
 import org.lfenergy.compas.sct.commons.util.Utils;
 
 import java.util.*;
@@ -67,6 +66,16 @@ import static org.lfenergy.compas.sct.commons.util.PrivateEnum.COMPAS_ICDHEADER;
  *   <ol>
  *      <li>{@link SclService#getEnumTypeElements(SCL, String) <em>Returns Map <b>(ord, enumVal) </b> of <b>TEnumType </b> reference object</em>}</li>
  *   </ol>
+ *   <li>Concurrent queries</li>
+ *   <ol>
+ *      <li>{@link SclSnapshot#of(SCL) <em>Freeze a copy of the <b>SCL </b></em>}, then query it with getSubnetwork, getExtRefInfo, getExtRefBinders,
+ *      getDAI and getEnumTypeElements methods taking a <b>SclSnapshot </b></li>
+ *   </ol>
+ *   <li>Interactive editing</li>
+ *   <ol>
+ *      <li>{@link SclSession#open(SCL) <em>Open a long-lived <b>SclSession </b> on the <b>SCL </b></em>}, keeping its indexes between
+ *      commands</li>
+ *   </ol>
  *
  * </ul>
  *
@@ -212,7 +221,21 @@ public class SclService {
      * @throws ScdException throws when no Communication in SCL and <em>createIfNotExists == false</em>
      */
     public static List<SubNetworkDTO> getSubnetwork(SCL scd) throws ScdException {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        return getSubnetwork(new SclRootAdapter(scd));
+    }
+
+    /**
+     * Gets list of SubNetworks of a frozen SCL. Can be called concurrently on the same snapshot.
+     *
+     * @param sclSnapshot frozen SCL in which SubNetworks should be found
+     * @return List of <em>SubNetworkDTO</em> from SCL
+     * @throws ScdException throws when no Communication in SCL
+     */
+    public static List<SubNetworkDTO> getSubnetwork(@NonNull SclSnapshot sclSnapshot) throws ScdException {
+        return getSubnetwork(sclSnapshot.getSclRootAdapter());
+    }
+
+    private static List<SubNetworkDTO> getSubnetwork(SclRootAdapter sclRootAdapter) throws ScdException {
         CommunicationAdapter communicationAdapter = sclRootAdapter.getCommunicationAdapter(false);
         return communicationAdapter.getSubNetworkAdapters().stream()
                 .map(SubNetworkDTO::from)
@@ -233,6 +256,19 @@ public class SclService {
         return lDeviceAdapter.getExtRefInfo();
     }
 
+    /**
+     * Gets all ExtRef from specific IED/LDevice of a frozen SCL. Can be called concurrently on the same snapshot.
+     *
+     * @param sclSnapshot frozen SCL in which ExtRefs should be found
+     * @param iedName     name of IED in which LDevice is localized
+     * @param ldInst      LdInst of LDevice in which all ExtRefs should be found
+     * @return list of <em>ExtRefInfo</em> from specified parameter SCL/IED/LDevice
+     * @throws ScdException throws when unknown specified IED or LDevice
+     */
+    public static List<ExtRefInfo> getExtRefInfo(@NonNull SclSnapshot sclSnapshot, String iedName, String ldInst) throws ScdException {
+        return findLDeviceAdapter(sclSnapshot, iedName, ldInst).getExtRefInfo();
+    }
+
     /**
      * Create LDevice
      *
@@ -242,12 +278,28 @@ public class SclService {
      * @return created LDevice adapter
      */
     private static LDeviceAdapter createLDeviceAdapter(SCL scd, String iedName, String ldInst) {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        return createLDeviceAdapter(new SclRootAdapter(scd), iedName, ldInst);
+    }
+
+    private static LDeviceAdapter createLDeviceAdapter(SclRootAdapter sclRootAdapter, String iedName, String ldInst) {
         IEDAdapter iedAdapter = sclRootAdapter.getIEDAdapterByName(iedName);
         return iedAdapter.findLDeviceAdapterByLdInst(ldInst)
                 .orElseThrow(() -> new ScdException(String.format(UNKNOWN_LDEVICE_S_IN_IED_S, ldInst, iedName)));
     }
 
+    /**
+     * Find LDevice in precomputed index of a frozen SCL
+     *
+     * @param sclSnapshot frozen SCL in which LDevice should be found
+     * @param iedName     name of IED in which LDevice is localized
+     * @param ldInst      LdInst of LDevice to find
+     * @return LDevice adapter
+     */
+    private static LDeviceAdapter findLDeviceAdapter(SclSnapshot sclSnapshot, String iedName, String ldInst) {
+        return sclSnapshot.findLDeviceAdapter(iedName, ldInst)
+                .orElseThrow(() -> new ScdException(String.format(UNKNOWN_LDEVICE_S_IN_IED_S, ldInst, iedName)));
+    }
+
     /**
      * Gets all possible ExtRefs to bind in SCL file with given ExtRef (<em>signalInfo</em>) in SCL file
      *
@@ -262,7 +314,31 @@ public class SclService {
      * @throws ScdException throws when ExtRef contains inconsistency data
      */
     public static List<ExtRefBindingInfo> getExtRefBinders(SCL scd, String iedName, String ldInst, String lnClass, String lnInst, String prefix, ExtRefSignalInfo signalInfo) throws ScdException {
-        LDeviceAdapter lDeviceAdapter = createLDeviceAdapter(scd, iedName, ldInst);
+        return getExtRefBinders(createLDeviceAdapter(scd, iedName, ldInst), lnClass, lnInst, prefix, signalInfo);
+    }
+
+    /**
+     * Gets all possible ExtRefs to bind with given ExtRef (<em>signalInfo</em>) in a frozen SCL. Can be called concurrently on the same snapshot.
+     *
+     * @param sclSnapshot frozen SCL in which ExtRefs should be found
+     * @param iedName     name of IED in which LDevice is localized
+     * @param ldInst      ldInst of LDevice in which LN is localized
+     * @param lnClass     lnClass of LN in which ExtRef signal to find binders is localized
+     * @param lnInst      lnInst of LN in which ExtRef signal to find binders is localized
+     * @param prefix      prefix of LN in which ExtRef signal to find binders is localized
+     * @param signalInfo  ExtRef signal for which we should find possible binders in SCL file binders
+     * @return list of <em>ExtRefBindingInfo</em> object sorted by {@link ExtRefBindingInfo#compareTo(ExtRefBindingInfo) compareTo} method.
+     * @throws ScdException throws when ExtRef contains inconsistency data
+     */
+    public static List<ExtRefBindingInfo> getExtRefBinders(@NonNull SclSnapshot sclSnapshot, String iedName, String ldInst, String lnClass, String lnInst, String prefix, ExtRefSignalInfo signalInfo) throws ScdException {
+        return getExtRefBinders(findLDeviceAdapter(sclSnapshot, iedName, ldInst), lnClass, lnInst, prefix, signalInfo);
+    }
+
+    /**
+     * Gets all possible ExtRefs to bind with given ExtRef, from an already found LDevice
+     * @see #getExtRefBinders(SCL, String, String, String, String, String, ExtRefSignalInfo)
+     */
+    static List<ExtRefBindingInfo> getExtRefBinders(LDeviceAdapter lDeviceAdapter, String lnClass, String lnInst, String prefix, ExtRefSignalInfo signalInfo) throws ScdException {
         AbstractLNAdapter<?> abstractLNAdapter = AbstractLNAdapter.builder()
                 .withLDeviceAdapter(lDeviceAdapter)
                 .withLnClass(lnClass)
@@ -289,16 +365,27 @@ public class SclService {
      * @throws ScdException throws when mandatory data of ExtRef are missing
      */
     public static void updateExtRefBinders(SCL scd, ExtRefInfo extRefInfo) throws ScdException {
+        checkExtRefBindersInfo(extRefInfo);
+        LDeviceAdapter lDeviceAdapter = createLDeviceAdapter(scd, extRefInfo.getHolderIEDName(), extRefInfo.getHolderLDInst());
+        updateExtRefBinders(lDeviceAdapter, extRefInfo);
+    }
+
+    /**
+     * Checks that ExtRef signal and binding information are given
+     * @param extRefInfo ExtRef to update
+     * @throws ScdException throws when mandatory data of ExtRef are missing
+     */
+    static void checkExtRefBindersInfo(ExtRefInfo extRefInfo) throws ScdException {
         if (extRefInfo.getBindingInfo() == null || extRefInfo.getSignalInfo() == null) {
             throw new ScdException("ExtRef Signal and/or Binding information are missing");
         }
-        String iedName = extRefInfo.getHolderIEDName();
-        String ldInst = extRefInfo.getHolderLDInst();
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
-        IEDAdapter iedAdapter = sclRootAdapter.getIEDAdapterByName(iedName);
-        LDeviceAdapter lDeviceAdapter = iedAdapter.findLDeviceAdapterByLdInst(ldInst)
-                .orElseThrow(() -> new ScdException(String.format(UNKNOWN_LDEVICE_S_IN_IED_S, ldInst, iedName)));
+    }
 
+    /**
+     * Updates ExtRef binding data in an already found LDevice
+     * @see #updateExtRefBinders(SCL, ExtRefInfo)
+     */
+    static void updateExtRefBinders(LDeviceAdapter lDeviceAdapter, ExtRefInfo extRefInfo) throws ScdException {
         AbstractLNAdapter<?> abstractLNAdapter = AbstractLNAdapter.builder()
                 .withLDeviceAdapter(lDeviceAdapter)
                 .withLnClass(extRefInfo.getHolderLnClass())
@@ -318,7 +405,16 @@ public class SclService {
      * @throws ScdException throws when mandatory data of ExtRef are missing
      */
     public static List<ControlBlock> getExtRefSourceInfo(SCL scd, ExtRefInfo extRefInfo) throws ScdException {
+        checkExtRefSourceInfoRequest(extRefInfo);
+        return getExtRefSourceInfo(new SclRootAdapter(scd), extRefInfo);
+    }
 
+    /**
+     * Checks that ExtRef signal and binding information are valid to look for ControlBlocks of an external binding
+     * @param extRefInfo ExtRef signal and binding
+     * @throws ScdException throws when mandatory data of ExtRef are missing
+     */
+    static void checkExtRefSourceInfoRequest(ExtRefInfo extRefInfo) throws ScdException {
         ExtRefSignalInfo signalInfo = extRefInfo.getSignalInfo();
         if (!signalInfo.isValid()) {
             throw new ScdException("Invalid or missing attributes in ExtRef signal info");
@@ -332,21 +428,18 @@ public class SclService {
         if (bindingInfo.getIedName().equals(iedName)) {
             throw new ScdException("Internal binding can't have control block");
         }
+    }
 
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
-
-        // Get CBs
+    /**
+     * Gets Control Blocks related to an already checked <em>extRefInfo</em>, with the ControlBlock index kept by the given adapter
+     * @see #getExtRefSourceInfo(SCL, ExtRefInfo)
+     */
+    static List<ControlBlock> getExtRefSourceInfo(SclRootAdapter sclRootAdapter, ExtRefInfo extRefInfo) throws ScdException {
+        ExtRefBindingInfo bindingInfo = extRefInfo.getBindingInfo();
         IEDAdapter srcIEDAdapter = sclRootAdapter.getIEDAdapterByName(bindingInfo.getIedName());
-        LDeviceAdapter srcLDeviceAdapter = srcIEDAdapter.findLDeviceAdapterByLdInst(extRefInfo.getBindingInfo().getLdInst())
+        LDeviceAdapter srcLDeviceAdapter = srcIEDAdapter.findLDeviceAdapterByLdInst(bindingInfo.getLdInst())
                 .orElseThrow();
-
-        List<AbstractLNAdapter<?>> aLNAdapters = srcLDeviceAdapter.getLNAdaptersIncludingLN0();
-
-        return aLNAdapters.stream()
-                .map(abstractLNAdapter1 -> abstractLNAdapter1.getControlBlocksForMatchingFCDA(extRefInfo))
-                .flatMap(Collection::stream)
-                .toList();
-
+        return srcLDeviceAdapter.getControlBlocksForMatchingFCDA(extRefInfo);
     }
 
     /**
@@ -358,12 +451,18 @@ public class SclService {
      * @throws ScdException throws when mandatory data of ExtRef are missing
      */
     public static TExtRef updateExtRefSource(SCL scd, ExtRefInfo extRefInfo) throws ScdException {
-        String iedName = extRefInfo.getHolderIEDName();
-        String ldInst = extRefInfo.getHolderLDInst();
-        String lnClass = extRefInfo.getHolderLnClass();
-        String lnInst = extRefInfo.getHolderLnInst();
-        String prefix = extRefInfo.getHolderLnPrefix();
+        checkExtRefSourceInfo(extRefInfo);
+        LDeviceAdapter lDeviceAdapter = createLDeviceAdapter(scd, extRefInfo.getHolderIEDName(), extRefInfo.getHolderLDInst());
+        return updateExtRefSource(lDeviceAdapter, extRefInfo);
+    }
 
+    /**
+     * Checks that ExtRef signal, binding and source information are valid for an external binding
+     * @param extRefInfo ExtRef to update
+     * @throws ScdException throws when mandatory data of ExtRef are missing
+     */
+    static void checkExtRefSourceInfo(ExtRefInfo extRefInfo) throws ScdException {
+        String iedName = extRefInfo.getHolderIEDName();
         ExtRefSignalInfo signalInfo = extRefInfo.getSignalInfo();
         if (signalInfo == null || !signalInfo.isValid()) {
             throw new ScdException("Invalid or missing attributes in ExtRef signal info");
@@ -379,13 +478,18 @@ public class SclService {
         if (sourceInfo == null || !sourceInfo.isValid()) {
             throw new ScdException(INVALID_OR_MISSING_ATTRIBUTES_IN_EXT_REF_BINDING_INFO);
         }
+    }
 
-        LDeviceAdapter lDeviceAdapter = createLDeviceAdapter(scd, iedName, ldInst);
+    /**
+     * Updates ExtRef source binding data in an already found LDevice
+     * @see #updateExtRefSource(SCL, ExtRefInfo)
+     */
+    static TExtRef updateExtRefSource(LDeviceAdapter lDeviceAdapter, ExtRefInfo extRefInfo) throws ScdException {
         AbstractLNAdapter<?> anLNAdapter = AbstractLNAdapter.builder()
                 .withLDeviceAdapter(lDeviceAdapter)
-                .withLnClass(lnClass)
-                .withLnInst(lnInst)
-                .withLnPrefix(prefix)
+                .withLnClass(extRefInfo.getHolderLnClass())
+                .withLnInst(extRefInfo.getHolderLnInst())
+                .withLnPrefix(extRefInfo.getHolderLnPrefix())
                 .build();
         return anLNAdapter.updateExtRefSource(extRefInfo);
     }
@@ -407,6 +511,22 @@ public class SclService {
         return lDeviceAdapter.getDAI(dataAttributeRef, updatable);
     }
 
+    /**
+     * Gets a list of summarized DataTypeTemplate for DataAttribute DA (updatable or not) related to the one given
+     * in <em>dataAttributeRef</em>, in a frozen SCL. Can be called concurrently on the same snapshot.
+     *
+     * @param sclSnapshot      frozen SCL in which DataTypeTemplate of DAIs should be found
+     * @param iedName          name of IED in which DAs are localized
+     * @param ldInst           ldInst of LDevice in which DAIs are localized
+     * @param dataAttributeRef reference summarized DataTypeTemplate related to IED DAIs
+     * @param updatable        true to retrieve DataTypeTemplate's related to only updatable DAIs, false to retrieve all
+     * @return Set of Data Attribute Reference for DataAttribute (updatable or not)
+     * @throws ScdException SCD illegal arguments exception, missing mandatory data
+     */
+    public static Set<DataAttributeRef> getDAI(@NonNull SclSnapshot sclSnapshot, String iedName, String ldInst, DataAttributeRef dataAttributeRef, boolean updatable) throws ScdException {
+        return findLDeviceAdapter(sclSnapshot, iedName, ldInst).getDAI(dataAttributeRef, updatable);
+    }
+
     /**
      * Updates DAI based on given data in <em>dataAttributeRef</em>
      *
@@ -424,6 +544,16 @@ public class SclService {
         DataTypeTemplateAdapter dttAdapter = sclRootAdapter.getDataTypeTemplateAdapter();
         LNodeTypeAdapter lNodeTypeAdapter = dttAdapter.getLNodeTypeAdapterById(dataAttributeRef.getLnType())
                 .orElseThrow(() -> new ScdException("Unknown LNodeType : " + dataAttributeRef.getLnType()));
+        checkDAI(sclRootAdapter, lNodeTypeAdapter, dataAttributeRef);
+        updateDAI(createLDeviceAdapter(sclRootAdapter, iedName, ldInst), dataAttributeRef);
+        log.info(Utils.leaving(startTime));
+    }
+
+    /**
+     * Checks DAI to update against its LNodeType, and checks that ObjRef values match an IED of the SCL
+     * @throws ScdException throws when DO/DA are unknown in LNodeType or when ObjRef value is invalid
+     */
+    static void checkDAI(SclRootAdapter sclRootAdapter, LNodeTypeAdapter lNodeTypeAdapter, DataAttributeRef dataAttributeRef) throws ScdException {
         lNodeTypeAdapter.check(dataAttributeRef.getDoName(), dataAttributeRef.getDaName());
 
         if (TPredefinedBasicTypeEnum.OBJ_REF == dataAttributeRef.getBType()) {
@@ -431,11 +561,13 @@ public class SclService {
             String val = sGroup < 0 ? null : dataAttributeRef.getDaName().getDaiValues().get(sGroup);
             sclRootAdapter.checkObjRef(val);
         }
+    }
 
-        IEDAdapter iedAdapter = sclRootAdapter.getIEDAdapterByName(iedName);
-        LDeviceAdapter lDeviceAdapter = iedAdapter.findLDeviceAdapterByLdInst(ldInst)
-                .orElseThrow(() -> new ScdException(String.format(UNKNOWN_LDEVICE_S_IN_IED_S, ldInst, iedName)));
-
+    /**
+     * Updates DAI in an already found and checked LDevice
+     * @see #updateDAI(SCL, String, String, DataAttributeRef)
+     */
+    static void updateDAI(LDeviceAdapter lDeviceAdapter, DataAttributeRef dataAttributeRef) throws ScdException {
         AbstractLNAdapter<?> lnAdapter = AbstractLNAdapter.builder()
                 .withLDeviceAdapter(lDeviceAdapter)
                 .withLnClass(dataAttributeRef.getLnClass())
@@ -448,7 +580,6 @@ public class SclService {
             daiTracker.validateBoundedDAI();
         }
         lnAdapter.updateDAI(dataAttributeRef);
-        log.info(Utils.leaving(startTime));
     }
 
     /**
@@ -469,6 +600,19 @@ public class SclService {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Gets EnumTypes values of ID <em>idEnum</em> from DataTypeTemplate of a frozen SCL. Can be called concurrently on the same snapshot.
+     *
+     * @param sclSnapshot frozen SCL in which EnumType should be found
+     * @param idEnum      ID of EnumType for which values are retrieved
+     * @return unmodifiable set of couple EnumType value and it's order
+     * @throws ScdException throws when unkonown EnumType
+     */
+    public static Set<Pair<Integer, String>> getEnumTypeElements(@NonNull SclSnapshot sclSnapshot, String idEnum) throws ScdException {
+        return sclSnapshot.findEnumTypeElements(idEnum)
+                .orElseThrow(() -> new ScdException("Unknown EnumType Id: " + idEnum));
+    }
+
     /**
      * Imports IEDs, DataTypeTemplates and Communication nodes of STD files into SCL (SCD) file
      * <em><b>STD</b></em> : System Template Definition
@@ -503,40 +647,147 @@ public class SclService {
         PrivateService.checkSTDCorrespondanceWithLNodeCompasICDHeader(mapICDSystemVersionUuidAndSTDFile);
         // List all Private and remove duplicated one with same iedName
         //For each Private.ICDSystemVersionUUID and Private.iedName find STD File
-        PrivateService.streamIcdHeaderPrivatesWithDistinctIEDName(scdRootAdapter).forEach(tPrivate -> {
-            String iedName = PrivateService.extractCompasICDHeader(tPrivate).get().getIEDName();
-            String icdSysVerUuid = PrivateService.extractCompasICDHeader(tPrivate).map(TCompasICDHeader::getICDSystemVersionUUID)
-                    .orElseThrow(() -> new ScdException(ICD_SYSTEM_VERSION_UUID + " is not present in COMPAS-ICDHeader in LNode")
-                    );
-            if (!mapICDSystemVersionUuidAndSTDFile.containsKey(icdSysVerUuid))
-                throw new ScdException("There is no STD file found corresponding to " + PrivateService.stdCheckFormatExceptionMessage(tPrivate));
-            // import /ied /dtt in Scd
-            SCL std = mapICDSystemVersionUuidAndSTDFile.get(icdSysVerUuid).stdList().get(0);
-            SclRootAdapter stdRootAdapter = new SclRootAdapter(std);
-            IEDAdapter stdIedAdapter = new IEDAdapter(stdRootAdapter, std.getIED().get(0));
-            Optional<TPrivate> optionalTPrivate = stdIedAdapter.getPrivateHeader(COMPAS_ICDHEADER.getPrivateType());
-            if (optionalTPrivate.isPresent() && PrivateService.comparePrivateCompasICDHeaders(optionalTPrivate.get(), tPrivate)) {
-                PrivateService.copyCompasICDHeaderFromLNodePrivateIntoSTDPrivate(optionalTPrivate.get(), tPrivate);
-            } else throw new ScdException("COMPAS-ICDHeader is not the same in Substation and in IED");
-            scdRootAdapter.addIED(std, iedName);
-
-            //import connectedAP and rename ConnectedAP/@iedName
-            CommunicationAdapter comAdapter = stdRootAdapter.getCommunicationAdapter(false);
-            Set<SubNetworkDTO> subNetworkDTOSet = SubNetworkDTO.createDefaultSubnetwork(iedName, comAdapter, comMap);
-            addSubnetworks(scdRootAdapter.getCurrentElem(), subNetworkDTOSet, Optional.of(std));
-        });
+        PrivateService.streamIcdHeaderPrivatesWithDistinctIEDName(scdRootAdapter)
+                .forEach(tPrivate -> importSTDElementsForLNodePrivate(scdRootAdapter, tPrivate, mapICDSystemVersionUuidAndSTDFile, comMap));
         return scdRootAdapter;
     }
 
 
+    /**
+     * Updates an SCD built by {@link SclService#importSTDElementsInSCD} after some STD files changed, without rebuilding it from scratch.
+     * Each Private COMPAS-ICDHeader in Substation/../LNode of SCL is compared (see {@link PrivateService#comparePrivateCompasICDHeaders})
+     * with the Private COMPAS-ICDHeader of the IED of the same name in SCL:
+     * <ul>
+     *     <li>when they are equal, the IED is up-to-date and kept as is : no STD file is needed for it</li>
+     *     <li>otherwise (new ICDSystemVersionUUID, new header version...), the IED and its ConnectedAPs are removed, then the IED,
+     *     its DataTypeTemplate and its ConnectedAPs are imported again from the STD file matching the ICDSystemVersionUUID,
+     *     exactly like {@link SclService#importSTDElementsInSCD} does. ControlBlocks, DataSets and ExtRef source bindings
+     *     of the imported IED are removed, like {@link SclService#removeAllControlBlocksAndDatasetsAndExtRefSrcBindings} does
+     *     for a full build</li>
+     *     <li>IED with a Private COMPAS-ICDHeader which is no more referenced in Substation/../LNode of SCL are removed,
+     *     with their ConnectedAPs</li>
+     *     <li>DataTypeTemplates no more used by any IED are removed (see {@link DataTypeTemplateAdapter#removeUnusedDataTypes()})</li>
+     * </ul>
+     * Only STD files of new or changed IEDs need to be given.
+     *
+     * @param scdRootAdapter adapter object related to SCL file to update
+     * @param stds           list of STD files of new or changed IEDs (STD files of up-to-date IEDs are ignored)
+     * @param comMap         couple of Subnetwork name and possible corresponding ConnectAP names
+     * @return names of the IEDs which have been imported again
+     * @throws ScdException throws when inconsistency between Substation of SCL content and given STD files
+     *                      (see {@link SclService#importSTDElementsInSCD}) for a new or changed IED
+     */
+    public static Set<String> updateSTDElementsInSCD(@NonNull SclRootAdapter scdRootAdapter, Set<SCL> stds, Map<Pair<String, String>, List<String>> comMap) throws ScdException {
+        Map<String, PrivateService.PrivateLinkedToSTDs> mapICDSystemVersionUuidAndSTDFile = PrivateService.createMapICDSystemVersionUuidAndSTDFile(stds);
+        PrivateService.checkSTDCorrespondanceWithLNodeCompasICDHeader(mapICDSystemVersionUuidAndSTDFile);
+        List<TPrivate> lNodePrivates = PrivateService.streamIcdHeaderPrivatesWithDistinctIEDName(scdRootAdapter).toList();
+
+        List<TPrivate> changedLNodePrivates = lNodePrivates.stream()
+                .filter(tPrivate -> findUpToDateIedPrivate(scdRootAdapter, tPrivate).isEmpty())
+                .toList();
+        // Check all STD files are given before modifying SCD
+        changedLNodePrivates.stream()
+                .filter(tPrivate -> PrivateService.extractCompasICDHeader(tPrivate).map(TCompasICDHeader::getICDSystemVersionUUID)
+                        .filter(mapICDSystemVersionUuidAndSTDFile::containsKey).isEmpty())
+                .findFirst()
+                .ifPresent(tPrivate -> {
+                    throw new ScdException("There is no STD file found corresponding to " + PrivateService.stdCheckFormatExceptionMessage(tPrivate));
+                });
+
+        // Remove IEDs which are no more referenced in Substation
+        Set<String> referencedIedNames = lNodePrivates.stream()
+                .map(tPrivate -> PrivateService.extractCompasICDHeader(tPrivate).get().getIEDName())
+                .collect(Collectors.toSet());
+        scdRootAdapter.streamIEDAdapters()
+                .filter(iedAdapter -> iedAdapter.getCompasICDHeader().isPresent() && !referencedIedNames.contains(iedAdapter.getName()))
+                .map(IEDAdapter::getName)
+                .toList()
+                .forEach(scdRootAdapter::removeIED);
+
+        // BayLabel and IED instances are not compared: copy them into up-to-date IEDs
+        lNodePrivates.forEach(tPrivate -> findUpToDateIedPrivate(scdRootAdapter, tPrivate)
+                .ifPresent(iedPrivate -> PrivateService.copyCompasICDHeaderFromLNodePrivateIntoSTDPrivate(iedPrivate, tPrivate)));
+
+        // Remove then import again changed IEDs, at their previous position, so that an update gives the same IED order as a full build
+        Map<String, Integer> iedPositions = new HashMap<>();
+        List<TIED> ieds = scdRootAdapter.getCurrentElem().getIED();
+        for (int i = 0; i < ieds.size(); i++) {
+            iedPositions.putIfAbsent(ieds.get(i).getName(), i);
+        }
+        changedLNodePrivates.forEach(tPrivate -> scdRootAdapter.removeIED(PrivateService.extractCompasICDHeader(tPrivate).get().getIEDName()));
+        // Types of removed IEDs are dropped before import, so that imported types do not collide with stale ones
+        if (scdRootAdapter.getCurrentElem().getDataTypeTemplates() != null) {
+            scdRootAdapter.getDataTypeTemplateAdapter().removeUnusedDataTypes();
+        }
+        List<IEDAdapter> importedIedAdapters = changedLNodePrivates.stream()
+                .map(tPrivate -> importSTDElementsForLNodePrivate(scdRootAdapter, tPrivate, mapICDSystemVersionUuidAndSTDFile, comMap))
+                .toList();
+        if (!importedIedAdapters.isEmpty()) {
+            // stable sort: new IEDs stay at the end, in import order
+            ieds.sort(Comparator.comparingInt(tied -> iedPositions.getOrDefault(tied.getName(), Integer.MAX_VALUE)));
+            scdRootAdapter.invalidateObjectReferenceResolver();
+            scdRootAdapter.invalidateControlBlockIndexes();
+        }
+        removeAllControlBlocksAndDatasetsAndExtRefSrcBindings(importedIedAdapters);
+        return importedIedAdapters.stream().map(IEDAdapter::getName).collect(Collectors.toSet());
+    }
+
+    /**
+     * Finds Private COMPAS-ICDHeader of the IED named in Private COMPAS-ICDHeader of LNode, if it is the same COMPAS-ICDHeader
+     */
+    private static Optional<TPrivate> findUpToDateIedPrivate(SclRootAdapter scdRootAdapter, TPrivate lNodePrivate) {
+        String iedName = PrivateService.extractCompasICDHeader(lNodePrivate).get().getIEDName();
+        return scdRootAdapter.findIedAdapterByName(iedName)
+                .flatMap(iedAdapter -> iedAdapter.getPrivateHeader(COMPAS_ICDHEADER.getPrivateType()))
+                .filter(iedPrivate -> PrivateService.comparePrivateCompasICDHeaders(iedPrivate, lNodePrivate));
+    }
+
+    private static IEDAdapter importSTDElementsForLNodePrivate(SclRootAdapter scdRootAdapter, TPrivate tPrivate,
+                                                               Map<String, PrivateService.PrivateLinkedToSTDs> mapICDSystemVersionUuidAndSTDFile,
+                                                               Map<Pair<String, String>, List<String>> comMap) throws ScdException {
+        String iedName = PrivateService.extractCompasICDHeader(tPrivate).get().getIEDName();
+        String icdSysVerUuid = PrivateService.extractCompasICDHeader(tPrivate).map(TCompasICDHeader::getICDSystemVersionUUID)
+                .orElseThrow(() -> new ScdException(ICD_SYSTEM_VERSION_UUID + " is not present in COMPAS-ICDHeader in LNode")
+                );
+        if (!mapICDSystemVersionUuidAndSTDFile.containsKey(icdSysVerUuid))
+            throw new ScdException("There is no STD file found corresponding to " + PrivateService.stdCheckFormatExceptionMessage(tPrivate));
+        // import /ied /dtt in Scd
+        SCL std = mapICDSystemVersionUuidAndSTDFile.get(icdSysVerUuid).stdList().get(0);
+        SclRootAdapter stdRootAdapter = new SclRootAdapter(std);
+        IEDAdapter stdIedAdapter = new IEDAdapter(stdRootAdapter, std.getIED().get(0));
+        Optional<TPrivate> optionalTPrivate = stdIedAdapter.getPrivateHeader(COMPAS_ICDHEADER.getPrivateType());
+        if (optionalTPrivate.isPresent() && PrivateService.comparePrivateCompasICDHeaders(optionalTPrivate.get(), tPrivate)) {
+            PrivateService.copyCompasICDHeaderFromLNodePrivateIntoSTDPrivate(optionalTPrivate.get(), tPrivate);
+        } else throw new ScdException("COMPAS-ICDHeader is not the same in Substation and in IED");
+        IEDAdapter iedAdapter = scdRootAdapter.addIED(std, iedName);
+
+        //import connectedAP and rename ConnectedAP/@iedName
+        CommunicationAdapter comAdapter = stdRootAdapter.getCommunicationAdapter(false);
+        Set<SubNetworkDTO> subNetworkDTOSet = SubNetworkDTO.createDefaultSubnetwork(iedName, comAdapter, comMap);
+        addSubnetworks(scdRootAdapter.getCurrentElem(), subNetworkDTOSet, Optional.of(std));
+        return iedAdapter;
+    }
+
     /**
      * Removes all ControlBlocks and DataSets for all LNs in SCL
      *
      * @param scl SCL file for which ControlBlocks and DataSets should be deleted
      */
     public static void removeAllControlBlocksAndDatasetsAndExtRefSrcBindings(final SCL scl) {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scl);
-        List<LDeviceAdapter> lDeviceAdapters = sclRootAdapter.streamIEDAdapters()
+        removeAllControlBlocksAndDatasetsAndExtRefSrcBindings(new SclRootAdapter(scl));
+    }
+
+    /**
+     * Removes all ControlBlocks and DataSets for all LNs in SCL
+     *
+     * @param sclRootAdapter adapter of the SCL file for which ControlBlocks and DataSets should be deleted
+     */
+    public static void removeAllControlBlocksAndDatasetsAndExtRefSrcBindings(@NonNull SclRootAdapter sclRootAdapter) {
+        removeAllControlBlocksAndDatasetsAndExtRefSrcBindings(sclRootAdapter.streamIEDAdapters().toList());
+    }
+
+    private static void removeAllControlBlocksAndDatasetsAndExtRefSrcBindings(List<IEDAdapter> iedAdapters) {
+        List<LDeviceAdapter> lDeviceAdapters = iedAdapters.stream()
                 .flatMap(IEDAdapter::streamLDeviceAdapters).toList();
 
         // LN0
@@ -553,6 +804,50 @@ public class SclService {
                 .forEach(LNAdapter::removeAllControlBlocksAndDatasets);
     }
 
+    /**
+     * Removes LNodeTypes, DOTypes, DATypes and EnumTypes which are not used by any LN of the SCL
+     *
+     * @param scd SCL file which DataTypeTemplates should be cleaned
+     * @return ids of removed types
+     * @see DataTypeTemplateAdapter#removeUnusedDataTypes()
+     */
+    public static DataTypeTemplateAdapter.RemovedDataTypes removeUnusedDataTypes(SCL scd) {
+        return removeUnusedDataTypes(new SclRootAdapter(scd));
+    }
+
+    /**
+     * Removes LNodeTypes, DOTypes, DATypes and EnumTypes which are not used by any LN of the SCL
+     *
+     * @param sclRootAdapter adapter of the SCL file which DataTypeTemplates should be cleaned
+     * @return ids of removed types
+     * @see DataTypeTemplateAdapter#removeUnusedDataTypes()
+     */
+    public static DataTypeTemplateAdapter.RemovedDataTypes removeUnusedDataTypes(@NonNull SclRootAdapter sclRootAdapter) {
+        return sclRootAdapter.getDataTypeTemplateAdapter().removeUnusedDataTypes();
+    }
+
+    /**
+     * Merges structurally identical LNodeTypes, DOTypes, DATypes and EnumTypes of the SCL, and updates references to merged types
+     *
+     * @param scd SCL file which DataTypeTemplates should be merged
+     * @return ids of merged types, with the id of the type which replaces them
+     * @see DataTypeTemplateAdapter#mergeIdenticalDataTypes()
+     */
+    public static DataTypeTemplateAdapter.MergedDataTypes mergeIdenticalDataTypes(SCL scd) {
+        return mergeIdenticalDataTypes(new SclRootAdapter(scd));
+    }
+
+    /**
+     * Merges structurally identical LNodeTypes, DOTypes, DATypes and EnumTypes of the SCL, and updates references to merged types
+     *
+     * @param sclRootAdapter adapter of the SCL file which DataTypeTemplates should be merged
+     * @return ids of merged types, with the id of the type which replaces them
+     * @see DataTypeTemplateAdapter#mergeIdenticalDataTypes()
+     */
+    public static DataTypeTemplateAdapter.MergedDataTypes mergeIdenticalDataTypes(@NonNull SclRootAdapter sclRootAdapter) {
+        return sclRootAdapter.getDataTypeTemplateAdapter().mergeIdenticalDataTypes();
+    }
+
     /**
      * Activate used LDevice and Deactivate unused LDevice in {@link TLNode <em><b>TLNode </b></em>}
      *
@@ -560,19 +855,17 @@ public class SclService {
      * @return SclReport Object that contain SCL file and set of errors
      */
     public static SclReport updateLDeviceStatus(SCL scd) {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
-        SubstationAdapter substationAdapter = sclRootAdapter.getSubstationAdapter();
-        final List<Pair<String, String>> iedNameLdInstList = substationAdapter.getIedAndLDeviceNamesForLN0FromLNode();
-        List<SclReportItem> errors = sclRootAdapter.streamIEDAdapters()
-                .flatMap(IEDAdapter::streamLDeviceAdapters)
-                .map(LDeviceAdapter::getLN0Adapter)
-                .map(ln0Adapter -> ln0Adapter.updateLDeviceStatus(iedNameLdInstList))
-                .flatMap(Optional::stream)
-                .toList();
-        SclReport sclReport = new SclReport();
-        sclReport.getSclReportItems().addAll(errors);
-        sclReport.setSclRootAdapter(sclRootAdapter);
-        return sclReport;
+        return updateLDeviceStatus(new SclRootAdapter(scd));
+    }
+
+    /**
+     * Activate used LDevice and Deactivate unused LDevice in {@link TLNode <em><b>TLNode </b></em>}
+     *
+     * @param sclRootAdapter adapter of the SCL file for which LDevice should be activated or deactivated
+     * @return SclReport Object that contain SCL file and set of errors
+     */
+    public static SclReport updateLDeviceStatus(@NonNull SclRootAdapter sclRootAdapter) {
+        return SclWalker.walk(sclRootAdapter, List.of(SclRules.updateLDeviceStatus()));
     }
 
     /**
@@ -582,16 +875,7 @@ public class SclService {
      * @return SclReport Object that contain SCL file and set of errors
      */
     public static SclReport analyzeDataGroups(SCL scd) {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
-        List<SclReportItem> sclReportItems = sclRootAdapter.streamIEDAdapters()
-                .map(iedAdapter -> {
-                    List<SclReportItem> list = new ArrayList<>();
-                    list.addAll(iedAdapter.checkDataGroupCoherence());
-                    list.addAll(iedAdapter.checkBindingDataGroupCoherence());
-                    return list;
-                }).flatMap(Collection::stream).toList();
-
-        return new SclReport(sclRootAdapter, sclReportItems);
+        return SclWalker.walk(scd, List.of(SclRules.analyzeDataGroups()));
     }
 
     /**
@@ -601,14 +885,17 @@ public class SclService {
      * @return SclReport Object that contain SCL file and set of errors
      */
     public static SclReport updateDoInRef(SCL scd) {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
-        List<SclReportItem> sclReportItems = sclRootAdapter.streamIEDAdapters()
-                .flatMap(IEDAdapter::streamLDeviceAdapters)
-                .map(LDeviceAdapter::getLN0Adapter)
-                .map(LN0Adapter::updateDoInRef)
-                .flatMap(List::stream)
-                .toList();
-        return new SclReport(sclRootAdapter, sclReportItems);
+        return updateDoInRef(new SclRootAdapter(scd));
+    }
+
+    /**
+     * Update DAIs of DO InRef in all LN0 of the SCD using matching ExtRef information.
+     *
+     * @param sclRootAdapter adapter of the SCL file for which DOs InRef should be updated with matching ExtRef information
+     * @return SclReport Object that contain SCL file and set of errors
+     */
+    public static SclReport updateDoInRef(@NonNull SclRootAdapter sclRootAdapter) {
+        return SclWalker.walk(sclRootAdapter, List.of(SclRules.updateDoInRef()));
     }
 
     /**
@@ -618,7 +905,16 @@ public class SclService {
      * @return SclReport Object that contain SCL file and set of errors
      */
     public static SclReport manageMonitoringLns(SCL scd) {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        return manageMonitoringLns(new SclRootAdapter(scd));
+    }
+
+    /**
+     * Update and/or create Monitoring LNs (LSVS and LGOS) for bound GOOSE and SMV Control Blocks
+     *
+     * @param sclRootAdapter adapter of the SCL file for which LNs (LSVS and LGOS) should be updated and/or created in each LDevice LDSUIED
+     * @return SclReport Object that contain SCL file and set of errors
+     */
+    public static SclReport manageMonitoringLns(@NonNull SclRootAdapter sclRootAdapter) {
         List<SclReportItem> sclReportItems = sclRootAdapter.streamIEDAdapters()
                 .filter(iedAdapter -> !iedAdapter.getName().contains(IED_TEST_NAME))
                 .map(IEDAdapter::manageMonitoringLns)
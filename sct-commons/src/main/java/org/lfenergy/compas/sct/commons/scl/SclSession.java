@@ -0,0 +1,473 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TExtRef;
+import org.lfenergy.compas.scl2007b4.model.TFCDA;
+import org.lfenergy.compas.sct.commons.dto.*;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.dtt.DataTypeTemplateAdapter;
+import org.lfenergy.compas.sct.commons.scl.dtt.EnumTypeAdapter;
+import org.lfenergy.compas.sct.commons.scl.dtt.LNodeTypeAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.LDeviceAdapter;
+import org.lfenergy.compas.sct.commons.util.ILDEPFSettings;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Long-lived editing session on one SCL, for interactive editors sending many small commands.
+ * <p>
+ * The static services ({@link SclService}, {@link ExtRefService}, {@link HmiService}) wrap the given SCL in new adapters and
+ * search it from the root on each call. A session keeps one {@link SclRootAdapter}, given to the services by all its commands,
+ * and the following indexes between commands:
+ * </p>
+ * <ul>
+ *   <li>IED by name, and LDevice by IED name and LDevice inst</li>
+ *   <li>LNodeType and EnumType by id</li>
+ *   <li>Communication index, object reference resolver and ControlBlock indexes of the root adapter
+ *   (see {@link SclRootAdapter#findCommunicationIndex()})</li>
+ * </ul>
+ * <p>
+ * Indexes are maintained incrementally: commands updating values (DAI, ExtRef) keep all indexes, an added IED is registered in the
+ * IED index, and commands which may add or remove indexed elements only drop the indexes they may change. Dropped indexes are rebuilt
+ * on next lookup. The SCL must only be modified through the session: changes made elsewhere are not seen by the indexes,
+ * unless done with {@link #execute}.
+ * </p>
+ * <p>
+ * Each command is timed. Timings are aggregated per command name and can be read with {@link #getCommandTimings()}.
+ * Commands are serialized: a session can be shared between threads, but commands of different threads never run concurrently.
+ * </p>
+ */
+@Slf4j
+public final class SclSession {
+
+    private static final String UNKNOWN_LDEVICE_S_IN_IED_S = "Unknown LDevice (%s) in IED (%s)";
+
+    /**
+     * Indexes kept by the session
+     */
+    public enum Index {
+        IEDS, DATA_TYPES, COMMUNICATION, CONTROL_BLOCKS
+    }
+
+    private final SclRootAdapter sclRootAdapter;
+    private final Map<String, TimingAccumulator> timingsByCommand = new LinkedHashMap<>();
+    private Map<String, IEDAdapter> iedAdaptersByName;
+    private Map<String, Map<String, LDeviceAdapter>> lDeviceAdaptersByIedName;
+    private Map<String, LNodeTypeAdapter> lNodeTypeAdaptersById;
+    private Map<String, EnumTypeAdapter> enumTypeAdaptersById;
+
+    private SclSession(SCL scd) {
+        this.sclRootAdapter = new SclRootAdapter(scd);
+    }
+
+    /**
+     * Opens a session on the given SCL. The SCL is not copied: it is modified by the commands of the session.
+     * @param scd SCL to edit
+     * @return new session
+     */
+    public static SclSession open(@NonNull SCL scd) {
+        return new SclSession(scd);
+    }
+
+    /**
+     * Gets the edited SCL, for example to marshall it. It must not be modified directly.
+     * @return edited SCL
+     */
+    public synchronized SCL getScd() {
+        return sclRootAdapter.getCurrentElem();
+    }
+
+    /**
+     * Gets all ExtRef from specific IED/LDevice
+     * @see SclService#getExtRefInfo(SCL, String, String)
+     */
+    public List<ExtRefInfo> getExtRefInfo(String iedName, String ldInst) throws ScdException {
+        return run("getExtRefInfo", Set.of(), () -> getLDeviceAdapter(iedName, ldInst).getExtRefInfo());
+    }
+
+    /**
+     * Gets all possible ExtRefs to bind with given ExtRef
+     * @see SclService#getExtRefBinders(SCL, String, String, String, String, String, ExtRefSignalInfo)
+     */
+    public List<ExtRefBindingInfo> getExtRefBinders(String iedName, String ldInst, String lnClass, String lnInst, String prefix,
+                                                    ExtRefSignalInfo signalInfo) throws ScdException {
+        return run("getExtRefBinders", Set.of(),
+            () -> SclService.getExtRefBinders(getLDeviceAdapter(iedName, ldInst), lnClass, lnInst, prefix, signalInfo));
+    }
+
+    /**
+     * Updates ExtRef binding data
+     * @see SclService#updateExtRefBinders(SCL, ExtRefInfo)
+     */
+    public void updateExtRefBinders(ExtRefInfo extRefInfo) throws ScdException {
+        run("updateExtRefBinders", Set.of(), () -> {
+            SclService.checkExtRefBindersInfo(extRefInfo);
+            SclService.updateExtRefBinders(getLDeviceAdapter(extRefInfo.getHolderIEDName(), extRefInfo.getHolderLDInst()), extRefInfo);
+            return null;
+        });
+    }
+
+    /**
+     * Updates ExtRef source binding data
+     * @see SclService#updateExtRefSource(SCL, ExtRefInfo)
+     */
+    public TExtRef updateExtRefSource(ExtRefInfo extRefInfo) throws ScdException {
+        return run("updateExtRefSource", Set.of(), () -> {
+            SclService.checkExtRefSourceInfo(extRefInfo);
+            return SclService.updateExtRefSource(getLDeviceAdapter(extRefInfo.getHolderIEDName(), extRefInfo.getHolderLDInst()), extRefInfo);
+        });
+    }
+
+    /**
+     * Gets ControlBlocks able to carry the signal of an ExtRef, with the DataSet and ControlBlock index of the source LDevice
+     * @see SclService#getExtRefSourceInfo(SCL, ExtRefInfo)
+     */
+    public List<ControlBlock> getExtRefSourceInfo(ExtRefInfo extRefInfo) throws ScdException {
+        return run("getExtRefSourceInfo", Set.of(), () -> {
+            SclService.checkExtRefSourceInfoRequest(extRefInfo);
+            return SclService.getExtRefSourceInfo(sclRootAdapter, extRefInfo);
+        });
+    }
+
+    /**
+     * Gets DataAttribute references of DAIs of a LDevice
+     * @see SclService#getDAI(SCL, String, String, DataAttributeRef, boolean)
+     */
+    public Set<DataAttributeRef> getDAI(String iedName, String ldInst, DataAttributeRef dataAttributeRef, boolean updatable) throws ScdException {
+        return run("getDAI", Set.of(), () -> getLDeviceAdapter(iedName, ldInst).getDAI(dataAttributeRef, updatable));
+    }
+
+    /**
+     * Updates DAI
+     * @see SclService#updateDAI(SCL, String, String, DataAttributeRef)
+     */
+    public void updateDAI(String iedName, String ldInst, DataAttributeRef dataAttributeRef) throws ScdException {
+        run("updateDAI", Set.of(), () -> {
+            LNodeTypeAdapter lNodeTypeAdapter = Optional.ofNullable(getLNodeTypeAdaptersById().get(dataAttributeRef.getLnType()))
+                .orElseThrow(() -> new ScdException("Unknown LNodeType : " + dataAttributeRef.getLnType()));
+            SclService.checkDAI(sclRootAdapter, lNodeTypeAdapter, dataAttributeRef);
+            SclService.updateDAI(getLDeviceAdapter(iedName, ldInst), dataAttributeRef);
+            return null;
+        });
+    }
+
+    /**
+     * Gets EnumType values
+     * @see SclService#getEnumTypeElements(SCL, String)
+     */
+    public Set<Pair<Integer, String>> getEnumTypeElements(String idEnum) throws ScdException {
+        return run("getEnumTypeElements", Set.of(), () -> {
+            EnumTypeAdapter enumTypeAdapter = Optional.ofNullable(getEnumTypeAdaptersById().get(idEnum))
+                .orElseThrow(() -> new ScdException("Unknown EnumType Id: " + idEnum));
+            return enumTypeAdapter.getCurrentElem().getEnumVal().stream()
+                .map(tEnumVal -> Pair.of(tEnumVal.getOrd(), tEnumVal.getValue()))
+                .collect(Collectors.toSet());
+        });
+    }
+
+    /**
+     * Gets SubNetworks
+     * @see SclService#getSubnetwork(SCL)
+     */
+    public List<SubNetworkDTO> getSubnetwork() throws ScdException {
+        return run("getSubnetwork", Set.of(), () -> sclRootAdapter.getCommunicationAdapter(false).getSubNetworkAdapters().stream()
+            .map(SubNetworkDTO::from)
+            .toList());
+    }
+
+    /**
+     * Adds IED, and registers it in the IED index
+     * @see SclService#addIED(SCL, String, SCL)
+     */
+    public IEDAdapter addIED(String iedName, SCL icd) throws ScdException {
+        return run("addIED", EnumSet.of(Index.DATA_TYPES), () -> {
+            IEDAdapter iedAdapter = sclRootAdapter.addIED(icd, iedName);
+            if (iedAdaptersByName != null) {
+                iedAdaptersByName.putIfAbsent(iedName, iedAdapter);
+                lDeviceAdaptersByIedName.putIfAbsent(iedName, indexLDevices(iedAdapter));
+            }
+            return iedAdapter;
+        });
+    }
+
+    /**
+     * Imports IEDs, DataTypeTemplates and Communication of STD files
+     * @see SclService#importSTDElementsInSCD(SclRootAdapter, Set, Map)
+     */
+    public void importSTDElementsInSCD(Set<SCL> stds, Map<Pair<String, String>, List<String>> comMap) throws ScdException {
+        run("importSTDElementsInSCD", EnumSet.allOf(Index.class), () -> SclService.importSTDElementsInSCD(sclRootAdapter, stds, comMap));
+    }
+
+    /**
+     * Creates DataSets and ControlBlocks for all ExtRef
+     * @see ExtRefService#createDataSetAndControlBlocks(SclRootAdapter)
+     */
+    public SclReport createDataSetAndControlBlocks() {
+        return run("createDataSetAndControlBlocks", EnumSet.of(Index.CONTROL_BLOCKS), () -> ExtRefService.createDataSetAndControlBlocks(sclRootAdapter));
+    }
+
+    /**
+     * Creates DataSets and ControlBlocks for ExtRef of an IED
+     * @see ExtRefService#createDataSetAndControlBlocks(SclRootAdapter, String)
+     */
+    public SclReport createDataSetAndControlBlocks(String targetIedName) {
+        return run("createDataSetAndControlBlocks", EnumSet.of(Index.CONTROL_BLOCKS), () -> ExtRefService.createDataSetAndControlBlocks(sclRootAdapter, targetIedName));
+    }
+
+    /**
+     * Configures network of all GSE and SampledValue ControlBlocks
+     * @see ExtRefService#configureNetworkForAllControlBlocks(SclRootAdapter, ControlBlockNetworkSettings, ControlBlockNetworkSettings.RangesPerCbType)
+     */
+    public SclReport configureNetworkForAllControlBlocks(ControlBlockNetworkSettings controlBlockNetworkSettings,
+                                                         ControlBlockNetworkSettings.RangesPerCbType rangesPerCbType) {
+        return run("configureNetworkForAllControlBlocks", EnumSet.of(Index.COMMUNICATION),
+            () -> ExtRefService.configureNetworkForAllControlBlocks(sclRootAdapter, controlBlockNetworkSettings, rangesPerCbType));
+    }
+
+    /**
+     * Updates iedName of all ExtRef
+     * @see ExtRefService#updateAllExtRefIedNames(SclRootAdapter)
+     */
+    public SclReport updateAllExtRefIedNames() {
+        return run("updateAllExtRefIedNames", Set.of(), () -> ExtRefService.updateAllExtRefIedNames(sclRootAdapter));
+    }
+
+    /**
+     * Binds ExtRef of LDEPF LDevices
+     * @see ExtRefService#manageBindingForLDEPF(SclRootAdapter, ILDEPFSettings)
+     */
+    public SclReport manageBindingForLDEPF(ILDEPFSettings settings) {
+        return run("manageBindingForLDEPF", Set.of(), () -> ExtRefService.manageBindingForLDEPF(sclRootAdapter, settings));
+    }
+
+    /**
+     * Creates HMI ReportControl blocks
+     * @see HmiService#createAllHmiReportControlBlocks(SclRootAdapter, List)
+     */
+    public void createAllHmiReportControlBlocks(List<TFCDA> fcdas) {
+        run("createAllHmiReportControlBlocks", EnumSet.of(Index.CONTROL_BLOCKS), () -> {
+            HmiService.createAllHmiReportControlBlocks(sclRootAdapter, fcdas);
+            return null;
+        });
+    }
+
+    /**
+     * Activates or deactivates LDevices
+     * @see SclService#updateLDeviceStatus(SclRootAdapter)
+     */
+    public SclReport updateLDeviceStatus() {
+        return run("updateLDeviceStatus", Set.of(), () -> SclService.updateLDeviceStatus(sclRootAdapter));
+    }
+
+    /**
+     * Updates DAIs of DO InRef
+     * @see SclService#updateDoInRef(SclRootAdapter)
+     */
+    public SclReport updateDoInRef() {
+        return run("updateDoInRef", Set.of(), () -> SclService.updateDoInRef(sclRootAdapter));
+    }
+
+    /**
+     * Runs several rules in a single walk of the SCD, for example
+     * <code>sclSession.walk("updateSCD", List.of(SclRules.updateLDeviceStatus(), SclRules.updateDoInRef(), SclRules.analyzeDataGroups()))</code>.
+     * Rules do not add nor remove indexed elements, so all indexes are kept.
+     * @param commandName name of the command, used to aggregate timings
+     * @param rules rules to run, in callback order
+     * @return report of all the rules
+     * @see SclWalker#walk(SclRootAdapter, List)
+     */
+    public SclReport walk(String commandName, @NonNull List<? extends SclRule> rules) {
+        return run(commandName, Set.of(), () -> SclWalker.walk(sclRootAdapter, rules));
+    }
+
+    /**
+     * Updates and/or creates monitoring LNs. LNs are removed and added, so LDevice and LN indexes are dropped.
+     * @see SclService#manageMonitoringLns(SclRootAdapter)
+     */
+    public SclReport manageMonitoringLns() {
+        return run("manageMonitoringLns", EnumSet.of(Index.IEDS), () -> SclService.manageMonitoringLns(sclRootAdapter));
+    }
+
+    /**
+     * Removes unused types of DataTypeTemplates
+     * @see SclService#removeUnusedDataTypes(SclRootAdapter)
+     */
+    public DataTypeTemplateAdapter.RemovedDataTypes removeUnusedDataTypes() {
+        return run("removeUnusedDataTypes", EnumSet.of(Index.DATA_TYPES), () -> SclService.removeUnusedDataTypes(sclRootAdapter));
+    }
+
+    /**
+     * Merges identical types of DataTypeTemplates
+     * @see SclService#mergeIdenticalDataTypes(SclRootAdapter)
+     */
+    public DataTypeTemplateAdapter.MergedDataTypes mergeIdenticalDataTypes() {
+        return run("mergeIdenticalDataTypes", EnumSet.of(Index.DATA_TYPES), () -> SclService.mergeIdenticalDataTypes(sclRootAdapter));
+    }
+
+    /**
+     * Runs any other command on the edited SCL. As the command may change anything, all indexes are dropped afterwards.
+     * @param commandName name of the command, used to aggregate timings
+     * @param command command to run, given the root adapter of the session
+     * @return result of the command
+     * @param <R> type of the result
+     * @see #execute(String, Set, Function)
+     */
+    public <R> R execute(String commandName, Function<SclRootAdapter, R> command) {
+        return execute(commandName, EnumSet.allOf(Index.class), command);
+    }
+
+    /**
+     * Runs any other command on the edited SCL, and drops afterwards only the indexes it may change.
+     * @param commandName name of the command, used to aggregate timings
+     * @param changedIndexes indexes which may be changed by the command, for example {@code Set.of()} for a command updating
+     *                       only the Header or the Substation
+     * @param command command to run, given the root adapter of the session
+     * @return result of the command
+     * @param <R> type of the result
+     */
+    public <R> R execute(String commandName, @NonNull Set<Index> changedIndexes, Function<SclRootAdapter, R> command) {
+        return run(commandName, changedIndexes, () -> command.apply(sclRootAdapter));
+    }
+
+    /**
+     * Gets timings of the commands run since the session was opened or timings were reset
+     * @return timings per command name, in order of first run
+     */
+    public synchronized List<CommandTiming> getCommandTimings() {
+        return timingsByCommand.entrySet().stream()
+            .map(entry -> entry.getValue().toCommandTiming(entry.getKey()))
+            .toList();
+    }
+
+    /**
+     * Resets timings of all commands
+     */
+    public synchronized void resetCommandTimings() {
+        timingsByCommand.clear();
+    }
+
+    /**
+     * Timing of a command
+     * @param command name of the command
+     * @param executions number of runs, including failed ones
+     * @param totalNanos sum of the durations of all runs, in nanoseconds
+     * @param maxNanos duration of the longest run, in nanoseconds
+     * @param lastNanos duration of the last run, in nanoseconds
+     */
+    public record CommandTiming(String command, long executions, long totalNanos, long maxNanos, long lastNanos) {
+        /**
+         * Gets mean duration of the runs
+         * @return mean duration, in nanoseconds
+         */
+        public long averageNanos() {
+            return executions == 0 ? 0 : totalNanos / executions;
+        }
+    }
+
+    private synchronized <R> R run(String commandName, Set<Index> changedIndexes, Supplier<R> command) {
+        long startTime = System.nanoTime();
+        try {
+            return command.get();
+        } finally {
+            // drops indexes even when the command fails, as it may have partially modified the SCL
+            invalidate(changedIndexes);
+            long duration = System.nanoTime() - startTime;
+            timingsByCommand.computeIfAbsent(commandName, key -> new TimingAccumulator()).add(duration);
+            log.debug("Command {} done in {} µs", commandName, duration / 1000);
+        }
+    }
+
+    private void invalidate(Set<Index> indexes) {
+        if (indexes.contains(Index.IEDS)) {
+            iedAdaptersByName = null;
+            lDeviceAdaptersByIedName = null;
+        }
+        if (indexes.contains(Index.DATA_TYPES)) {
+            lNodeTypeAdaptersById = null;
+            enumTypeAdaptersById = null;
+        }
+        if (indexes.contains(Index.IEDS) || indexes.contains(Index.DATA_TYPES)) {
+            sclRootAdapter.invalidateObjectReferenceResolver();
+        }
+        if (indexes.contains(Index.COMMUNICATION)) {
+            sclRootAdapter.invalidateCommunicationIndex();
+        }
+        if (indexes.contains(Index.IEDS) || indexes.contains(Index.CONTROL_BLOCKS)) {
+            sclRootAdapter.invalidateControlBlockIndexes();
+        }
+    }
+
+    private LDeviceAdapter getLDeviceAdapter(String iedName, String ldInst) throws ScdException {
+        if (iedAdaptersByName == null) {
+            iedAdaptersByName = new HashMap<>();
+            lDeviceAdaptersByIedName = new HashMap<>();
+            sclRootAdapter.streamIEDAdapters().forEach(iedAdapter -> {
+                if (iedAdaptersByName.putIfAbsent(iedAdapter.getName(), iedAdapter) == null) {
+                    lDeviceAdaptersByIedName.put(iedAdapter.getName(), indexLDevices(iedAdapter));
+                }
+            });
+        }
+        if (!iedAdaptersByName.containsKey(iedName)) {
+            // same exception as SclRootAdapter#getIEDAdapterByName
+            sclRootAdapter.getIEDAdapterByName(iedName);
+        }
+        LDeviceAdapter lDeviceAdapter = lDeviceAdaptersByIedName.get(iedName).get(ldInst);
+        if (lDeviceAdapter == null) {
+            throw new ScdException(String.format(UNKNOWN_LDEVICE_S_IN_IED_S, ldInst, iedName));
+        }
+        return lDeviceAdapter;
+    }
+
+    private static Map<String, LDeviceAdapter> indexLDevices(IEDAdapter iedAdapter) {
+        Map<String, LDeviceAdapter> lDeviceAdaptersByInst = new HashMap<>();
+        iedAdapter.streamLDeviceAdapters().forEach(lDeviceAdapter -> lDeviceAdaptersByInst.putIfAbsent(lDeviceAdapter.getInst(), lDeviceAdapter));
+        return lDeviceAdaptersByInst;
+    }
+
+    private Map<String, LNodeTypeAdapter> getLNodeTypeAdaptersById() {
+        if (lNodeTypeAdaptersById == null) {
+            lNodeTypeAdaptersById = new HashMap<>();
+            sclRootAdapter.getDataTypeTemplateAdapter().getLNodeTypeAdapters()
+                .forEach(lNodeTypeAdapter -> lNodeTypeAdaptersById.putIfAbsent(lNodeTypeAdapter.getCurrentElem().getId(), lNodeTypeAdapter));
+        }
+        return lNodeTypeAdaptersById;
+    }
+
+    private Map<String, EnumTypeAdapter> getEnumTypeAdaptersById() {
+        if (enumTypeAdaptersById == null) {
+            enumTypeAdaptersById = new HashMap<>();
+            sclRootAdapter.getDataTypeTemplateAdapter().getEnumTypeAdapters()
+                .forEach(enumTypeAdapter -> enumTypeAdaptersById.putIfAbsent(enumTypeAdapter.getCurrentElem().getId(), enumTypeAdapter));
+        }
+        return enumTypeAdaptersById;
+    }
+
+    private static final class TimingAccumulator {
+        private long executions;
+        private long totalNanos;
+        private long maxNanos;
+        private long lastNanos;
+
+        private void add(long nanos) {
+            executions++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            lastNanos = nanos;
+        }
+
+        private CommandTiming toCommandTiming(String command) {
+            return new CommandTiming(command, executions, totalNanos, maxNanos, lastNanos);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import org.apache.commons.lang3.tuple.Pair;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.dtt.EnumTypeAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.LDeviceAdapter;
+import org.lfenergy.compas.sct.commons.util.StringPool;
+import org.lfenergy.compas.sct.commons.util.Utils;
+
+import javax.xml.bind.JAXBElement;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Frozen copy of an SCL, which can be shared between threads without any lock.
+ * <p>
+ * The snapshot is built once from a private deep copy of the given SCL, so later modifications of the source SCL are not seen
+ * by the snapshot. While building, every lazily created list of the JAXB tree is materialized and the DataTypeTemplates is created
+ * when missing: reading the snapshot afterwards never writes in the copied tree.
+ * The following indexes are precomputed:
+ * </p>
+ * <ul>
+ *   <li>IED by name</li>
+ *   <li>LDevice by IED name and LDevice inst</li>
+ *   <li>EnumType values by EnumType id</li>
+ * </ul>
+ * <p>
+ * The copied tree is never exposed: queries are done through the SclService methods taking an SclSnapshot, which only read the tree
+ * and return new objects.
+ * </p>
+ * @see SclService#getSubnetwork(SclSnapshot)
+ * @see SclService#getExtRefInfo(SclSnapshot, String, String)
+ * @see SclService#getExtRefBinders(SclSnapshot, String, String, String, String, String, org.lfenergy.compas.sct.commons.dto.ExtRefSignalInfo)
+ * @see SclService#getDAI(SclSnapshot, String, String, org.lfenergy.compas.sct.commons.dto.DataAttributeRef, boolean)
+ * @see SclService#getEnumTypeElements(SclSnapshot, String)
+ */
+public final class SclSnapshot {
+
+    private static final String MESSAGE_IED_NAME_NOT_FOUND = "IED.name '%s' not found in SCD";
+    private static final String SCL_MODEL_PACKAGE = SCL.class.getPackageName();
+    private static final ClassValue<List<Method>> CHILDREN_GETTERS = new ClassValue<>() {
+        @Override
+        protected List<Method> computeValue(Class<?> type) {
+            return Arrays.stream(type.getMethods())
+                .filter(method -> method.getName().startsWith("get") && method.getParameterCount() == 0)
+                .filter(method -> !Modifier.isStatic(method.getModifiers()))
+                .filter(method -> List.class.isAssignableFrom(method.getReturnType()) || isSclModelType(method.getReturnType()))
+                .toList();
+        }
+    };
+
+    @Getter(AccessLevel.PACKAGE)
+    private final SclRootAdapter sclRootAdapter;
+    private final Map<String, IEDAdapter> iedAdaptersByName;
+    private final Map<String, Map<String, LDeviceAdapter>> lDeviceAdaptersByIedName;
+    private final Map<String, Set<Pair<Integer, String>>> enumTypeElementsById;
+
+    private SclSnapshot(SCL scdCopy) {
+        sclRootAdapter = new SclRootAdapter(scdCopy);
+        // creates DataTypeTemplates when missing, so that queries never create it later
+        List<EnumTypeAdapter> enumTypeAdapters = sclRootAdapter.getDataTypeTemplateAdapter().getEnumTypeAdapters();
+        materializeLazyLists(scdCopy);
+        // builds Communication index now, so that ConnectedAP lookups only read it
+        sclRootAdapter.findCommunicationIndex();
+        iedAdaptersByName = indexByKeepingFirst(sclRootAdapter.streamIEDAdapters(), IEDAdapter::getName);
+        lDeviceAdaptersByIedName = iedAdaptersByName.values().stream()
+            .collect(Collectors.collectingAndThen(
+                Collectors.toMap(IEDAdapter::getName,
+                    iedAdapter -> indexByKeepingFirst(iedAdapter.streamLDeviceAdapters(), LDeviceAdapter::getInst)),
+                Collections::unmodifiableMap));
+        enumTypeElementsById = Collections.unmodifiableMap(enumTypeAdapters.stream()
+            .collect(Collectors.toMap(enumTypeAdapter -> enumTypeAdapter.getCurrentElem().getId(),
+                enumTypeAdapter -> enumTypeAdapter.getCurrentElem().getEnumVal().stream()
+                    .map(tEnumVal -> Pair.of(tEnumVal.getOrd(), tEnumVal.getValue()))
+                    .collect(Collectors.toUnmodifiableSet()),
+                (first, second) -> first,
+                LinkedHashMap::new)));
+    }
+
+    /**
+     * Creates a frozen snapshot of the given SCL.
+     * The SCL is deep copied: it can be modified afterwards without any effect on the snapshot.
+     * Building the snapshot reads the whole SCL, so the SCL must not be modified by another thread meanwhile.
+     * @param scd SCL to copy
+     * @return new snapshot
+     * @throws ScdException when the SCL cannot be copied
+     */
+    public static SclSnapshot of(@NonNull SCL scd) {
+        return new SclSnapshot(Utils.copySclElement(scd, SCL.class));
+    }
+
+    /**
+     * Creates a frozen snapshot of the given SCL, whose repeated attribute values share the String instances of the given pool.
+     * Same as {@link #of(SCL)}, for snapshots kept for a long time.
+     * @param scd SCL to copy
+     * @param stringPool pool of canonical strings, for this snapshot only or shared between snapshots
+     * @return new snapshot
+     * @throws ScdException when the SCL cannot be copied
+     */
+    public static SclSnapshot of(@NonNull SCL scd, @NonNull StringPool stringPool) {
+        return new SclSnapshot(Utils.copySclElement(scd, SCL.class, stringPool));
+    }
+
+    /**
+     * Gets IED by name, using precomputed index
+     * @param iedName name of IED to find
+     * @return <em>IEDAdapter</em> of the first IED with a matching name
+     * @throws ScdException throws when unknown IED
+     */
+    IEDAdapter getIEDAdapterByName(String iedName) throws ScdException {
+        IEDAdapter iedAdapter = iedAdaptersByName.get(iedName);
+        if (iedAdapter == null) {
+            throw new ScdException(String.format(MESSAGE_IED_NAME_NOT_FOUND, iedName));
+        }
+        return iedAdapter;
+    }
+
+    /**
+     * Finds LDevice by IED name and LDevice inst, using precomputed index
+     * @param iedName name of IED in which LDevice is localized
+     * @param ldInst inst of LDevice to find
+     * @return <em>LDeviceAdapter</em> of the first LDevice with a matching inst in first IED with a matching name, or empty Optional
+     * @throws ScdException throws when unknown IED
+     */
+    Optional<LDeviceAdapter> findLDeviceAdapter(String iedName, String ldInst) throws ScdException {
+        getIEDAdapterByName(iedName);
+        return Optional.ofNullable(lDeviceAdaptersByIedName.get(iedName).get(ldInst));
+    }
+
+    /**
+     * Finds values of EnumType, using precomputed index
+     * @param idEnum id of EnumType
+     * @return unmodifiable set of couple EnumVal ord and EnumVal value, or empty Optional when unknown EnumType
+     */
+    Optional<Set<Pair<Integer, String>>> findEnumTypeElements(String idEnum) {
+        return Optional.ofNullable(enumTypeElementsById.get(idEnum));
+    }
+
+    private static <T> Map<String, T> indexByKeepingFirst(Stream<T> adapters, Function<T, String> keyMapper) {
+        return Collections.unmodifiableMap(adapters.collect(Collectors.toMap(keyMapper, Function.identity(), (first, second) -> first, LinkedHashMap::new)));
+    }
+
+    /**
+     * JAXB getters of list create the list on first call when the element has no child of this kind.
+     * Calling all these getters once, before the snapshot is shared, makes all later calls read-only.
+     * @param scl root of the tree to walk
+     */
+    private static void materializeLazyLists(SCL scl) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> toVisit = new ArrayDeque<>();
+        toVisit.push(scl);
+        while (!toVisit.isEmpty()) {
+            Object element = toVisit.pop();
+            if (element instanceof JAXBElement<?> jaxbElement) {
+                element = jaxbElement.getValue();
+            }
+            if (element == null || !isSclModelType(element.getClass()) || !visited.add(element)) {
+                continue;
+            }
+            for (Method getter : CHILDREN_GETTERS.get(element.getClass())) {
+                Object child = invokeGetter(getter, element);
+                if (child instanceof List<?> children) {
+                    children.stream().filter(Objects::nonNull).forEach(toVisit::push);
+                } else if (child != null) {
+                    toVisit.push(child);
+                }
+            }
+        }
+    }
+
+    private static boolean isSclModelType(Class<?> type) {
+        return !type.isEnum() && !type.isPrimitive() && !type.isArray() && SCL_MODEL_PACKAGE.equals(type.getPackageName());
+    }
+
+    private static Object invokeGetter(Method getter, Object element) {
+        try {
+            return getter.invoke(element);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new ScdException("Cannot read " + getter.getName() + " of " + element.getClass().getSimpleName(), e);
+        }
+    }
+
+}
@@ -0,0 +1,245 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import javax.xml.bind.JAXBElement;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Computes Merkle-style hashes of the elements of an SCL tree.
+ * <p>
+ * The hash of an element is computed from its type, the values of all its attributes and the hashes of all its children, so two
+ * elements have the same hash when their subtrees are identical. Hashes are memoized by element identity: hashing a parent, then its
+ * children, walks the tree once. The hasher only reads the tree: lists which have not been created yet by their lazy JAXB getter
+ * are hashed as empty lists without being created.
+ * </p>
+ * <p>
+ * Hashes are 64 bits long: the tree must not be modified while the hasher is in use. Two different subtrees may have the same hash,
+ * so callers confirm a hash match with {@link #isSameSubtree(Object, Object)} before considering two elements identical.
+ * </p>
+ */
+final class SclSubtreeHasher {
+
+    private static final String SCL_MODEL_PACKAGE = SCL.class.getPackageName();
+    private static final long NULL_HASH = 0x5BD1E995L;
+    private static final long LIST_TAG = 0x27D4EB2F165667C5L;
+    private static final long MAP_TAG = 0x165667B19E3779F9L;
+    private static final long NODE_TAG = 0x85EBCA77C2B2AE63L;
+    private static final long IN_PROGRESS_HASH = 0xC2B2AE3D27D4EB4FL;
+
+    private static final ClassValue<List<Property>> PROPERTIES = new ClassValue<>() {
+        @Override
+        protected List<Property> computeValue(Class<?> type) {
+            Map<String, Method> methodsByName = new HashMap<>();
+            Arrays.stream(type.getMethods())
+                .filter(method -> method.getParameterCount() == 0 && !Modifier.isStatic(method.getModifiers()))
+                .forEach(method -> methodsByName.put(method.getName(), method));
+            return methodsByName.values().stream()
+                .filter(SclSubtreeHasher::isPropertyGetter)
+                .sorted(Comparator.comparing(Method::getName))
+                .map(getter -> new Property(getter, methodsByName.get("isSet" + getter.getName().substring("get".length()))))
+                .toList();
+        }
+    };
+
+    private final Map<Object, Long> hashes = new IdentityHashMap<>();
+
+    /**
+     * Hash of an element of the SCL tree
+     * @param element JAXB element, which may be null
+     * @return hash of the subtree of this element
+     */
+    long hash(Object element) {
+        if (element == null) {
+            return NULL_HASH;
+        }
+        if (element instanceof JAXBElement<?> jaxbElement) {
+            return combine(hashString(jaxbElement.getName().toString()), hash(jaxbElement.getValue()));
+        }
+        if (element instanceof List<?> list) {
+            long hash = combine(LIST_TAG, list.size());
+            for (Object item : list) {
+                hash = combine(hash, hash(item));
+            }
+            return hash;
+        }
+        if (element instanceof Map<?, ?> map) {
+            // order of entries is not significant
+            long hash = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                hash += combine(hash(entry.getKey()), hash(entry.getValue()));
+            }
+            return combine(MAP_TAG, hash);
+        }
+        if (element instanceof Node node) {
+            return hashNode(node);
+        }
+        if (element instanceof Enum<?> enumValue) {
+            return combine(hashString(enumValue.getDeclaringClass().getName()), hashString(enumValue.name()));
+        }
+        if (element instanceof byte[] bytes) {
+            return combine(hashString("byte[]"), Arrays.hashCode(bytes));
+        }
+        if (!isSclModelType(element.getClass())) {
+            // String, Boolean, Number, QName, XMLGregorianCalendar...
+            return combine(hashString(element.getClass().getName()), hashString(element.toString()));
+        }
+        Long memoizedHash = hashes.get(element);
+        if (memoizedHash != null) {
+            return memoizedHash;
+        }
+        // guards against reference cycles
+        hashes.put(element, IN_PROGRESS_HASH);
+        long hash = hashString(element.getClass().getName());
+        for (Property property : PROPERTIES.get(element.getClass())) {
+            hash = combine(hash, hash(property.read(element)));
+        }
+        hashes.put(element, hash);
+        return hash;
+    }
+
+    /**
+     * Compares two elements of SCL trees with their whole subtrees
+     * @param before JAXB element, which may be null
+     * @param after JAXB element, which may be null
+     * @return true when both subtrees are identical
+     */
+    static boolean isSameSubtree(Object before, Object after) {
+        return isSameSubtree(before, after, new IdentityHashMap<>());
+    }
+
+    private static boolean isSameSubtree(Object before, Object after, Map<Object, Object> inProgress) {
+        if (before == after) {
+            return true;
+        }
+        if (before == null || after == null || before.getClass() != after.getClass()) {
+            return false;
+        }
+        if (before instanceof JAXBElement<?> beforeElement && after instanceof JAXBElement<?> afterElement) {
+            return beforeElement.getName().equals(afterElement.getName())
+                && isSameSubtree(beforeElement.getValue(), afterElement.getValue(), inProgress);
+        }
+        if (before instanceof List<?> beforeList && after instanceof List<?> afterList) {
+            if (beforeList.size() != afterList.size()) {
+                return false;
+            }
+            Iterator<?> afterIterator = afterList.iterator();
+            for (Object beforeItem : beforeList) {
+                if (!isSameSubtree(beforeItem, afterIterator.next(), inProgress)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (before instanceof Map<?, ?> beforeMap && after instanceof Map<?, ?> afterMap) {
+            return beforeMap.size() == afterMap.size() && beforeMap.entrySet().stream()
+                .allMatch(entry -> afterMap.containsKey(entry.getKey())
+                    && isSameSubtree(entry.getValue(), afterMap.get(entry.getKey()), inProgress));
+        }
+        if (before instanceof Node beforeNode) {
+            return beforeNode.isEqualNode((Node) after);
+        }
+        if (before instanceof byte[] beforeBytes) {
+            return Arrays.equals(beforeBytes, (byte[]) after);
+        }
+        if (!isSclModelType(before.getClass())) {
+            return before.equals(after);
+        }
+        Object comparedAfter = inProgress.get(before);
+        if (comparedAfter != null) {
+            // reference cycle: identical when it leads back to the same pair
+            return comparedAfter == after;
+        }
+        inProgress.put(before, after);
+        for (Property property : PROPERTIES.get(before.getClass())) {
+            if (!isSameSubtree(property.read(before), property.read(after), inProgress)) {
+                return false;
+            }
+        }
+        inProgress.remove(before);
+        return true;
+    }
+
+    private long hashNode(Node node) {
+        long hash = combine(NODE_TAG, node.getNodeType());
+        hash = combine(hash, hashString(node.getNamespaceURI()));
+        hash = combine(hash, hashString(node.getLocalName() != null ? node.getLocalName() : node.getNodeName()));
+        hash = combine(hash, hashString(node.getNodeType() == Node.ELEMENT_NODE ? null : node.getNodeValue()));
+        NamedNodeMap attributes = node.getAttributes();
+        if (attributes != null) {
+            long attributesHash = 0;
+            for (int i = 0; i < attributes.getLength(); i++) {
+                attributesHash += hashNode(attributes.item(i));
+            }
+            hash = combine(hash, attributesHash);
+        }
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            hash = combine(hash, hashNode(child));
+        }
+        return hash;
+    }
+
+    private static boolean isPropertyGetter(Method method) {
+        String name = method.getName();
+        if (method.getReturnType() == void.class || "getClass".equals(name)) {
+            return false;
+        }
+        return (name.startsWith("get") && name.length() > "get".length())
+            || (name.startsWith("is") && !name.startsWith("isSet") && name.length() > "is".length());
+    }
+
+    private static boolean isSclModelType(Class<?> type) {
+        return !type.isEnum() && !type.isPrimitive() && !type.isArray() && SCL_MODEL_PACKAGE.equals(type.getPackageName());
+    }
+
+    private static long hashString(String value) {
+        if (value == null) {
+            return NULL_HASH;
+        }
+        // FNV-1a
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long combine(long hash, long value) {
+        long h = hash * 0x9E3779B97F4A7C15L + value;
+        // MurmurHash3 finalizer
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Property of a JAXB class
+     * @param getter getter of the property
+     * @param isSet isSet method of the property, used to avoid creating lazy lists. Null when the property has none.
+     */
+    private record Property(Method getter, Method isSet) {
+        private Object read(Object element) {
+            try {
+                if (isSet != null && List.class.isAssignableFrom(getter.getReturnType()) && !((Boolean) isSet.invoke(element))) {
+                    return List.of();
+                }
+                return getter.invoke(element);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new ScdException("Cannot read " + getter.getName() + " of " + element.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.*;
+import org.lfenergy.compas.sct.commons.dto.SclReport;
+import org.lfenergy.compas.sct.commons.scl.SclRule.Depth;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Runs several {@link SclRule} in a single traversal of the SCD, instead of one traversal per check or update.
+ * <p>
+ * The walk visits, in document order, each IED, then each LDevice of the Server of each of its AccessPoints, then the LN0 and
+ * the LNs of the LDevice, then the DOIs and the ExtRefs of each LN. For each element, the callbacks of all the rules are
+ * called in the order of the rules. A single {@link SclCursor} is moved over the elements, and adapters are only created
+ * when a rule asks for them. The walk stops at the deepest {@link SclRule#depth()} of the rules: rules of {@link SclRules}
+ * only handle IEDs and LDevices, so their walk does not visit LNs.
+ * </p>
+ * <p>
+ * Example: <code>SclWalker.walk(scd, List.of(SclRules.updateLDeviceStatus(), SclRules.updateDoInRef(), SclRules.analyzeDataGroups()))</code>
+ * </p>
+ *
+ * @see SclRules
+ */
+public final class SclWalker {
+
+    private SclWalker() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Walks the SCD once, running all the rules
+     *
+     * @param scd   SCL file to walk
+     * @param rules rules to run, in callback order
+     * @return SclReport Object that contain SCL file and the items reported by all the rules
+     */
+    public static SclReport walk(@NonNull SCL scd, @NonNull List<? extends SclRule> rules) {
+        return walk(new SclRootAdapter(scd), rules);
+    }
+
+    /**
+     * Walks the SCD of the given adapter once, running all the rules. Caches of the adapter are shared with the rules.
+     *
+     * @param sclRootAdapter adapter of the SCL file to walk
+     * @param rules          rules to run, in callback order
+     * @return SclReport Object that contain SCL file and the items reported by all the rules
+     */
+    public static SclReport walk(@NonNull SclRootAdapter sclRootAdapter, @NonNull List<? extends SclRule> rules) {
+        SCL scd = sclRootAdapter.getCurrentElem();
+        SclRule[] ruleArray = rules.toArray(SclRule[]::new);
+        Depth depth = Arrays.stream(ruleArray).map(SclRule::depth).max(Comparator.naturalOrder()).orElse(Depth.IED);
+        SclCursor cursor = new SclCursor(sclRootAdapter);
+        for (SclRule rule : ruleArray) {
+            rule.onStart(cursor);
+        }
+        if (scd.isSetIED()) {
+            List<TIED> ieds = scd.getIED();
+            for (int i = 0, size = ieds.size(); i < size; i++) {
+                walkIed(ieds.get(i), ruleArray, depth, cursor);
+            }
+        }
+        return new SclReport(sclRootAdapter, cursor.getSclReportItems());
+    }
+
+    private static void walkIed(TIED tied, SclRule[] rules, Depth depth, SclCursor cursor) {
+        cursor.enterIed(tied);
+        for (SclRule rule : rules) {
+            rule.onIed(cursor);
+        }
+        if (depth == Depth.IED || !tied.isSetAccessPoint()) {
+            return;
+        }
+        List<TAccessPoint> accessPoints = tied.getAccessPoint();
+        for (int i = 0, size = accessPoints.size(); i < size; i++) {
+            TAccessPoint tAccessPoint = accessPoints.get(i);
+            if (tAccessPoint.isSetServer() && tAccessPoint.getServer().isSetLDevice()) {
+                cursor.enterAccessPoint(tAccessPoint);
+                List<TLDevice> lDevices = tAccessPoint.getServer().getLDevice();
+                for (int j = 0, lDeviceCount = lDevices.size(); j < lDeviceCount; j++) {
+                    walkLDevice(lDevices.get(j), rules, depth, cursor);
+                }
+            }
+        }
+    }
+
+    private static void walkLDevice(TLDevice tlDevice, SclRule[] rules, Depth depth, SclCursor cursor) {
+        cursor.enterLDevice(tlDevice);
+        for (SclRule rule : rules) {
+            rule.onLDevice(cursor);
+        }
+        if (depth == Depth.LDEVICE) {
+            return;
+        }
+        if (tlDevice.isSetLN0()) {
+            walkLn(tlDevice.getLN0(), rules, depth, cursor);
+        }
+        if (tlDevice.isSetLN()) {
+            List<TLN> lns = tlDevice.getLN();
+            for (int i = 0, size = lns.size(); i < size; i++) {
+                walkLn(lns.get(i), rules, depth, cursor);
+            }
+        }
+    }
+
+    private static void walkLn(TAnyLN tAnyLN, SclRule[] rules, Depth depth, SclCursor cursor) {
+        cursor.enterLn(tAnyLN);
+        for (SclRule rule : rules) {
+            rule.onLn(cursor);
+        }
+        if (depth == Depth.LN) {
+            return;
+        }
+        if (tAnyLN.isSetDOI()) {
+            List<TDOI> dois = tAnyLN.getDOI();
+            for (int i = 0, size = dois.size(); i < size; i++) {
+                cursor.enterDoi(dois.get(i));
+                for (SclRule rule : rules) {
+                    rule.onDoi(cursor);
+                }
+            }
+        }
+        if (tAnyLN.isSetInputs() && tAnyLN.getInputs().isSetExtRef()) {
+            List<TExtRef> extRefs = tAnyLN.getInputs().getExtRef();
+            for (int i = 0, size = extRefs.size(); i < size; i++) {
+                cursor.enterExtRef(extRefs.get(i));
+                for (SclRule rule : rules) {
+                    rule.onExtRef(cursor);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,490 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+import org.lfenergy.compas.scl2007b4.model.*;
+import org.lfenergy.compas.sct.commons.util.ControlBlockEnum;
+import org.lfenergy.compas.sct.commons.util.Utils;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable graph of the GOOSE, SMV and Report signal flows of an SCL:
+ * IED → LDevice → ControlBlock → DataSet → FCDA → subscribing ExtRef, with an extra ControlBlock → ExtRef edge for each
+ * ExtRef bound to a ControlBlock (srcCBName set). The serviceType of the ExtRef gives the type of its ControlBlock: an ExtRef
+ * without serviceType is bound to the GOOSE, SMV and Report ControlBlocks having its srcCBName.
+ * <p>
+ * Nodes are numbered from 0 in document order and identified by a key built from their names:
+ * <ul>
+ *   <li>IED: {@code IED_NAME}</li>
+ *   <li>LDevice: {@code IED_NAME/LD_INST}</li>
+ *   <li>DataSet: {@code IED_NAME/LD_INST/LNName.name}, LNName being LLN0 or prefix + lnClass + inst</li>
+ *   <li>ControlBlock: {@code IED_NAME/LD_INST/LNName.name[TYPE]}, TYPE being the {@link ControlBlockEnum} of the ControlBlock, so
+ *   ControlBlocks of different types may have the same name</li>
+ *   <li>FCDA: {@code <DataSet key>/FCDA[position]}</li>
+ *   <li>ExtRef: {@code IED_NAME/LD_INST/LNName/ExtRef[position]}</li>
+ * </ul>
+ * Positions start at 1. When two elements have the same key, the first one wins and the other one, with its content, is not in
+ * the graph. An ExtRef is linked to the FCDAs of its ControlBlock DataSet having the same ldInst, prefix, lnClass, lnInst and
+ * doName as the ExtRef, and the same daName when the ExtRef has one.
+ * </p>
+ * <p>
+ * Edges are stored in compressed sparse row arrays, in both directions, so the graph is a snapshot of the SCL when it was built:
+ * build it again after changing the SCL.
+ * </p>
+ */
+public final class SignalFlowGraph {
+
+    /**
+     * Kind of the elements of the graph
+     */
+    public enum NodeKind {
+        IED, LDEVICE, CONTROL_BLOCK, DATASET, FCDA, EXT_REF
+    }
+
+    private static final int NO_ACCESS_POINT = -1;
+    private static final List<ControlBlockEnum> FLOW_CONTROL_BLOCKS = List.of(ControlBlockEnum.GSE, ControlBlockEnum.SAMPLED_VALUE,
+        ControlBlockEnum.REPORT);
+
+    private final NodeKind[] kinds;
+    private final String[] keys;
+    private final int[] accessPoints;
+    private final ControlBlockEnum[] controlBlockTypes;
+    private final Map<NodeKind, Map<String, Integer>> idsByKey;
+    private final Map<String, Integer> accessPointIds;
+    private final int[][] countsByAccessPoint;
+    private final int[] successorOffsets;
+    private final int[] successors;
+    private final int[] predecessorOffsets;
+    private final int[] predecessors;
+
+    private SignalFlowGraph(Builder builder) {
+        int size = builder.kinds.size();
+        this.kinds = builder.kinds.toArray(new NodeKind[0]);
+        this.keys = builder.keys.toArray(new String[0]);
+        this.accessPoints = builder.accessPoints.toArray();
+        this.controlBlockTypes = builder.controlBlockTypes.toArray(new ControlBlockEnum[0]);
+        EnumMap<NodeKind, Map<String, Integer>> ids = new EnumMap<>(NodeKind.class);
+        builder.idsByKey.forEach((kind, idsOfKind) -> ids.put(kind, Map.copyOf(idsOfKind)));
+        this.idsByKey = Collections.unmodifiableMap(ids);
+        this.accessPointIds = Map.copyOf(builder.accessPointIds);
+        this.countsByAccessPoint = new int[accessPointIds.size()][NodeKind.values().length];
+        for (int node = 0; node < size; node++) {
+            if (accessPoints[node] != NO_ACCESS_POINT) {
+                countsByAccessPoint[accessPoints[node]][kinds[node].ordinal()]++;
+            }
+        }
+        int[] sources = builder.edgeSources.toArray();
+        int[] targets = builder.edgeTargets.toArray();
+        this.successorOffsets = new int[size + 1];
+        this.successors = toCsr(sources, targets, successorOffsets);
+        this.predecessorOffsets = new int[size + 1];
+        this.predecessors = toCsr(targets, sources, predecessorOffsets);
+    }
+
+    /**
+     * Builds the signal flow graph of an SCL in one walk over its IEDs
+     * @param scl SCL
+     * @return graph of the SCL as it is now
+     */
+    public static SignalFlowGraph build(@NonNull SCL scl) {
+        Builder builder = new Builder();
+        scl.getIED().forEach(builder::addIed);
+        builder.linkExtRefs();
+        return new SignalFlowGraph(builder);
+    }
+
+    /**
+     * Counting sort of the edges by source, keeping the order in which edges were added for a given source
+     */
+    private static int[] toCsr(int[] sources, int[] targets, int[] offsets) {
+        for (int source : sources) {
+            offsets[source + 1]++;
+        }
+        for (int node = 1; node < offsets.length; node++) {
+            offsets[node] += offsets[node - 1];
+        }
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        int[] csr = new int[targets.length];
+        for (int edge = 0; edge < sources.length; edge++) {
+            csr[next[sources[edge]]++] = targets[edge];
+        }
+        return csr;
+    }
+
+    /**
+     * @return number of nodes
+     */
+    public int size() {
+        return kinds.length;
+    }
+
+    /**
+     * @return number of edges
+     */
+    public int edgeCount() {
+        return successors.length;
+    }
+
+    /**
+     * Finds a node by key
+     * @param kind kind of the node
+     * @param key key of the node, as described in {@link SignalFlowGraph}
+     * @return id of the node, or empty OptionalInt when unknown
+     */
+    public OptionalInt findNode(@NonNull NodeKind kind, String key) {
+        Integer id = idsByKey.getOrDefault(kind, Map.of()).get(key);
+        return id == null ? OptionalInt.empty() : OptionalInt.of(id);
+    }
+
+    /**
+     * Gets all nodes of a kind
+     * @param kind kind of the nodes
+     * @return ids of the nodes, in document order
+     */
+    public int[] nodes(@NonNull NodeKind kind) {
+        return IntStream.range(0, kinds.length).filter(node -> kinds[node] == kind).toArray();
+    }
+
+    /**
+     * @param node node id
+     * @return kind of the node
+     */
+    public NodeKind getKind(int node) {
+        return kinds[node];
+    }
+
+    /**
+     * @param node node id
+     * @return key of the node
+     */
+    public String getKey(int node) {
+        return keys[node];
+    }
+
+    /**
+     * @param node node id
+     * @return type of the ControlBlock, or empty Optional when the node is not a ControlBlock
+     */
+    public Optional<ControlBlockEnum> getControlBlockType(int node) {
+        return Optional.ofNullable(controlBlockTypes[node]);
+    }
+
+    /**
+     * @param node node id
+     * @return number of edges leaving the node
+     */
+    public int fanOut(int node) {
+        return successorOffsets[node + 1] - successorOffsets[node];
+    }
+
+    /**
+     * @param node node id
+     * @return number of edges entering the node
+     */
+    public int fanIn(int node) {
+        return predecessorOffsets[node + 1] - predecessorOffsets[node];
+    }
+
+    /**
+     * @param node node id
+     * @return ids of the nodes targeted by the edges leaving the node
+     */
+    public int[] successors(int node) {
+        return Arrays.copyOfRange(successors, successorOffsets[node], successorOffsets[node + 1]);
+    }
+
+    /**
+     * @param node node id
+     * @return ids of the nodes sourcing the edges entering the node
+     */
+    public int[] predecessors(int node) {
+        return Arrays.copyOfRange(predecessors, predecessorOffsets[node], predecessorOffsets[node + 1]);
+    }
+
+    /**
+     * Gets the nodes reachable from a node, e.g. the ExtRefs impacted by the removal of an IED
+     * @param node node id
+     * @return ids of the reachable nodes, node excluded, in ascending order
+     */
+    public int[] reachableFrom(int node) {
+        return traverse(node, successorOffsets, successors);
+    }
+
+    /**
+     * Gets the nodes from which a node is reachable, e.g. the sources of an ExtRef
+     * @param node node id
+     * @return ids of the nodes reaching given node, node excluded, in ascending order
+     */
+    public int[] reachingTo(int node) {
+        return traverse(node, predecessorOffsets, predecessors);
+    }
+
+    /**
+     * Counts the nodes of a kind held by an AccessPoint, e.g. its DataSets, FCDAs, ControlBlocks or ExtRefs
+     * @param iedName name of the IED
+     * @param apName name of the AccessPoint
+     * @param kind kind of the nodes, IEDs are not held by an AccessPoint
+     * @return number of nodes of the kind in the AccessPoint, 0 when the AccessPoint is unknown
+     */
+    public int count(String iedName, String apName, @NonNull NodeKind kind) {
+        Integer accessPoint = accessPointIds.get(accessPointKey(iedName, apName));
+        return accessPoint == null ? 0 : countsByAccessPoint[accessPoint][kind.ordinal()];
+    }
+
+    /**
+     * Counts the distinct ControlBlocks of a type subscribed by the ExtRefs of an AccessPoint
+     * @param iedName name of the client IED
+     * @param apName name of the AccessPoint
+     * @param controlBlockType type of the ControlBlocks
+     * @return number of ControlBlocks of the type bound to at least one ExtRef of the AccessPoint
+     */
+    public int countSubscribedControlBlocks(String iedName, String apName, @NonNull ControlBlockEnum controlBlockType) {
+        Integer accessPoint = accessPointIds.get(accessPointKey(iedName, apName));
+        if (accessPoint == null) {
+            return 0;
+        }
+        BitSet controlBlocks = new BitSet(kinds.length);
+        for (int node = 0; node < kinds.length; node++) {
+            if (kinds[node] == NodeKind.EXT_REF && accessPoints[node] == accessPoint) {
+                for (int edge = predecessorOffsets[node]; edge < predecessorOffsets[node + 1]; edge++) {
+                    if (controlBlockTypes[predecessors[edge]] == controlBlockType) {
+                        controlBlocks.set(predecessors[edge]);
+                    }
+                }
+            }
+        }
+        return controlBlocks.cardinality();
+    }
+
+    private int[] traverse(int start, int[] offsets, int[] adjacency) {
+        BitSet visited = new BitSet(kinds.length);
+        int[] queue = new int[kinds.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited.set(start);
+        while (head < tail) {
+            int node = queue[head++];
+            for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                int target = adjacency[edge];
+                if (!visited.get(target)) {
+                    visited.set(target);
+                    queue[tail++] = target;
+                }
+            }
+        }
+        visited.clear(start);
+        return visited.stream().toArray();
+    }
+
+    private static String accessPointKey(String iedName, String apName) {
+        return iedName + "/" + apName;
+    }
+
+    private static String lNodeName(String prefix, String lnClass, String lnInst) {
+        if (TLLN0Enum.LLN_0.value().equals(lnClass)) {
+            return TLLN0Enum.LLN_0.value();
+        }
+        return StringUtils.trimToEmpty(prefix) + StringUtils.trimToEmpty(lnClass) + StringUtils.trimToEmpty(lnInst);
+    }
+
+    private static String controlBlockKey(String controlBlockName, ControlBlockEnum controlBlockEnum) {
+        return controlBlockName + "[" + controlBlockEnum + "]";
+    }
+
+    /**
+     * Collects nodes and edges while walking the SCL, then links ExtRefs once all ControlBlocks are known
+     */
+    private static final class Builder {
+
+        private final List<NodeKind> kinds = new ArrayList<>();
+        private final List<String> keys = new ArrayList<>();
+        private final IntList accessPoints = new IntList();
+        private final List<ControlBlockEnum> controlBlockTypes = new ArrayList<>();
+        private final Map<NodeKind, Map<String, Integer>> idsByKey = new EnumMap<>(NodeKind.class);
+        private final Map<String, Integer> accessPointIds = new HashMap<>();
+        private final IntList edgeSources = new IntList();
+        private final IntList edgeTargets = new IntList();
+        private final Map<Integer, Integer> dataSetByControlBlock = new HashMap<>();
+        private final Map<Integer, TFCDA> fcdas = new HashMap<>();
+        private final Map<Integer, TExtRef> extRefs = new LinkedHashMap<>();
+
+        private void addIed(TIED tied) {
+            int ied = addNode(NodeKind.IED, tied.getName(), NO_ACCESS_POINT, null);
+            if (ied < 0) {
+                return;
+            }
+            for (TAccessPoint tAccessPoint : tied.getAccessPoint()) {
+                int accessPoint = accessPointIds.computeIfAbsent(accessPointKey(tied.getName(), tAccessPoint.getName()),
+                    key -> accessPointIds.size());
+                if (tAccessPoint.getServer() != null) {
+                    for (TLDevice tlDevice : tAccessPoint.getServer().getLDevice()) {
+                        String lDeviceKey = tied.getName() + "/" + tlDevice.getInst();
+                        int lDevice = addNode(NodeKind.LDEVICE, lDeviceKey, accessPoint, null);
+                        if (lDevice >= 0) {
+                            addEdge(ied, lDevice);
+                            if (tlDevice.getLN0() != null) {
+                                addLn(lDevice, lDeviceKey + "/" + TLLN0Enum.LLN_0.value(), accessPoint, tlDevice.getLN0());
+                            }
+                            tlDevice.getLN().forEach(tln -> addLn(lDevice, lDeviceKey + "/"
+                                    + lNodeName(tln.getPrefix(), tln.isSetLnClass() ? tln.getLnClass().get(0) : null, tln.getInst()),
+                                accessPoint, tln));
+                        }
+                    }
+                }
+            }
+        }
+
+        private void addLn(int lDevice, String lnKey, int accessPoint, TAnyLN tAnyLN) {
+            Map<String, Integer> dataSets = new HashMap<>();
+            for (TDataSet tDataSet : tAnyLN.getDataSet()) {
+                String dataSetKey = lnKey + "." + tDataSet.getName();
+                int dataSet = addNode(NodeKind.DATASET, dataSetKey, accessPoint, null);
+                if (dataSet >= 0) {
+                    dataSets.put(tDataSet.getName(), dataSet);
+                    for (int position = 0; position < tDataSet.getFCDA().size(); position++) {
+                        int fcda = addNode(NodeKind.FCDA, dataSetKey + "/FCDA[" + (position + 1) + "]", accessPoint, null);
+                        fcdas.put(fcda, tDataSet.getFCDA().get(position));
+                        addEdge(dataSet, fcda);
+                    }
+                }
+            }
+            for (ControlBlockEnum controlBlockEnum : FLOW_CONTROL_BLOCKS) {
+                for (TControl tControl : controlsOf(tAnyLN, controlBlockEnum)) {
+                    int controlBlock = addNode(NodeKind.CONTROL_BLOCK, controlBlockKey(lnKey + "." + tControl.getName(), controlBlockEnum),
+                        accessPoint, controlBlockEnum);
+                    if (controlBlock >= 0) {
+                        addEdge(lDevice, controlBlock);
+                        Integer dataSet = dataSets.get(tControl.getDatSet());
+                        if (dataSet != null) {
+                            addEdge(controlBlock, dataSet);
+                            dataSetByControlBlock.put(controlBlock, dataSet);
+                        }
+                    }
+                }
+            }
+            if (tAnyLN.isSetInputs()) {
+                List<TExtRef> tExtRefs = tAnyLN.getInputs().getExtRef();
+                for (int position = 0; position < tExtRefs.size(); position++) {
+                    int extRef = addNode(NodeKind.EXT_REF, lnKey + "/ExtRef[" + (position + 1) + "]", accessPoint, null);
+                    if (extRef >= 0) {
+                        extRefs.put(extRef, tExtRefs.get(position));
+                    }
+                }
+            }
+        }
+
+        private static List<? extends TControl> controlsOf(TAnyLN tAnyLN, ControlBlockEnum controlBlockEnum) {
+            return switch (controlBlockEnum) {
+                case GSE -> tAnyLN instanceof TLN0 tln0 ? tln0.getGSEControl() : List.of();
+                case SAMPLED_VALUE -> tAnyLN instanceof TLN0 tln0 ? tln0.getSampledValueControl() : List.of();
+                default -> tAnyLN.getReportControl();
+            };
+        }
+
+        private void linkExtRefs() {
+            extRefs.forEach((extRef, tExtRef) -> {
+                if (!tExtRef.isSetSrcCBName()) {
+                    return;
+                }
+                String srcLnClass = tExtRef.isSetSrcLNClass() ? tExtRef.getSrcLNClass().get(0) : TLLN0Enum.LLN_0.value();
+                String controlBlockName = tExtRef.getIedName() + "/"
+                    + (tExtRef.isSetSrcLDInst() ? tExtRef.getSrcLDInst() : tExtRef.getLdInst()) + "/"
+                    + lNodeName(tExtRef.getSrcPrefix(), srcLnClass, tExtRef.getSrcLNInst()) + "." + tExtRef.getSrcCBName();
+                for (ControlBlockEnum controlBlockEnum : controlBlockTypesOf(tExtRef)) {
+                    Integer controlBlock = idsByKey.getOrDefault(NodeKind.CONTROL_BLOCK, Map.of())
+                        .get(controlBlockKey(controlBlockName, controlBlockEnum));
+                    if (controlBlock != null) {
+                        linkExtRef(controlBlock, extRef, tExtRef);
+                    }
+                }
+            });
+        }
+
+        private void linkExtRef(int controlBlock, int extRef, TExtRef tExtRef) {
+            addEdge(controlBlock, extRef);
+            Integer dataSet = dataSetByControlBlock.get(controlBlock);
+            if (dataSet != null) {
+                // FCDAs of a DataSet are numbered right after it
+                for (int fcda = dataSet + 1; fcda < kinds.size() && kinds.get(fcda) == NodeKind.FCDA; fcda++) {
+                    if (isSubscribedBy(fcdas.get(fcda), tExtRef)) {
+                        addEdge(fcda, extRef);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return type of the ControlBlock given by the serviceType of the ExtRef, or all types when the ExtRef has no serviceType
+         */
+        private static List<ControlBlockEnum> controlBlockTypesOf(TExtRef tExtRef) {
+            if (!tExtRef.isSetServiceType()) {
+                return FLOW_CONTROL_BLOCKS;
+            }
+            return switch (tExtRef.getServiceType()) {
+                case GOOSE -> List.of(ControlBlockEnum.GSE);
+                case SMV -> List.of(ControlBlockEnum.SAMPLED_VALUE);
+                case REPORT -> List.of(ControlBlockEnum.REPORT);
+                default -> List.of();
+            };
+        }
+
+        private static boolean isSubscribedBy(TFCDA tfcda, TExtRef tExtRef) {
+            return Utils.equalsOrBothBlank(tfcda.getLdInst(), tExtRef.getLdInst())
+                && Utils.equalsOrBothBlank(tfcda.getPrefix(), tExtRef.getPrefix())
+                && Utils.equalsOrBothBlank(tfcda.isSetLnClass() ? tfcda.getLnClass().get(0) : null,
+                    tExtRef.isSetLnClass() ? tExtRef.getLnClass().get(0) : null)
+                && Utils.equalsOrBothBlank(tfcda.getLnInst(), tExtRef.getLnInst())
+                && Utils.equalsOrBothBlank(tfcda.getDoName(), tExtRef.getDoName())
+                && (StringUtils.isBlank(tExtRef.getDaName()) || tExtRef.getDaName().equals(tfcda.getDaName()));
+        }
+
+        /**
+         * @return id of the new node, or -1 when a node of the same kind has the same key
+         */
+        private int addNode(NodeKind kind, String key, int accessPoint, ControlBlockEnum controlBlockType) {
+            Map<String, Integer> idsOfKind = idsByKey.computeIfAbsent(kind, k -> new HashMap<>());
+            if (idsOfKind.containsKey(key)) {
+                return -1;
+            }
+            int id = kinds.size();
+            idsOfKind.put(key, id);
+            kinds.add(kind);
+            keys.add(key);
+            accessPoints.add(accessPoint);
+            controlBlockTypes.add(controlBlockType);
+            return id;
+        }
+
+        private void addEdge(int source, int target) {
+            edgeSources.add(source);
+            edgeTargets.add(target);
+        }
+    }
+
+    /**
+     * Growable array of int, without boxing
+     */
+    private static final class IntList {
+
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.binary;
+
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.w3c.dom.Element;
+import org.xml.sax.InputSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.annotation.XmlType;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary snapshot format of an SCL object tree, shared by {@link SclBinaryWriter} and {@link SclBinaryReader}.
+ * <p>
+ * Layout, all integers being unsigned LEB128 varints unless stated otherwise:
+ * </p>
+ * <ol>
+ *   <li>magic "SCLB" (4 bytes), format version</li>
+ *   <li>string table: count, then for each string its UTF-8 length and bytes</li>
+ *   <li>class table: count, then for each class its name (string id), field count and field names (string ids)</li>
+ *   <li>IED table of contents: count, then for each IED its name (string id + 1, 0 for no name), offset and length of the IED in the body</li>
+ *   <li>body: length, then the SCL root value</li>
+ * </ol>
+ * A value is a one byte tag followed by its content. JAXB objects are written as their class id followed by the values of
+ * their fields, in the order of the class table.
+ */
+final class SclBinaryFormat {
+
+    static final byte[] MAGIC = {'S', 'C', 'L', 'B'};
+    static final int VERSION = 1;
+
+    static final byte NULL = 0;
+    static final byte STRING = 1;
+    static final byte TRUE = 2;
+    static final byte FALSE = 3;
+    static final byte INT = 4;
+    static final byte LONG = 5;
+    static final byte SHORT = 6;
+    static final byte BYTE = 7;
+    static final byte FLOAT = 8;
+    static final byte DOUBLE = 9;
+    static final byte BIG_INTEGER = 10;
+    static final byte BIG_DECIMAL = 11;
+    static final byte ENUM = 12;
+    static final byte QNAME = 13;
+    static final byte CALENDAR = 14;
+    static final byte DURATION = 15;
+    static final byte BYTES = 16;
+    static final byte LIST = 17;
+    static final byte MAP = 18;
+    static final byte JAXB_ELEMENT = 19;
+    static final byte DOM_ELEMENT = 20;
+    static final byte OBJECT = 21;
+
+    private static final TransformerFactory TRANSFORMER_FACTORY = createTransformerFactory();
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = createDocumentBuilderFactory();
+
+    private static final ClassValue<List<Field>> MODEL_FIELDS = new ClassValue<>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            if (type.getSuperclass() != null && isModelClass(type.getSuperclass())) {
+                fields.addAll(get(type.getSuperclass()));
+            }
+            Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+                .forEach(field -> {
+                    field.setAccessible(true);
+                    fields.add(field);
+                });
+            return List.copyOf(fields);
+        }
+    };
+
+    private SclBinaryFormat() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * @param type class
+     * @return true when instances of the class are written field by field: JAXB generated classes, except enums
+     */
+    static boolean isModelClass(Class<?> type) {
+        return !type.isEnum() && type.isAnnotationPresent(XmlType.class);
+    }
+
+    /**
+     * @param type JAXB generated class
+     * @return instance fields of the class and of its JAXB generated superclasses, superclass fields first
+     */
+    static List<Field> modelFields(Class<?> type) {
+        return MODEL_FIELDS.get(type);
+    }
+
+    /**
+     * Creates a transformer writing DOM elements as XML text. Transformers are not thread-safe: each writer creates its own.
+     * @return new transformer
+     */
+    static Transformer newTransformer() {
+        try {
+            // factories are not thread-safe either, but are costly to look up: one is shared and used under lock
+            synchronized (TRANSFORMER_FACTORY) {
+                Transformer transformer = TRANSFORMER_FACTORY.newTransformer();
+                transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+                return transformer;
+            }
+        } catch (Exception e) {
+            throw new ScdException("Cannot write XML elements in SCD snapshot", e);
+        }
+    }
+
+    /**
+     * Creates a parser of the XML text of DOM elements. Document builders are not thread-safe: each read creates its own.
+     * @return new document builder
+     */
+    static DocumentBuilder newDocumentBuilder() {
+        try {
+            synchronized (DOCUMENT_BUILDER_FACTORY) {
+                return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+            }
+        } catch (Exception e) {
+            throw new ScdException("Cannot read XML elements of SCD snapshot", e);
+        }
+    }
+
+    static String toXml(Transformer transformer, Element element) {
+        try {
+            StringWriter stringWriter = new StringWriter();
+            transformer.transform(new DOMSource(element), new StreamResult(stringWriter));
+            return stringWriter.toString();
+        } catch (Exception e) {
+            throw new ScdException("Cannot write XML element " + element.getTagName() + " in SCD snapshot", e);
+        }
+    }
+
+    static Element fromXml(DocumentBuilder documentBuilder, String xml) {
+        try {
+            return documentBuilder.parse(new InputSource(new StringReader(xml))).getDocumentElement();
+        } catch (Exception e) {
+            throw new ScdException("Corrupted SCD snapshot: invalid XML element", e);
+        }
+    }
+
+    private static TransformerFactory createTransformerFactory() {
+        TransformerFactory transformerFactory = TransformerFactory.newInstance();
+        transformerFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        transformerFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
+        return transformerFactory;
+    }
+
+    private static DocumentBuilderFactory createDocumentBuilderFactory() {
+        try {
+            DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+            documentBuilderFactory.setNamespaceAware(true);
+            documentBuilderFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            return documentBuilderFactory;
+        } catch (ParserConfigurationException e) {
+            throw new ScdException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Growable byte array
+     */
+    static final class Output {
+
+        private byte[] bytes = new byte[1024];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) value;
+        }
+
+        void writeBytes(byte[] values) {
+            writeBytes(values, 0, values.length);
+        }
+
+        void writeBytes(byte[] values, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(values, offset, bytes, size, length);
+            size += length;
+        }
+
+        void writeVarint(long value) {
+            ensureCapacity(10);
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            bytes[size++] = (byte) remaining;
+        }
+
+        void writeSignedVarint(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        byte[] buffer() {
+            return bytes;
+        }
+
+        private void ensureCapacity(int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+        }
+    }
+
+    /**
+     * Cursor over a byte array
+     */
+    static final class Input {
+
+        private final byte[] bytes;
+        private final int end;
+        private int position;
+
+        Input(byte[] bytes, int position, int end) {
+            this.bytes = bytes;
+            this.position = position;
+            this.end = end;
+        }
+
+        int position() {
+            return position;
+        }
+
+        void seek(int newPosition) {
+            if (newPosition < 0 || newPosition > end) {
+                throw new ScdException("Corrupted SCD snapshot: position %d out of bounds".formatted(newPosition));
+            }
+            position = newPosition;
+        }
+
+        byte readByte() {
+            if (position >= end) {
+                throw new ScdException("Corrupted SCD snapshot: unexpected end of data");
+            }
+            return bytes[position++];
+        }
+
+        byte[] readBytes(int length) {
+            if (length < 0 || length > end - position) {
+                throw new ScdException("Corrupted SCD snapshot: unexpected end of data");
+            }
+            byte[] values = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return values;
+        }
+
+        String readUtf8(int length) {
+            if (length < 0 || length > end - position) {
+                throw new ScdException("Corrupted SCD snapshot: unexpected end of data");
+            }
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        long readVarlong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new ScdException("Corrupted SCD snapshot: invalid varint");
+        }
+
+        int readVarint() {
+            long value = readVarlong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new ScdException("Corrupted SCD snapshot: invalid varint");
+            }
+            return (int) value;
+        }
+
+        long readSignedVarlong() {
+            long value = readVarlong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
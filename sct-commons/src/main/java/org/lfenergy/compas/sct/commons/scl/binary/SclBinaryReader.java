@@ -0,0 +1,326 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.binary;
+
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TIED;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilder;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.lfenergy.compas.sct.commons.scl.binary.SclBinaryFormat.*;
+
+/**
+ * Reads binary snapshots written by {@link SclBinaryWriter}, rebuilding the SCL object tree without parsing XML.
+ * <p>
+ * The string, class and IED tables are read when the reader is created. Then the whole SCL, the SCL with some IEDs only, or a
+ * single IED can be read, as many times as needed: each read builds new objects. IEDs left out are skipped using the table of
+ * contents, without being decoded. Once created, a reader can be shared between threads.
+ * </p>
+ */
+public final class SclBinaryReader {
+
+    private static final Object SKIPPED = new Object();
+    // the factory of the JDK keeps no state: like JAXB, it is shared by all reads
+    private static final DatatypeFactory DATATYPE_FACTORY = createDatatypeFactory();
+
+    private final byte[] data;
+    private final String[] strings;
+    private final ClassEntry[] classes;
+    private final List<TocEntry> toc;
+    private final Map<Integer, TocEntry> tocByOffset = new HashMap<>();
+    private final int bodyStart;
+    private final int bodyEnd;
+
+    /**
+     * Constructor, reads the tables of the snapshot
+     * @param data snapshot written by {@link SclBinaryWriter}. It must not be modified afterwards.
+     * @throws ScdException when data is not a snapshot of this format version, or references unknown classes or fields
+     */
+    public SclBinaryReader(@NonNull byte[] data) {
+        this.data = data;
+        Input input = new Input(data, 0, data.length);
+        if (data.length < MAGIC.length || !Arrays.equals(input.readBytes(MAGIC.length), MAGIC)) {
+            throw new ScdException("Not an SCD snapshot");
+        }
+        int version = input.readVarint();
+        if (version != VERSION) {
+            throw new ScdException("Unsupported SCD snapshot version %d, expected %d".formatted(version, VERSION));
+        }
+        strings = new String[input.readVarint()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = input.readUtf8(input.readVarint());
+        }
+        classes = new ClassEntry[input.readVarint()];
+        for (int i = 0; i < classes.length; i++) {
+            String className = string(input.readVarint());
+            String[] fieldNames = new String[input.readVarint()];
+            for (int j = 0; j < fieldNames.length; j++) {
+                fieldNames[j] = string(input.readVarint());
+            }
+            classes[i] = ClassEntry.resolve(className, fieldNames);
+        }
+        int tocSize = input.readVarint();
+        List<TocEntry> tocEntries = new ArrayList<>(tocSize);
+        for (int i = 0; i < tocSize; i++) {
+            int iedNameId = input.readVarint();
+            TocEntry tocEntry = new TocEntry(iedNameId == 0 ? null : string(iedNameId - 1), input.readVarint(), input.readVarint());
+            tocEntries.add(tocEntry);
+            tocByOffset.put(tocEntry.offset(), tocEntry);
+        }
+        toc = List.copyOf(tocEntries);
+        int bodyLength = input.readVarint();
+        bodyStart = input.position();
+        bodyEnd = bodyStart + bodyLength;
+        if (bodyEnd != data.length) {
+            throw new ScdException("Corrupted SCD snapshot: body length %d does not match data".formatted(bodyLength));
+        }
+    }
+
+    /**
+     * @return names of the IEDs of the snapshot, in document order
+     */
+    public List<String> getIedNames() {
+        return toc.stream().map(TocEntry::iedName).toList();
+    }
+
+    /**
+     * Reads the whole SCL
+     * @return new SCL object tree, equal to the written one
+     */
+    public SCL read() {
+        return (SCL) new Decoder(bodyStart, null).readValue();
+    }
+
+    /**
+     * Reads the SCL, keeping only some IEDs. Other IEDs are skipped without being decoded.
+     * @param iedNameFilter filter on the names of the IEDs to read
+     * @return new SCL object tree, equal to the written one without the filtered out IEDs
+     */
+    public SCL read(@NonNull Predicate<String> iedNameFilter) {
+        return (SCL) new Decoder(bodyStart, iedNameFilter).readValue();
+    }
+
+    /**
+     * Reads a single IED
+     * @param iedName name of the IED
+     * @return new IED object tree, equal to the first written IED with this name, or empty Optional when there is none
+     */
+    public Optional<TIED> readIed(String iedName) {
+        return toc.stream()
+            .filter(tocEntry -> Objects.equals(tocEntry.iedName(), iedName))
+            .findFirst()
+            .map(tocEntry -> (TIED) new Decoder(bodyStart + tocEntry.offset(), null).readValue());
+    }
+
+    private String string(int id) {
+        if (id < 0 || id >= strings.length) {
+            throw new ScdException("Corrupted SCD snapshot: unknown string %d".formatted(id));
+        }
+        return strings[id];
+    }
+
+    private ClassEntry classEntry(int id) {
+        if (id < 0 || id >= classes.length) {
+            throw new ScdException("Corrupted SCD snapshot: unknown class %d".formatted(id));
+        }
+        return classes[id];
+    }
+
+    /**
+     * Decoding state of one read
+     */
+    private final class Decoder {
+
+        private final Input input;
+        private final Predicate<String> iedNameFilter;
+        private DocumentBuilder documentBuilder;
+
+        private Decoder(int position, Predicate<String> iedNameFilter) {
+            this.input = new Input(data, position, bodyEnd);
+            this.iedNameFilter = iedNameFilter;
+        }
+
+        private Object readValue() {
+            int tagPosition = input.position();
+            byte tag = input.readByte();
+            return switch (tag) {
+                case NULL -> null;
+                case STRING -> readString();
+                case TRUE -> Boolean.TRUE;
+                case FALSE -> Boolean.FALSE;
+                case INT -> (int) input.readSignedVarlong();
+                case LONG -> input.readSignedVarlong();
+                case SHORT -> (short) input.readSignedVarlong();
+                case BYTE -> (byte) input.readSignedVarlong();
+                case FLOAT -> Float.intBitsToFloat((int) input.readSignedVarlong());
+                case DOUBLE -> Double.longBitsToDouble(input.readSignedVarlong());
+                case BIG_INTEGER -> new BigInteger(readString());
+                case BIG_DECIMAL -> new BigDecimal(readString());
+                case ENUM -> classEntry(input.readVarint()).enumConstant(readString());
+                case QNAME -> readQName();
+                case CALENDAR -> DATATYPE_FACTORY.newXMLGregorianCalendar(readString());
+                case DURATION -> DATATYPE_FACTORY.newDuration(readString());
+                case BYTES -> input.readBytes(input.readVarint());
+                case LIST -> readList();
+                case MAP -> readMap();
+                case JAXB_ELEMENT -> readJaxbElement();
+                case DOM_ELEMENT -> fromXml(documentBuilder(), readString());
+                case OBJECT -> readObject(tagPosition);
+                default -> throw new ScdException("Corrupted SCD snapshot: unknown tag %d".formatted(tag));
+            };
+        }
+
+        private String readString() {
+            return string(input.readVarint());
+        }
+
+        private DocumentBuilder documentBuilder() {
+            if (documentBuilder == null) {
+                documentBuilder = newDocumentBuilder();
+            }
+            return documentBuilder;
+        }
+
+        private QName readQName() {
+            return new QName(readString(), readString(), readString());
+        }
+
+        private List<Object> readList() {
+            int size = input.readVarint();
+            List<Object> list = new ArrayList<>(Math.min(size, bodyEnd - input.position()));
+            for (int i = 0; i < size; i++) {
+                Object value = readValue();
+                if (value != SKIPPED) {
+                    list.add(value);
+                }
+            }
+            return list;
+        }
+
+        private Map<Object, Object> readMap() {
+            int size = input.readVarint();
+            Map<Object, Object> map = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                map.put(readValue(), readValue());
+            }
+            return map;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private JAXBElement<?> readJaxbElement() {
+            QName name = readQName();
+            Class declaredType = classEntry(input.readVarint()).type();
+            Class scope = classEntry(input.readVarint()).type();
+            boolean nil = input.readByte() == TRUE;
+            JAXBElement jaxbElement = new JAXBElement(name, declaredType, scope, readValue());
+            jaxbElement.setNil(nil);
+            return jaxbElement;
+        }
+
+        private Object readObject(int tagPosition) {
+            ClassEntry classEntry = classEntry(input.readVarint());
+            if (iedNameFilter != null && classEntry.type() == TIED.class) {
+                TocEntry tocEntry = tocByOffset.get(tagPosition - bodyStart);
+                if (tocEntry != null && !iedNameFilter.test(tocEntry.iedName())) {
+                    input.seek(tagPosition + tocEntry.length());
+                    return SKIPPED;
+                }
+            }
+            Object object = classEntry.newInstance();
+            for (Field field : classEntry.fields()) {
+                Object value = readValue();
+                try {
+                    field.set(object, value);
+                } catch (IllegalAccessException | IllegalArgumentException e) {
+                    throw new ScdException("Corrupted SCD snapshot: cannot set field %s of %s".formatted(field.getName(),
+                        classEntry.type().getName()), e);
+                }
+            }
+            return object;
+        }
+    }
+
+    private static DatatypeFactory createDatatypeFactory() {
+        try {
+            return DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException e) {
+            throw new ScdException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Class of the class table, with its fields in snapshot order when it is a JAXB generated class
+     */
+    private record ClassEntry(Class<?> type, Constructor<?> constructor, Field[] fields, Map<String, Object> enumConstants) {
+
+        private static ClassEntry resolve(String className, String[] fieldNames) {
+            Class<?> type;
+            try {
+                type = Class.forName(className, false, SCL.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new ScdException("Incompatible SCD snapshot: unknown class " + className, e);
+            }
+            if (type.isEnum()) {
+                Map<String, Object> enumConstants = new HashMap<>();
+                Arrays.stream(type.getEnumConstants()).forEach(constant -> enumConstants.put(((Enum<?>) constant).name(), constant));
+                return new ClassEntry(type, null, new Field[0], enumConstants);
+            }
+            if (!isModelClass(type)) {
+                return new ClassEntry(type, null, new Field[0], Map.of());
+            }
+            Map<String, Field> fieldsByName = new HashMap<>();
+            modelFields(type).forEach(field -> fieldsByName.putIfAbsent(field.getName(), field));
+            Field[] fields = new Field[fieldNames.length];
+            for (int i = 0; i < fieldNames.length; i++) {
+                fields[i] = fieldsByName.get(fieldNames[i]);
+                if (fields[i] == null) {
+                    throw new ScdException("Incompatible SCD snapshot: unknown field %s of %s".formatted(fieldNames[i], className));
+                }
+            }
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return new ClassEntry(type, constructor, fields, Map.of());
+            } catch (NoSuchMethodException e) {
+                throw new ScdException("Incompatible SCD snapshot: no default constructor for " + className, e);
+            }
+        }
+
+        private Object newInstance() {
+            if (constructor == null) {
+                throw new ScdException("Corrupted SCD snapshot: %s is not a JAXB class".formatted(type.getName()));
+            }
+            try {
+                return constructor.newInstance();
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new ScdException("Cannot create instance of " + type.getName(), e);
+            }
+        }
+
+        private Object enumConstant(String name) {
+            Object constant = enumConstants.get(name);
+            if (constant == null) {
+                throw new ScdException("Incompatible SCD snapshot: unknown constant %s of %s".formatted(name, type.getName()));
+            }
+            return constant;
+        }
+    }
+
+    private record TocEntry(String iedName, int offset, int length) {
+    }
+}
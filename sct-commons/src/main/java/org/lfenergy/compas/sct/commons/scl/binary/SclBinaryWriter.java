@@ -0,0 +1,246 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.binary;
+
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TIED;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.w3c.dom.Element;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.datatype.Duration;
+import javax.xml.datatype.XMLGregorianCalendar;
+import javax.xml.namespace.QName;
+import javax.xml.transform.Transformer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.lfenergy.compas.sct.commons.scl.binary.SclBinaryFormat.*;
+
+/**
+ * Writes an SCL object tree in the binary snapshot format described in {@link SclBinaryFormat}, to be reloaded with
+ * {@link SclBinaryReader} without parsing XML.
+ * <p>
+ * Each distinct string is written once in the string table, and each JAXB class once in the class table: the body only contains
+ * varint references to them. The IED table of contents allows {@link SclBinaryReader} to load some IEDs only.
+ * XML remains the interchange format: a snapshot is only meant to be read by the same version of the SCL model.
+ * </p>
+ */
+public final class SclBinaryWriter {
+
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final Map<Class<?>, Integer> classIds = new HashMap<>();
+    private final List<Class<?>> classes = new ArrayList<>();
+    private final List<TocEntry> toc = new ArrayList<>();
+    private final Output body = new Output();
+    private Transformer transformer;
+
+    private SclBinaryWriter() {
+    }
+
+    /**
+     * Writes a binary snapshot of an SCL
+     * @param scl SCL to write. It is only read.
+     * @return snapshot
+     * @throws ScdException when the SCL contains a value which cannot be written
+     */
+    public static byte[] write(@NonNull SCL scl) {
+        return new SclBinaryWriter().writeSnapshot(scl).toByteArray();
+    }
+
+    /**
+     * Writes a binary snapshot of an SCL to a stream
+     * @param scl SCL to write. It is only read.
+     * @param outputStream stream to write to, left open
+     * @throws IOException when writing to the stream fails
+     * @throws ScdException when the SCL contains a value which cannot be written
+     */
+    public static void write(@NonNull SCL scl, @NonNull OutputStream outputStream) throws IOException {
+        Output output = new SclBinaryWriter().writeSnapshot(scl);
+        outputStream.write(output.buffer(), 0, output.size());
+    }
+
+    private Output writeSnapshot(SCL scl) {
+        writeValue(scl);
+        // registers names of classes and IEDs before writing the string table
+        List<int[]> classEntries = classes.stream().map(this::classEntry).toList();
+        int[] iedNameIds = toc.stream().mapToInt(tocEntry -> tocEntry.iedName() == null ? 0 : stringId(tocEntry.iedName()) + 1).toArray();
+
+        Output output = new Output();
+        output.writeBytes(MAGIC);
+        output.writeVarint(VERSION);
+        output.writeVarint(strings.size());
+        for (String string : strings) {
+            byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+            output.writeVarint(utf8.length);
+            output.writeBytes(utf8);
+        }
+        output.writeVarint(classEntries.size());
+        for (int[] classEntry : classEntries) {
+            for (int value : classEntry) {
+                output.writeVarint(value);
+            }
+        }
+        output.writeVarint(toc.size());
+        for (int i = 0; i < toc.size(); i++) {
+            output.writeVarint(iedNameIds[i]);
+            output.writeVarint(toc.get(i).offset());
+            output.writeVarint(toc.get(i).length());
+        }
+        output.writeVarint(body.size());
+        output.writeBytes(body.buffer(), 0, body.size());
+        return output;
+    }
+
+    /**
+     * @return class name id, field count and field name ids
+     */
+    private int[] classEntry(Class<?> type) {
+        List<Field> fields = isModelClass(type) ? modelFields(type) : List.of();
+        int[] classEntry = new int[2 + fields.size()];
+        classEntry[0] = stringId(type.getName());
+        classEntry[1] = fields.size();
+        for (int i = 0; i < fields.size(); i++) {
+            classEntry[2 + i] = stringId(fields.get(i).getName());
+        }
+        return classEntry;
+    }
+
+    private void writeValue(Object value) {
+        if (value == null) {
+            body.writeByte(NULL);
+        } else if (value instanceof String string) {
+            writeString(STRING, string);
+        } else if (value instanceof Boolean bool) {
+            body.writeByte(Boolean.TRUE.equals(bool) ? TRUE : FALSE);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            body.writeByte(integerTag(value));
+            body.writeSignedVarint(((Number) value).longValue());
+        } else if (value instanceof Float floatValue) {
+            body.writeByte(FLOAT);
+            body.writeSignedVarint(Float.floatToIntBits(floatValue));
+        } else if (value instanceof Double doubleValue) {
+            body.writeByte(DOUBLE);
+            body.writeSignedVarint(Double.doubleToLongBits(doubleValue));
+        } else if (value instanceof BigInteger bigInteger) {
+            writeString(BIG_INTEGER, bigInteger.toString());
+        } else if (value instanceof BigDecimal bigDecimal) {
+            writeString(BIG_DECIMAL, bigDecimal.toString());
+        } else if (value instanceof Enum<?> enumValue) {
+            body.writeByte(ENUM);
+            body.writeVarint(classId(enumValue.getDeclaringClass()));
+            body.writeVarint(stringId(enumValue.name()));
+        } else if (value instanceof QName qName) {
+            body.writeByte(QNAME);
+            writeQName(qName);
+        } else if (value instanceof XMLGregorianCalendar calendar) {
+            writeString(CALENDAR, calendar.toXMLFormat());
+        } else if (value instanceof Duration duration) {
+            writeString(DURATION, duration.toString());
+        } else if (value instanceof byte[] bytes) {
+            body.writeByte(BYTES);
+            body.writeVarint(bytes.length);
+            body.writeBytes(bytes);
+        } else if (value instanceof List<?> list) {
+            body.writeByte(LIST);
+            body.writeVarint(list.size());
+            list.forEach(this::writeValue);
+        } else if (value instanceof Map<?, ?> map) {
+            body.writeByte(MAP);
+            body.writeVarint(map.size());
+            map.forEach((key, mapValue) -> {
+                writeValue(key);
+                writeValue(mapValue);
+            });
+        } else if (value instanceof JAXBElement<?> jaxbElement) {
+            body.writeByte(JAXB_ELEMENT);
+            writeQName(jaxbElement.getName());
+            body.writeVarint(classId(jaxbElement.getDeclaredType()));
+            body.writeVarint(classId(jaxbElement.getScope()));
+            body.writeByte(jaxbElement.isNil() ? TRUE : FALSE);
+            writeValue(jaxbElement.getValue());
+        } else if (value instanceof Element element) {
+            writeString(DOM_ELEMENT, toXml(transformer(), element));
+        } else if (isModelClass(value.getClass())) {
+            writeObject(value);
+        } else {
+            throw new ScdException("Cannot write value of type %s in SCD snapshot".formatted(value.getClass().getName()));
+        }
+    }
+
+    private void writeObject(Object value) {
+        int offset = body.size();
+        body.writeByte(OBJECT);
+        body.writeVarint(classId(value.getClass()));
+        for (Field field : modelFields(value.getClass())) {
+            try {
+                writeValue(field.get(value));
+            } catch (IllegalAccessException e) {
+                throw new ScdException("Cannot read field %s of %s".formatted(field.getName(), value.getClass().getName()), e);
+            }
+        }
+        if (value instanceof TIED tied) {
+            toc.add(new TocEntry(tied.getName(), offset, body.size() - offset));
+        }
+    }
+
+    private static byte integerTag(Object value) {
+        if (value instanceof Integer) {
+            return INT;
+        }
+        if (value instanceof Long) {
+            return LONG;
+        }
+        return value instanceof Short ? SHORT : BYTE;
+    }
+
+    private void writeString(byte tag, String value) {
+        body.writeByte(tag);
+        body.writeVarint(stringId(value));
+    }
+
+    private Transformer transformer() {
+        if (transformer == null) {
+            transformer = newTransformer();
+        }
+        return transformer;
+    }
+
+    private void writeQName(QName qName) {
+        body.writeVarint(stringId(qName.getNamespaceURI()));
+        body.writeVarint(stringId(qName.getLocalPart()));
+        body.writeVarint(stringId(qName.getPrefix()));
+    }
+
+    private int stringId(String value) {
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            id = strings.size();
+            stringIds.put(value, id);
+            strings.add(value);
+        }
+        return id;
+    }
+
+    private int classId(Class<?> type) {
+        Integer id = classIds.get(type);
+        if (id == null) {
+            id = classes.size();
+            classIds.put(type, id);
+            classes.add(type);
+        }
+        return id;
+    }
+
+    private record TocEntry(String iedName, int offset, int length) {
+    }
+}
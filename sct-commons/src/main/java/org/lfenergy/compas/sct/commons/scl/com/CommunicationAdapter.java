@@ -13,6 +13,7 @@ import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
 import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -24,6 +25,7 @@ import java.util.stream.Collectors;
  * </p>
  * <ul>
  *   <li>{@link CommunicationAdapter#addSubnetwork <em>add <b>Subnetwork </b> under this object</em>}</li>
+ *   <li>{@link CommunicationAdapter#removeConnectedAPsOfIed <em>remove <b>ConnectedAP </b> of an IED under this object</em>}</li>
  *   <li>{@link CommunicationAdapter#addPrivate <em>Add <b>TPrivate </b> under this object</em>}</li>
  * </ul>
  *
@@ -81,6 +83,7 @@ public class CommunicationAdapter extends SclElementAdapter<SclRootAdapter, TCom
      */
     public SubNetworkAdapter addSubnetwork(String snName, String snType,
                                            String iedName, String apName) throws ScdException {
+        beforeChange();
 
         IEDAdapter iedAdapter = parentAdapter.getIEDAdapterByName(iedName);
         if (!iedAdapter.findAccessPointByName(apName)) {
@@ -92,6 +95,7 @@ public class CommunicationAdapter extends SclElementAdapter<SclRootAdapter, TCom
             subNetwork.setName(snName);
             subNetwork.setType(snType);
             currentElem.getSubNetwork().add(subNetwork);
+            findCommunicationIndex().ifPresent(index -> index.registerSubNetwork(subNetwork));
             opSubNetworkAdapter = Optional.of(new SubNetworkAdapter(this, subNetwork));
         }
 
@@ -106,6 +110,11 @@ public class CommunicationAdapter extends SclElementAdapter<SclRootAdapter, TCom
      * @return Optional <em><b>SubNetworkAdapter</b></em> object
      */
     public Optional<SubNetworkAdapter> getSubnetworkByName(String snName) {
+        Optional<CommunicationIndex> communicationIndex = findCommunicationIndex();
+        if (communicationIndex.isPresent()) {
+            return communicationIndex.get().findSubNetwork(snName)
+                    .map(tSubNetwork -> new SubNetworkAdapter(this, tSubNetwork));
+        }
         return currentElem.getSubNetwork()
                 .stream()
                 .filter(tSubNetwork -> tSubNetwork.getName().equals(snName))
@@ -124,4 +133,30 @@ public class CommunicationAdapter extends SclElementAdapter<SclRootAdapter, TCom
                 .collect(Collectors.toList());
 
     }
+
+    /**
+     * Removes all ConnectedAPs of given IED from all Subnetworks.
+     * Subnetworks left without any ConnectedAP are removed too.
+     * @param iedName name of the IED which ConnectedAPs should be removed
+     */
+    public void removeConnectedAPsOfIed(String iedName) {
+        beforeChange();
+        currentElem.getSubNetwork().forEach(tSubNetwork ->
+                tSubNetwork.getConnectedAP().removeIf(tConnectedAP -> Objects.equals(tConnectedAP.getIedName(), iedName)));
+        currentElem.getSubNetwork().removeIf(tSubNetwork -> !tSubNetwork.isSetConnectedAP());
+        if (parentAdapter != null) {
+            parentAdapter.invalidateCommunicationIndex();
+        }
+    }
+
+    /**
+     * Gets the index of this Communication section, kept by the SclRootAdapter
+     * @return index of this Communication section, or empty Optional when this adapter has no parent SclRootAdapter
+     */
+    Optional<CommunicationIndex> findCommunicationIndex() {
+        if (parentAdapter == null || !amChildElementRef()) {
+            return Optional.empty();
+        }
+        return parentAdapter.findCommunicationIndex();
+    }
 }
@@ -0,0 +1,203 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.com;
+
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.*;
+
+import java.util.*;
+
+/**
+ * Index of the Communication section, to find elements in constant time:
+ * <ul>
+ *   <li>SubNetwork by name</li>
+ *   <li>ConnectedAP by (iedName, apName), in the whole Communication or in a given SubNetwork</li>
+ *   <li>GSE and SMV of a ConnectedAP by (ldInst, cbName)</li>
+ * </ul>
+ * SubNetwork and ConnectedAP are indexed when the index is created. GSE and SMV of a ConnectedAP are indexed on first lookup
+ * in this ConnectedAP.
+ * When several elements have the same key, the first one in document order is kept, as the linear searches do.
+ * <p>
+ * The index is kept up to date by {@link CommunicationAdapter#addSubnetwork}, {@link SubNetworkAdapter#addConnectedAP},
+ * {@link ConnectedAPAdapter#updateGseOrCreateIfNotExists} and {@link ConnectedAPAdapter#updateSmvOrCreateIfNotExists}, and dropped
+ * by {@link CommunicationAdapter#removeConnectedAPsOfIed}. Elements added or removed directly in the JAXB tree are not seen:
+ * call {@link org.lfenergy.compas.sct.commons.scl.SclRootAdapter#invalidateCommunicationIndex()} after such changes.
+ * </p>
+ * @see org.lfenergy.compas.sct.commons.scl.SclRootAdapter#findCommunicationIndex()
+ */
+public final class CommunicationIndex {
+
+    private final TCommunication tCommunication;
+    private final Map<String, TSubNetwork> subNetworksByName = new HashMap<>();
+    private final Map<ConnectedApKey, ConnectedApEntry> connectedAPs = new HashMap<>();
+    private final Map<TSubNetwork, Map<ConnectedApKey, TConnectedAP>> connectedAPsBySubNetwork = new IdentityHashMap<>();
+    private final Set<TConnectedAP> indexedConnectedAPs = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<TConnectedAP, Map<ControlBlockKey, TGSE>> gsesByConnectedAP = new IdentityHashMap<>();
+    private final Map<TConnectedAP, Map<ControlBlockKey, TSMV>> smvsByConnectedAP = new IdentityHashMap<>();
+
+    /**
+     * Constructor, indexes all SubNetworks and ConnectedAPs
+     * @param tCommunication Communication section to index
+     */
+    public CommunicationIndex(@NonNull TCommunication tCommunication) {
+        this.tCommunication = tCommunication;
+        tCommunication.getSubNetwork().forEach(tSubNetwork -> {
+            registerSubNetwork(tSubNetwork);
+            tSubNetwork.getConnectedAP().forEach(tConnectedAP -> registerConnectedAP(tSubNetwork, tConnectedAP));
+        });
+    }
+
+    /**
+     * Checks if this index was built for the given Communication
+     * @param communication Communication section
+     * @return true if this index indexes given Communication instance
+     */
+    public boolean isIndexOf(TCommunication communication) {
+        return tCommunication == communication;
+    }
+
+    /**
+     * Checks if given SubNetwork instance is indexed
+     * @param tSubNetwork SubNetwork
+     * @return true if this SubNetwork has been indexed
+     */
+    public boolean isIndexed(TSubNetwork tSubNetwork) {
+        return connectedAPsBySubNetwork.containsKey(tSubNetwork);
+    }
+
+    /**
+     * Checks if given ConnectedAP instance is indexed
+     * @param tConnectedAP ConnectedAP
+     * @return true if this ConnectedAP has been indexed
+     */
+    public boolean isIndexed(TConnectedAP tConnectedAP) {
+        return indexedConnectedAPs.contains(tConnectedAP);
+    }
+
+    /**
+     * Finds SubNetwork by name
+     * @param snName SubNetwork name
+     * @return first SubNetwork with this name, or empty Optional
+     */
+    public Optional<TSubNetwork> findSubNetwork(String snName) {
+        return Optional.ofNullable(subNetworksByName.get(snName));
+    }
+
+    /**
+     * Finds ConnectedAP in all SubNetworks
+     * @param iedName IED name
+     * @param apName AccessPoint name
+     * @return first ConnectedAP matching iedName and apName with its SubNetwork, or empty Optional
+     */
+    public Optional<ConnectedApEntry> findConnectedAP(String iedName, String apName) {
+        return Optional.ofNullable(connectedAPs.get(new ConnectedApKey(iedName, apName)));
+    }
+
+    /**
+     * Finds ConnectedAP in given SubNetwork
+     * @param tSubNetwork SubNetwork in which ConnectedAP is searched
+     * @param iedName IED name
+     * @param apName AccessPoint name
+     * @return first ConnectedAP of the SubNetwork matching iedName and apName, or empty Optional
+     */
+    public Optional<TConnectedAP> findConnectedAP(TSubNetwork tSubNetwork, String iedName, String apName) {
+        return Optional.ofNullable(connectedAPsBySubNetwork.getOrDefault(tSubNetwork, Map.of()).get(new ConnectedApKey(iedName, apName)));
+    }
+
+    /**
+     * Finds GSE in given ConnectedAP
+     * @param tConnectedAP ConnectedAP in which GSE is searched
+     * @param ldInst ldInst of the GSEControl
+     * @param cbName name of the GSEControl
+     * @return first GSE matching ldInst and cbName, or empty Optional
+     */
+    public Optional<TGSE> findGse(TConnectedAP tConnectedAP, String ldInst, String cbName) {
+        return Optional.ofNullable(gsesOf(tConnectedAP).get(new ControlBlockKey(ldInst, cbName)));
+    }
+
+    /**
+     * Finds SMV in given ConnectedAP
+     * @param tConnectedAP ConnectedAP in which SMV is searched
+     * @param ldInst ldInst of the SampledValueControl
+     * @param cbName name of the SampledValueControl
+     * @return first SMV matching ldInst and cbName, or empty Optional
+     */
+    public Optional<TSMV> findSmv(TConnectedAP tConnectedAP, String ldInst, String cbName) {
+        return Optional.ofNullable(smvsOf(tConnectedAP).get(new ControlBlockKey(ldInst, cbName)));
+    }
+
+    /**
+     * Adds a SubNetwork, already added in the Communication section, to the index
+     * @param tSubNetwork new SubNetwork
+     */
+    public void registerSubNetwork(TSubNetwork tSubNetwork) {
+        subNetworksByName.putIfAbsent(tSubNetwork.getName(), tSubNetwork);
+        connectedAPsBySubNetwork.putIfAbsent(tSubNetwork, new HashMap<>());
+    }
+
+    /**
+     * Adds a ConnectedAP, already added in the SubNetwork, to the index
+     * @param tSubNetwork SubNetwork containing the ConnectedAP
+     * @param tConnectedAP new ConnectedAP
+     */
+    public void registerConnectedAP(TSubNetwork tSubNetwork, TConnectedAP tConnectedAP) {
+        ConnectedApKey connectedApKey = new ConnectedApKey(tConnectedAP.getIedName(), tConnectedAP.getApName());
+        indexedConnectedAPs.add(tConnectedAP);
+        connectedAPs.putIfAbsent(connectedApKey, new ConnectedApEntry(tSubNetwork, tConnectedAP));
+        connectedAPsBySubNetwork.computeIfAbsent(tSubNetwork, k -> new HashMap<>()).putIfAbsent(connectedApKey, tConnectedAP);
+    }
+
+    /**
+     * Adds a GSE, already added in the ConnectedAP, to the index
+     * @param tConnectedAP ConnectedAP containing the GSE
+     * @param tgse new GSE
+     */
+    public void registerGse(TConnectedAP tConnectedAP, TGSE tgse) {
+        gsesOf(tConnectedAP).putIfAbsent(new ControlBlockKey(tgse.getLdInst(), tgse.getCbName()), tgse);
+    }
+
+    /**
+     * Adds an SMV, already added in the ConnectedAP, to the index
+     * @param tConnectedAP ConnectedAP containing the SMV
+     * @param tsmv new SMV
+     */
+    public void registerSmv(TConnectedAP tConnectedAP, TSMV tsmv) {
+        smvsOf(tConnectedAP).putIfAbsent(new ControlBlockKey(tsmv.getLdInst(), tsmv.getCbName()), tsmv);
+    }
+
+    private Map<ControlBlockKey, TGSE> gsesOf(TConnectedAP tConnectedAP) {
+        return gsesByConnectedAP.computeIfAbsent(tConnectedAP, connectedAP -> {
+            Map<ControlBlockKey, TGSE> gses = new HashMap<>();
+            if (connectedAP.isSetGSE()) {
+                connectedAP.getGSE().forEach(tgse -> gses.putIfAbsent(new ControlBlockKey(tgse.getLdInst(), tgse.getCbName()), tgse));
+            }
+            return gses;
+        });
+    }
+
+    private Map<ControlBlockKey, TSMV> smvsOf(TConnectedAP tConnectedAP) {
+        return smvsByConnectedAP.computeIfAbsent(tConnectedAP, connectedAP -> {
+            Map<ControlBlockKey, TSMV> smvs = new HashMap<>();
+            if (connectedAP.isSetSMV()) {
+                connectedAP.getSMV().forEach(tsmv -> smvs.putIfAbsent(new ControlBlockKey(tsmv.getLdInst(), tsmv.getCbName()), tsmv));
+            }
+            return smvs;
+        });
+    }
+
+    /**
+     * ConnectedAP with the SubNetwork containing it
+     * @param tSubNetwork SubNetwork
+     * @param tConnectedAP ConnectedAP
+     */
+    public record ConnectedApEntry(TSubNetwork tSubNetwork, TConnectedAP tConnectedAP) {
+    }
+
+    private record ConnectedApKey(String iedName, String apName) {
+    }
+
+    private record ControlBlockKey(String ldInst, String cbName) {
+    }
+}
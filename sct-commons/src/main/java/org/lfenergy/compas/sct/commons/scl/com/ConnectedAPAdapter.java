@@ -78,6 +78,7 @@ public class ConnectedAPAdapter extends SclElementAdapter<SubNetworkAdapter, TCo
      * Copies Address and PhysicalConnection nodes from ICD file
      */
     public void copyAddressAndPhysConnFromIcd(Optional<SCL> icd) {
+        beforeChange();
         if (icd.isPresent() && icd.get().getCommunication() != null) {
             icd.stream()
                     .map(SCL::getCommunication)
@@ -93,6 +94,10 @@ public class ConnectedAPAdapter extends SclElementAdapter<SubNetworkAdapter, TCo
     }
 
     private Optional<TGSE> findGse(String ldInst, String cbName){
+        Optional<CommunicationIndex> communicationIndex = findCommunicationIndex();
+        if (communicationIndex.isPresent()) {
+            return communicationIndex.get().findGse(currentElem, ldInst, cbName);
+        }
         if (!currentElem.isSetGSE()){
             return Optional.empty();
         }
@@ -101,6 +106,10 @@ public class ConnectedAPAdapter extends SclElementAdapter<SubNetworkAdapter, TCo
     }
 
     private Optional<TSMV> findSmv(String ldInst, String cbName){
+        Optional<CommunicationIndex> communicationIndex = findCommunicationIndex();
+        if (communicationIndex.isPresent()) {
+            return communicationIndex.get().findSmv(currentElem, ldInst, cbName);
+        }
         if (!currentElem.isSetSMV()){
             return Optional.empty();
         }
@@ -118,12 +127,14 @@ public class ConnectedAPAdapter extends SclElementAdapter<SubNetworkAdapter, TCo
      * @param maxTime maxTime
      */
     public void updateGseOrCreateIfNotExists(String ldInst, String cbName, List<TP> listOfP, TDurationInMilliSec minTime, TDurationInMilliSec maxTime) {
+        beforeChange();
         TGSE gse = findGse(ldInst, cbName)
             .orElseGet(() -> {
                 TGSE newGse = new TGSE();
                 newGse.setLdInst(ldInst);
                 newGse.setCbName(cbName);
                 currentElem.getGSE().add(newGse);
+                findCommunicationIndex().ifPresent(index -> index.registerGse(currentElem, newGse));
                 return newGse;
             }
         );
@@ -139,16 +150,26 @@ public class ConnectedAPAdapter extends SclElementAdapter<SubNetworkAdapter, TCo
      * @param listOfP list of P elements
      */
     public void updateSmvOrCreateIfNotExists(String ldInst, String cbName, List<TP> listOfP) {
+        beforeChange();
         TSMV smv = findSmv(ldInst, cbName)
             .orElseGet(() -> {
                 TSMV newSmv = new TSMV();
                 newSmv.setLdInst(ldInst);
                 newSmv.setCbName(cbName);
                 currentElem.getSMV().add(newSmv);
+                findCommunicationIndex().ifPresent(index -> index.registerSmv(currentElem, newSmv));
                 return newSmv;
             }
         );
         smv.setAddress(newAddress(listOfP));
     }
 
+    private Optional<CommunicationIndex> findCommunicationIndex() {
+        if (parentAdapter == null) {
+            return Optional.empty();
+        }
+        return parentAdapter.findCommunicationIndex()
+            .filter(index -> index.isIndexed(currentElem));
+    }
+
 }
@@ -0,0 +1,262 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.com;
+
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.*;
+import org.lfenergy.compas.sct.commons.dto.ControlBlockNetworkSettings.NetworkRanges;
+import org.lfenergy.compas.sct.commons.util.ControlBlockEnum;
+import org.lfenergy.compas.sct.commons.util.Utils;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.lfenergy.compas.sct.commons.util.CommonConstants.APPID_P_TYPE;
+import static org.lfenergy.compas.sct.commons.util.CommonConstants.MAC_ADDRESS_P_TYPE;
+
+/**
+ * Allocates APPID and MAC-Address values for the network configuration of ControlBlocks
+ * (Communication/SubNetwork/ConnectedAP/GSE for GSEControl, Communication/SubNetwork/ConnectedAP/SMV for SampledValueControl).
+ * <p>
+ * The Communication section of the SCD is scanned once at construction: every APPID and MAC-Address already present in a GSE
+ * (or SMV) element, and included in the given ranges, is marked as used so that it is never handed out to another ControlBlock.
+ * A ControlBlock which is already configured gets back its own APPID and MAC-Address (sticky assignment), so running the network
+ * configuration again on the same SCD does not change anything.
+ * </p>
+ * <p>
+ * Free values are found with a moving cursor over primitive bitsets, so each allocation runs in O(1) amortized time.
+ * </p>
+ * @see org.lfenergy.compas.sct.commons.scl.ExtRefService#configureNetworkForAllControlBlocks
+ */
+public class NetworkAddressAllocator {
+
+    static final String APPID_EXHAUSTED_MESSAGE = "range of appId is exhausted";
+    static final String MAC_ADDRESS_EXHAUSTED_MESSAGE = "range of MAC Address is exhausted";
+
+    private final AddressPool appIdPool;
+    private final AddressPool macAddressPool;
+    private final Map<ControlBlockKey, ExistingAddress> existingAddresses = new HashMap<>();
+
+    /**
+     * Constructor
+     * @param scd SCD containing the Communication section to scan for already used APPID and MAC-Address
+     * @param controlBlockEnum GSE or SAMPLED_VALUE: selects the ConnectedAP/GSE or the ConnectedAP/SMV elements to scan
+     * @param networkRanges ranges of APPID and MAC-Address to allocate from
+     * @throws IllegalArgumentException when controlBlockEnum is neither GSE nor SAMPLED_VALUE, or when a range is too large
+     */
+    public NetworkAddressAllocator(@NonNull SCL scd, @NonNull ControlBlockEnum controlBlockEnum, @NonNull NetworkRanges networkRanges) {
+        if (controlBlockEnum != ControlBlockEnum.GSE && controlBlockEnum != ControlBlockEnum.SAMPLED_VALUE) {
+            throw new IllegalArgumentException("Network addresses can only be allocated for GSE or SAMPLED_VALUE ControlBlocks, but got : " + controlBlockEnum);
+        }
+        this.appIdPool = new AddressPool(networkRanges.appIdStart(), networkRanges.appIdEnd());
+        this.macAddressPool = new AddressPool(Utils.macAddressToLong(networkRanges.macAddressStart()), Utils.macAddressToLong(networkRanges.macAddressEnd()));
+        if (scd.isSetCommunication()) {
+            scd.getCommunication().getSubNetwork().stream()
+                .flatMap(tSubNetwork -> tSubNetwork.getConnectedAP().stream())
+                .forEach(tConnectedAP -> scanConnectedAP(tConnectedAP, controlBlockEnum));
+        }
+    }
+
+    private void scanConnectedAP(TConnectedAP tConnectedAP, ControlBlockEnum controlBlockEnum) {
+        Stream<AddressedControlBlock> addressedControlBlocks = controlBlockEnum == ControlBlockEnum.GSE ?
+            tConnectedAP.getGSE().stream().map(tgse -> new AddressedControlBlock(tgse.getLdInst(), tgse.getCbName(), tgse.getAddress())) :
+            tConnectedAP.getSMV().stream().map(tsmv -> new AddressedControlBlock(tsmv.getLdInst(), tsmv.getCbName(), tsmv.getAddress()));
+        addressedControlBlocks
+            .filter(addressedControlBlock -> addressedControlBlock.address() != null)
+            .forEach(addressedControlBlock -> {
+                Long appId = null;
+                Long macAddress = null;
+                for (TP tp : addressedControlBlock.address().getP()) {
+                    if (APPID_P_TYPE.equals(tp.getType())) {
+                        appId = parseAppId(tp.getValue());
+                    } else if (MAC_ADDRESS_P_TYPE.equals(tp.getType())) {
+                        macAddress = parseMacAddress(tp.getValue());
+                    }
+                }
+                if (appId != null) {
+                    appIdPool.markExisting(appId);
+                }
+                if (macAddress != null) {
+                    macAddressPool.markExisting(macAddress);
+                }
+                existingAddresses.putIfAbsent(
+                    new ControlBlockKey(tConnectedAP.getIedName(), addressedControlBlock.ldInst(), addressedControlBlock.cbName()),
+                    new ExistingAddress(appId, macAddress));
+            });
+    }
+
+    private static Long parseAppId(String value) {
+        try {
+            return value == null ? null : Long.parseLong(value.trim(), 16);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Long parseMacAddress(String value) {
+        try {
+            return value == null ? null : Utils.macAddressToLong(value.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gives an APPID and a MAC-Address to a ControlBlock.
+     * When the ControlBlock already has a GSE (or SMV) element with an APPID (or MAC-Address) in range, this value is given back.
+     * Otherwise, the lowest value in range which is neither already used in the SCD nor already allocated is given.
+     * Nothing is allocated when one of the two ranges is exhausted.
+     *
+     * @param iedName name of the IED holding the ControlBlock
+     * @param ldInst inst of the LDevice holding the ControlBlock
+     * @param cbName name of the ControlBlock
+     * @return allocated APPID and MAC-Address, or an error message when a range is exhausted
+     */
+    public AllocationOrError allocate(String iedName, String ldInst, String cbName) {
+        ExistingAddress existingAddress = existingAddresses.get(new ControlBlockKey(iedName, ldInst, cbName));
+        OptionalLong appId = appIdPool.claimOrNext(existingAddress == null ? null : existingAddress.appId());
+        if (appId.isEmpty()) {
+            return new AllocationOrError(null, APPID_EXHAUSTED_MESSAGE);
+        }
+        OptionalLong macAddress = macAddressPool.claimOrNext(existingAddress == null ? null : existingAddress.macAddress());
+        if (macAddress.isEmpty()) {
+            appIdPool.release(appId.getAsLong());
+            return new AllocationOrError(null, MAC_ADDRESS_EXHAUSTED_MESSAGE);
+        }
+        return new AllocationOrError(new NetworkAddress(appId.getAsLong(), macAddress.getAsLong()), null);
+    }
+
+    /**
+     * Gives back a NetworkAddress which could not be used (for example when the ControlBlock has no ConnectedAP).
+     * Values which were already present in the SCD remain reserved.
+     * @param networkAddress NetworkAddress previously returned by {@link #allocate(String, String, String)}
+     */
+    public void release(@NonNull NetworkAddress networkAddress) {
+        appIdPool.release(networkAddress.appId());
+        macAddressPool.release(networkAddress.macAddress());
+    }
+
+    /**
+     * Number of APPID still available for ControlBlocks which are not configured yet
+     * @return number of APPID in range which are neither used in the SCD nor allocated
+     */
+    public int remainingAppIds() {
+        return appIdPool.remaining();
+    }
+
+    /**
+     * Number of MAC-Address still available for ControlBlocks which are not configured yet
+     * @return number of MAC-Address in range which are neither used in the SCD nor allocated
+     */
+    public int remainingMacAddresses() {
+        return macAddressPool.remaining();
+    }
+
+    /**
+     * APPID and MAC-Address allocated for a ControlBlock
+     *
+     * @param appId      value for P type APPID
+     * @param macAddress long representation of the value for P type MAC-Address
+     */
+    public record NetworkAddress(long appId, long macAddress) {
+        /**
+         * MAC-Address formatted for P type MAC-Address
+         * @return MAC-Address separated by hyphens(-)
+         * @see Utils#longToMacAddress(long)
+         */
+        public String macAddressText() {
+            return Utils.longToMacAddress(macAddress);
+        }
+    }
+
+    /**
+     * Allocated NetworkAddress or Error message
+     *
+     * @param networkAddress allocated NetworkAddress. Null when errorMessage is provided
+     * @param errorMessage   null when networkAddress is provided
+     */
+    public record AllocationOrError(NetworkAddress networkAddress, String errorMessage) {
+    }
+
+    private record ControlBlockKey(String iedName, String ldInst, String cbName) {
+    }
+
+    private record ExistingAddress(Long appId, Long macAddress) {
+    }
+
+    private record AddressedControlBlock(String ldInst, String cbName, TAddress address) {
+    }
+
+    /**
+     * Range of long values, backed by bitsets of offsets from the start of the range:
+     * - existing: values found in the SCD
+     * - reserved: existing values and values allocated to ControlBlocks without existing value
+     * - claimed: values currently given to a ControlBlock
+     */
+    private static final class AddressPool {
+        private final long start;
+        private final int size;
+        private final BitSet existing = new BitSet();
+        private final BitSet reserved = new BitSet();
+        private final BitSet claimed = new BitSet();
+        private int cursor;
+
+        private AddressPool(long startInclusive, long endInclusive) {
+            long rangeSize = endInclusive < startInclusive ? 0 : endInclusive - startInclusive + 1;
+            if (rangeSize > Integer.MAX_VALUE || rangeSize < 0) {
+                throw new IllegalArgumentException("Range [%d, %d] is too large, it cannot exceed %d values".formatted(startInclusive, endInclusive, Integer.MAX_VALUE));
+            }
+            this.start = startInclusive;
+            this.size = (int) rangeSize;
+        }
+
+        private boolean isInRange(long value) {
+            return value >= start && value - start < size;
+        }
+
+        private void markExisting(long value) {
+            if (isInRange(value)) {
+                existing.set((int) (value - start));
+                reserved.set((int) (value - start));
+            }
+        }
+
+        private OptionalLong claimOrNext(Long existingValue) {
+            if (existingValue != null && isInRange(existingValue)) {
+                int offset = (int) (existingValue - start);
+                if (!claimed.get(offset)) {
+                    claimed.set(offset);
+                    return OptionalLong.of(existingValue);
+                }
+            }
+            int offset = reserved.nextClearBit(cursor);
+            if (offset >= size) {
+                cursor = size;
+                return OptionalLong.empty();
+            }
+            reserved.set(offset);
+            claimed.set(offset);
+            cursor = offset + 1;
+            return OptionalLong.of(start + offset);
+        }
+
+        private void release(long value) {
+            if (!isInRange(value)) {
+                return;
+            }
+            int offset = (int) (value - start);
+            claimed.clear(offset);
+            if (!existing.get(offset)) {
+                reserved.clear(offset);
+                cursor = Math.min(cursor, offset);
+            }
+        }
+
+        private int remaining() {
+            return size - reserved.cardinality();
+        }
+    }
+
+}
@@ -66,15 +66,21 @@ public class SubNetworkAdapter extends SclElementAdapter<CommunicationAdapter, T
      * @return the <em><b>ConnectedAPAdapter</b></em> object
      */
     public ConnectedAPAdapter addConnectedAP(@NonNull String iedName, @NonNull String apName) {
-        TConnectedAP tConnectedAP = currentElem.getConnectedAP().stream()
-                .filter(cap -> Objects.equals(cap.getApName(),apName) &&
-                        Objects.equals(cap.getIedName(),iedName))
-                .findFirst()
+        beforeChange();
+        Optional<CommunicationIndex> communicationIndex = findCommunicationIndex();
+        TConnectedAP tConnectedAP = communicationIndex
+                .map(index -> index.findConnectedAP(currentElem, iedName, apName))
+                .orElseGet(() -> currentElem.getConnectedAP().stream()
+                        .filter(cap -> Objects.equals(cap.getApName(),apName) &&
+                                Objects.equals(cap.getIedName(),iedName))
+                        .findFirst())
                 .orElse(null);
 
         if(tConnectedAP == null){
             tConnectedAP = SclConstructorHelper.newConnectedAp(iedName, apName);
             currentElem.getConnectedAP().add(tConnectedAP);
+            TConnectedAP newConnectedAP = tConnectedAP;
+            communicationIndex.ifPresent(index -> index.registerConnectedAP(currentElem, newConnectedAP));
         }
         return new ConnectedAPAdapter(this,tConnectedAP);
     }
@@ -133,10 +139,27 @@ public class SubNetworkAdapter extends SclElementAdapter<CommunicationAdapter, T
      * @return the <em><b>ConnectedAPAdapter</b></em> object
      */
     public Optional<ConnectedAPAdapter> findConnectedAPAdapter(String iedName, String apName) throws ScdException {
+        Optional<CommunicationIndex> communicationIndex = findCommunicationIndex();
+        if (communicationIndex.isPresent()) {
+            return communicationIndex.get().findConnectedAP(currentElem, iedName, apName)
+                .map(ap -> new ConnectedAPAdapter(this, ap));
+        }
         return currentElem.getConnectedAP()
             .stream()
             .filter(ap -> ap.getIedName().equals(iedName) && ap.getApName().equals(apName))
             .map(ap -> new ConnectedAPAdapter(this, ap))
             .findFirst();
     }
+
+    /**
+     * Gets the index of the Communication section containing this SubNetwork
+     * @return index of the Communication section, or empty Optional when this adapter is not attached to a SclRootAdapter
+     */
+    Optional<CommunicationIndex> findCommunicationIndex() {
+        if (parentAdapter == null) {
+            return Optional.empty();
+        }
+        return parentAdapter.findCommunicationIndex()
+            .filter(index -> index.isIndexed(currentElem));
+    }
 }
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -284,9 +285,20 @@ public class DATypeAdapter extends AbstractDataTypeAdapter<TDAType>{
      * @return list of completed Data Attribute References beginning from this DoType (Do or SDO).
      */
     public List<DataAttributeRef> getDataAttributeRefs(DataAttributeRef rootDataAttributeRef, DataAttributeRef filter) {
-
         List<DataAttributeRef> resultDataAttributeRefs = new ArrayList<>();
+        forEachDataAttributeRef(rootDataAttributeRef, filter, resultDataAttributeRefs::add);
+        return resultDataAttributeRefs;
+    }
 
+    /**
+     * Gives each completed Data Attribute Reference beginning from this DAType to the consumer, as soon as it is built.
+     * STRUCT BDA DAType are expanded lazily: no intermediate list is built.
+     * @apiNote This method doesn't check relationship between DO/SDO and DA. Check should be done by caller
+     * @param rootDataAttributeRef reference Data Attribute Reference used to build the Data Attribute References
+     * @param filter filter for DO/SDO and DA/BDA
+     * @param consumer receives each completed Data Attribute Reference, in DataTypeTemplates order
+     */
+    public void forEachDataAttributeRef(DataAttributeRef rootDataAttributeRef, DataAttributeRef filter, Consumer<DataAttributeRef> consumer) {
         for(TBDA bda : currentElem.getBDA()){
             if(filter != null && filter.isDaNameDefined() &&
                     !filter.getBdaNames().contains(bda.getName())){
@@ -297,16 +309,15 @@ public class DATypeAdapter extends AbstractDataTypeAdapter<TDAType>{
             if(bda.getBType() == TPredefinedBasicTypeEnum.STRUCT) {
                 currentDataAttributeRef.addDaStructName(bda.getName());
                 parentAdapter.getDATypeAdapterById(bda.getType()).ifPresent(
-                    daTypeAdapter -> resultDataAttributeRefs.addAll(daTypeAdapter.getDataAttributeRefs(currentDataAttributeRef, filter)));
+                    daTypeAdapter -> daTypeAdapter.forEachDataAttributeRef(currentDataAttributeRef, filter, consumer));
             } else {
                 currentDataAttributeRef.addDaStructName(bda.getName());
                 currentDataAttributeRef.setType(bda.getType());
                 currentDataAttributeRef.getDaName().setValImport(bda.isValImport());
                 currentDataAttributeRef.getDaName().addDaiValues(bda.getVal());
-                resultDataAttributeRefs.add(currentDataAttributeRef);
+                consumer.accept(currentDataAttributeRef);
             }
         }
-        return resultDataAttributeRefs;
     }
 
     /**
@@ -13,6 +13,7 @@ import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.util.Utils;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -454,10 +455,23 @@ public class DOTypeAdapter extends AbstractDataTypeAdapter<TDOType> {
      */
     public List<DataAttributeRef> getDataAttributeRefs(DataAttributeRef rootDataAttributeRef, DataAttributeRef filter) {
         List<DataAttributeRef> resultDataAttributeRefs = new ArrayList<>();
+        forEachDataAttributeRef(rootDataAttributeRef, filter, resultDataAttributeRefs::add);
+        return resultDataAttributeRefs;
+    }
+
+    /**
+     * Gives each Data Attribute Reference beginning from this DoType (Do or SDO) to the consumer, as soon as it is built.
+     * SDO DOType and DA DAType are expanded lazily: no intermediate list is built.
+     * @apiNote This method doesn't check relationship between DO/SDO and DA. Check should be done by caller
+     * @param rootDataAttributeRef reference Data Attribute Reference used to build the Data Attribute References
+     * @param filter filter for DO/SDO and DA/BDA
+     * @param consumer receives each completed Data Attribute Reference, in DataTypeTemplates order
+     */
+    public void forEachDataAttributeRef(DataAttributeRef rootDataAttributeRef, DataAttributeRef filter, Consumer<DataAttributeRef> consumer) {
         for(TUnNaming tUnNaming: currentElem.getSDOOrDA()){
             if(tUnNaming.getClass() == TDA.class){
                 TDA tda = (TDA)tUnNaming;
-                resultDataAttributeRefs.addAll(getDataAttributeRefsOfDA(rootDataAttributeRef, filter, tda));
+                forEachDataAttributeRefOfDA(rootDataAttributeRef, filter, tda, consumer);
             } else {
                 TSDO tsdo = (TSDO)tUnNaming;
                 if(excludedByFilter(filter, tsdo)){
@@ -466,42 +480,39 @@ public class DOTypeAdapter extends AbstractDataTypeAdapter<TDOType> {
                 DataAttributeRef currentDataAttributeRef = DataAttributeRef.copyFrom(rootDataAttributeRef);
                 currentDataAttributeRef.addDoStructName(tsdo.getName());
                 parentAdapter.getDOTypeAdapterById(tsdo.getType()).ifPresent(
-                    doTypeAdapter ->
-                        resultDataAttributeRefs.addAll(doTypeAdapter.getDataAttributeRefs(currentDataAttributeRef, filter)));
+                    doTypeAdapter -> doTypeAdapter.forEachDataAttributeRef(currentDataAttributeRef, filter, consumer));
             }
         }
-        return resultDataAttributeRefs;
     }
 
     /**
-     * return a list of summarized Data Attribute References beginning from given DA/BDA.
+     * Gives summarized Data Attribute References beginning from given DA/BDA to the consumer.
      * <ul>
-     *     <li> If DA the list will contain only one summarized Data Attribute References  </li>
-     *     <li> If BDA list will contain all summarized Data Attribute References for each DA in BDA </li>
+     *     <li> If DA the consumer receives only one summarized Data Attribute References  </li>
+     *     <li> If BDA the consumer receives all summarized Data Attribute References for each DA in BDA </li>
      * </ul>
      * @apiNote This method doesn't check relationship between DO/SDO and DA. Check should be done by caller
-     * @param rootDataAttributeRef reference Data Attribute Reference used to build the list
+     * @param rootDataAttributeRef reference Data Attribute Reference used to build the Data Attribute References
      * @param filter filter for DA/BDA
      * @param da DA containing information to summarize
-     * @return list of completed Data Attribute References beginning from this DoType.
+     * @param consumer receives each completed Data Attribute Reference beginning from this DoType.
      */
-    private List<DataAttributeRef> getDataAttributeRefsOfDA(DataAttributeRef rootDataAttributeRef, DataAttributeRef filter, TDA da){
+    private void forEachDataAttributeRefOfDA(DataAttributeRef rootDataAttributeRef, DataAttributeRef filter, TDA da, Consumer<DataAttributeRef> consumer){
         if(excludedByFilter(filter, da)){
-            return Collections.emptyList();
+            return;
         }
         DataAttributeRef currentDataAttributeRef = DataAttributeRef.copyFrom(rootDataAttributeRef);
         currentDataAttributeRef.getDaName().setName(da.getName());
         currentDataAttributeRef.getDaName().setFc(da.getFc());
         currentDataAttributeRef.getDaName().setBType(da.getBType());
         if(da.getBType() == TPredefinedBasicTypeEnum.STRUCT){
-            return parentAdapter.getDATypeAdapterById(da.getType())
-                .map(daTypeAdapter -> daTypeAdapter.getDataAttributeRefs(currentDataAttributeRef, filter))
-                .orElse(Collections.emptyList());
+            parentAdapter.getDATypeAdapterById(da.getType())
+                .ifPresent(daTypeAdapter -> daTypeAdapter.forEachDataAttributeRef(currentDataAttributeRef, filter, consumer));
         } else {
             currentDataAttributeRef.getDaName().setType(da.getType());
             currentDataAttributeRef.getDaName().setValImport(da.isValImport());
             currentDataAttributeRef.setDaiValues(da.getVal());
-            return List.of(currentDataAttributeRef);
+            consumer.accept(currentDataAttributeRef);
         }
     }
 
@@ -17,6 +17,7 @@ import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 /**
@@ -46,6 +47,8 @@ import java.util.stream.Collectors;
  *      <li>{@link DataTypeTemplateAdapter#importLNodeType <em>Add <b>TDataTypeTemplates </b> describing the children <b>TLNodeType </b> that can be created under this object</em>}</li>
  *      <li>{@link DataTypeTemplateAdapter#importDOType <em>Add <b>TDataTypeTemplates </b> describing the children <b>TDOType </b> that can be created under this object</em>}</li>
  *      <li>{@link DataTypeTemplateAdapter#importDAType <em>Add <b>TDataTypeTemplates </b> describing the children <b>TDAType </b> that can be created under this object</em>}</li>
+ *      <li>{@link DataTypeTemplateAdapter#removeUnusedDataTypes <em>Remove <b>TLNodeType,TDOType,TDAType,TEnumType </b> which are not referenced by any LN of the SCL</em>}</li>
+ *      <li>{@link DataTypeTemplateAdapter#mergeIdenticalDataTypes <em>Merge identical <b>TLNodeType,TDOType,TDAType,TEnumType </b> and update references to them</em>}</li>
  *
  *      <li>{@link DataTypeTemplateAdapter#findLNodeTypesFromDoWithDoTypeId <em>Returns <b>LNodeTypeAdapter </b> containment reference list that match <b>DO </b> object And DOType Id</em>}</li>
  *      <li>{@link DataTypeTemplateAdapter#findDOTypesFromSDOWithDOTypeId <em>Returns <b>DOTypeAdapter </b> object Of Type <b>SDO </b> By DOType Id</em>}</li>
@@ -204,6 +207,7 @@ public class DataTypeTemplateAdapter extends SclElementAdapter<SclRootAdapter, T
      * @param prvDttAdapter Adapter of the Data Type template that provides its DataTypeTemplate
      */
     public void importEnumType(String thisIEDName, DataTypeTemplateAdapter prvDttAdapter){
+        beforeChange();
 
         Map<String,String> pairOldAndNewEnumId = new HashMap<>();
         List<EnumTypeAdapter> prvEnumTypeAdapters = prvDttAdapter.getEnumTypeAdapters();
@@ -262,6 +266,7 @@ public class DataTypeTemplateAdapter extends SclElementAdapter<SclRootAdapter, T
      * @return map of (old enumId, new enumId)
      */
     public Map<String,String> importDTT(String thisIEDName, DataTypeTemplateAdapter rcvDttAdapter) {
+        beforeChange();
 
         this.importEnumType(thisIEDName,rcvDttAdapter);
 
@@ -583,6 +588,212 @@ public class DataTypeTemplateAdapter extends SclElementAdapter<SclRootAdapter, T
         return binder;
     }
 
+    /**
+     * Removes all LNodeTypes, DOTypes, DATypes and EnumTypes which are not used by any LN0/LN of the SCL (mark and sweep).
+     * Marking starts from IED/AccessPoint/Server/LDevice/LN0@lnType, IED/AccessPoint/Server/LDevice/LN@lnType, IED/AccessPoint/LN@lnType
+     * and LNode@lnType anywhere in the Substation section, then follows DO@type, SDO@type, DA@type and BDA@type (DAType when bType is Struct, EnumType when bType is Enum).
+     * Types are indexed by id, so each type is visited once : complexity is linear in the size of the SCL.
+     * @return ids of removed types
+     */
+    public RemovedDataTypes removeUnusedDataTypes() {
+        beforeChange();
+        Map<String, TLNodeType> lNodeTypesById = indexById(currentElem.getLNodeType());
+        Map<String, TDOType> doTypesById = indexById(currentElem.getDOType());
+        Map<String, TDAType> daTypesById = indexById(currentElem.getDAType());
+
+        // Mark
+        Set<String> usedLNodeTypeIds = new HashSet<>();
+        Set<String> usedDOTypeIds = new HashSet<>();
+        Set<String> usedDATypeIds = new HashSet<>();
+        Set<String> usedEnumTypeIds = new HashSet<>();
+        Deque<String> doTypeIdsToVisit = new ArrayDeque<>();
+        Deque<String> daTypeIdsToVisit = new ArrayDeque<>();
+        SCL scl = parentAdapter.getCurrentElem();
+        Stream.concat(
+                        scl.getIED().stream()
+                                .flatMap(tied -> tied.getAccessPoint().stream())
+                                .flatMap(DataTypeTemplateAdapter::streamLnTypes),
+                        streamSubstationLNodes(scl).map(TLNode::getLnType))
+                .filter(Objects::nonNull)
+                .filter(usedLNodeTypeIds::add)
+                .map(lNodeTypesById::get)
+                .filter(Objects::nonNull)
+                .flatMap(tlNodeType -> tlNodeType.getDO().stream())
+                .forEach(tdo -> markType(tdo.getType(), usedDOTypeIds, doTypeIdsToVisit));
+        while (!doTypeIdsToVisit.isEmpty() || !daTypeIdsToVisit.isEmpty()) {
+            if (!doTypeIdsToVisit.isEmpty()) {
+                TDOType tdoType = doTypesById.get(doTypeIdsToVisit.pop());
+                if (tdoType == null) {
+                    continue;
+                }
+                for (TUnNaming sdoOrDa : tdoType.getSDOOrDA()) {
+                    if (sdoOrDa instanceof TSDO tsdo) {
+                        markType(tsdo.getType(), usedDOTypeIds, doTypeIdsToVisit);
+                    } else if (sdoOrDa instanceof TDA tda) {
+                        markDataAttributeType(tda, usedDATypeIds, usedEnumTypeIds, daTypeIdsToVisit);
+                    }
+                }
+            } else {
+                TDAType tdaType = daTypesById.get(daTypeIdsToVisit.pop());
+                if (tdaType != null) {
+                    tdaType.getBDA().forEach(tbda -> markDataAttributeType(tbda, usedDATypeIds, usedEnumTypeIds, daTypeIdsToVisit));
+                }
+            }
+        }
+
+        // Sweep
+        return new RemovedDataTypes(
+                sweep(currentElem.getLNodeType(), usedLNodeTypeIds),
+                sweep(currentElem.getDOType(), usedDOTypeIds),
+                sweep(currentElem.getDAType(), usedDATypeIds),
+                sweep(currentElem.getEnumType(), usedEnumTypeIds)
+        );
+    }
+
+    private static Stream<String> streamLnTypes(TAccessPoint tAccessPoint) {
+        Stream<String> serverLnTypes = tAccessPoint.getServer() == null ? Stream.empty() :
+                tAccessPoint.getServer().getLDevice().stream()
+                        .flatMap(tlDevice -> Stream.concat(
+                                Stream.ofNullable(tlDevice.getLN0()).map(LN0::getLnType),
+                                tlDevice.getLN().stream().map(TLN::getLnType)));
+        return Stream.concat(serverLnTypes, tAccessPoint.getLN().stream().map(TLN::getLnType));
+    }
+
+    /**
+     * Streams LNode of the whole Substation section : LNode of Substation, VoltageLevel, Bay, Function, SubFunction,
+     * ConductingEquipment, SubEquipment, PowerTransformer, TransformerWinding, TapChanger, GeneralEquipment, EqFunction,
+     * EqSubFunction and ConnectivityNode, at any depth
+     * @param scl SCL
+     * @return LNode in document order
+     */
+    static Stream<TLNode> streamSubstationLNodes(SCL scl) {
+        return scl.getSubstation().stream().flatMap(DataTypeTemplateAdapter::streamLNodes);
+    }
+
+    private static Stream<TLNode> streamLNodes(TLNodeContainer tlNodeContainer) {
+        return Stream.concat(tlNodeContainer.getLNode().stream(),
+                streamChildContainers(tlNodeContainer).flatMap(DataTypeTemplateAdapter::streamLNodes));
+    }
+
+    private static Stream<TLNodeContainer> streamChildContainers(TLNodeContainer tlNodeContainer) {
+        Stream.Builder<List<? extends TLNodeContainer>> children = Stream.builder();
+        if (tlNodeContainer instanceof TEquipmentContainer tEquipmentContainer) {
+            children.add(tEquipmentContainer.getPowerTransformer()).add(tEquipmentContainer.getGeneralEquipment());
+        }
+        if (tlNodeContainer instanceof TSubstation tSubstation) {
+            children.add(tSubstation.getVoltageLevel()).add(tSubstation.getFunction());
+        } else if (tlNodeContainer instanceof TVoltageLevel tVoltageLevel) {
+            children.add(tVoltageLevel.getBay()).add(tVoltageLevel.getFunction());
+        } else if (tlNodeContainer instanceof TBay tBay) {
+            children.add(tBay.getConductingEquipment()).add(tBay.getConnectivityNode()).add(tBay.getFunction());
+        } else if (tlNodeContainer instanceof TFunction tFunction) {
+            children.add(tFunction.getSubFunction()).add(tFunction.getGeneralEquipment()).add(tFunction.getConductingEquipment());
+        } else if (tlNodeContainer instanceof TSubFunction tSubFunction) {
+            children.add(tSubFunction.getSubFunction()).add(tSubFunction.getGeneralEquipment()).add(tSubFunction.getConductingEquipment());
+        } else if (tlNodeContainer instanceof TConductingEquipment tConductingEquipment) {
+            children.add(tConductingEquipment.getSubEquipment()).add(tConductingEquipment.getEqFunction());
+        } else if (tlNodeContainer instanceof TTransformerWinding tTransformerWinding) {
+            children.add(tTransformerWinding.getSubEquipment()).add(tTransformerWinding.getEqFunction());
+            if (tTransformerWinding.getTapChanger() != null) {
+                children.add(List.of(tTransformerWinding.getTapChanger()));
+            }
+        } else if (tlNodeContainer instanceof TPowerTransformer tPowerTransformer) {
+            children.add(tPowerTransformer.getTransformerWinding()).add(tPowerTransformer.getSubEquipment()).add(tPowerTransformer.getEqFunction());
+        } else if (tlNodeContainer instanceof TTapChanger tTapChanger) {
+            children.add(tTapChanger.getSubEquipment()).add(tTapChanger.getEqFunction());
+        } else if (tlNodeContainer instanceof TGeneralEquipment tGeneralEquipment) {
+            children.add(tGeneralEquipment.getEqFunction());
+        } else if (tlNodeContainer instanceof TSubEquipment tSubEquipment) {
+            children.add(tSubEquipment.getEqFunction());
+        } else if (tlNodeContainer instanceof TEqFunction tEqFunction) {
+            children.add(tEqFunction.getGeneralEquipment()).add(tEqFunction.getEqSubFunction());
+        } else if (tlNodeContainer instanceof TEqSubFunction tEqSubFunction) {
+            children.add(tEqSubFunction.getGeneralEquipment()).add(tEqSubFunction.getEqSubFunction());
+        }
+        return children.build().flatMap(List::stream);
+    }
+
+    private static void markDataAttributeType(TAbstractDataAttribute dataAttribute, Set<String> usedDATypeIds, Set<String> usedEnumTypeIds,
+                                              Deque<String> daTypeIdsToVisit) {
+        if (TPredefinedBasicTypeEnum.STRUCT == dataAttribute.getBType()) {
+            markType(dataAttribute.getType(), usedDATypeIds, daTypeIdsToVisit);
+        } else if (TPredefinedBasicTypeEnum.ENUM == dataAttribute.getBType() && dataAttribute.getType() != null) {
+            usedEnumTypeIds.add(dataAttribute.getType());
+        }
+    }
+
+    private static void markType(String typeId, Set<String> usedTypeIds, Deque<String> typeIdsToVisit) {
+        if (typeId != null && usedTypeIds.add(typeId)) {
+            typeIdsToVisit.push(typeId);
+        }
+    }
+
+    private static <T extends TIDNaming> Map<String, T> indexById(List<T> types) {
+        Map<String, T> typesById = new HashMap<>(types.size() * 2);
+        types.forEach(type -> typesById.putIfAbsent(type.getId(), type));
+        return typesById;
+    }
+
+    private static <T extends TIDNaming> List<String> sweep(List<T> types, Set<String> usedTypeIds) {
+        List<String> removedIds = types.stream()
+                .map(TIDNaming::getId)
+                .filter(id -> !usedTypeIds.contains(id))
+                .toList();
+        if (!removedIds.isEmpty()) {
+            types.removeIf(type -> !usedTypeIds.contains(type.getId()));
+        }
+        return removedIds;
+    }
+
+    /**
+     * Ids of types removed from DataTypeTemplates
+     * @param lNodeTypeIds ids of removed LNodeTypes
+     * @param doTypeIds ids of removed DOTypes
+     * @param daTypeIds ids of removed DATypes
+     * @param enumTypeIds ids of removed EnumTypes
+     */
+    public record RemovedDataTypes(List<String> lNodeTypeIds, List<String> doTypeIds, List<String> daTypeIds, List<String> enumTypeIds) {
+        /**
+         * Number of removed types
+         * @return total number of removed LNodeTypes, DOTypes, DATypes and EnumTypes
+         */
+        public int count() {
+            return lNodeTypeIds.size() + doTypeIds.size() + daTypeIds.size() + enumTypeIds.size();
+        }
+    }
+
+    /**
+     * Merges structurally identical LNodeTypes, DOTypes, DATypes and EnumTypes, whatever their ids.
+     * Types are compared bottom-up (EnumType, DAType, DOType then LNodeType), so that two types referencing distinct but identical types
+     * are identical too. For each set of identical types, the first one is kept and all references to the others
+     * (DO, SDO, DA, BDA, LN0/LN@lnType in IEDs and LNode@lnType in Substation) are replaced by its id.
+     * Each type is visited once : complexity is linear in the size of the SCL.
+     * @return ids of merged types, with the id of the type which replaces them
+     * @see DataTypeTemplateCanonicalizer
+     */
+    public MergedDataTypes mergeIdenticalDataTypes() {
+        beforeChange();
+        return new DataTypeTemplateCanonicalizer(parentAdapter.getCurrentElem()).canonicalize();
+    }
+
+    /**
+     * Ids of types merged into another identical type
+     * @param lNodeTypeIds ids of removed LNodeTypes, with the id of the LNodeType which replaces them
+     * @param doTypeIds ids of removed DOTypes, with the id of the DOType which replaces them
+     * @param daTypeIds ids of removed DATypes, with the id of the DAType which replaces them
+     * @param enumTypeIds ids of removed EnumTypes, with the id of the EnumType which replaces them
+     */
+    public record MergedDataTypes(Map<String, String> lNodeTypeIds, Map<String, String> doTypeIds, Map<String, String> daTypeIds,
+                                  Map<String, String> enumTypeIds) {
+        /**
+         * Number of merged types
+         * @return total number of removed LNodeTypes, DOTypes, DATypes and EnumTypes
+         */
+        public int count() {
+            return lNodeTypeIds.size() + doTypeIds.size() + daTypeIds.size() + enumTypeIds.size();
+        }
+    }
+
     @RequiredArgsConstructor
     @Getter
     public static class DOTypeInfo {
@@ -0,0 +1,280 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.dtt;
+
+import org.lfenergy.compas.scl2007b4.model.*;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import java.io.StringWriter;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Merges structurally identical types of a DataTypeTemplates.
+ * <p>
+ * Each type gets an equivalence class computed bottom-up (EnumType, then DAType, then DOType, then LNodeType) : the key of a type
+ * is made of its attributes and of the equivalence classes of the types it references, so two types are in the same class when
+ * they are identical once their references are resolved. Nested DATypes (BDA of bType Struct) and DOTypes (SDO) are resolved
+ * recursively with memoization, so each type is visited once.
+ * </p>
+ * <p>
+ * For each class, the first type in document order is kept. References to the other types (DO, SDO, DA, BDA, LN0/LN@lnType
+ * and Substation LNode@lnType) are rewritten to the kept type, then the other types are removed.
+ * Description attributes (desc) are not part of the key, like in {@link IDTTComparable#hasSameContentAs}. Private elements are part
+ * of the key with their content.
+ * </p>
+ */
+final class DataTypeTemplateCanonicalizer {
+
+    private static final QName PRIVATE_QNAME = new QName("http://www.iec.ch/61850/2003/SCL", "Private");
+
+    private final SCL scl;
+    private final TDataTypeTemplates dtt;
+
+    private final Map<String, TDAType> daTypesById;
+    private final Map<String, TDOType> doTypesById;
+    private final Map<String, Integer> enumTypeClasses = new HashMap<>();
+    private final Map<String, Integer> daTypeClasses = new HashMap<>();
+    private final Map<String, Integer> doTypeClasses = new HashMap<>();
+    private final Map<String, Integer> lNodeTypeClasses = new HashMap<>();
+    private final Map<List<Object>, Integer> classesByKey = new HashMap<>();
+    private final Set<String> daTypesInProgress = new HashSet<>();
+    private final Set<String> doTypesInProgress = new HashSet<>();
+    private Marshaller privateMarshaller;
+
+    DataTypeTemplateCanonicalizer(SCL scl) {
+        this.scl = scl;
+        this.dtt = scl.getDataTypeTemplates();
+        this.daTypesById = indexById(dtt.getDAType());
+        this.doTypesById = indexById(dtt.getDOType());
+    }
+
+    /**
+     * Merges identical types and rewrites references
+     * @return ids of removed types, with the id of the type which replaces them
+     */
+    DataTypeTemplateAdapter.MergedDataTypes canonicalize() {
+        dtt.getEnumType().forEach(tEnumType -> enumTypeClasses.putIfAbsent(tEnumType.getId(), classOf(enumTypeKey(tEnumType))));
+        dtt.getDAType().forEach(tdaType -> resolveDAType(tdaType.getId()));
+        dtt.getDOType().forEach(tdoType -> resolveDOType(tdoType.getId()));
+        dtt.getLNodeType().forEach(tlNodeType -> lNodeTypeClasses.putIfAbsent(tlNodeType.getId(), classOf(lNodeTypeKey(tlNodeType))));
+
+        Map<String, String> enumTypeReplacements = replacements(dtt.getEnumType(), enumTypeClasses);
+        Map<String, String> daTypeReplacements = replacements(dtt.getDAType(), daTypeClasses);
+        Map<String, String> doTypeReplacements = replacements(dtt.getDOType(), doTypeClasses);
+        Map<String, String> lNodeTypeReplacements = replacements(dtt.getLNodeType(), lNodeTypeClasses);
+
+        // Rewrite references
+        dtt.getLNodeType().stream()
+                .flatMap(tlNodeType -> tlNodeType.getDO().stream())
+                .forEach(tdo -> tdo.setType(doTypeReplacements.getOrDefault(tdo.getType(), tdo.getType())));
+        dtt.getDOType().stream()
+                .flatMap(tdoType -> tdoType.getSDOOrDA().stream())
+                .forEach(sdoOrDa -> {
+                    if (sdoOrDa instanceof TSDO tsdo) {
+                        tsdo.setType(doTypeReplacements.getOrDefault(tsdo.getType(), tsdo.getType()));
+                    } else if (sdoOrDa instanceof TDA tda) {
+                        rewriteDataAttributeType(tda, daTypeReplacements, enumTypeReplacements);
+                    }
+                });
+        dtt.getDAType().stream()
+                .flatMap(tdaType -> tdaType.getBDA().stream())
+                .forEach(tbda -> rewriteDataAttributeType(tbda, daTypeReplacements, enumTypeReplacements));
+        if (!lNodeTypeReplacements.isEmpty()) {
+            streamLNs().forEach(tAnyLN -> tAnyLN.setLnType(lNodeTypeReplacements.getOrDefault(tAnyLN.getLnType(), tAnyLN.getLnType())));
+            DataTypeTemplateAdapter.streamSubstationLNodes(scl).forEach(tlNode -> tlNode.setLnType(lNodeTypeReplacements.getOrDefault(tlNode.getLnType(), tlNode.getLnType())));
+        }
+
+        // Remove merged types
+        dtt.getEnumType().removeIf(tEnumType -> enumTypeReplacements.containsKey(tEnumType.getId()));
+        dtt.getDAType().removeIf(tdaType -> daTypeReplacements.containsKey(tdaType.getId()));
+        dtt.getDOType().removeIf(tdoType -> doTypeReplacements.containsKey(tdoType.getId()));
+        dtt.getLNodeType().removeIf(tlNodeType -> lNodeTypeReplacements.containsKey(tlNodeType.getId()));
+        return new DataTypeTemplateAdapter.MergedDataTypes(lNodeTypeReplacements, doTypeReplacements, daTypeReplacements, enumTypeReplacements);
+    }
+
+    private Integer classOf(List<Object> key) {
+        return classesByKey.computeIfAbsent(key, k -> classesByKey.size());
+    }
+
+    /**
+     * Resolves equivalence class of a DAType, after the DATypes it references
+     * @return class of the DAType, or the id itself when DAType is unknown or part of a reference loop
+     */
+    private Object resolveDAType(String id) {
+        Integer daTypeClass = daTypeClasses.get(id);
+        if (daTypeClass != null) {
+            return daTypeClass;
+        }
+        TDAType tdaType = daTypesById.get(id);
+        if (tdaType == null || !daTypesInProgress.add(id)) {
+            return id;
+        }
+        List<Object> key = new ArrayList<>();
+        key.add(TDAType.class);
+        key.add(privatesKey(tdaType.getPrivate()));
+        key.add(tdaType.getIedType());
+        key.add(tdaType.getProtNs().stream().map(tProtNs -> Arrays.asList(tProtNs.getType(), tProtNs.getValue())).toList());
+        tdaType.getBDA().forEach(tbda -> key.add(dataAttributeKey(tbda)));
+        daTypesInProgress.remove(id);
+        daTypeClass = classOf(key);
+        daTypeClasses.put(id, daTypeClass);
+        return daTypeClass;
+    }
+
+    /**
+     * Resolves equivalence class of a DOType, after the DOTypes and DATypes it references
+     * @return class of the DOType, or the id itself when DOType is unknown or part of a reference loop
+     */
+    private Object resolveDOType(String id) {
+        Integer doTypeClass = doTypeClasses.get(id);
+        if (doTypeClass != null) {
+            return doTypeClass;
+        }
+        TDOType tdoType = doTypesById.get(id);
+        if (tdoType == null || !doTypesInProgress.add(id)) {
+            return id;
+        }
+        List<Object> key = new ArrayList<>();
+        key.add(TDOType.class);
+        key.add(privatesKey(tdoType.getPrivate()));
+        key.add(tdoType.getCdc());
+        key.add(tdoType.getIedType());
+        for (TUnNaming sdoOrDa : tdoType.getSDOOrDA()) {
+            if (sdoOrDa instanceof TSDO tsdo) {
+                key.add(Arrays.asList(TSDO.class, tsdo.getName(), resolveDOType(tsdo.getType()), tsdo.getCount()));
+            } else if (sdoOrDa instanceof TDA tda) {
+                key.add(dataAttributeKey(tda));
+            }
+        }
+        doTypesInProgress.remove(id);
+        doTypeClass = classOf(key);
+        doTypeClasses.put(id, doTypeClass);
+        return doTypeClass;
+    }
+
+    private List<Object> lNodeTypeKey(TLNodeType tlNodeType) {
+        List<Object> key = new ArrayList<>();
+        key.add(TLNodeType.class);
+        key.add(privatesKey(tlNodeType.getPrivate()));
+        key.add(List.copyOf(tlNodeType.getLnClass()));
+        key.add(tlNodeType.getIedType());
+        tlNodeType.getDO().forEach(tdo ->
+                key.add(Arrays.asList(tdo.getName(), resolveDOType(tdo.getType()), tdo.isTransient(), tdo.getAccessControl())));
+        return key;
+    }
+
+    private List<Object> enumTypeKey(TEnumType tEnumType) {
+        List<Object> key = new ArrayList<>();
+        key.add(TEnumType.class);
+        key.add(privatesKey(tEnumType.getPrivate()));
+        tEnumType.getEnumVal().forEach(tEnumVal -> key.add(Arrays.asList(tEnumVal.getOrd(), tEnumVal.getValue())));
+        return key;
+    }
+
+    private List<Object> dataAttributeKey(TAbstractDataAttribute dataAttribute) {
+        Object type;
+        if (TPredefinedBasicTypeEnum.STRUCT == dataAttribute.getBType()) {
+            type = resolveDAType(dataAttribute.getType());
+        } else if (TPredefinedBasicTypeEnum.ENUM == dataAttribute.getBType() && enumTypeClasses.containsKey(dataAttribute.getType())) {
+            type = enumTypeClasses.get(dataAttribute.getType());
+        } else {
+            type = dataAttribute.getType();
+        }
+        List<Object> key = new ArrayList<>(Arrays.asList(dataAttribute.getClass(), dataAttribute.getName(), dataAttribute.getBType(), type,
+                dataAttribute.getSAddr(), dataAttribute.getValKind(), dataAttribute.isValImport(), dataAttribute.getCount(),
+                dataAttribute.getVal().stream().map(tVal -> Arrays.asList(tVal.getValue(), tVal.getSGroup())).toList()));
+        if (dataAttribute instanceof TDA tda) {
+            key.addAll(Arrays.asList(tda.getFc(), tda.isDchg(), tda.isDupd(), tda.isQchg(),
+                    tda.getProtNs().stream().map(tProtNs -> Arrays.asList(tProtNs.getType(), tProtNs.getValue())).toList()));
+        }
+        return key;
+    }
+
+    private List<List<String>> privatesKey(List<TPrivate> tPrivates) {
+        return tPrivates.stream().map(tPrivate -> Arrays.asList(tPrivate.getType(), tPrivate.getSource(), privateContentKey(tPrivate))).toList();
+    }
+
+    /**
+     * Content of a Private, as XML : Private content is free (other namespaces, mixed content) and its JAXB classes do not
+     * implement equals
+     * @return XML of the Private, or null when Private has no content
+     */
+    private String privateContentKey(TPrivate tPrivate) {
+        if (!tPrivate.isSetContent()) {
+            return null;
+        }
+        try {
+            if (privateMarshaller == null) {
+                privateMarshaller = JaxbContextHolder.JAXB_CONTEXT.createMarshaller();
+                privateMarshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+            }
+            StringWriter xml = new StringWriter();
+            privateMarshaller.marshal(new JAXBElement<>(PRIVATE_QNAME, TPrivate.class, tPrivate), xml);
+            return xml.toString();
+        } catch (JAXBException e) {
+            throw new ScdException("Cannot compare Private content of DataTypeTemplates: " + e.getMessage(), e);
+        }
+    }
+
+    private static void rewriteDataAttributeType(TAbstractDataAttribute dataAttribute, Map<String, String> daTypeReplacements,
+                                                 Map<String, String> enumTypeReplacements) {
+        if (TPredefinedBasicTypeEnum.STRUCT == dataAttribute.getBType()) {
+            dataAttribute.setType(daTypeReplacements.getOrDefault(dataAttribute.getType(), dataAttribute.getType()));
+        } else if (TPredefinedBasicTypeEnum.ENUM == dataAttribute.getBType()) {
+            dataAttribute.setType(enumTypeReplacements.getOrDefault(dataAttribute.getType(), dataAttribute.getType()));
+        }
+    }
+
+    /**
+     * Maps id of each type which is not the first of its class to the id of the first type of its class
+     */
+    private static <T extends TIDNaming> Map<String, String> replacements(List<T> types, Map<String, Integer> classesById) {
+        Map<Integer, String> keptIdByClass = new HashMap<>();
+        Map<String, String> replacements = new LinkedHashMap<>();
+        for (T type : types) {
+            Integer typeClass = classesById.get(type.getId());
+            String keptId = keptIdByClass.putIfAbsent(typeClass, type.getId());
+            if (keptId != null && !keptId.equals(type.getId())) {
+                replacements.put(type.getId(), keptId);
+            }
+        }
+        return replacements;
+    }
+
+    private static final class JaxbContextHolder {
+        private static final JAXBContext JAXB_CONTEXT = newJaxbContext();
+
+        private static JAXBContext newJaxbContext() {
+            try {
+                return JAXBContext.newInstance(SCL.class.getPackageName());
+            } catch (JAXBException e) {
+                throw new ScdException(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static <T extends TIDNaming> Map<String, T> indexById(List<T> types) {
+        Map<String, T> typesById = new HashMap<>(types.size() * 2);
+        types.forEach(type -> typesById.putIfAbsent(type.getId(), type));
+        return typesById;
+    }
+
+    private Stream<TAnyLN> streamLNs() {
+        return scl.getIED().stream()
+                .flatMap(tied -> tied.getAccessPoint().stream())
+                .flatMap(tAccessPoint -> {
+                    Stream<TAnyLN> serverLns = tAccessPoint.getServer() == null ? Stream.empty() :
+                            tAccessPoint.getServer().getLDevice().stream()
+                                    .flatMap(tlDevice -> Stream.<TAnyLN>concat(Stream.ofNullable(tlDevice.getLN0()), tlDevice.getLN().stream()));
+                    return Stream.<TAnyLN>concat(serverLns, tAccessPoint.getLN().stream());
+                });
+    }
+}
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * A representation of the model object
@@ -159,14 +160,25 @@ public class LNodeTypeAdapter
      * @return list of completed Data Attribute References beginning from this LNodeType.
      */
     public List<DataAttributeRef> getDataAttributeRefs(@NonNull DataAttributeRef filter)  {
-
         List<DataAttributeRef> dataAttributeRefs = new ArrayList<>();
+        forEachDataAttributeRef(filter, dataAttributeRefs::add);
+        return dataAttributeRefs;
+    }
+
+    /**
+     * Gives each summarized Data Attribute Reference beginning from this LNodeType to the consumer, as soon as it is built.
+     * DOType and DAType are expanded lazily: no intermediate list is built.
+     * @apiNote This method doesn't check relationship between DO/SDO and DA. Check should be done by caller
+     * @param filter filter for LNodeType
+     * @param consumer receives each completed Data Attribute Reference, in DataTypeTemplates order
+     */
+    public void forEachDataAttributeRef(@NonNull DataAttributeRef filter, @NonNull Consumer<DataAttributeRef> consumer) {
         if(filter.isDaNameDefined()) {
             try {
                 check(filter.getDoName(),filter.getDaName());
             } catch (ScdException e){
                 log.error(e.getMessage());
-                return dataAttributeRefs;
+                return;
             }
         }
         DataAttributeRef rootDataAttributeRef = new DataAttributeRef();
@@ -186,11 +198,10 @@ public class LNodeTypeAdapter
                     DataAttributeRef currentDataAttributeRef = DataAttributeRef.copyFrom(rootDataAttributeRef);
                     currentDataAttributeRef.getDoName().setName(tdo.getName());
                     currentDataAttributeRef.getDoName().setCdc(doTypeAdapter.getCdc());
-                    dataAttributeRefs.addAll(doTypeAdapter.getDataAttributeRefs(currentDataAttributeRef, filter));
+                    doTypeAdapter.forEachDataAttributeRef(currentDataAttributeRef, filter, consumer);
                 }
             ); // else this should never happen or the scd won't be built in the first place and we'd never be here
         }
-        return dataAttributeRefs;
     }
 
     /**
@@ -74,6 +74,7 @@ public class HeaderAdapter extends SclElementAdapter<SclRootAdapter, THeader> {
      * @see <a href="https://github.com/com-pas/compas-sct/issues/71">Issue !71</a>
      */
     public HeaderAdapter addHistoryItem(String who, String what, String why){
+        beforeChange();
         THitem tHitem = new THitem();
         tHitem.setRevision(currentElem.getRevision());
         tHitem.setVersion(currentElem.getVersion());
@@ -131,6 +132,7 @@ public class HeaderAdapter extends SclElementAdapter<SclRootAdapter, THeader> {
      * @param hVersion input
      */
     public void updateVersion(String hVersion) {
+        beforeChange();
         currentElem.setVersion(hVersion);
     }
 
@@ -139,6 +141,7 @@ public class HeaderAdapter extends SclElementAdapter<SclRootAdapter, THeader> {
      * @param hRevision input
      */
     public void updateRevision(String hRevision) {
+        beforeChange();
         currentElem.setRevision(hRevision);
     }
 }
@@ -52,6 +52,7 @@ public abstract class AbstractDAIAdapter<P extends SclElementAdapter> extends Sc
      * @param b value
      */
     public void setValImport(boolean b) {
+        beforeChange();
         currentElem.setValImport(b);
     }
 
@@ -63,6 +64,7 @@ public abstract class AbstractDAIAdapter<P extends SclElementAdapter> extends Sc
     }
 
     public AbstractDAIAdapter<? extends SclElementAdapter> update(Map<Long, String> daiValues) throws ScdException {
+        beforeChange();
         if (daiValues.size() > 1 && daiValues.containsKey(0L)) {
             update(0L, daiValues.get(0L)); // to be refined (with COMPAS TEAMS)
         } else {
@@ -81,6 +83,7 @@ public abstract class AbstractDAIAdapter<P extends SclElementAdapter> extends Sc
      * @throws ScdException throws when DAI for which SGroup should be updated is not updatable
      */
     public void update(Long sGroup, String val) throws ScdException {
+        beforeChange();
         if (!isDOModDAstVal() && currentElem.isSetValImport() && !currentElem.isValImport()) {
             String msg = String.format(
                     "DAI(%s) cannot be updated : valImport(false) %s", currentElem.getName(), getXPath()
@@ -108,6 +111,7 @@ public abstract class AbstractDAIAdapter<P extends SclElementAdapter> extends Sc
      * @param value new value
      */
     public void setVal(String value) {
+        beforeChange();
         currentElem.getVal().stream().findFirst()
                 .ifPresentOrElse(
                         tVal -> tVal.setValue(value),
@@ -3,6 +3,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.lfenergy.compas.sct.commons.scl.ied;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -80,6 +81,9 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
     public static final DaTypeName STVAL_DA_TYPE_NAME = new DaTypeName(STVAL_DA_NAME);
     private static final String DAI_MOD_STVAL_VALUE_ON = "on";
 
+    @Getter(AccessLevel.NONE)
+    private DataNameTrie dataNameTrie;
+
     /**
      * Constructor
      *
@@ -154,6 +158,17 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
                 .orElseThrow(() -> new ScdException(String.format("Unknown DOI(%s) in %s", doiName, getXPath())));
     }
 
+    /**
+     * Convert the given TDOI to a DOIAdapter
+     * The current instance must be the parent of the given childTDOI
+     *
+     * @param childTDOI child DOI to convert to an adapter
+     * @return DOIAdapter
+     */
+    public DOIAdapter toAdapter(TDOI childTDOI) {
+        return new DOIAdapter(this, childTDOI);
+    }
+
     public List<DOIAdapter> getDOIAdapters() {
         return currentElem.getDOI()
                 .stream()
@@ -243,6 +258,7 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
      * @throws ScdException throws when mandatory data are missing
      */
     public void updateExtRefBinders(ExtRefInfo extRefInfo) throws ScdException {
+        beforeChange();
 
         if (extRefInfo.getBindingInfo() == null || !extRefInfo.getBindingInfo().isValid()) {
             throw new ScdException("ExtRef mandatory binding data are missing");
@@ -455,6 +471,7 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
      * @throws ScdException throws when mandatory data of ExtRef are missing
      */
     public TExtRef updateExtRefSource(ExtRefInfo extRefInfo) throws ScdException {
+        beforeChange();
         ExtRefSignalInfo signalInfo = extRefInfo.getSignalInfo();
         ExtRefSourceInfo sourceInfo = extRefInfo.getSourceInfo();
         ExtRefBindingInfo bindingInfo = extRefInfo.getBindingInfo();
@@ -723,6 +740,7 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
      * @throws ScdException when given dataAttributeRef is missing DoName or DaName
      */
     public void updateDAI(@NonNull DataAttributeRef dataAttributeRef) throws ScdException {
+        beforeChange();
 
         if (!dataAttributeRef.isDoNameDefined() || !dataAttributeRef.isDaNameDefined()) {
             throw new ScdException("Cannot update undefined DAI");
@@ -757,17 +775,35 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
         if (names.length < 2 || Arrays.stream(names).anyMatch(StringUtils::isBlank)) {
             throw new IllegalArgumentException("dataTypeRef must be valid with at least a DO and a DA, but got: " + dataTypeRef);
         }
-        String doiName = names[0];
-        String daiName = names[names.length - 1];
-        ListIterator<String> sdiNames = Arrays.asList(names).subList(1, names.length - 1).listIterator();
-        IDataParentAdapter parentDoiOrSdi = findDoiAdapterByName(doiName).orElseGet(() -> addDOI(doiName));
-        while (sdiNames.hasNext()) {
-            String currenSdiName = sdiNames.next();
-            final IDataParentAdapter parent = parentDoiOrSdi;
-            parentDoiOrSdi = parentDoiOrSdi.findStructuredDataAdapterByName(currenSdiName).orElseGet(() -> parent.addSDOI(currenSdiName));
+        DataNameTrie.Node doiOrSdiNode = getDataNameTrie().getOrAddDoi(names[0]);
+        IDataParentAdapter parentDoiOrSdi = new DOIAdapter(this, doiOrSdiNode.getDoi());
+        for (int i = 1; i < names.length - 1; i++) {
+            doiOrSdiNode = doiOrSdiNode.getOrAddSdi(names[i]);
+            parentDoiOrSdi = parentDoiOrSdi.toAdapter(doiOrSdiNode.getSdi());
         }
-        final IDataParentAdapter lastParent = parentDoiOrSdi;
-        return lastParent.findDataAdapterByName(daiName).orElseGet(() -> lastParent.addDAI(daiName, setValImportOnCreate));
+        return parentDoiOrSdi.toAdapter(doiOrSdiNode.getOrAddDai(names[names.length - 1], setValImportOnCreate));
+    }
+
+    /**
+     * Gets the name trie of the DOI/SDI/DAI of this LN/LN0, building it on first call.
+     * DOI/SDI/DAI added to the LN/LN0 afterwards are only known by the trie when added by this adapter: the trie is
+     * dropped when they are added with {@link #addDOI}, {@link IDataParentAdapter#addSDOI} or {@link IDataParentAdapter#addDAI}
+     * of the adapters created from this one.
+     *
+     * @return name trie of the DOI/SDI/DAI
+     */
+    DataNameTrie getDataNameTrie() {
+        if (dataNameTrie == null) {
+            dataNameTrie = new DataNameTrie(currentElem.getDOI());
+        }
+        return dataNameTrie;
+    }
+
+    /**
+     * Drops the name trie of the DOI/SDI/DAI of this LN/LN0. It is rebuilt on next call of {@link #getDataNameTrie()}.
+     */
+    void invalidateDataNameTrie() {
+        dataNameTrie = null;
     }
 
     /**
@@ -780,6 +816,7 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
         TDOI tdoi = new TDOI();
         tdoi.setName(name);
         currentElem.getDOI().add(tdoi);
+        invalidateDataNameTrie();
 
         return new DOIAdapter(this, tdoi);
     }
@@ -882,15 +919,28 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
      * Removes all ControlBlocks and DataSets from current LN
      */
     public void removeAllControlBlocksAndDatasets() {
+        beforeChange();
         currentElem.unsetReportControl();
         currentElem.unsetLogControl();
         currentElem.unsetDataSet();
+        if (parentAdapter != null) {
+            parentAdapter.invalidateControlBlockIndexes();
+        }
+    }
+
+    /**
+     * Gets the index of DataSets and ControlBlocks of the parent LDevice, when it has already been built
+     * @return index of parent LDevice, or empty Optional when not built
+     */
+    Optional<ControlBlockIndex> findControlBlockIndex() {
+        return parentAdapter == null ? Optional.empty() : parentAdapter.findControlBlockIndex();
     }
 
     /**
      * Removes all ExtRefs source binding data's
      */
     public void removeAllExtRefSourceBindings() {
+        beforeChange();
         getExtRefs().forEach(this::removeExtRefSourceBinding);
     }
 
@@ -917,6 +967,7 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
      * @see LDeviceAdapter#hasDataSetCreationCapability
      */
     public DataSetAdapter createDataSetIfNotExists(String dataSetName, ControlBlockEnum controlBlockEnum) {
+        beforeChange();
         return findDataSetByName(dataSetName).orElseGet(() -> {
             if (!getParentLDevice().hasDataSetCreationCapability(controlBlockEnum)) {
                 throw new ScdException("IED/AccessPoint does not have capability to create DataSet of type %s in %s"
@@ -937,6 +988,7 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
      * @throws ScdException throws when inconsistency between given ControlBlock and IED configuration
      */
     public ControlBlockAdapter addControlBlock(ControlBlock controlBlock) {
+        beforeChange();
 
         controlBlock.validateCB();
         controlBlock.validateSecurityEnabledValue(getParentIed());
@@ -959,6 +1011,7 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
         }
 
         TControl tControl = controlBlock.addToLN(this.currentElem);
+        findControlBlockIndex().ifPresent(index -> index.registerControlBlock(currentElem, tControl));
         return new ControlBlockAdapter(this, tControl);
     }
 
@@ -986,6 +1039,7 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
      * The returned ControlBlock is always a child of this LN/LN0.
      */
     public ControlBlockAdapter createControlBlockIfNotExists(String cbName, String id, String datSet, ControlBlockEnum controlBlockEnum) {
+        beforeChange();
         return findControlBlock(cbName, controlBlockEnum)
                 .orElseGet(() -> addControlBlock(
                                 switch (controlBlockEnum) {
@@ -18,6 +18,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.lfenergy.compas.sct.commons.util.CommonConstants.APPID_P_TYPE;
+import static org.lfenergy.compas.sct.commons.util.CommonConstants.MAC_ADDRESS_P_TYPE;
 import static org.lfenergy.compas.sct.commons.util.SclConstructorHelper.newDurationInMilliSec;
 import static org.lfenergy.compas.sct.commons.util.SclConstructorHelper.newP;
 import static org.lfenergy.compas.sct.commons.util.Utils.xpathAttributeFilter;
@@ -50,8 +52,6 @@ import static org.lfenergy.compas.sct.commons.util.Utils.xpathAttributeFilter;
 public class ControlBlockAdapter extends SclElementAdapter<AbstractLNAdapter<? extends TAnyLN>, TControl> {
 
     private static final long RPT_ENABLED_MAX_DEFAULT = 1L;
-    private static final String APPID_P_TYPE = "APPID";
-    private static final String MAC_ADDRESS_P_TYPE = "MAC-Address";
     private static final String VLAN_ID_P_TYPE = "VLAN-ID";
     private static final String VLAN_PRIORITY_P_TYPE = "VLAN-PRIORITY";
     private static final int APPID_LENGTH = 4;
@@ -104,6 +104,7 @@ public class ControlBlockAdapter extends SclElementAdapter<AbstractLNAdapter<? e
      * @param targetLn target LN (where the target ExtRef is)
      */
     public void addTargetIfNotExists(AbstractLNAdapter<?> targetLn) {
+        beforeChange();
         ControlBlockTarget controlBlockTarget = new ControlBlockTarget(
             targetLn.getParentLDevice().getAccessPoint().getName(),
             targetLn.getParentIed().getName(),
@@ -140,6 +141,7 @@ public class ControlBlockAdapter extends SclElementAdapter<AbstractLNAdapter<? e
      */
     public Optional<SclReportItem> configureNetwork(long appId, String macAddress, Integer vlanId, Byte vlanPriority, TDurationInMilliSec minTime,
                                                     TDurationInMilliSec maxTime) {
+        beforeChange();
         String accessPointName = getParentLDeviceAdapter().getAccessPoint().getName();
 
         Optional<ConnectedAPAdapter> optConApAdapter = getSclRootAdapter().findConnectedApAdapter(getParentIedAdapter().getName(), accessPointName);
@@ -170,7 +172,7 @@ public class ControlBlockAdapter extends SclElementAdapter<AbstractLNAdapter<? e
      * Get parent LDevice
      * @return ControlBlock's parent lDeviceAdapter
      */
-    private LDeviceAdapter getParentLDeviceAdapter() {
+    public LDeviceAdapter getParentLDeviceAdapter() {
         return getParentAdapter().getParentAdapter();
     }
 
@@ -0,0 +1,211 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.ied;
+
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+import org.lfenergy.compas.scl2007b4.model.*;
+import org.lfenergy.compas.sct.commons.dto.*;
+import org.lfenergy.compas.sct.commons.util.ControlBlockEnum;
+
+import java.util.*;
+
+/**
+ * Reverse index of the DataSets and ControlBlocks of a LDevice, to find the ControlBlocks able to carry a signal in constant time:
+ * <ul>
+ *   <li>DataSets of the LDevice by FCDA (ldInst, prefix, lnClass, lnInst, doName, daName), ignoring fc as
+ *   {@link FCDAInfo#checkFCDACompatibilitiesForBinding} does</li>
+ *   <li>GSEControl, SampledValueControl and ReportControl of a LN/LN0 by datSet</li>
+ * </ul>
+ * Lookups give the same ControlBlocks, in the same order, as {@link AbstractLNAdapter#getControlBlocksForMatchingFCDA(ExtRefInfo)}
+ * called on LN0 then on each LN of the LDevice.
+ * <p>
+ * The index is kept up to date by {@link AbstractLNAdapter#addControlBlock(ControlBlock)} and
+ * {@link DataSetAdapter#createFCDAIfNotExists}, and dropped by {@link AbstractLNAdapter#removeAllControlBlocksAndDatasets()}.
+ * DataSets, FCDAs or ControlBlocks added or removed directly in the JAXB tree are not seen: call
+ * {@link org.lfenergy.compas.sct.commons.scl.SclRootAdapter#invalidateControlBlockIndexes()} after such changes.
+ * </p>
+ * @see org.lfenergy.compas.sct.commons.scl.SclRootAdapter#getControlBlockIndex(LDeviceAdapter)
+ */
+public final class ControlBlockIndex {
+
+    private static final List<ControlBlockEnum> INDEXED_CONTROL_BLOCKS = List.of(ControlBlockEnum.GSE, ControlBlockEnum.SAMPLED_VALUE,
+        ControlBlockEnum.REPORT);
+
+    private final TLDevice tlDevice;
+    private final Map<TAnyLN, LnEntry> lnEntries = new IdentityHashMap<>();
+    private final Map<FcdaKey, List<DataSetEntry>> dataSetsByFcda = new HashMap<>();
+
+    /**
+     * Constructor, indexes DataSets and ControlBlocks of LN0 and all LNs of the LDevice
+     * @param lDeviceAdapter LDevice to index
+     */
+    public ControlBlockIndex(@NonNull LDeviceAdapter lDeviceAdapter) {
+        this.tlDevice = lDeviceAdapter.getCurrentElem();
+        for (AbstractLNAdapter<?> lnAdapter : lDeviceAdapter.getLNAdaptersIncludingLN0()) {
+            LnEntry lnEntry = new LnEntry(lnAdapter, lnEntries.size());
+            TAnyLN tAnyLN = lnAdapter.getCurrentElem();
+            lnEntries.put(tAnyLN, lnEntry);
+            for (TDataSet tDataSet : tAnyLN.getDataSet()) {
+                tDataSet.getFCDA().forEach(tfcda -> {
+                    List<DataSetEntry> dataSetEntries = dataSetsByFcda.computeIfAbsent(FcdaKey.from(tfcda), key -> new ArrayList<>(1));
+                    // FCDAs of a DataSet are read in a row: the DataSet is only added once
+                    if (dataSetEntries.isEmpty() || dataSetEntries.get(dataSetEntries.size() - 1).tDataSet() != tDataSet) {
+                        dataSetEntries.add(new DataSetEntry(lnEntry, tDataSet));
+                    }
+                });
+            }
+            INDEXED_CONTROL_BLOCKS.stream()
+                .filter(controlBlockEnum -> lnAdapter.isLN0() || controlBlockEnum == ControlBlockEnum.REPORT)
+                .<TControl>flatMap(controlBlockEnum -> lnAdapter.getTControlsByType(controlBlockEnum.getControlBlockClass()).stream())
+                .forEach(lnEntry::registerControl);
+        }
+    }
+
+    /**
+     * Checks if this index was built for the given LDevice
+     * @param tlDevice LDevice
+     * @return true if this index indexes given LDevice instance
+     */
+    public boolean isIndexOf(TLDevice tlDevice) {
+        return this.tlDevice == tlDevice;
+    }
+
+    /**
+     * Finds ControlBlocks which DataSet has a FCDA matching the binding and signal of the given ExtRef,
+     * with the service type of the binding when it is set
+     * @param extRefInfo ExtRef signal and binding
+     * @return ControlBlocks of the LDevice able to carry the signal, with their LN metadata
+     */
+    public List<ControlBlock> findControlBlocks(@NonNull ExtRefInfo extRefInfo) {
+        if (extRefInfo.getBindingInfo() == null || extRefInfo.getSignalInfo() == null) {
+            return List.of();
+        }
+        List<DataSetEntry> dataSetEntries = dataSetsByFcda.getOrDefault(FcdaKey.from(extRefInfo), List.of());
+        if (dataSetEntries.isEmpty()) {
+            return List.of();
+        }
+        TServiceType serviceType = extRefInfo.getBindingInfo().getServiceType();
+        List<ControlBlock> controlBlocks = new ArrayList<>();
+        for (DataSetEntry dataSetEntry : dataSetEntries) {
+            LnEntry lnEntry = dataSetEntry.lnEntry();
+            LNodeMetaData metaData = LNodeMetaData.from(lnEntry.lnAdapter());
+            for (ControlBlockEnum controlBlockEnum : INDEXED_CONTROL_BLOCKS) {
+                if (isOfServiceType(controlBlockEnum, serviceType)) {
+                    for (TControl tControl : lnEntry.findControls(controlBlockEnum, dataSetEntry.tDataSet().getName())) {
+                        ControlBlock controlBlock = toControlBlock(tControl);
+                        controlBlock.setMetaData(metaData);
+                        controlBlocks.add(controlBlock);
+                    }
+                }
+            }
+        }
+        return controlBlocks;
+    }
+
+    /**
+     * Adds a ControlBlock created in a LN/LN0 of the LDevice
+     * @param tAnyLN LN/LN0 containing the ControlBlock
+     * @param tControl created ControlBlock
+     */
+    void registerControlBlock(TAnyLN tAnyLN, TControl tControl) {
+        LnEntry lnEntry = lnEntries.get(tAnyLN);
+        if (lnEntry != null && INDEXED_CONTROL_BLOCKS.contains(ControlBlockEnum.from(tControl.getClass()))) {
+            lnEntry.registerControl(tControl);
+        }
+    }
+
+    /**
+     * Adds a FCDA created in a DataSet of a LN/LN0 of the LDevice. The DataSet keeps its rank among the DataSets of the LDevice.
+     * @param tAnyLN LN/LN0 containing the DataSet
+     * @param tDataSet DataSet containing the FCDA
+     * @param tfcda created FCDA
+     */
+    void registerFcda(TAnyLN tAnyLN, TDataSet tDataSet, TFCDA tfcda) {
+        LnEntry lnEntry = lnEntries.get(tAnyLN);
+        if (lnEntry == null) {
+            return;
+        }
+        List<DataSetEntry> dataSetEntries = dataSetsByFcda.computeIfAbsent(FcdaKey.from(tfcda), key -> new ArrayList<>(1));
+        if (dataSetEntries.stream().anyMatch(dataSetEntry -> dataSetEntry.tDataSet() == tDataSet)) {
+            return;
+        }
+        int dataSetRank = tAnyLN.getDataSet().indexOf(tDataSet);
+        int position = 0;
+        while (position < dataSetEntries.size() && isBefore(dataSetEntries.get(position), lnEntry, dataSetRank)) {
+            position++;
+        }
+        dataSetEntries.add(position, new DataSetEntry(lnEntry, tDataSet));
+    }
+
+    private static boolean isBefore(DataSetEntry dataSetEntry, LnEntry lnEntry, int dataSetRank) {
+        LnEntry otherLnEntry = dataSetEntry.lnEntry();
+        return otherLnEntry.rank() < lnEntry.rank() || (otherLnEntry == lnEntry
+            && lnEntry.lnAdapter().getCurrentElem().getDataSet().indexOf(dataSetEntry.tDataSet()) < dataSetRank);
+    }
+
+    private static boolean isOfServiceType(ControlBlockEnum controlBlockEnum, TServiceType serviceType) {
+        return serviceType == null || switch (controlBlockEnum) {
+            case GSE -> serviceType == TServiceType.GOOSE;
+            case SAMPLED_VALUE -> serviceType == TServiceType.SMV;
+            default -> serviceType == TServiceType.REPORT;
+        };
+    }
+
+    private static ControlBlock toControlBlock(TControl tControl) {
+        if (tControl instanceof TGSEControl tgseControl) {
+            return new GooseControlBlock(tgseControl);
+        }
+        if (tControl instanceof TSampledValueControl tSampledValueControl) {
+            return new SMVControlBlock(tSampledValueControl);
+        }
+        return new ReportControlBlock((TReportControl) tControl);
+    }
+
+    private record LnEntry(AbstractLNAdapter<?> lnAdapter, int rank, Map<ControlBlockEnum, Map<String, List<TControl>>> controlsByDataSet) {
+
+        private LnEntry(AbstractLNAdapter<?> lnAdapter, int rank) {
+            this(lnAdapter, rank, new EnumMap<>(ControlBlockEnum.class));
+        }
+
+        private void registerControl(TControl tControl) {
+            controlsByDataSet.computeIfAbsent(ControlBlockEnum.from(tControl.getClass()), key -> new HashMap<>())
+                .computeIfAbsent(tControl.getDatSet(), key -> new ArrayList<>(1))
+                .add(tControl);
+        }
+
+        private List<TControl> findControls(ControlBlockEnum controlBlockEnum, String dataSetName) {
+            return controlsByDataSet.getOrDefault(controlBlockEnum, Map.of()).getOrDefault(dataSetName, List.of());
+        }
+    }
+
+    private record DataSetEntry(LnEntry lnEntry, TDataSet tDataSet) {
+    }
+
+    /**
+     * FCDA attributes compared by {@link FCDAInfo#checkFCDACompatibilitiesForBinding}. Blank attributes are equal.
+     */
+    private record FcdaKey(String ldInst, String prefix, String lnClass, String lnInst, DoTypeName doName, DaTypeName daName) {
+
+        private FcdaKey {
+            ldInst = StringUtils.defaultIfBlank(ldInst, StringUtils.EMPTY);
+            prefix = StringUtils.defaultIfBlank(prefix, StringUtils.EMPTY);
+            lnClass = StringUtils.defaultIfBlank(lnClass, StringUtils.EMPTY);
+            lnInst = StringUtils.defaultIfBlank(lnInst, StringUtils.EMPTY);
+        }
+
+        private static FcdaKey from(TFCDA tfcda) {
+            FCDAInfo fcdaInfo = new FCDAInfo(tfcda);
+            return new FcdaKey(fcdaInfo.getLdInst(), fcdaInfo.getPrefix(), fcdaInfo.getLnClass(), fcdaInfo.getLnInst(),
+                fcdaInfo.getDoName(), fcdaInfo.getDaName());
+        }
+
+        private static FcdaKey from(ExtRefInfo extRefInfo) {
+            ExtRefBindingInfo bindingInfo = extRefInfo.getBindingInfo();
+            return new FcdaKey(bindingInfo.getLdInst(), bindingInfo.getPrefix(), bindingInfo.getLnClass(), bindingInfo.getLnInst(),
+                new DoTypeName(extRefInfo.getSignalInfo().getPDO()), new DaTypeName(extRefInfo.getSignalInfo().getPDA()));
+        }
+    }
+}
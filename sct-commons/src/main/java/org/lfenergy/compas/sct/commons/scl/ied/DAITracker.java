@@ -6,7 +6,7 @@ package org.lfenergy.compas.sct.commons.scl.ied;
 
 import lombok.Getter;
 import lombok.NonNull;
-import org.apache.commons.lang3.tuple.Pair;
+import org.lfenergy.compas.scl2007b4.model.TDAI;
 import org.lfenergy.compas.scl2007b4.model.TPredefinedCDCEnum;
 import org.lfenergy.compas.sct.commons.dto.DaTypeName;
 import org.lfenergy.compas.sct.commons.dto.DataAttributeRef;
@@ -17,6 +17,7 @@ import org.lfenergy.compas.sct.commons.scl.dtt.LNodeTypeAdapter;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * A representation of the model object
@@ -75,6 +76,7 @@ public class DAITracker {
      * - DOI is equivalent to a DO
      * - SDI are equivalent to SDO and DA with bType="Struct" and BDA with bType="Struct". There can be no SDI when there are no SDO, nor DA(bType="Struct") , nor SDA(bType="Struct")
      * - DAI is the final element. It is equivalent to the final DA (when bType != "Struct") or the final BDA (BDA with bType != "Struct")
+     * The DOI/SDI/DAI chain is resolved with the name trie of the LN (see {@link AbstractLNAdapter#getDataNameTrie()}), one lookup per level.
      *
      * @return one of <em>MatchResult</em> enum value :
      *      <ul>
@@ -84,56 +86,59 @@ public class DAITracker {
      *      </ul>
      */
     public MatchResult search() {
-
-        Pair<? extends IDataAdapter,Integer> matchResult;
-        String doiName = doTypeName.getName();
-        List<String> sdoiNames = doTypeName.getStructNames();
-        try {
-            doiOrSdoiAdapter = lnAdapter.getDOIAdapterByName(doiName);
-            indexDoType = -1;
-        } catch (ScdException e) {
+        Optional<DataNameTrie.Node> doiNode = lnAdapter.getDataNameTrie().findDoi(doTypeName.getName());
+        if (doiNode.isEmpty()) {
             doiOrSdoiAdapter = null;
             return MatchResult.FAILED;
         }
-        if(!sdoiNames.isEmpty()){
-            matchResult = doiOrSdoiAdapter.findDeepestMatch(
-                    sdoiNames,0,false
-            );
+        DataNameTrie.Node doiOrSdoiNode = doiNode.get();
+        doiOrSdoiAdapter = new DOIAdapter(lnAdapter, doiOrSdoiNode.getDoi());
+        indexDoType = -1;
 
-            doiOrSdoiAdapter = matchResult.getLeft() != null ?
-                    (IDataParentAdapter) matchResult.getLeft() : doiOrSdoiAdapter;
-            indexDoType = matchResult.getRight();
-            if( (indexDoType >= 0  && indexDoType < sdoiNames.size() - 1) ||
-                    (indexDoType == -1 )){
+        List<String> sdoiNames = doTypeName.getStructNames();
+        for (int i = 0; i < sdoiNames.size(); i++) {
+            Optional<DataNameTrie.Node> sdoiNode = doiOrSdoiNode.findSdi(sdoiNames.get(i));
+            if (sdoiNode.isEmpty()) {
                 return MatchResult.PARTIAL_MATCH;
             }
+            doiOrSdoiNode = sdoiNode.get();
+            doiOrSdoiAdapter = doiOrSdoiAdapter.toAdapter(doiOrSdoiNode.getSdi());
+            indexDoType = i;
         }
 
-        if (!daTypeName.getStructNames().isEmpty()) {
-            IDataParentAdapter firstDAIAdapter;
-            try {
-                firstDAIAdapter = doiOrSdoiAdapter.getStructuredDataAdapterByName(daTypeName.getName());
-                indexDaType = -1;
-            } catch (ScdException e) {
+        List<String> bdaNames = daTypeName.getStructNames();
+        if (bdaNames.isEmpty()) {
+            Optional<TDAI> tdai = doiOrSdoiNode.findDai(daTypeName.getName());
+            if (tdai.isEmpty()) {
                 return MatchResult.PARTIAL_MATCH;
             }
-            matchResult = firstDAIAdapter.findDeepestMatch(
-                    daTypeName.getStructNames(), 0, true
-            );
-            bdaiOrDaiAdapter = matchResult.getLeft();
-            indexDaType = matchResult.getRight();
-            if ( (indexDaType >= 0 && indexDaType < daTypeName.getStructNames().size() - 1) ||
-                    (indexDaType == -1)){
-                return MatchResult.PARTIAL_MATCH;
-            }
-        } else {
-            try {
-                bdaiOrDaiAdapter = doiOrSdoiAdapter.getDataAdapterByName(daTypeName.getName());
-                indexDaType = -1;
-            } catch (ScdException e) {
+            bdaiOrDaiAdapter = doiOrSdoiAdapter.toAdapter(tdai.get());
+            indexDaType = -1;
+            return MatchResult.FULL_MATCH;
+        }
+        Optional<DataNameTrie.Node> daNode = doiOrSdoiNode.findSdi(daTypeName.getName());
+        if (daNode.isEmpty()) {
+            return MatchResult.PARTIAL_MATCH;
+        }
+        DataNameTrie.Node sdiNode = daNode.get();
+        IDataParentAdapter sdiAdapter = doiOrSdoiAdapter.toAdapter(sdiNode.getSdi());
+        indexDaType = -1;
+        for (int i = 0; i < bdaNames.size() - 1; i++) {
+            Optional<DataNameTrie.Node> bdaNode = sdiNode.findSdi(bdaNames.get(i));
+            if (bdaNode.isEmpty()) {
                 return MatchResult.PARTIAL_MATCH;
             }
+            sdiNode = bdaNode.get();
+            sdiAdapter = sdiAdapter.toAdapter(sdiNode.getSdi());
+            bdaiOrDaiAdapter = sdiAdapter;
+            indexDaType = i;
+        }
+        Optional<TDAI> tdai = sdiNode.findDai(bdaNames.get(bdaNames.size() - 1));
+        if (tdai.isEmpty()) {
+            return MatchResult.PARTIAL_MATCH;
         }
+        bdaiOrDaiAdapter = sdiAdapter.toAdapter(tdai.get());
+        indexDaType = bdaNames.size() - 1;
         return MatchResult.FULL_MATCH;
     }
 
@@ -104,6 +104,7 @@ public class DOIAdapter extends SclElementAdapter<AbstractLNAdapter<? extends TA
      * @return a filled SclReportItem if an error occurs, empty SclReportItem otherwise
      */
     public List<SclReportItem> updateDaiFromExtRef(List<TExtRef> tExtRefs) {
+        beforeChange();
         List<SclReportItem> sclReportItems = new ArrayList<>();
         Optional<TExtRef> tExtRefMinOptional = tExtRefs.stream().min(EXTREF_DESC_SUFFIX_COMPARATOR);
         if (tExtRefMinOptional.isPresent() && extractDescSuffix(tExtRefMinOptional.get().getDesc()) == 1) {
@@ -140,6 +141,7 @@ public class DOIAdapter extends SclElementAdapter<AbstractLNAdapter<? extends TA
      * @return warning message when DAI not updatable, otherwise return empty and update DAI with value
      */
     public Optional<SclReportItem> updateDAI(String daName, String value) {
+        beforeChange();
             DataAttributeRef daiFilterSrcRef = new DataAttributeRef(getParentAdapter(), new DoTypeName(getName()), new DaTypeName(daName));
             Optional<DataAttributeRef> foundDais = getParentAdapter().getDAI(daiFilterSrcRef, true).stream().findFirst();
         if (foundDais.isEmpty()) {
@@ -0,0 +1,162 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.ied;
+
+import org.lfenergy.compas.scl2007b4.model.TDAI;
+import org.lfenergy.compas.scl2007b4.model.TDOI;
+import org.lfenergy.compas.scl2007b4.model.TSDI;
+import org.lfenergy.compas.scl2007b4.model.TUnNaming;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Name trie over the DOI/SDI/DAI instantiated in a LN/LN0, to resolve a DOI/SDI/DAI path in one map lookup per level.
+ * <p>
+ * Like the linear searches of {@link AbstractLNAdapter#findDoiAdapterByName(String)} and {@link IDataParentAdapter}, the first
+ * element of a given name wins when names are duplicated. The trie is built lazily, one level at a time: the DOI names are indexed
+ * when the trie is created, and the children of a DOI or SDI are indexed on first access to this DOI or SDI, so a lookup does not
+ * index the DOI, SDI and DAI which are not on its path. Once indexed, a level only knows about elements added with
+ * {@link #getOrAddDoi(String)}, {@link Node#getOrAddSdi(String)} and {@link Node#getOrAddDai(String, boolean)}.
+ * </p>
+ */
+final class DataNameTrie {
+
+    private final List<TDOI> tdois;
+    private final Map<String, Node> doiNodesByName = new HashMap<>();
+
+    /**
+     * Constructor
+     * @param tdois DOI of the LN/LN0, used to index the DOI names and to add missing DOI
+     */
+    DataNameTrie(List<TDOI> tdois) {
+        this.tdois = tdois;
+        tdois.forEach(tdoi -> doiNodesByName.computeIfAbsent(tdoi.getName(), name -> new Node(tdoi, tdoi.getSDIOrDAI())));
+    }
+
+    /**
+     * Finds DOI by name
+     * @param doiName name of the DOI
+     * @return DOI node when found, empty Optional otherwise
+     */
+    Optional<Node> findDoi(String doiName) {
+        return Optional.ofNullable(doiNodesByName.get(doiName));
+    }
+
+    /**
+     * Gets DOI by name, creating it in the LN/LN0 when missing
+     * @param doiName name of the DOI
+     * @return existing or created DOI node
+     */
+    Node getOrAddDoi(String doiName) {
+        return doiNodesByName.computeIfAbsent(doiName, name -> {
+            TDOI tdoi = new TDOI();
+            tdoi.setName(name);
+            tdois.add(tdoi);
+            return new Node(tdoi, tdoi.getSDIOrDAI());
+        });
+    }
+
+    /**
+     * DOI or SDI of the trie, with its SDI and DAI children by name, indexed on first access
+     */
+    static final class Node {
+
+        private final TUnNaming element;
+        private final List<TUnNaming> sdiOrDai;
+        private Map<String, Node> sdiNodesByName;
+        private Map<String, TDAI> daisByName;
+
+        private Node(TUnNaming element, List<TUnNaming> sdiOrDai) {
+            this.element = element;
+            this.sdiOrDai = sdiOrDai;
+        }
+
+        private void indexChildren() {
+            if (sdiNodesByName != null) {
+                return;
+            }
+            sdiNodesByName = new HashMap<>();
+            daisByName = new HashMap<>();
+            for (TUnNaming tUnNaming : sdiOrDai) {
+                if (tUnNaming.getClass().equals(TSDI.class)) {
+                    TSDI tsdi = (TSDI) tUnNaming;
+                    sdiNodesByName.computeIfAbsent(tsdi.getName(), name -> new Node(tsdi, tsdi.getSDIOrDAI()));
+                } else if (tUnNaming.getClass().equals(TDAI.class)) {
+                    TDAI tdai = (TDAI) tUnNaming;
+                    daisByName.putIfAbsent(tdai.getName(), tdai);
+                }
+            }
+        }
+
+        /**
+         * @return DOI of the node, or null when the node is a SDI
+         */
+        TDOI getDoi() {
+            return element instanceof TDOI tdoi ? tdoi : null;
+        }
+
+        /**
+         * @return SDI of the node, or null when the node is a DOI
+         */
+        TSDI getSdi() {
+            return element instanceof TSDI tsdi ? tsdi : null;
+        }
+
+        /**
+         * Finds child SDI by name
+         * @param sdiName name of the SDI
+         * @return SDI node when found, empty Optional otherwise
+         */
+        Optional<Node> findSdi(String sdiName) {
+            indexChildren();
+            return Optional.ofNullable(sdiNodesByName.get(sdiName));
+        }
+
+        /**
+         * Finds child DAI by name
+         * @param daiName name of the DAI
+         * @return DAI when found, empty Optional otherwise
+         */
+        Optional<TDAI> findDai(String daiName) {
+            indexChildren();
+            return Optional.ofNullable(daisByName.get(daiName));
+        }
+
+        /**
+         * Gets child SDI by name, creating it when missing
+         * @param sdiName name of the SDI
+         * @return existing or created SDI node
+         */
+        Node getOrAddSdi(String sdiName) {
+            indexChildren();
+            return sdiNodesByName.computeIfAbsent(sdiName, name -> {
+                TSDI tsdi = new TSDI();
+                tsdi.setName(name);
+                sdiOrDai.add(tsdi);
+                return new Node(tsdi, tsdi.getSDIOrDAI());
+            });
+        }
+
+        /**
+         * Gets child DAI by name, creating it when missing
+         * @param daiName name of the DAI
+         * @param valImportOnCreate valImport attribute of the DAI when created
+         * @return existing or created DAI
+         */
+        TDAI getOrAddDai(String daiName, boolean valImportOnCreate) {
+            indexChildren();
+            return daisByName.computeIfAbsent(daiName, name -> {
+                TDAI tdai = new TDAI();
+                tdai.setName(name);
+                tdai.setValImport(valImportOnCreate);
+                sdiOrDai.add(tdai);
+                return tdai;
+            });
+        }
+    }
+}
@@ -124,6 +124,7 @@ public class DataSetAdapter extends SclElementAdapter<AbstractLNAdapter<? extend
      * @return created FCDA, or existing FCDA with the given attributes
      */
     public TFCDA createFCDAIfNotExists(String ldInst, String prefix, String lnClass, String lnInst, String doName, String daName, TFCEnum fc) {
+        beforeChange();
         Objects.requireNonNull(fc); // fc is required by XSD
         Optional<TFCDA> fcda = findFCDA(ldInst, prefix, lnClass, lnInst, doName, daName, fc);
         return fcda
@@ -138,6 +139,10 @@ public class DataSetAdapter extends SclElementAdapter<AbstractLNAdapter<? extend
                             fc);
                     currentElem.getFCDA().add(newFcda);
                     currentElem.getFCDA().sort(FCDA_COMPARATOR);
+                    if (parentAdapter != null) {
+                        parentAdapter.findControlBlockIndex()
+                            .ifPresent(index -> index.registerFcda(parentAdapter.getCurrentElem(), currentElem, newFcda));
+                    }
                     return newFcda;
                 });
     }
@@ -9,6 +9,7 @@ import org.lfenergy.compas.scl2007b4.model.TDAI;
 import org.lfenergy.compas.scl2007b4.model.TSDI;
 import org.lfenergy.compas.scl2007b4.model.TUnNaming;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.SclElementAdapter;
 
 import java.util.List;
 import java.util.Optional;
@@ -147,6 +148,7 @@ public interface IDataParentAdapter extends IDataAdapter {
         tdai.setName(name);
         tdai.setValImport(isUpdatable);
         getSDIOrDAI().add(tdai);
+        invalidateDataNameTrie();
         return toAdapter(tdai);
     }
 
@@ -160,9 +162,25 @@ public interface IDataParentAdapter extends IDataAdapter {
         TSDI tsdi = new TSDI();
         tsdi.setName(sdiName);
         getSDIOrDAI().add(tsdi);
+        invalidateDataNameTrie();
         return toAdapter(tsdi);
     }
 
+    /**
+     * Drops the name trie of the LN/LN0 adapter enclosing this DOI or SDI, as it does not know about added SDI or DAI
+     *
+     * @see AbstractLNAdapter#getDataNameTrie()
+     */
+    private void invalidateDataNameTrie() {
+        Object adapter = this;
+        while (adapter instanceof SclElementAdapter<?, ?> sclElementAdapter && !(adapter instanceof AbstractLNAdapter)) {
+            adapter = sclElementAdapter.getParentAdapter();
+        }
+        if (adapter instanceof AbstractLNAdapter<?> lnAdapter) {
+            lnAdapter.invalidateDataNameTrie();
+        }
+    }
+
     /**
      * Search for the closest match for a list of structured data name (SDIs names = list of SDOs or BDAs names)
      *
@@ -175,24 +193,24 @@ public interface IDataParentAdapter extends IDataAdapter {
         int index = -1;
         int sz = sNames.size();
         IDataAdapter diAdapter = null;
-        IDataAdapter currSdiAdapter = this;
+        IDataParentAdapter currSdiAdapter = this;
         for (int currIndex = fromIndex; currIndex < sz; currIndex++) {
-            try {
-                if (currIndex == sz - 1 && isBdaNames) {
-                    currSdiAdapter = ((IDataParentAdapter) currSdiAdapter).getDataAdapterByName(
-                            sNames.get(currIndex)
-                    );
-                } else {
-                    currSdiAdapter = ((IDataParentAdapter) currSdiAdapter).getStructuredDataAdapterByName(
-                            sNames.get(currIndex)
-                    );
+            if (currIndex == sz - 1 && isBdaNames) {
+                Optional<AbstractDAIAdapter<?>> daiAdapter = currSdiAdapter.findDataAdapterByName(sNames.get(currIndex));
+                if (daiAdapter.isEmpty()) {
+                    break;
+                }
+                diAdapter = daiAdapter.get();
+            } else {
+                Optional<IDataParentAdapter> sdiAdapter = currSdiAdapter.findStructuredDataAdapterByName(sNames.get(currIndex));
+                if (sdiAdapter.isEmpty()) {
+                    // partial match was found if index >= 0 or unknown data object names
+                    break;
                 }
+                currSdiAdapter = sdiAdapter.get();
                 diAdapter = currSdiAdapter;
-                index = currIndex;
-            } catch (ScdException e) {
-                // partial match was found if index >= 0 or unknown data object names
-                break;
             }
+            index = currIndex;
         }
         return Pair.of(diAdapter, index);
     }
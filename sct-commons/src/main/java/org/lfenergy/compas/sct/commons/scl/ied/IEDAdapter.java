@@ -120,6 +120,7 @@ public class IEDAdapter extends SclElementAdapter<SclRootAdapter, TIED> {
      * @param iedName new name to set
      */
     public void setIEDName(String iedName) {
+        beforeChange();
         currentElem.setName(iedName);
     }
 
@@ -187,6 +188,7 @@ public class IEDAdapter extends SclElementAdapter<SclRootAdapter, TIED> {
      * @throws ScdException throws when renaming LDevice and new name has more than 33 caracteres
      */
     public void updateLDeviceNodesType(Map<String, String> pairOldNewId) throws ScdException {
+        beforeChange();
         // renaming ldName
         streamLDeviceAdapters().forEach(lDeviceAdapter -> {
             lDeviceAdapter.updateLDName();
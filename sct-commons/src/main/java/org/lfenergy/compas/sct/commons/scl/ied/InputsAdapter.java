@@ -93,6 +93,7 @@ public class InputsAdapter extends SclElementAdapter<LN0Adapter, TInputs> {
      * @return list of encountered errors
      */
     public List<SclReportItem> updateAllExtRefIedNames(Map<String, IEDAdapter> icdSystemVersionToIed) {
+        beforeChange();
         Optional<String> optionalLDeviceStatus = getLDeviceAdapter().getLDeviceStatus();
         if (optionalLDeviceStatus.isEmpty()) {
             return List.of(getLDeviceAdapter().buildFatalReportItem(MESSAGE_LDEVICE_STATUS_UNDEFINED));
@@ -324,6 +325,7 @@ public class InputsAdapter extends SclElementAdapter<LN0Adapter, TInputs> {
             return sclReportItem;
         }
 
+        beforeChange();
         try {
             sourceDas.forEach(sourceDa -> {
                 String datasetSuffix = generateDataSetSuffix(extRef, sourceDa, isBayInternal);
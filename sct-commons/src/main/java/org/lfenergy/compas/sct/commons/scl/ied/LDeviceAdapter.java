@@ -5,12 +5,14 @@
 package org.lfenergy.compas.sct.commons.scl.ied;
 
 
+import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.lfenergy.compas.scl2007b4.model.*;
 import org.lfenergy.compas.sct.commons.dto.*;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.SclElementAdapter;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
 import org.lfenergy.compas.sct.commons.scl.dtt.DataTypeTemplateAdapter;
 import org.lfenergy.compas.sct.commons.util.ControlBlockEnum;
 import org.lfenergy.compas.sct.commons.util.LDeviceStatus;
@@ -78,6 +80,7 @@ public class LDeviceAdapter extends SclElementAdapter<IEDAdapter, TLDevice> {
      * @param fcdas List of FCDA for which we must create the DataSet and ReportControl
      */
     public void createHmiReportControlBlocks(List<TFCDA> fcdas) {
+        beforeChange();
         LN0Adapter ln0 = getLN0Adapter();
         if (!ln0.getDaiModStValValue().map(LDeviceStatus.ON::equals).orElse(false)) return;
         fcdas.stream()
@@ -161,6 +164,7 @@ public class LDeviceAdapter extends SclElementAdapter<IEDAdapter, TLDevice> {
      * @throws ScdException throws when renaming LDevice and new name has more than 33 caracteres
      */
     public void updateLDName() throws ScdException {
+        beforeChange();
         String newLdName = parentAdapter.getCurrentElem().getName() + currentElem.getInst();
         if (newLdName.length() > 33) {
             throw new ScdException(newLdName + "(IED.name + LDevice.inst) has more than 33 characters");
@@ -284,19 +288,20 @@ public class LDeviceAdapter extends SclElementAdapter<IEDAdapter, TLDevice> {
     }
 
     /**
-     * Gets all ExtRef of all LNodes of current LDevice
+     * Gets all ExtRef of all LNodes of current LDevice, in document order : ExtRefs of LN0, then ExtRefs of each LN.
+     * One ExtRefInfo is returned per ExtRef, so identical ExtRefs are all returned.
      *
      * @return list of <em>ExtRefInfo</em> object (containing binding data for each LDNode in current LDevice)
      */
     public List<ExtRefInfo> getExtRefInfo() {
         List<ExtRefInfo> extRefInfos = new ArrayList<>();
-        List<AbstractLNAdapter<?>> lnAdapters = getLNAdaptersIncludingLN0();
-        LogicalNodeOptions logicalNodeOptions = new LogicalNodeOptions();
-        logicalNodeOptions.setWithExtRef(true);
-        for (AbstractLNAdapter<?> lnAdapter : lnAdapters) {
-            LNodeDTO lNodeDTO = LNodeDTO.from(lnAdapter, logicalNodeOptions);
-            extRefInfos.addAll(lNodeDTO.getExtRefs());
-        }
+        IedProjectionConsumer extRefCollector = new IedProjectionConsumer() {
+            @Override
+            public void extRef(ExtRefInfo extRefInfo) {
+                extRefInfos.add(extRefInfo);
+            }
+        };
+        getLNAdaptersIncludingLN0().forEach(lnAdapter -> IedProjection.projectExtRefs(lnAdapter, extRefCollector));
         return extRefInfos;
     }
 
@@ -350,6 +355,39 @@ public class LDeviceAdapter extends SclElementAdapter<IEDAdapter, TLDevice> {
         return aLNAdapters;
     }
 
+    /**
+     * Gets Control Blocks of LN0 and LNs of current LDevice which DataSet has a FCDA matching the binding and signal of the given ExtRef.
+     * Same result as {@link AbstractLNAdapter#getControlBlocksForMatchingFCDA(ExtRefInfo)} called on each LN including LN0,
+     * found with the {@link ControlBlockIndex} of this LDevice.
+     *
+     * @param extRefInfo ExtRef signal data for which Control Blocks should be found (contain binding info to match with FCDA)
+     * @return list of <em>ControlBlock</em> object as ControlBlocks of LDevice matching FCDA and ExtRef
+     */
+    public List<ControlBlock> getControlBlocksForMatchingFCDA(@NonNull ExtRefInfo extRefInfo) {
+        SclRootAdapter sclRootAdapter = parentAdapter == null ? null : parentAdapter.getParentAdapter();
+        ControlBlockIndex controlBlockIndex = sclRootAdapter == null ? new ControlBlockIndex(this) : sclRootAdapter.getControlBlockIndex(this);
+        return controlBlockIndex.findControlBlocks(extRefInfo);
+    }
+
+    /**
+     * Gets the index of DataSets and ControlBlocks of current LDevice, when it has already been built
+     * @return index of current LDevice, or empty Optional when not built
+     */
+    Optional<ControlBlockIndex> findControlBlockIndex() {
+        SclRootAdapter sclRootAdapter = parentAdapter == null ? null : parentAdapter.getParentAdapter();
+        return sclRootAdapter == null ? Optional.empty() : sclRootAdapter.findControlBlockIndex(currentElem);
+    }
+
+    /**
+     * Drops the indexes of DataSets and ControlBlocks of the SCL, after DataSets or ControlBlocks have been removed
+     */
+    void invalidateControlBlockIndexes() {
+        SclRootAdapter sclRootAdapter = parentAdapter == null ? null : parentAdapter.getParentAdapter();
+        if (sclRootAdapter != null) {
+            sclRootAdapter.invalidateControlBlockIndexes();
+        }
+    }
+
     public List<SclReportItem> createDataSetAndControlBlocks() {
         LN0Adapter ln0Adapter = getLN0Adapter();
         if (!ln0Adapter.hasInputs()) {
@@ -443,6 +481,7 @@ public class LDeviceAdapter extends SclElementAdapter<IEDAdapter, TLDevice> {
                         optionalSclReportItem = Optional.of(SclReportItem.warning(lnAdapter.getXPath() + "/DOI@name=\"" + doName + "\"/DAI@name=\"setSrcRef\"/Val",
                                 "The DAI cannot be updated"));
                     } else {
+                        beforeChange();
                         DataAttributeRef daToUpdateFilter = foundDai.get();
                         TLN lnToUpdate = lnAdapter.getCurrentElem();
                         removeLnsByLnClass(monitoringLnClassEnum);
@@ -11,10 +11,9 @@ import org.lfenergy.compas.sct.commons.dto.*;
 import org.lfenergy.compas.sct.commons.scl.LDeviceActivation;
 import org.lfenergy.compas.sct.commons.scl.ObjectReference;
 import org.lfenergy.compas.sct.commons.scl.PrivateService;
+import org.lfenergy.compas.sct.commons.util.MultiSubstringMatcher;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.lfenergy.compas.sct.commons.util.CommonConstants.BEHAVIOUR_DO_NAME;
@@ -166,6 +165,7 @@ public class LN0Adapter extends AbstractLNAdapter<LN0> {
      */
     @Override
     public void removeAllControlBlocksAndDatasets() {
+        beforeChange();
         super.removeAllControlBlocksAndDatasets();
         currentElem.unsetGSEControl();
         currentElem.unsetSampledValueControl();
@@ -225,27 +225,43 @@ public class LN0Adapter extends AbstractLNAdapter<LN0> {
 
     /**
      * Update DAIs of DO InRef in all LN0 of the SCD using matching ExtRef information.
+     * All ExtRef desc are searched once for the purpose of all DO InRef.
      *
      * @return A list of SclReport Objects that contain errors
      */
     public List<SclReportItem> updateDoInRef() {
-        return getDOIAdapters().stream()
+        List<DOIAdapter> doInRefAdapters = getDOIAdapters().stream()
                 .filter(doiAdapter -> doiAdapter.getCurrentElem().isSetName()
                         && doiAdapter.getCurrentElem().getName().startsWith(INREF_PREFIX)
                         && doiAdapter.findDataAdapterByName(DAI_NAME_PURPOSE).isPresent())
-                .map(doiAdapter -> doiAdapter.getDataAdapterByName(DAI_NAME_PURPOSE).getCurrentElem().getVal().stream()
-                        .findFirst()
-                        .map(tVal -> doiAdapter.updateDaiFromExtRef(getBoundExtRefsByDesc(tVal.getValue())))
+                .toList();
+        Map<String, List<TExtRef>> boundExtRefsByDesc = getBoundExtRefsByDesc(doInRefAdapters.stream()
+                .map(LN0Adapter::findPurpose)
+                .flatMap(Optional::stream)
+                .toList());
+        return doInRefAdapters.stream()
+                .map(doiAdapter -> findPurpose(doiAdapter)
+                        .map(desc -> doiAdapter.updateDaiFromExtRef(boundExtRefsByDesc.getOrDefault(desc, List.of())))
                         .orElse(List.of(SclReportItem.warning(getXPath(), "The DOI %s can't be bound with an ExtRef".formatted(getXPath()))))
                 )
                 .flatMap(List::stream)
                 .collect(Collectors.toList());
     }
 
-    private List<TExtRef> getBoundExtRefsByDesc(String desc) {
-        return getExtRefs().stream()
+    private static Optional<String> findPurpose(DOIAdapter doiAdapter) {
+        return doiAdapter.getDataAdapterByName(DAI_NAME_PURPOSE).getCurrentElem().getVal().stream()
+                .findFirst()
+                .map(TVal::getValue);
+    }
+
+    private Map<String, List<TExtRef>> getBoundExtRefsByDesc(List<String> descs) {
+        MultiSubstringMatcher descMatcher = new MultiSubstringMatcher(descs);
+        Map<String, List<TExtRef>> boundExtRefsByDesc = new HashMap<>();
+        getExtRefs().stream()
                 .filter(tExtRef -> tExtRef.isSetIedName() && tExtRef.isSetLdInst() && tExtRef.isSetLnClass() && tExtRef.isSetDoName() &&
-                        tExtRef.isSetDesc() && tExtRef.getDesc().contains(desc))
-                .toList();
+                        tExtRef.isSetDesc())
+                .forEach(tExtRef -> descMatcher.forEachContainedPattern(tExtRef.getDesc(),
+                        desc -> boundExtRefsByDesc.computeIfAbsent(desc, k -> new ArrayList<>()).add(tExtRef)));
+        return boundExtRefsByDesc;
     }
 }
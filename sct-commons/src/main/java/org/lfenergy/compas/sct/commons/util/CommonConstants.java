@@ -38,6 +38,8 @@ public final class CommonConstants {
     public static final String SETTSTCB_DA_NAME = "setTstCB";
     public static final String Q_DA_NAME = "q";
     public static final String IED_TEST_NAME = "IEDTEST";
+    public static final String APPID_P_TYPE = "APPID";
+    public static final String MAC_ADDRESS_P_TYPE = "MAC-Address";
 
     /**
      * Private Controlller, should not be instanced
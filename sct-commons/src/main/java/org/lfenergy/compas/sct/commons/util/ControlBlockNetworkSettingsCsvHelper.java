@@ -27,6 +27,7 @@ import java.util.stream.Collectors;
  * The last columns are the network settings for the matched ControlBlock (as described in {@link ControlBlockNetworkSettings.Settings}).
  *
  * @see CsvUtils
+ * @see ReloadableCsvSettings
  */
 public class ControlBlockNetworkSettingsCsvHelper implements ControlBlockNetworkSettings {
 
@@ -0,0 +1,200 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.util;
+
+import com.opencsv.bean.CsvBindByPosition;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Maps CSV rows to instances of a class, using the {@link CsvBindByPosition} annotations of its fields.
+ * <p>
+ * Annotations are read once per class. The constructor and field setters are resolved to {@link MethodHandle} and each field
+ * gets its converter, so that mapping a row does not use reflection.
+ * Values are converted like opencsv does: blank values are null for non String fields, numbers are trimmed and enum constants
+ * are matched by name, ignoring case. Fields of other types, and the locale, capture and format attributes of the annotation
+ * are not supported.
+ * </p>
+ *
+ * @param <T> type of the rows
+ * @see CsvUtils#streamRows(java.io.Reader, Class)
+ */
+final class CsvRowMapper<T> {
+
+    private static final ClassValue<CsvRowMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected CsvRowMapper<?> computeValue(Class<?> type) {
+            return new CsvRowMapper<>(type);
+        }
+    };
+
+    private static final Set<String> TRUE_VALUES = Set.of("true", "yes", "y", "on", "1");
+    private static final Set<String> FALSE_VALUES = Set.of("false", "no", "n", "off", "0");
+
+    private final Class<T> targetClass;
+    private final MethodHandle constructor;
+    private final Column[] columns;
+
+    private CsvRowMapper(Class<T> targetClass) {
+        this.targetClass = targetClass;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(targetClass, MethodHandles.lookup());
+            this.constructor = lookup.findConstructor(targetClass, MethodType.methodType(void.class))
+                .asType(MethodType.methodType(Object.class));
+            List<Column> columnList = new ArrayList<>();
+            for (Class<?> type = targetClass; type != null && type != Object.class; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    CsvBindByPosition csvBindByPosition = field.getAnnotation(CsvBindByPosition.class);
+                    if (csvBindByPosition != null) {
+                        columnList.add(toColumn(lookup, field, csvBindByPosition));
+                    }
+                }
+            }
+            this.columns = columnList.stream().sorted(Comparator.comparingInt(Column::position)).toArray(Column[]::new);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot map CSV rows to " + targetClass.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param targetClass type of the rows
+     * @return mapper of the class, created on first use
+     * @throws IllegalArgumentException when the class has no default constructor, or an annotated field is not supported
+     */
+    @SuppressWarnings("unchecked")
+    static <T> CsvRowMapper<T> of(Class<T> targetClass) {
+        return (CsvRowMapper<T>) MAPPERS.get(targetClass);
+    }
+
+    /**
+     * Creates an instance from a row
+     *
+     * @param line       values of the row. Missing values are considered null.
+     * @param lineNumber line number, for error messages
+     * @return new instance
+     * @throws IllegalArgumentException when a value cannot be converted, or a required value is missing
+     */
+    T map(String[] line, long lineNumber) {
+        Object row = newInstance();
+        for (Column column : columns) {
+            String value = column.position() < line.length ? line[column.position()] : null;
+            Object convertedValue;
+            try {
+                convertedValue = column.converter().apply(value);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cannot convert value '%s' of column %d at line %d to %s: %s"
+                    .formatted(value, column.position(), lineNumber, column.field().getType().getSimpleName(), e.getMessage()), e);
+            }
+            if (convertedValue == null) {
+                if (column.required()) {
+                    throw new IllegalArgumentException("Missing value of required column %d at line %d".formatted(column.position(), lineNumber));
+                }
+                continue;
+            }
+            try {
+                column.setter().invokeExact(row, convertedValue);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot set field %s of %s".formatted(column.field().getName(), targetClass.getName()), e);
+            }
+        }
+        return targetClass.cast(row);
+    }
+
+    private Object newInstance() {
+        try {
+            return constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create instance of " + targetClass.getName(), e);
+        }
+    }
+
+    private static Column toColumn(MethodHandles.Lookup lookup, Field field, CsvBindByPosition csvBindByPosition) throws IllegalAccessException {
+        if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+            throw new IllegalArgumentException("field %s must not be static or final".formatted(field.getName()));
+        }
+        if (!csvBindByPosition.capture().isEmpty() || !"%s".equals(csvBindByPosition.format()) || !csvBindByPosition.locale().isEmpty()) {
+            throw new IllegalArgumentException("locale, capture and format are not supported on field " + field.getName());
+        }
+        MethodHandle setter = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return new Column(csvBindByPosition.position(), csvBindByPosition.required(), field, setter, converter(field));
+    }
+
+    private static Function<String, Object> converter(Field field) {
+        Class<?> type = field.getType();
+        if (type == String.class) {
+            return value -> value;
+        }
+        Function<String, Object> converter = trimmedValueConverter(type, field);
+        return value -> StringUtils.isBlank(value) ? null : converter.apply(value.trim());
+    }
+
+    private static Function<String, Object> trimmedValueConverter(Class<?> type, Field field) {
+        if (type == Integer.class || type == int.class) {
+            return Integer::valueOf;
+        } else if (type == Long.class || type == long.class) {
+            return Long::valueOf;
+        } else if (type == Short.class || type == short.class) {
+            return Short::valueOf;
+        } else if (type == Byte.class || type == byte.class) {
+            return Byte::valueOf;
+        } else if (type == Double.class || type == double.class) {
+            return Double::valueOf;
+        } else if (type == Float.class || type == float.class) {
+            return Float::valueOf;
+        } else if (type == Boolean.class || type == boolean.class) {
+            return CsvRowMapper::toBoolean;
+        } else if (type == Character.class || type == char.class) {
+            return value -> value.charAt(0);
+        } else if (type == BigInteger.class) {
+            return BigInteger::new;
+        } else if (type == BigDecimal.class) {
+            return BigDecimal::new;
+        } else if (type.isEnum()) {
+            return enumConverter((Enum<?>[]) type.getEnumConstants());
+        }
+        throw new IllegalArgumentException("type %s of field %s is not supported".formatted(type.getName(), field.getName()));
+    }
+
+    private static Boolean toBoolean(String value) {
+        String lowerCaseValue = value.toLowerCase(Locale.ROOT);
+        if (TRUE_VALUES.contains(lowerCaseValue)) {
+            return Boolean.TRUE;
+        }
+        if (FALSE_VALUES.contains(lowerCaseValue)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("not a boolean");
+    }
+
+    private static Function<String, Object> enumConverter(Enum<?>[] constants) {
+        Map<String, Object> constantsByName = new HashMap<>();
+        for (Enum<?> constant : constants) {
+            constantsByName.putIfAbsent(constant.name().toUpperCase(Locale.ROOT), constant);
+        }
+        for (Enum<?> constant : constants) {
+            // exact names win over names only differing by case
+            constantsByName.put(constant.name(), constant);
+        }
+        return value -> {
+            Object constant = constantsByName.getOrDefault(value, constantsByName.get(value.toUpperCase(Locale.ROOT)));
+            if (constant == null) {
+                throw new IllegalArgumentException("unknown constant");
+            }
+            return constant;
+        };
+    }
+
+    private record Column(int position, boolean required, Field field, MethodHandle setter, Function<String, Object> converter) {
+    }
+}
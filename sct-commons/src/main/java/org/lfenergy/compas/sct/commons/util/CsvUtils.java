@@ -4,14 +4,22 @@
 
 package org.lfenergy.compas.sct.commons.util;
 
-import com.opencsv.bean.ColumnPositionMappingStrategy;
-import com.opencsv.bean.CsvToBeanBuilder;
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
 import com.opencsv.enums.CSVReaderNullFieldIndicator;
+import com.opencsv.exceptions.CsvValidationException;
 
 import java.io.*;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility class to parse CSV files.
@@ -19,6 +27,7 @@ import java.util.Objects;
  * - Separator is {@link CsvUtils#SEPARATOR}.
  * - Lines starting with {@link CsvUtils#COMMENT_PREFIX} will be ignored. Allow to write copyright and headers at the beginning of the file for example.
  * - blank lines are ignored
+ * Rows are mapped by column position to the fields annotated with {@link com.opencsv.bean.CsvBindByPosition}, see {@link CsvRowMapper}.
  */
 public final class CsvUtils {
     private static final char SEPARATOR = ';';
@@ -51,21 +60,91 @@ public final class CsvUtils {
      * @return list of rows, mapped as targetClass
      */
     public static <T> List<T> parseRows(Reader csvSource, Class<T> targetClass) {
-        ColumnPositionMappingStrategy<T> columnPositionMappingStrategy = new ColumnPositionMappingStrategy<>();
-        columnPositionMappingStrategy.setType(targetClass);
-        try (csvSource) {
-            return new CsvToBeanBuilder<T>(csvSource)
-                    .withType(targetClass)
-                    .withSeparator(SEPARATOR)
-                    .withIgnoreLeadingWhiteSpace(true)
-                    .withIgnoreEmptyLine(true)
-                    .withFieldAsNull(CSVReaderNullFieldIndicator.EMPTY_SEPARATORS)
-                    .withFilter(line -> line != null && line.length > 0 && (line[0] == null || !line[0].stripLeading().startsWith(COMMENT_PREFIX)))
-                    .withMappingStrategy(columnPositionMappingStrategy)
-                    .build()
-                    .parse();
+        try (Stream<T> rows = streamRows(csvSource, targetClass)) {
+            List<T> result = new ArrayList<>();
+            rows.forEach(result::add);
+            return result;
+        }
+    }
+
+    /**
+     * Read CSV from a Reader, lazily: rows are read and mapped while the stream is consumed, so that large files are not loaded in memory.
+     * Reader will be closed when the stream is closed: use the stream in a try-with-resources statement.
+     *
+     * @param csvSource   CSV input
+     * @param targetClass Each row will be mapped to this class.
+     * @return sequential stream of rows, mapped as targetClass
+     * @throws IllegalArgumentException when targetClass cannot be mapped, or while consuming the stream, when a value cannot be converted
+     */
+    public static <T> Stream<T> streamRows(Reader csvSource, Class<T> targetClass) {
+        CsvRowMapper<T> csvRowMapper;
+        try {
+            csvRowMapper = CsvRowMapper.of(targetClass);
+        } catch (IllegalArgumentException e) {
+            closeQuietly(csvSource, e);
+            throw e;
+        }
+        CSVReader csvReader = new CSVReaderBuilder(csvSource)
+                .withCSVParser(new CSVParserBuilder()
+                        .withSeparator(SEPARATOR)
+                        .withIgnoreLeadingWhiteSpace(true)
+                        .withFieldAsNull(CSVReaderNullFieldIndicator.EMPTY_SEPARATORS)
+                        .build())
+                .build();
+        return StreamSupport.stream(new RowSpliterator<>(csvReader, csvRowMapper), false)
+                .onClose(() -> {
+                    try {
+                        csvReader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private static boolean isRow(String[] line) {
+        boolean isEmptyLine = line.length == 1 && (line[0] == null || line[0].isEmpty());
+        return line.length > 0 && !isEmptyLine && (line[0] == null || !line[0].stripLeading().startsWith(COMMENT_PREFIX));
+    }
+
+    private static void closeQuietly(Reader reader, Exception cause) {
+        try {
+            reader.close();
         } catch (IOException e) {
-            throw new UncheckedIOException(e);
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Reads and maps one row at a time, skipping empty and comment lines
+     */
+    private static final class RowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final CSVReader csvReader;
+        private final CsvRowMapper<T> csvRowMapper;
+
+        private RowSpliterator(CSVReader csvReader, CsvRowMapper<T> csvRowMapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.csvReader = csvReader;
+            this.csvRowMapper = csvRowMapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            try {
+                String[] line = csvReader.readNext();
+                while (line != null && !isRow(line)) {
+                    line = csvReader.readNext();
+                }
+                if (line == null) {
+                    return false;
+                }
+                action.accept(csvRowMapper.map(line, csvReader.getLinesRead()));
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (CsvValidationException e) {
+                throw new IllegalArgumentException("Invalid CSV line " + e.getLineNumber(), e);
+            }
         }
     }
 }
@@ -10,7 +10,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.lfenergy.compas.sct.commons.dto.DataAttributeRef;
 
 import java.nio.charset.StandardCharsets;
-import java.util.HashSet;
 import java.util.Set;
 
 public enum FcdaCandidates {
@@ -18,8 +17,6 @@ public enum FcdaCandidates {
 
     private static final String FCDA_CONSTRAINTS_FILE_NAME = "FcdaCandidates.csv";
 
-    private Set<FcdaCandidate> candidates;
-
     /**
      * Check if dataAttributeRef is contains
      *
@@ -40,11 +37,16 @@ public enum FcdaCandidates {
             throw new IllegalArgumentException("parameters must not be blank");
         }
 
-        if (candidates == null) {
-            // using a HashSet because "HashSet.contains" is faster than "ArrayList.contains"
-            candidates = new HashSet<>(CsvUtils.parseRows(FCDA_CONSTRAINTS_FILE_NAME, StandardCharsets.UTF_8, FcdaCandidate.class));
-        }
-        return candidates.contains(new FcdaCandidate(lnClass, doName, daName, fc));
+        return CandidatesHolder.CANDIDATES.contains(new FcdaCandidate(lnClass, doName, daName, fc));
+    }
+
+    /**
+     * Lazily loads the candidates, once and thread-safely, when the holder class is initialized
+     */
+    private static final class CandidatesHolder {
+        // using a Set because "Set.contains" is faster than "List.contains"
+        private static final Set<FcdaCandidate> CANDIDATES = Set.copyOf(
+            CsvUtils.parseRows(FCDA_CONSTRAINTS_FILE_NAME, StandardCharsets.UTF_8, FcdaCandidate.class));
     }
 
     @NoArgsConstructor
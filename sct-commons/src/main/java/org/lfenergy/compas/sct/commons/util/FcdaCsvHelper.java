@@ -18,6 +18,7 @@ import java.util.List;
  *
  * @see CsvUtils
  * @see org.lfenergy.compas.sct.commons.scl.HmiService#createAllHmiReportControlBlocks
+ * @see ReloadableCsvSettings
  */
 public class FcdaCsvHelper {
 
@@ -0,0 +1,144 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.util;
+
+import lombok.NonNull;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Finds which of a set of patterns are contained in a text, with the same result as calling {@link String#contains} for each
+ * pattern, but reading the text only once (Aho-Corasick automaton).
+ * <p>
+ * Building the matcher costs the total length of the patterns. Matching a text then costs its length plus the number of
+ * found patterns, whatever the number of patterns.
+ * </p>
+ */
+public final class MultiSubstringMatcher {
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private final List<String> patterns;
+    private final boolean hasEmptyPattern;
+    private final Map<Long, Integer> transitions = new HashMap<>();
+    private final int[] failures;
+    private final int[] patternIndexes;
+    private final int[] outputLinks;
+
+    /**
+     * Constructor
+     * @param patterns patterns to look for. Null patterns are ignored, duplicates are only reported once.
+     */
+    public MultiSubstringMatcher(@NonNull Collection<String> patterns) {
+        this.patterns = patterns.stream().filter(Objects::nonNull).filter(pattern -> !pattern.isEmpty()).distinct().toList();
+        this.hasEmptyPattern = patterns.contains("");
+        int maxNodeCount = 1 + this.patterns.stream().mapToInt(String::length).sum();
+        int[] parents = new int[maxNodeCount];
+        char[] parentChars = new char[maxNodeCount];
+        int[] depths = new int[maxNodeCount];
+        patternIndexes = new int[maxNodeCount];
+        Arrays.fill(patternIndexes, NONE);
+        int nodeCount = 1;
+        for (int patternIndex = 0; patternIndex < this.patterns.size(); patternIndex++) {
+            String pattern = this.patterns.get(patternIndex);
+            int node = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                Integer child = transitions.get(key(node, c));
+                if (child == null) {
+                    child = nodeCount++;
+                    transitions.put(key(node, c), child);
+                    parents[child] = node;
+                    parentChars[child] = c;
+                    depths[child] = depths[node] + 1;
+                }
+                node = child;
+            }
+            patternIndexes[node] = patternIndex;
+        }
+        failures = new int[nodeCount];
+        outputLinks = new int[nodeCount];
+        outputLinks[ROOT] = NONE;
+        // a node's failure is shallower than the node: computing them by increasing depth is a breadth-first traversal
+        for (int node : sortByDepth(depths, nodeCount)) {
+            int parent = parents[node];
+            int failure = ROOT;
+            if (parent != ROOT) {
+                failure = failures[parent];
+                while (failure != ROOT && !transitions.containsKey(key(failure, parentChars[node]))) {
+                    failure = failures[failure];
+                }
+                failure = transitions.getOrDefault(key(failure, parentChars[node]), ROOT);
+            }
+            failures[node] = failure;
+            outputLinks[node] = patternIndexes[failure] != NONE ? failure : outputLinks[failure];
+        }
+    }
+
+    /**
+     * Calls the given action once for each pattern contained in the text, in pattern order
+     * @param text text to search
+     * @param action action called with each contained pattern
+     */
+    public void forEachContainedPattern(String text, Consumer<String> action) {
+        if (text == null) {
+            return;
+        }
+        if (hasEmptyPattern) {
+            action.accept("");
+        }
+        BitSet foundPatternIndexes = new BitSet(patterns.size());
+        int node = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            Integer next = transitions.get(key(node, c));
+            while (next == null && node != ROOT) {
+                node = failures[node];
+                next = transitions.get(key(node, c));
+            }
+            node = next == null ? ROOT : next;
+            for (int output = patternIndexes[node] != NONE ? node : outputLinks[node]; output != NONE; output = outputLinks[output]) {
+                foundPatternIndexes.set(patternIndexes[output]);
+            }
+        }
+        foundPatternIndexes.stream().mapToObj(patterns::get).forEach(action);
+    }
+
+    /**
+     * Gets patterns contained in the text
+     * @param text text to search
+     * @return contained patterns, in pattern order
+     */
+    public List<String> findContainedPatterns(String text) {
+        List<String> containedPatterns = new ArrayList<>();
+        forEachContainedPattern(text, containedPatterns::add);
+        return containedPatterns;
+    }
+
+    private static long key(int node, char c) {
+        return ((long) node << Character.SIZE) | c;
+    }
+
+    private static int[] sortByDepth(int[] depths, int nodeCount) {
+        int maxDepth = 0;
+        for (int node = 1; node < nodeCount; node++) {
+            maxDepth = Math.max(maxDepth, depths[node]);
+        }
+        int[] starts = new int[maxDepth + 2];
+        for (int node = 1; node < nodeCount; node++) {
+            starts[depths[node] + 1]++;
+        }
+        for (int depth = 1; depth < starts.length; depth++) {
+            starts[depth] += starts[depth - 1];
+        }
+        int[] sortedNodes = new int[nodeCount - 1];
+        for (int node = 1; node < nodeCount; node++) {
+            sortedNodes[starts[depths[node]]++] = node;
+        }
+        return sortedNodes;
+    }
+}
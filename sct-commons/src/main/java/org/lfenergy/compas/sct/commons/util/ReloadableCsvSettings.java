@@ -0,0 +1,149 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.util;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Settings read from a CSV file, which are reloaded when the file changes, without restarting the application.
+ * <p>
+ * The settings are built by a parser, usually the constructor of a CSV helper, for example
+ * <code>new ReloadableCsvSettings&lt;&gt;(path, StandardCharsets.UTF_8, ControlBlockNetworkSettingsCsvHelper::new)</code>.
+ * A reload builds new settings aside and publishes them with an atomic swap: {@link #get()} never blocks and never sees
+ * partially built settings. When the new file cannot be parsed, the previous settings are kept.
+ * </p>
+ * <p>
+ * Settings are replaced, never modified: a job which calls {@link #get()} once and uses the returned settings until it ends
+ * works with a consistent version, even when the file is reloaded in the meantime.
+ * </p>
+ *
+ * @param <T> type of the settings, for example {@link ControlBlockNetworkSettingsCsvHelper}, {@link SettingLDEPFCsvHelper}
+ *            or {@link FcdaCsvHelper}
+ * @see CsvUtils
+ */
+@Slf4j
+public final class ReloadableCsvSettings<T> implements Supplier<T> {
+
+    private final Path csvFile;
+    private final Charset charset;
+    private final Function<Reader, T> parser;
+    private final AtomicReference<Snapshot<T>> current = new AtomicReference<>();
+
+    /**
+     * Constructor, reads the settings a first time
+     *
+     * @param csvFile CSV file
+     * @param charset charset of the file
+     * @param parser  builds the settings from the CSV. It must not keep a reference to the reader.
+     * @throws UncheckedIOException when the file cannot be read
+     */
+    public ReloadableCsvSettings(@NonNull Path csvFile, @NonNull Charset charset, @NonNull Function<Reader, T> parser) {
+        this.csvFile = csvFile;
+        this.charset = charset;
+        this.parser = parser;
+        current.set(load(0));
+    }
+
+    /**
+     * @return current settings. Call it once per job to work with a consistent version of the settings.
+     */
+    @Override
+    public T get() {
+        return current.get().settings();
+    }
+
+    /**
+     * @return version of the current settings, starting at 0 and incremented by each successful reload
+     */
+    public long getVersion() {
+        return current.get().version();
+    }
+
+    /**
+     * Reloads the settings when the last modification time or the size of the file changed since the last load.
+     * Errors are logged and the previous settings are kept, so that this method can be scheduled.
+     *
+     * @return true when new settings were published
+     */
+    public synchronized boolean reloadIfModified() {
+        Snapshot<T> previous = current.get();
+        try {
+            FileVersion fileVersion = FileVersion.of(csvFile);
+            if (fileVersion.equals(previous.fileVersion())) {
+                return false;
+            }
+            current.set(load(previous.version() + 1));
+            log.info("Settings reloaded from {}, version {}", csvFile, previous.version() + 1);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Cannot reload settings from {}, keeping version {}: {}", csvFile, previous.version(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Checks the file periodically and reloads the settings when it changed.
+     * Any failure of a check, even an {@link Error}, is logged and the previous settings are kept: next checks still run.
+     *
+     * @param executor executor running the checks, owned by the caller
+     * @param period   delay between the end of a check and the start of the next one
+     * @return future to cancel to stop watching the file
+     */
+    public ScheduledFuture<?> watch(@NonNull ScheduledExecutorService executor, @NonNull Duration period) {
+        return executor.scheduleWithFixedDelay(this::reloadIfModifiedQuietly, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void reloadIfModifiedQuietly() {
+        try {
+            reloadIfModified();
+        } catch (Throwable e) {
+            // a scheduled task which throws is never run again: the file would not be watched anymore
+            log.error("Cannot reload settings from {}, keeping version {}", csvFile, getVersion(), e);
+        }
+    }
+
+    private Snapshot<T> load(long version) {
+        // reads the version before the content: a change made while reading is detected by the next check
+        FileVersion fileVersion = FileVersion.of(csvFile);
+        try (Reader reader = Files.newBufferedReader(csvFile, charset)) {
+            return new Snapshot<>(Objects.requireNonNull(parser.apply(reader), "Parser returned null settings"), version, fileVersion);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Snapshot<T>(T settings, long version, FileVersion fileVersion) {
+    }
+
+    private record FileVersion(FileTime lastModifiedTime, long size) {
+
+        private static FileVersion of(Path file) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return new FileVersion(attributes.lastModifiedTime(), attributes.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
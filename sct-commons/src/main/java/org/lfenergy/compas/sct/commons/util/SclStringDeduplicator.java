@@ -0,0 +1,138 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.util;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.*;
+
+import javax.xml.bind.Unmarshaller;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link Unmarshaller.Listener} replacing, as soon as an element is unmarshalled, the attribute values repeated all over an SCL by
+ * their canonical instance from a {@link StringPool}:
+ * <ul>
+ *   <li>IED name, LDevice inst, LN prefix/lnClass/inst/lnType</li>
+ *   <li>DOI, SDI, DAI names and Val values</li>
+ *   <li>DataSet name, FCDA ldInst/prefix/lnClass/lnInst/doName/daName, ControlBlock datSet</li>
+ *   <li>ExtRef iedName, ldInst, prefix, lnClass, lnInst, doName, daName, pDO and src* attributes</li>
+ *   <li>LNodeType, DOType, DAType, EnumType ids, DO/SDO/DA/BDA names and types</li>
+ * </ul>
+ * Only attributes already set are replaced, so the marshalled document is unchanged.
+ * <pre>{@code
+ * unmarshaller.setListener(new SclStringDeduplicator(new StringPool(100_000, 64)));
+ * }</pre>
+ */
+public class SclStringDeduplicator extends Unmarshaller.Listener {
+
+    @Getter
+    private final StringPool stringPool;
+
+    /**
+     * Constructor
+     * @param stringPool pool of canonical strings, for one document or shared between documents
+     */
+    public SclStringDeduplicator(@NonNull StringPool stringPool) {
+        this.stringPool = stringPool;
+    }
+
+    @Override
+    public void afterUnmarshal(Object target, Object parent) {
+        if (target instanceof TIED tied) {
+            intern(tied::isSetName, tied::getName, tied::setName);
+        } else if (target instanceof TLDevice tlDevice) {
+            intern(tlDevice::isSetInst, tlDevice::getInst, tlDevice::setInst);
+        } else if (target instanceof TAnyLN tAnyLN) {
+            intern(tAnyLN::isSetLnType, tAnyLN::getLnType, tAnyLN::setLnType);
+            if (tAnyLN instanceof TLN tln) {
+                intern(tln::isSetPrefix, tln::getPrefix, tln::setPrefix);
+                intern(tln::isSetInst, tln::getInst, tln::setInst);
+                internAll(tln::isSetLnClass, tln::getLnClass);
+            }
+        } else if (target instanceof TDOI tdoi) {
+            intern(tdoi::isSetName, tdoi::getName, tdoi::setName);
+        } else if (target instanceof TSDI tsdi) {
+            intern(tsdi::isSetName, tsdi::getName, tsdi::setName);
+        } else if (target instanceof TDAI tdai) {
+            intern(tdai::isSetName, tdai::getName, tdai::setName);
+        } else if (target instanceof TVal tVal) {
+            intern(tVal::isSetValue, tVal::getValue, tVal::setValue);
+        } else if (target instanceof TDataSet tDataSet) {
+            intern(tDataSet::isSetName, tDataSet::getName, tDataSet::setName);
+        } else if (target instanceof TFCDA tfcda) {
+            afterUnmarshalFcda(tfcda);
+        } else if (target instanceof TControl tControl) {
+            intern(tControl::isSetDatSet, tControl::getDatSet, tControl::setDatSet);
+        } else if (target instanceof TExtRef tExtRef) {
+            afterUnmarshalExtRef(tExtRef);
+        } else {
+            afterUnmarshalDataTypeTemplate(target);
+        }
+    }
+
+    private void afterUnmarshalFcda(TFCDA tfcda) {
+        intern(tfcda::isSetLdInst, tfcda::getLdInst, tfcda::setLdInst);
+        intern(tfcda::isSetPrefix, tfcda::getPrefix, tfcda::setPrefix);
+        internAll(tfcda::isSetLnClass, tfcda::getLnClass);
+        intern(tfcda::isSetLnInst, tfcda::getLnInst, tfcda::setLnInst);
+        intern(tfcda::isSetDoName, tfcda::getDoName, tfcda::setDoName);
+        intern(tfcda::isSetDaName, tfcda::getDaName, tfcda::setDaName);
+    }
+
+    private void afterUnmarshalExtRef(TExtRef tExtRef) {
+        intern(tExtRef::isSetIedName, tExtRef::getIedName, tExtRef::setIedName);
+        intern(tExtRef::isSetLdInst, tExtRef::getLdInst, tExtRef::setLdInst);
+        intern(tExtRef::isSetPrefix, tExtRef::getPrefix, tExtRef::setPrefix);
+        internAll(tExtRef::isSetLnClass, tExtRef::getLnClass);
+        intern(tExtRef::isSetLnInst, tExtRef::getLnInst, tExtRef::setLnInst);
+        intern(tExtRef::isSetDoName, tExtRef::getDoName, tExtRef::setDoName);
+        intern(tExtRef::isSetDaName, tExtRef::getDaName, tExtRef::setDaName);
+        intern(tExtRef::isSetPDO, tExtRef::getPDO, tExtRef::setPDO);
+        intern(tExtRef::isSetSrcLDInst, tExtRef::getSrcLDInst, tExtRef::setSrcLDInst);
+        intern(tExtRef::isSetSrcPrefix, tExtRef::getSrcPrefix, tExtRef::setSrcPrefix);
+        internAll(tExtRef::isSetSrcLNClass, tExtRef::getSrcLNClass);
+        intern(tExtRef::isSetSrcLNInst, tExtRef::getSrcLNInst, tExtRef::setSrcLNInst);
+        intern(tExtRef::isSetSrcCBName, tExtRef::getSrcCBName, tExtRef::setSrcCBName);
+    }
+
+    private void afterUnmarshalDataTypeTemplate(Object target) {
+        if (target instanceof TLNodeType tlNodeType) {
+            intern(tlNodeType::isSetId, tlNodeType::getId, tlNodeType::setId);
+            internAll(tlNodeType::isSetLnClass, tlNodeType::getLnClass);
+        } else if (target instanceof TDOType tdoType) {
+            intern(tdoType::isSetId, tdoType::getId, tdoType::setId);
+        } else if (target instanceof TDAType tdaType) {
+            intern(tdaType::isSetId, tdaType::getId, tdaType::setId);
+        } else if (target instanceof TEnumType tEnumType) {
+            intern(tEnumType::isSetId, tEnumType::getId, tEnumType::setId);
+        } else if (target instanceof TDO tdo) {
+            intern(tdo::isSetName, tdo::getName, tdo::setName);
+            intern(tdo::isSetType, tdo::getType, tdo::setType);
+        } else if (target instanceof TSDO tsdo) {
+            intern(tsdo::isSetName, tsdo::getName, tsdo::setName);
+            intern(tsdo::isSetType, tsdo::getType, tsdo::setType);
+        } else if (target instanceof TAbstractDataAttribute tAbstractDataAttribute) {
+            intern(tAbstractDataAttribute::isSetName, tAbstractDataAttribute::getName, tAbstractDataAttribute::setName);
+            intern(tAbstractDataAttribute::isSetType, tAbstractDataAttribute::getType, tAbstractDataAttribute::setType);
+        }
+    }
+
+    private void intern(BooleanSupplier isSet, Supplier<String> getter, Consumer<String> setter) {
+        if (isSet.getAsBoolean()) {
+            setter.accept(stringPool.intern(getter.get()));
+        }
+    }
+
+    private void internAll(BooleanSupplier isSet, Supplier<List<String>> getter) {
+        // getter creates an empty list when unset, which must not be marshalled afterwards
+        if (isSet.getAsBoolean()) {
+            getter.get().replaceAll(stringPool::intern);
+        }
+    }
+}
@@ -25,6 +25,7 @@ import static org.lfenergy.compas.sct.commons.util.Utils.*;
  * It relies on a CSV file.
  *
  * @see CsvUtils
+ * @see ReloadableCsvSettings
  */
 @Getter
 public class SettingLDEPFCsvHelper implements ILDEPFSettings {
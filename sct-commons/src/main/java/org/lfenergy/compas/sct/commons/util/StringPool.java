@@ -0,0 +1,94 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of canonical String instances, used to share the many equal short strings of an SCL (lnClass, ldInst, DO/DA names,
+ * type ids...) instead of keeping one instance per attribute.
+ * <p>
+ * Unlike {@link String#intern()}, the pool is a plain heap object: it can be scoped to one document and is garbage collected with it.
+ * Once the pool holds maxSize strings, or for strings longer than maxLength, {@link #intern(String)} returns its argument unchanged.
+ * The pool can be shared between threads.
+ * </p>
+ */
+public final class StringPool {
+
+    /**
+     * Estimated shallow size of a String and of its byte array, without the characters (64-bit JVM, compressed oops)
+     */
+    private static final int STRING_OVERHEAD_BYTES = 24 + 16;
+
+    private final int maxSize;
+    private final int maxLength;
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+    private final LongAdder deduplicatedCount = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+
+    /**
+     * Constructor
+     * @param maxSize maximum number of strings in the pool
+     * @param maxLength maximum length of the pooled strings
+     */
+    public StringPool(int maxSize, int maxLength) {
+        if (maxSize < 0 || maxLength < 0) {
+            throw new IllegalArgumentException("maxSize and maxLength must be positive or zero");
+        }
+        this.maxSize = maxSize;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Gets the canonical instance of a string
+     * @param value string to intern, can be null
+     * @return pooled instance equal to value, or value itself when it is null, too long, or not pooled and the pool is full
+     */
+    public String intern(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+        String pooled = strings.get(value);
+        if (pooled == null) {
+            if (strings.size() >= maxSize) {
+                return value;
+            }
+            pooled = strings.putIfAbsent(value, value);
+            if (pooled == null) {
+                return value;
+            }
+        }
+        if (pooled != value) {
+            deduplicatedCount.increment();
+            // compact strings: one byte per character for Latin-1 strings, rounded to the 8 bytes object alignment
+            savedBytes.add(STRING_OVERHEAD_BYTES + ((value.length() + 7) & ~7));
+        }
+        return pooled;
+    }
+
+    /**
+     * @return number of strings in the pool
+     */
+    public int size() {
+        return strings.size();
+    }
+
+    /**
+     * @return number of calls to {@link #intern(String)} which returned a pooled instance instead of an equal duplicate
+     */
+    public long getDeduplicatedCount() {
+        return deduplicatedCount.sum();
+    }
+
+    /**
+     * @return estimated heap size of the duplicates replaced by pooled instances, in bytes. Duplicates are freed once nothing else
+     * references them.
+     */
+    public long getSavedBytes() {
+        return savedBytes.sum();
+    }
+}
@@ -375,6 +375,35 @@ public final class Utils {
         }
     }
 
+    /**
+     * creates a copy of Scl element whose repeated attribute values share the String instances of the given pool,
+     * see {@link SclStringDeduplicator}. Only worth it for copies which are kept for a long time.
+     *
+     * @param object     object to copy
+     * @param clazz      class type of the object
+     * @param stringPool pool of canonical strings, for this copy only or shared between copies
+     * @param <T>        type of the object
+     * @return copy of the object
+     */
+    public static <T> T copySclElement(T object, Class<T> clazz, StringPool stringPool) {
+        try {
+            if (jaxbContext == null) {
+                jaxbContext = JAXBContext.newInstance("org.lfenergy.compas.scl2007b4.model");
+                unmarshaller = jaxbContext.createUnmarshaller();
+            }
+            JAXBElement<T> contentObject = new JAXBElement<>(new QName(clazz.getSimpleName()), clazz, object);
+            JAXBSource source = new JAXBSource(jaxbContext, contentObject);
+            unmarshaller.setListener(new SclStringDeduplicator(stringPool));
+            try {
+                return unmarshaller.unmarshal(source, clazz).getValue();
+            } finally {
+                unmarshaller.setListener(null);
+            }
+        } catch (JAXBException e) {
+            throw new ScdException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Checks if two ExtRefs fed by same Control Block
      *
@@ -0,0 +1,150 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.dto;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.dtt.LNodeTypeAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.LNAdapter;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IedProjectionTest {
+
+    @Test
+    void project_ied_with_extRefs_should_push_records_in_document_order() {
+        // Given
+        IEDAdapter iedAdapter = getIedAdapter();
+        RecordingConsumer recordingConsumer = new RecordingConsumer();
+        // When
+        IedProjection.project(iedAdapter, new LogicalNodeOptions(true, false, false, false), recordingConsumer);
+        // Then
+        assertThat(recordingConsumer.events).containsExactly(
+            "startIed IED_NAME1",
+            "startLDevice LD_INST11",
+            "startLNode LLN0",
+            "extRef IED_NAME1/LD_INST11/LLN0 INT_ADDR11",
+            "endLNode",
+            "endLDevice",
+            "startLDevice LD_INST12",
+            "startLNode LLN0",
+            "endLNode",
+            "startLNode ANCR",
+            "extRef IED_NAME1/LD_INST12/ANCR INT_ADDR12",
+            "endLNode",
+            "endLDevice",
+            "endIed");
+    }
+
+    @Test
+    void project_ied_without_options_should_push_only_structure() {
+        // Given
+        IEDAdapter iedAdapter = getIedAdapter();
+        RecordingConsumer recordingConsumer = new RecordingConsumer();
+        // When
+        IedProjection.project(iedAdapter, null, recordingConsumer);
+        // Then
+        assertThat(recordingConsumer.events)
+            .hasSize(12)
+            .noneMatch(event -> event.startsWith("extRef") || event.startsWith("dataSet") || event.startsWith("dataAttributeRef"));
+    }
+
+    @Test
+    void project_ln_with_dataAttributeRefs_should_push_same_dataAttributeRefs_as_LNodeType() {
+        // Given
+        LNAdapter lnAdapter = getIedAdapter().findLDeviceAdapterByLdInst("LD_INST12").orElseThrow().getLNAdapters().get(0);
+        LNodeTypeAdapter lNodeTypeAdapter = lnAdapter.getDataTypeTemplateAdapter().getLNodeTypeAdapterById(lnAdapter.getLnType()).orElseThrow();
+        DataAttributeRef filter = DataAttributeRef.builder().lnInst(lnAdapter.getLNInst()).lnClass(lnAdapter.getLNClass())
+            .prefix(lnAdapter.getPrefix()).lnType(lnAdapter.getLnType()).build();
+        List<DataAttributeRef> dataAttributeRefs = new ArrayList<>();
+        // When
+        IedProjection.project(lnAdapter, new LogicalNodeOptions(false, true, false, false), new IedProjectionConsumer() {
+            @Override
+            public void dataAttributeRef(DataAttributeRef dataAttributeRef) {
+                dataAttributeRefs.add(dataAttributeRef);
+            }
+        });
+        // Then
+        assertThat(dataAttributeRefs)
+            .isNotEmpty()
+            .containsExactlyElementsOf(lNodeTypeAdapter.getDataAttributeRefs(filter));
+    }
+
+    @Test
+    void lNodeDTO_from_should_collect_projected_records() {
+        // Given
+        LNAdapter lnAdapter = getIedAdapter().findLDeviceAdapterByLdInst("LD_INST12").orElseThrow().getLNAdapters().get(0);
+        // When
+        LNodeDTO lNodeDTO = LNodeDTO.from(lnAdapter, new LogicalNodeOptions(true, true, false, true));
+        // Then
+        assertThat(lNodeDTO.getNodeClass()).isEqualTo("ANCR");
+        assertThat(lNodeDTO.getInst()).isEqualTo("1");
+        assertThat(lNodeDTO.getNodeType()).isEqualTo("LN2");
+        assertThat(lNodeDTO.getPrefix()).isNull();
+        assertThat(lNodeDTO.getExtRefs()).extracting(extRefInfo -> extRefInfo.getSignalInfo().getIntAddr()).containsExactly("INT_ADDR12");
+        assertThat(lNodeDTO.getDataAttributeRefs()).isNotEmpty();
+    }
+
+    private static IEDAdapter getIedAdapter() {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        return new SclRootAdapter(scd).getIEDAdapterByName("IED_NAME1");
+    }
+
+    private static class RecordingConsumer implements IedProjectionConsumer {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void startIed(String iedName) {
+            events.add("startIed " + iedName);
+        }
+
+        @Override
+        public void endIed() {
+            events.add("endIed");
+        }
+
+        @Override
+        public void startLDevice(String ldInst, String ldName) {
+            events.add("startLDevice " + ldInst);
+        }
+
+        @Override
+        public void endLDevice() {
+            events.add("endLDevice");
+        }
+
+        @Override
+        public void startLNode(String lnClass, String lnInst, String prefix, String lnType) {
+            events.add("startLNode " + lnClass);
+        }
+
+        @Override
+        public void endLNode() {
+            events.add("endLNode");
+        }
+
+        @Override
+        public void extRef(ExtRefInfo extRefInfo) {
+            events.add("extRef " + extRefInfo.getHolderIEDName() + "/" + extRefInfo.getHolderLDInst() + "/" + extRefInfo.getHolderLnClass()
+                + " " + extRefInfo.getSignalInfo().getIntAddr());
+        }
+
+        @Override
+        public void dataSet(DataSetInfo dataSetInfo) {
+            events.add("dataSet " + dataSetInfo.getName());
+        }
+
+        @Override
+        public void dataAttributeRef(DataAttributeRef dataAttributeRef) {
+            events.add("dataAttributeRef " + dataAttributeRef.getDataAttributes());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonIedProjectionConsumerTest {
+
+    @Test
+    void project_should_write_ied_as_json() throws Exception {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        IEDAdapter iedAdapter = new SclRootAdapter(scd).getIEDAdapterByName("IED_NAME1");
+        ObjectMapper objectMapper = new ObjectMapper();
+        StringWriter stringWriter = new StringWriter();
+        // When
+        try (JsonGenerator jsonGenerator = objectMapper.createGenerator(stringWriter)) {
+            IedProjection.project(iedAdapter, new LogicalNodeOptions(true, false, false, false), new JsonIedProjectionConsumer(jsonGenerator));
+        }
+        // Then
+        JsonNode ied = objectMapper.readTree(stringWriter.toString());
+        assertThat(ied.get("name").asText()).isEqualTo("IED_NAME1");
+        assertThat(ied.get("lDevices")).hasSize(2);
+        JsonNode ld11 = ied.get("lDevices").get(0);
+        assertThat(ld11.get("ldInst").asText()).isEqualTo("LD_INST11");
+        assertThat(ld11.get("lNodes")).hasSize(1);
+        JsonNode lln0 = ld11.get("lNodes").get(0);
+        assertThat(lln0.get("nodeClass").asText()).isEqualTo("LLN0");
+        assertThat(lln0.get("nodeType").asText()).isEqualTo("LNEX1");
+        assertThat(lln0.get("extRefs")).hasSize(1);
+        assertThat(lln0.get("extRefs").get(0).get("holderIEDName").asText()).isEqualTo("IED_NAME1");
+        assertThat(lln0.get("extRefs").get(0).get("signalInfo").get("intAddr").asText()).isEqualTo("INT_ADDR11");
+        JsonNode ld12 = ied.get("lDevices").get(1);
+        assertThat(ld12.get("lNodes")).hasSize(2);
+        assertThat(ld12.get("lNodes").get(0).has("extRefs")).isFalse();
+        assertThat(ld12.get("lNodes").get(1).get("extRefs")).hasSize(1);
+    }
+
+}
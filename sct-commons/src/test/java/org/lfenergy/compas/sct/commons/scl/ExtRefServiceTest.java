@@ -470,6 +470,22 @@ class ExtRefServiceTest {
                 .containsExactlyInAnyOrder("01-02-03-04-00-FF", "01-02-03-04-01-00", "01-02-03-04-01-01");
     }
 
+    @Test
+    void configureNetworkForAllControlBlocks_when_run_twice_should_keep_appid_and_mac_addresses() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scd-extref-create-dataset-and-controlblocks/scd_create_controlblock_network_configuration.xml");
+        ControlBlockNetworkSettings controlBlockNetworkSettings = controlBlockAdapter -> new SettingsOrError(new Settings(0x1D6, (byte) 4, newDurationInMilliSec(10), newDurationInMilliSec(2000)), null);
+        ExtRefService.configureNetworkForAllControlBlocks(scd, controlBlockNetworkSettings, RANGES_PER_CB_TYPE);
+        List<String> appIdsAfterFirstRun = streamAllConnectedApGseP(scd, "APPID").toList();
+        List<String> macAddressesAfterFirstRun = streamAllConnectedApGseP(scd, "MAC-Address").toList();
+        // When
+        SclReport sclReport = ExtRefService.configureNetworkForAllControlBlocks(scd, controlBlockNetworkSettings, RANGES_PER_CB_TYPE);
+        // Then
+        assertThat(sclReport.isSuccess()).isTrue();
+        assertThat(streamAllConnectedApGseP(scd, "APPID")).containsExactlyElementsOf(appIdsAfterFirstRun);
+        assertThat(streamAllConnectedApGseP(scd, "MAC-Address")).containsExactlyElementsOf(macAddressesAfterFirstRun);
+    }
+
     @ParameterizedTest
     @MethodSource("provideConfigureNetworkForAllControlBlocksErrors")
     void configureNetworkForAllControlBlocks_should_fail_when_no_settings_for_this_controlBlock(ControlBlockNetworkSettings controlBlockNetworkSettings,
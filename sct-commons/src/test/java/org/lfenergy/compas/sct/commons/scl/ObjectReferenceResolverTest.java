@@ -0,0 +1,95 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TIED;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ObjectReferenceResolverTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "IED_NAMELD_INS3/LLN0.Do.da2",
+        "IED_NAMELD_INS1/LLN0.Do.sdo1.d.antRef.bda1",
+        "IED_NAMELD_INS2/ANCR1.dataSet",
+        "IED_NAMELD_INS2/ANCR1.StrVal.da1",
+        "IED_NAMELD_INS2/ANCR1.StrVal.antRef.bda1.bda2.bda3",
+        "IED_NAMELD_INS2/ANCR1.Str",
+        "IED_NAMELD_INS2/ANCR1.unknown",
+        "IED_NAMELD_INS2/ANCR2.StrVal.da1",
+        "IED_NAMELD_INS2/LLN0.StrVal.da1",
+        "IED_NAMELD_INS4/LLN0.Do.da2",
+        "IED_NAME/LLN0.Do.da2",
+        "UNKNOWN_IEDLD_INS1/LLN0.Do.da2"
+    })
+    void findIed_should_find_same_ied_as_IEDAdapter_matches(String reference) {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/ied_unit_test.xml");
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        ObjectReference objectReference = new ObjectReference(reference);
+        Optional<TIED> expected = sclRootAdapter.streamIEDAdapters()
+            .filter(iedAdapter -> iedAdapter.matches(objectReference))
+            .map(IEDAdapter::getCurrentElem)
+            .findFirst();
+        // When
+        Optional<TIED> result = new ObjectReferenceResolver(sclRootAdapter).findIed(objectReference);
+        // Then
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    void findIed_when_lnType_unknown_should_throw_AssertionError() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/ied_unit_test.xml");
+        scd.getIED().get(0).getAccessPoint().get(0).getServer().getLDevice().get(1).getLN().get(0).setLnType("UNKNOWN");
+        ObjectReferenceResolver objectReferenceResolver = new ObjectReferenceResolver(new SclRootAdapter(scd));
+        ObjectReference objectReference = new ObjectReference("IED_NAMELD_INS2/ANCR1.StrVal.da1");
+        // When Then
+        assertThatThrownBy(() -> objectReferenceResolver.findIed(objectReference))
+            .isInstanceOf(AssertionError.class)
+            .hasMessage("Corrupted  SCD file: Reference to unknown LNodeType(UNKNOWN)");
+    }
+
+    @Test
+    void checkObjRef_should_resolve_ied_added_after_first_lookup() {
+        // Given
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION);
+        SCL icd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/ied_unit_test.xml");
+        assertThatThrownBy(() -> sclRootAdapter.checkObjRef("IED_NAME1LD_INS3/LLN0.Do.da2"))
+            .isInstanceOf(ScdException.class)
+            .hasMessage("Invalid ObjRef: IED_NAME1LD_INS3/LLN0.Do.da2");
+        // When
+        sclRootAdapter.addIED(icd, "IED_NAME1");
+        IEDAdapter result = sclRootAdapter.checkObjRef("IED_NAME1LD_INS3/LLN0.Do.da2");
+        // Then
+        assertThat(result.getName()).isEqualTo("IED_NAME1");
+    }
+
+    @Test
+    void getObjectReferenceResolver_should_rebuild_resolver_when_ied_list_replaced() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/ied_unit_test.xml");
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        ObjectReferenceResolver objectReferenceResolver = sclRootAdapter.getObjectReferenceResolver();
+        assertThat(sclRootAdapter.getObjectReferenceResolver()).isSameAs(objectReferenceResolver);
+        // When
+        scd.unsetIED();
+        // Then
+        assertThat(sclRootAdapter.getObjectReferenceResolver()).isNotSameAs(objectReferenceResolver);
+        assertThatThrownBy(() -> sclRootAdapter.checkObjRef("IED_NAMELD_INS3/LLN0.Do.da2"))
+            .isInstanceOf(ScdException.class);
+    }
+}
@@ -25,6 +25,20 @@ class ObjectReferenceTest {
 
         String ref1 = "IED_NAME_LD_NAME/PR_LN_INST";
         assertThrows(IllegalArgumentException.class, () ->new ObjectReference(ref1));
+
+        String ref2 = "IED_NAME_LD_NAME/PR_LN_INST.doi/bda";
+        assertThrows(IllegalArgumentException.class, () ->new ObjectReference(ref2));
+
+        String ref3 = "IED_NAME_LD_NAME/ .doi";
+        assertThrows(IllegalArgumentException.class, () ->new ObjectReference(ref3));
+    }
+
+    @Test
+    void testConstructor_should_ignore_trailing_slashes(){
+        ObjectReference objRef = new ObjectReference("IED_NAME_LD_NAME/PR_LN_INST.doi.bda//");
+        assertEquals("IED_NAME_LD_NAME",objRef.getLdName());
+        assertEquals("PR_LN_INST",objRef.getLNodeName());
+        assertEquals("doi.bda",objRef.getDataAttributes());
     }
 
 }
\ No newline at end of file
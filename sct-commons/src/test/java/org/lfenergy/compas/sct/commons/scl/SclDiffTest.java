@@ -0,0 +1,165 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.*;
+import org.lfenergy.compas.sct.commons.scl.SclDiff.ChangeType;
+import org.lfenergy.compas.sct.commons.scl.SclDiff.ElementType;
+import org.lfenergy.compas.sct.commons.scl.SclDiff.SclChange;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+import org.lfenergy.compas.sct.commons.util.Utils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.lfenergy.compas.sct.commons.util.SclConstructorHelper.newConnectedAp;
+import static org.lfenergy.compas.sct.commons.util.SclConstructorHelper.newVal;
+
+class SclDiffTest {
+
+    private static final String LN_ANCR1_PATH = "IED[IED_NAME1]/LDevice[LD_INST12]/LN[ANCR1]";
+
+    @Test
+    void compare_when_identical_scl_should_return_no_change() {
+        // Given
+        SCL before = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SCL after = Utils.copySclElement(before, SCL.class);
+        // When
+        List<SclChange> changes = SclDiff.compare(new SclRootAdapter(before), new SclRootAdapter(after));
+        // Then
+        assertThat(changes).isEmpty();
+    }
+
+    @Test
+    void compare_when_dai_value_changed_should_report_dai_and_its_ancestors() {
+        // Given
+        SCL before = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SCL after = Utils.copySclElement(before, SCL.class);
+        TDAI tdai = findDai(after);
+        tdai.getVal().clear();
+        tdai.getVal().add(newVal("newVal"));
+        // When
+        List<SclChange> changes = SclDiff.compare(new SclRootAdapter(before), new SclRootAdapter(after));
+        // Then
+        assertThat(changes).containsExactly(
+            new SclChange(ChangeType.MODIFIED, ElementType.IED, "IED[IED_NAME1]"),
+            new SclChange(ChangeType.MODIFIED, ElementType.LDEVICE, "IED[IED_NAME1]/LDevice[LD_INST12]"),
+            new SclChange(ChangeType.MODIFIED, ElementType.LN, LN_ANCR1_PATH),
+            new SclChange(ChangeType.MODIFIED, ElementType.DOI, LN_ANCR1_PATH + "/DOI[Do21]"),
+            new SclChange(ChangeType.MODIFIED, ElementType.SDI, LN_ANCR1_PATH + "/DOI[Do21]/SDI[sdo11]"),
+            new SclChange(ChangeType.MODIFIED, ElementType.SDI, LN_ANCR1_PATH + "/DOI[Do21]/SDI[sdo11]/SDI[sdo12]"),
+            new SclChange(ChangeType.MODIFIED, ElementType.SDI, LN_ANCR1_PATH + "/DOI[Do21]/SDI[sdo11]/SDI[sdo12]/SDI[da11]"),
+            new SclChange(ChangeType.MODIFIED, ElementType.SDI, LN_ANCR1_PATH + "/DOI[Do21]/SDI[sdo11]/SDI[sdo12]/SDI[da11]/SDI[bda111]"),
+            new SclChange(ChangeType.MODIFIED, ElementType.DAI,
+                LN_ANCR1_PATH + "/DOI[Do21]/SDI[sdo11]/SDI[sdo12]/SDI[da11]/SDI[bda111]/DAI[bdapr]"));
+    }
+
+    @Test
+    void compare_should_report_ext_ref_ied_communication_and_type_changes() {
+        // Given
+        SCL before = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SCL after = Utils.copySclElement(before, SCL.class);
+        TLDevice ldInst11 = after.getIED().get(0).getAccessPoint().get(0).getServer().getLDevice().get(0);
+        ldInst11.getLN0().getInputs().getExtRef().get(0).setIedName("IED_NAME2");
+        TIED newIed = Utils.copySclElement(after.getIED().get(0), TIED.class);
+        newIed.setName("IED_NAME2");
+        after.getIED().add(newIed);
+        TSubNetwork tSubNetwork = new TSubNetwork();
+        tSubNetwork.setName("SUBNETWORK");
+        tSubNetwork.getConnectedAP().add(newConnectedAp("IED_NAME2", "AP_NAME"));
+        TCommunication tCommunication = new TCommunication();
+        tCommunication.getSubNetwork().add(tSubNetwork);
+        after.setCommunication(tCommunication);
+        after.getDataTypeTemplates().getLNodeType().removeIf(tlNodeType -> "LN1".equals(tlNodeType.getId()));
+        // When
+        List<SclChange> changes = SclDiff.compare(new SclRootAdapter(before), new SclRootAdapter(after));
+        // Then
+        assertThat(changes).containsExactly(
+            new SclChange(ChangeType.ADDED, ElementType.SUB_NETWORK, "SubNetwork[SUBNETWORK]"),
+            new SclChange(ChangeType.MODIFIED, ElementType.IED, "IED[IED_NAME1]"),
+            new SclChange(ChangeType.MODIFIED, ElementType.LDEVICE, "IED[IED_NAME1]/LDevice[LD_INST11]"),
+            new SclChange(ChangeType.MODIFIED, ElementType.LN, "IED[IED_NAME1]/LDevice[LD_INST11]/LN[LLN0]"),
+            new SclChange(ChangeType.MODIFIED, ElementType.EXT_REF, "IED[IED_NAME1]/LDevice[LD_INST11]/LN[LLN0]/ExtRef[INT_ADDR11]"),
+            new SclChange(ChangeType.ADDED, ElementType.IED, "IED[IED_NAME2]"),
+            new SclChange(ChangeType.REMOVED, ElementType.LNODE_TYPE, "LNodeType[LN1]"));
+    }
+
+    @Test
+    void compare_should_report_connected_ap_and_control_block_changes() {
+        // Given
+        SCL before = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        TSubNetwork tSubNetwork = new TSubNetwork();
+        tSubNetwork.setName("SUBNETWORK");
+        tSubNetwork.getConnectedAP().add(newConnectedAp("IED_NAME1", "AP_NAME"));
+        TCommunication tCommunication = new TCommunication();
+        tCommunication.getSubNetwork().add(tSubNetwork);
+        before.setCommunication(tCommunication);
+        SCL after = Utils.copySclElement(before, SCL.class);
+        TGSE tgse = new TGSE();
+        tgse.setLdInst("LD_INST11");
+        tgse.setCbName("CB_GOOSE");
+        after.getCommunication().getSubNetwork().get(0).getConnectedAP().get(0).getGSE().add(tgse);
+        TGSEControl tgseControl = new TGSEControl();
+        tgseControl.setName("CB_GOOSE");
+        after.getIED().get(0).getAccessPoint().get(0).getServer().getLDevice().get(0).getLN0().getGSEControl().add(tgseControl);
+        // When
+        List<SclChange> changes = SclDiff.compare(new SclRootAdapter(before), new SclRootAdapter(after));
+        // Then
+        assertThat(changes)
+            .filteredOn(sclChange -> sclChange.changeType() == ChangeType.ADDED)
+            .containsExactly(
+                new SclChange(ChangeType.ADDED, ElementType.GSE, "SubNetwork[SUBNETWORK]/ConnectedAP[IED_NAME1/AP_NAME]/GSE[LD_INST11/CB_GOOSE]"),
+                new SclChange(ChangeType.ADDED, ElementType.CONTROL_BLOCK, "IED[IED_NAME1]/LDevice[LD_INST11]/LN[LLN0]/GSEControl[CB_GOOSE]"));
+    }
+
+    @Test
+    void compare_when_ext_ref_keys_duplicated_should_match_ext_refs_by_position() {
+        // Given
+        SCL before = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        List<TExtRef> beforeExtRefs = before.getIED().get(0).getAccessPoint().get(0).getServer().getLDevice().get(0).getLN0()
+            .getInputs().getExtRef();
+        TExtRef duplicatedExtRef = Utils.copySclElement(beforeExtRefs.get(0), TExtRef.class);
+        duplicatedExtRef.setPDO("Do11");
+        beforeExtRefs.add(duplicatedExtRef);
+        SCL after = Utils.copySclElement(before, SCL.class);
+        List<TExtRef> afterExtRefs = after.getIED().get(0).getAccessPoint().get(0).getServer().getLDevice().get(0).getLN0()
+            .getInputs().getExtRef();
+        afterExtRefs.get(1).setIedName("IED_NAME2");
+        afterExtRefs.add(new TExtRef());
+        // When
+        List<SclChange> changes = SclDiff.compare(new SclRootAdapter(before), new SclRootAdapter(after));
+        // Then
+        assertThat(changes)
+            .filteredOn(sclChange -> sclChange.elementType() == ElementType.EXT_REF)
+            .containsExactly(
+                new SclChange(ChangeType.MODIFIED, ElementType.EXT_REF, "IED[IED_NAME1]/LDevice[LD_INST11]/LN[LLN0]/ExtRef[#2]"),
+                new SclChange(ChangeType.ADDED, ElementType.EXT_REF, "IED[IED_NAME1]/LDevice[LD_INST11]/LN[LLN0]/ExtRef[#3]"));
+    }
+
+    @Test
+    void compare_should_not_modify_scl() {
+        // Given
+        SCL before = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SCL after = Utils.copySclElement(before, SCL.class);
+        findDai(after).setValImport(false);
+        // When
+        SclDiff.compare(new SclRootAdapter(before), new SclRootAdapter(after));
+        // Then
+        TLDevice ldInst11 = before.getIED().get(0).getAccessPoint().get(0).getServer().getLDevice().get(0);
+        assertThat(ldInst11.isSetLN()).isFalse();
+        assertThat(ldInst11.getLN0().isSetDOI()).isFalse();
+        assertThat(before.isSetSubstation()).isFalse();
+    }
+
+    private static TDAI findDai(SCL scl) {
+        TLN tln = scl.getIED().get(0).getAccessPoint().get(0).getServer().getLDevice().get(1).getLN().get(0);
+        TSDI tsdi = (TSDI) tln.getDOI().get(0).getSDIOrDAI().get(0);
+        while (tsdi.getSDIOrDAI().get(0) instanceof TSDI child) {
+            tsdi = child;
+        }
+        return (TDAI) tsdi.getSDIOrDAI().get(0);
+    }
+}
@@ -0,0 +1,159 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TCompasSclFileType;
+import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
+import org.lfenergy.compas.scl2007b4.model.TVal;
+import org.lfenergy.compas.sct.commons.dto.*;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+import org.lfenergy.compas.sct.commons.util.SettingLDEPFCsvHelper;
+import org.lfenergy.compas.sct.commons.util.Utils;
+
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SclJournalTest {
+
+    @Test
+    void rollback_should_restore_changed_ied() {
+        // Given
+        SCL scl = SclTestMarshaller.getSCLFromFile("/scl-remove-controlBlocks-dataSet-extRefSrc/scl-with-control-blocks.xml");
+        SCL initialScl = Utils.copySclElement(scl, SCL.class);
+        SclJournal sclJournal = SclJournal.start(scl);
+        sclJournal.record(() -> {
+            SclService.removeAllControlBlocksAndDatasetsAndExtRefSrcBindings(scl);
+            return null;
+        });
+        assertThat(SclDiff.compare(new SclRootAdapter(initialScl), new SclRootAdapter(scl))).isNotEmpty();
+        // When
+        sclJournal.rollback();
+        // Then
+        assertThat(SclDiff.compare(new SclRootAdapter(initialScl), new SclRootAdapter(scl))).isEmpty();
+    }
+
+    @Test
+    void rollback_should_restore_ied_after_manageBindingForLDEPF() {
+        // Given
+        SCL scl = SclTestMarshaller.getSCLFromFile("/scd-ldepf/scd_ldepf_iedSources_in_different_bay.xml");
+        SCL initialScl = Utils.copySclElement(scl, SCL.class);
+        SettingLDEPFCsvHelper settings = new SettingLDEPFCsvHelper(new InputStreamReader(
+            Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream("LDEPF_Setting_file.csv"))));
+        SclJournal sclJournal = SclJournal.start(scl);
+        sclJournal.record(() -> ExtRefService.manageBindingForLDEPF(scl, settings));
+        assertThat(SclDiff.compare(new SclRootAdapter(initialScl), new SclRootAdapter(scl))).isNotEmpty();
+        // When
+        sclJournal.rollback();
+        // Then
+        assertThat(SclDiff.compare(new SclRootAdapter(initialScl), new SclRootAdapter(scl))).isEmpty();
+    }
+
+    @Test
+    void rollback_should_remove_added_private() {
+        // Given
+        SCL scl = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SCL initialScl = Utils.copySclElement(scl, SCL.class);
+        SclJournal sclJournal = SclJournal.start(scl);
+        sclJournal.record(() -> {
+            new SclRootAdapter(scl).getIEDAdapterByName("IED_NAME1").addPrivate(PrivateService.createPrivate(TCompasSclFileType.SCD));
+            return null;
+        });
+        // When
+        sclJournal.rollback();
+        // Then
+        assertThat(SclDiff.compare(new SclRootAdapter(initialScl), new SclRootAdapter(scl))).isEmpty();
+    }
+
+    @Test
+    void record_should_only_copy_changed_sections() {
+        // Given
+        SCL scl = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/ied_unit_test.xml");
+        SCL initialScl = Utils.copySclElement(scl, SCL.class);
+        SclJournal sclJournal = SclJournal.start(scl);
+        // When
+        sclJournal.record(() -> {
+            SclService.updateDAI(scl, "IED_NAME", "LD_INS1", createDataAttributeRef());
+            return null;
+        });
+        // Then
+        assertThat(sclJournal.getCopiedSectionCount()).isEqualTo(1);
+        sclJournal.rollback();
+        assertThat(SclDiff.compare(new SclRootAdapter(initialScl), new SclRootAdapter(scl))).isEmpty();
+    }
+
+    @Test
+    void record_should_not_copy_sections_when_nothing_changes() {
+        // Given
+        SCL scl = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SclJournal sclJournal = SclJournal.start(scl);
+        // When
+        List<ExtRefInfo> extRefInfos = sclJournal.record(() -> SclService.getExtRefInfo(scl, "IED_NAME1", "LD_INST11"));
+        // Then
+        assertThat(extRefInfos).hasSize(1);
+        assertThat(sclJournal.getCopiedSectionCount()).isZero();
+    }
+
+    @Test
+    void rollback_should_remove_added_ied() {
+        // Given
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION);
+        SCL scd = sclRootAdapter.getCurrentElem();
+        SCL icd = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SclJournal sclJournal = SclJournal.start(scd);
+        sclJournal.record(() -> sclRootAdapter.addIED(icd, "IED_NAME1"));
+        assertThat(scd.getIED()).hasSize(1);
+        // When
+        sclJournal.rollback();
+        // Then
+        assertThat(scd.isSetIED()).isFalse();
+        assertThat(scd.getDataTypeTemplates()).isNull();
+    }
+
+    @Test
+    void runOrRollback_when_report_has_fatal_error_should_rollback() {
+        // Given
+        SCL scl = SclTestMarshaller.getSCLFromFile("/scl-remove-controlBlocks-dataSet-extRefSrc/scl-with-control-blocks.xml");
+        SCL initialScl = Utils.copySclElement(scl, SCL.class);
+        // When
+        SclReport sclReport = SclJournal.runOrRollback(scl, () -> {
+            SclService.removeAllControlBlocksAndDatasetsAndExtRefSrcBindings(scl);
+            return new SclReport(new SclRootAdapter(scl), new ArrayList<>(List.of(SclReportItem.fatal("/SCL", "error"))));
+        });
+        // Then
+        assertThat(sclReport.isSuccess()).isFalse();
+        assertThat(SclDiff.compare(new SclRootAdapter(initialScl), new SclRootAdapter(scl))).isEmpty();
+    }
+
+    @Test
+    void rollback_when_already_rolled_back_should_throw_exception() {
+        // Given
+        SCL scl = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SclJournal sclJournal = SclJournal.start(scl);
+        sclJournal.rollback();
+        // When Then
+        assertThatThrownBy(sclJournal::rollback).isInstanceOf(ScdException.class);
+        assertThatThrownBy(() -> sclJournal.record(() -> null)).isInstanceOf(ScdException.class);
+    }
+
+    private static DataAttributeRef createDataAttributeRef() {
+        DataAttributeRef dataAttributeRef = new DataAttributeRef();
+        dataAttributeRef.setLnType("LNO1");
+        dataAttributeRef.setLnClass(TLLN0Enum.LLN_0.value());
+        dataAttributeRef.setDoName(new DoTypeName("Do.sdo1.d"));
+        dataAttributeRef.setDaName(new DaTypeName("antRef.bda1.bda2.bda3"));
+        TVal tVal = new TVal();
+        tVal.setValue("newValue");
+        dataAttributeRef.setDaiValues(List.of(tVal));
+        return dataAttributeRef;
+    }
+}
@@ -136,4 +136,28 @@ class SclRootAdapterTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    void removeIED_should_remove_ied_and_connectedAp_and_empty_subnetwork(){
+        // Given
+        SclRootAdapter sclRootAdapter = SclHelper.createSclRootWithConnectedAp("iedName", "apName");
+        // When
+        boolean result = sclRootAdapter.removeIED("iedName");
+        // Then
+        assertThat(result).isTrue();
+        assertThat(sclRootAdapter.getCurrentElem().getIED()).isEmpty();
+        assertThat(sclRootAdapter.getCurrentElem().getCommunication().getSubNetwork()).isEmpty();
+    }
+
+    @Test
+    void removeIED_when_ied_does_not_exist_should_do_nothing(){
+        // Given
+        SclRootAdapter sclRootAdapter = SclHelper.createSclRootWithConnectedAp("iedName", "apName");
+        // When
+        boolean result = sclRootAdapter.removeIED("iedName2");
+        // Then
+        assertThat(result).isFalse();
+        assertThat(sclRootAdapter.getCurrentElem().getIED()).hasSize(1);
+        assertThat(sclRootAdapter.findConnectedApAdapter("iedName", "apName")).isPresent();
+    }
+
 }
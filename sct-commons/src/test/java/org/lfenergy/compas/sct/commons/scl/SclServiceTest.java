@@ -881,6 +881,126 @@ class SclServiceTest {
         assertIsMarshallable(scd);
     }
 
+    @Test
+    void updateSTDElementsInSCD_when_no_STD_changed_should_keep_all_IEDs() {
+        //Given
+        SCL scd = createScdWithManyStds();
+        List<TIED> iedsBeforeUpdate = List.copyOf(scd.getIED());
+        SclRootAdapter scdRootAdapter = new SclRootAdapter(scd);
+        //When
+        Set<String> importedIedNames = SclService.updateSTDElementsInSCD(scdRootAdapter, new HashSet<>(), DTO.comMap);
+        //Then
+        assertThat(importedIedNames).isEmpty();
+        assertThat(scd.getIED()).containsExactlyElementsOf(iedsBeforeUpdate);
+        assertIsMarshallable(scd);
+    }
+
+    @Test
+    void updateSTDElementsInSCD_when_one_STD_changed_should_import_only_this_IED() {
+        //Given
+        SCL scd = createScdWithManyStds();
+        TIED ied0 = scd.getIED().stream().filter(tied -> tied.getName().equals("SITESITE1SCU0")).findFirst().orElseThrow();
+        TIED ied2 = scd.getIED().stream().filter(tied -> tied.getName().equals("SITESITE1SCU2")).findFirst().orElseThrow();
+        SCL newStd1 = SclTestMarshaller.getSCLFromFile("/scd-ied-dtt-com-import-stds/std_SITESITE1SCU1.xml");
+        TPrivate newStd1Private = newStd1.getIED().get(0).getPrivate().stream()
+                .filter(tPrivate -> tPrivate.getType().equals("COMPAS-ICDHeader")).findFirst().orElseThrow();
+        PrivateService.extractCompasICDHeader(newStd1Private).orElseThrow().setHeaderRevision("01.00.01");
+        SclRootAdapter scdRootAdapter = new SclRootAdapter(scd);
+        TPrivate lNodePrivate = findLNodeCompasICDHeaderPrivate(scdRootAdapter, "SITESITE1SCU1");
+        TCompasICDHeader newLNodeCompasICDHeader = PrivateService.extractCompasICDHeader(newStd1Private).orElseThrow();
+        PrivateService.copyCompasICDHeaderFromLNodePrivateIntoSTDPrivate(lNodePrivate, newStd1Private);
+        newLNodeCompasICDHeader.setIEDName("SITESITE1SCU1");
+        //When
+        Set<String> importedIedNames = SclService.updateSTDElementsInSCD(scdRootAdapter, Set.of(newStd1), DTO.comMap);
+        //Then
+        assertThat(importedIedNames).containsExactly("SITESITE1SCU1");
+        assertThat(scd.getIED()).hasSize(3).contains(ied0, ied2);
+        IEDAdapter ied1Adapter = scdRootAdapter.getIEDAdapterByName("SITESITE1SCU1");
+        assertThat(ied1Adapter.getCompasICDHeader()).map(TCompasICDHeader::getHeaderRevision).hasValue("01.00.01");
+        assertThat(scd.getCommunication().getSubNetwork())
+                .allSatisfy(tSubNetwork -> assertThat(tSubNetwork.getConnectedAP())
+                        .filteredOn(tConnectedAP -> tConnectedAP.getIedName().equals("SITESITE1SCU1"))
+                        .hasSizeLessThanOrEqualTo(1));
+        assertThat(SclService.removeUnusedDataTypes(scd).count()).isZero();
+        assertIsMarshallable(scd);
+    }
+
+    @Test
+    void updateSTDElementsInSCD_when_one_STD_changed_should_keep_IED_order() {
+        //Given
+        SCL scd = createScdWithManyStds();
+        // changed IED first, so that it would move if imported again at the end
+        scd.getIED().sort(Comparator.comparing(tied -> !tied.getName().equals("SITESITE1SCU1")));
+        List<String> iedNamesBeforeUpdate = scd.getIED().stream().map(TIED::getName).toList();
+        SCL newStd1 = SclTestMarshaller.getSCLFromFile("/scd-ied-dtt-com-import-stds/std_SITESITE1SCU1.xml");
+        TPrivate newStd1Private = newStd1.getIED().get(0).getPrivate().stream()
+                .filter(tPrivate -> tPrivate.getType().equals("COMPAS-ICDHeader")).findFirst().orElseThrow();
+        PrivateService.extractCompasICDHeader(newStd1Private).orElseThrow().setHeaderRevision("01.00.01");
+        SclRootAdapter scdRootAdapter = new SclRootAdapter(scd);
+        TPrivate lNodePrivate = findLNodeCompasICDHeaderPrivate(scdRootAdapter, "SITESITE1SCU1");
+        PrivateService.copyCompasICDHeaderFromLNodePrivateIntoSTDPrivate(lNodePrivate, newStd1Private);
+        PrivateService.extractCompasICDHeader(newStd1Private).orElseThrow().setIEDName("SITESITE1SCU1");
+        //When
+        SclService.updateSTDElementsInSCD(scdRootAdapter, Set.of(newStd1), DTO.comMap);
+        //Then
+        assertThat(iedNamesBeforeUpdate).startsWith("SITESITE1SCU1");
+        assertThat(scd.getIED()).extracting(TIED::getName).containsExactlyElementsOf(iedNamesBeforeUpdate);
+    }
+
+    @Test
+    void updateSTDElementsInSCD_when_STD_of_changed_IED_is_missing_should_throw_exception() {
+        //Given
+        SCL scd = createScdWithManyStds();
+        SclRootAdapter scdRootAdapter = new SclRootAdapter(scd);
+        TPrivate lNodePrivate = findLNodeCompasICDHeaderPrivate(scdRootAdapter, "SITESITE1SCU1");
+        scdRootAdapter.getIEDAdapterByName("SITESITE1SCU1").getCurrentElem().getPrivate()
+                .removeIf(tPrivate -> tPrivate.getType().equals(lNodePrivate.getType()));
+        Set<SCL> stds = new HashSet<>();
+        //When Then
+        assertThatThrownBy(() -> SclService.updateSTDElementsInSCD(scdRootAdapter, stds, DTO.comMap))
+                .isInstanceOf(ScdException.class)
+                .hasMessageStartingWith("There is no STD file found corresponding to");
+    }
+
+    @Test
+    void updateSTDElementsInSCD_when_IED_no_more_referenced_in_Substation_should_remove_IED_and_ConnectedAPs() {
+        //Given
+        SCL scd = createScdWithManyStds();
+        SclRootAdapter scdRootAdapter = new SclRootAdapter(scd);
+        scd.getSubstation().get(0).getVoltageLevel().stream()
+                .flatMap(tVoltageLevel -> tVoltageLevel.getBay().stream())
+                .flatMap(tBay -> tBay.getFunction().stream())
+                .flatMap(tFunction -> tFunction.getLNode().stream())
+                .forEach(tlNode -> tlNode.getPrivate().removeIf(tPrivate -> PrivateService.extractCompasICDHeader(tPrivate)
+                        .map(TCompasICDHeader::getIEDName).filter("SITESITE1SCU2"::equals).isPresent()));
+        //When
+        Set<String> importedIedNames = SclService.updateSTDElementsInSCD(scdRootAdapter, new HashSet<>(), DTO.comMap);
+        //Then
+        assertThat(importedIedNames).isEmpty();
+        assertThat(scd.getIED()).extracting(TIED::getName).containsExactlyInAnyOrder("SITESITE1SCU0", "SITESITE1SCU1");
+        assertThat(scd.getCommunication().getSubNetwork())
+                .flatExtracting(TSubNetwork::getConnectedAP)
+                .extracting(TConnectedAP::getIedName)
+                .doesNotContain("SITESITE1SCU2");
+        assertIsMarshallable(scd);
+    }
+
+    private static SCL createScdWithManyStds() {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scd-ied-dtt-com-import-stds/scd_lnode_with_many_compas_icdheader.xml");
+        SCL std0 = SclTestMarshaller.getSCLFromFile("/scd-ied-dtt-com-import-stds/std.xml");
+        SCL std1 = SclTestMarshaller.getSCLFromFile("/scd-ied-dtt-com-import-stds/std_SITESITE1SCU1.xml");
+        SCL std2 = SclTestMarshaller.getSCLFromFile("/scd-ied-dtt-com-import-stds/std_SITESITE1SCU2.xml");
+        SclService.importSTDElementsInSCD(new SclRootAdapter(scd), Set.of(std0, std1, std2), DTO.comMap);
+        return scd;
+    }
+
+    private static TPrivate findLNodeCompasICDHeaderPrivate(SclRootAdapter scdRootAdapter, String iedName) {
+        return PrivateService.streamIcdHeaderPrivatesWithDistinctIEDName(scdRootAdapter)
+                .filter(tPrivate -> PrivateService.extractCompasICDHeader(tPrivate).map(TCompasICDHeader::getIEDName).filter(iedName::equals).isPresent())
+                .findFirst()
+                .orElseThrow();
+    }
+
     @Test
     void removeControlBlocksAndDatasetAndExtRefSrc_should_remove_controlBlocks_and_Dataset_on_ln0() {
         // Given
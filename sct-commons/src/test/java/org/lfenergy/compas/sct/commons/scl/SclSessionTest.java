@@ -0,0 +1,172 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
+import org.lfenergy.compas.scl2007b4.model.TVal;
+import org.lfenergy.compas.sct.commons.dto.ControlBlock;
+import org.lfenergy.compas.sct.commons.dto.DaTypeName;
+import org.lfenergy.compas.sct.commons.dto.DataAttributeRef;
+import org.lfenergy.compas.sct.commons.dto.DoTypeName;
+import org.lfenergy.compas.sct.commons.dto.ExtRefInfo;
+import org.lfenergy.compas.sct.commons.dto.SclReport;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.SclSession.CommandTiming;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller.assertIsMarshallable;
+
+class SclSessionTest {
+
+    @Test
+    void updateDAI_should_update_dai_and_time_each_command() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/ied_unit_test.xml");
+        SclSession sclSession = SclSession.open(scd);
+        DataAttributeRef dataAttributeRef = createDataAttributeRef("newValue");
+        // When
+        sclSession.updateDAI("IED_NAME", "LD_INS1", dataAttributeRef);
+        sclSession.updateDAI("IED_NAME", "LD_INS1", createDataAttributeRef("otherValue"));
+        // Then
+        List<CommandTiming> commandTimings = sclSession.getCommandTimings();
+        assertThat(commandTimings)
+            .extracting(CommandTiming::command, CommandTiming::executions)
+            .containsExactly(tuple("updateDAI", 2L));
+        assertThat(commandTimings.get(0).maxNanos()).isPositive().isLessThanOrEqualTo(commandTimings.get(0).totalNanos());
+        assertIsMarshallable(sclSession.getScd());
+    }
+
+    @Test
+    void updateDAI_when_unknown_ldevice_or_lnodetype_should_throw_exception() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/ied_unit_test.xml");
+        SclSession sclSession = SclSession.open(scd);
+        DataAttributeRef dataAttributeRef = createDataAttributeRef("newValue");
+        DataAttributeRef unknownLNodeType = createDataAttributeRef("newValue");
+        unknownLNodeType.setLnType("unknownID");
+        // When Then
+        assertThatThrownBy(() -> sclSession.updateDAI("IED_NAME", "LD_INS1", unknownLNodeType))
+            .isInstanceOf(ScdException.class)
+            .hasMessage("Unknown LNodeType : unknownID");
+        assertThatThrownBy(() -> sclSession.updateDAI("IED_NAME", "UNKNOWN_LD", dataAttributeRef))
+            .isInstanceOf(ScdException.class)
+            .hasMessage("Unknown LDevice (UNKNOWN_LD) in IED (IED_NAME)");
+        assertThatThrownBy(() -> sclSession.updateDAI("UNKNOWN_IED", "LD_INS1", dataAttributeRef))
+            .isInstanceOf(ScdException.class);
+        assertThat(sclSession.getCommandTimings())
+            .extracting(CommandTiming::executions)
+            .containsExactly(3L);
+    }
+
+    @Test
+    void addIED_should_register_ied_in_index() {
+        // Given
+        SclSession sclSession = SclSession.open(new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION).getCurrentElem());
+        SCL icd = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        assertThatThrownBy(() -> sclSession.getExtRefInfo("IED_NAME1", "LD_INST11")).isInstanceOf(ScdException.class);
+        // When
+        sclSession.addIED("IED_NAME1", icd);
+        // Then
+        assertThat(sclSession.getExtRefInfo("IED_NAME1", "LD_INST11")).hasSize(1);
+        assertThat(sclSession.getEnumTypeElements("RecCycModKind")).isNotEmpty();
+    }
+
+    @Test
+    void execute_should_drop_indexes() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SclSession sclSession = SclSession.open(scd);
+        assertThat(sclSession.getExtRefInfo("IED_NAME1", "LD_INST11")).hasSize(1);
+        // When
+        boolean removed = sclSession.execute("removeIED", sclRootAdapter -> sclRootAdapter.removeIED("IED_NAME1"));
+        // Then
+        assertThat(removed).isTrue();
+        assertThatThrownBy(() -> sclSession.getExtRefInfo("IED_NAME1", "LD_INST11")).isInstanceOf(ScdException.class);
+    }
+
+    @Test
+    void getExtRefSourceInfo_should_find_control_blocks_until_they_are_removed() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-scd-extref-cb/issue_175_scd_get_cbs_test.xml");
+        SclSession sclSession = SclSession.open(scd);
+        ExtRefInfo extRefInfo = new ExtRefInfo(scd.getIED().get(1).getAccessPoint().get(0).getServer().getLDevice().get(0).getLN0()
+            .getInputs().getExtRef().get(0));
+        extRefInfo.setHolderIEDName("IED_NAME2");
+        assertThat(sclSession.getExtRefSourceInfo(extRefInfo)).extracting(ControlBlock::getName).containsExactly("goose2");
+        // When
+        sclSession.execute("removeControlBlocks", sclRootAdapter -> {
+            sclRootAdapter.getIEDAdapterByName("IED_NAME1").getLDeviceAdapterByLdInst("LD_INST12").getLN0Adapter().getCurrentElem()
+                .unsetGSEControl();
+            return null;
+        });
+        // Then
+        assertThat(sclSession.getExtRefSourceInfo(extRefInfo)).isEmpty();
+    }
+
+    @Test
+    void execute_with_changed_indexes_should_drop_only_given_indexes() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-scd-extref-cb/issue_175_scd_get_cbs_test.xml");
+        SclSession sclSession = SclSession.open(scd);
+        ExtRefInfo extRefInfo = new ExtRefInfo(scd.getIED().get(1).getAccessPoint().get(0).getServer().getLDevice().get(0).getLN0()
+            .getInputs().getExtRef().get(0));
+        extRefInfo.setHolderIEDName("IED_NAME2");
+        assertThat(sclSession.getExtRefSourceInfo(extRefInfo)).extracting(ControlBlock::getName).containsExactly("goose2");
+        // When
+        sclSession.execute("removeControlBlocks", EnumSet.of(SclSession.Index.CONTROL_BLOCKS), sclRootAdapter -> {
+            SclService.removeAllControlBlocksAndDatasetsAndExtRefSrcBindings(sclRootAdapter);
+            return null;
+        });
+        // Then
+        assertThat(sclSession.getExtRefSourceInfo(extRefInfo)).isEmpty();
+        assertThat(sclSession.getCommandTimings()).extracting(CommandTiming::command).contains("removeControlBlocks");
+    }
+
+    @Test
+    void walk_should_run_rules_on_session_root_adapter() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scd-test-update-inref/scd_update_inref_issue_231_test_ko.xml");
+        SclReport expectedReport = SclService.updateDoInRef(SclTestMarshaller.getSCLFromFile("/scd-test-update-inref/scd_update_inref_issue_231_test_ko.xml"));
+        SclSession sclSession = SclSession.open(scd);
+        // When
+        SclReport sclReport = sclSession.walk("updateSCD", List.of(SclRules.updateDoInRef()));
+        // Then
+        assertThat(sclReport.getSclRootAdapter().getCurrentElem()).isSameAs(scd);
+        assertThat(sclReport.getSclReportItems()).containsExactlyElementsOf(expectedReport.getSclReportItems());
+        assertThat(sclSession.getCommandTimings()).extracting(CommandTiming::command).containsExactly("updateSCD");
+    }
+
+    @Test
+    void resetCommandTimings_should_clear_timings() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SclSession sclSession = SclSession.open(scd);
+        sclSession.getEnumTypeElements("RecCycModKind");
+        // When
+        sclSession.resetCommandTimings();
+        // Then
+        assertThat(sclSession.getCommandTimings()).isEmpty();
+    }
+
+    private static DataAttributeRef createDataAttributeRef(String value) {
+        DataAttributeRef dataAttributeRef = new DataAttributeRef();
+        dataAttributeRef.setLnType("LNO1");
+        dataAttributeRef.setLnClass(TLLN0Enum.LLN_0.value());
+        dataAttributeRef.setDoName(new DoTypeName("Do.sdo1.d"));
+        dataAttributeRef.setDaName(new DaTypeName("antRef.bda1.bda2.bda3"));
+        TVal tVal = new TVal();
+        tVal.setValue(value);
+        dataAttributeRef.setDaiValues(List.of(tVal));
+        return dataAttributeRef;
+    }
+}
@@ -0,0 +1,163 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.*;
+import org.lfenergy.compas.sct.commons.dto.*;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.lfenergy.compas.sct.commons.util.SclConstructorHelper.newConnectedAp;
+
+class SclSnapshotTest {
+
+    @Test
+    void of_should_not_modify_source_scl() {
+        // Given
+        SCL scd = new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION).getCurrentElem();
+        // When
+        SclSnapshot sclSnapshot = SclSnapshot.of(scd);
+        // Then
+        assertThat(sclSnapshot).isNotNull();
+        assertThat(scd.getDataTypeTemplates()).isNull();
+        assertThat(scd.isSetIED()).isFalse();
+    }
+
+    @Test
+    void of_should_not_see_later_modifications_of_source_scl() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SclSnapshot sclSnapshot = SclSnapshot.of(scd);
+        // When
+        scd.getIED().clear();
+        scd.getDataTypeTemplates().getEnumType().clear();
+        // Then
+        assertThat(SclService.getExtRefInfo(sclSnapshot, "IED_NAME1", "LD_INST11")).hasSize(1);
+        assertThat(SclService.getEnumTypeElements(sclSnapshot, "RecCycModKind")).isNotEmpty();
+    }
+
+    @Test
+    void getExtRefInfo_should_return_same_result_as_for_scl() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SclSnapshot sclSnapshot = SclSnapshot.of(scd);
+        // When
+        List<ExtRefInfo> extRefInfos = SclService.getExtRefInfo(sclSnapshot, "IED_NAME1", "LD_INST11");
+        // Then
+        assertThat(extRefInfos)
+            .extracting(ExtRefInfo::getHolderIEDName, ExtRefInfo::getHolderLDInst)
+            .containsExactlyElementsOf(SclService.getExtRefInfo(scd, "IED_NAME1", "LD_INST11").stream()
+                .map(extRefInfo -> tuple(extRefInfo.getHolderIEDName(), extRefInfo.getHolderLDInst()))
+                .toList());
+    }
+
+    @Test
+    void getExtRefInfo_when_unknown_ied_or_ldevice_should_throw_exception() {
+        // Given
+        SclSnapshot sclSnapshot = SclSnapshot.of(SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml"));
+        // When & Then
+        assertThatThrownBy(() -> SclService.getExtRefInfo(sclSnapshot, "UNKNOWN_IED", "LD_INST11"))
+            .isInstanceOf(ScdException.class)
+            .hasMessage("IED.name 'UNKNOWN_IED' not found in SCD");
+        assertThatThrownBy(() -> SclService.getExtRefInfo(sclSnapshot, "IED_NAME1", "UNKNOWN_LD"))
+            .isInstanceOf(ScdException.class)
+            .hasMessage("Unknown LDevice (UNKNOWN_LD) in IED (IED_NAME1)");
+    }
+
+    @Test
+    void getExtRefBinders_should_return_same_result_as_for_scl() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-scd-extref-cb/scd_get_binders_test.xml");
+        SclSnapshot sclSnapshot = SclSnapshot.of(scd);
+        ExtRefSignalInfo signalInfo = new ExtRefSignalInfo();
+        signalInfo.setDesc("DESC");
+        signalInfo.setPDO("Do11.sdo11");
+        signalInfo.setPDA("da11.bda111.bda112.bda113");
+        signalInfo.setPLN("ANCR");
+        signalInfo.setPServT(TServiceType.REPORT);
+        signalInfo.setIntAddr("INT_ADDR11");
+        // When
+        List<ExtRefBindingInfo> potentialBinders = SclService.getExtRefBinders(sclSnapshot, "IED_NAME1", "LD_INST11", "LLN0", "", "", signalInfo);
+        // Then
+        assertThat(potentialBinders)
+            .extracting(ExtRefBindingInfo::getIedName, ExtRefBindingInfo::getLdInst)
+            .containsExactlyElementsOf(SclService.getExtRefBinders(scd, "IED_NAME1", "LD_INST11", "LLN0", "", "", signalInfo).stream()
+                .map(bindingInfo -> tuple(bindingInfo.getIedName(), bindingInfo.getLdInst()))
+                .toList());
+    }
+
+    @Test
+    void getDAI_when_called_concurrently_should_return_same_result_as_for_scl() throws Exception {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SclSnapshot sclSnapshot = SclSnapshot.of(scd);
+        Set<DataAttributeRef> expected = SclService.getDAI(scd, "IED_NAME1", "LD_INST12", new DataAttributeRef(), true);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            // When
+            List<Future<Set<DataAttributeRef>>> results = executorService.invokeAll(IntStream.range(0, 8)
+                .<Callable<Set<DataAttributeRef>>>mapToObj(i -> () -> SclService.getDAI(sclSnapshot, "IED_NAME1", "LD_INST12", new DataAttributeRef(), true))
+                .toList());
+            // Then
+            for (Future<Set<DataAttributeRef>> result : results) {
+                assertThat(result.get()).hasSize(733).isEqualTo(expected);
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void getEnumTypeElements_should_return_same_result_as_for_scl() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SclSnapshot sclSnapshot = SclSnapshot.of(scd);
+        // When
+        Set<Pair<Integer, String>> enumTypeElements = SclService.getEnumTypeElements(sclSnapshot, "RecCycModKind");
+        // Then
+        assertThat(enumTypeElements).isEqualTo(SclService.getEnumTypeElements(scd, "RecCycModKind"));
+        assertThatThrownBy(() -> SclService.getEnumTypeElements(sclSnapshot, "UNKNOWN_ID"))
+            .isInstanceOf(ScdException.class)
+            .hasMessage("Unknown EnumType Id: UNKNOWN_ID");
+    }
+
+    @Test
+    void getSubnetwork_should_return_subnetworks_of_snapshot() {
+        // Given
+        TSubNetwork tSubNetwork = new TSubNetwork();
+        tSubNetwork.setName("SUBNETWORK_NAME");
+        tSubNetwork.setType("8-MMS");
+        tSubNetwork.getConnectedAP().add(newConnectedAp("IED_NAME", "AP_NAME"));
+        SCL scd = new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION).getCurrentElem();
+        scd.setCommunication(new TCommunication());
+        scd.getCommunication().getSubNetwork().add(tSubNetwork);
+        SclSnapshot sclSnapshot = SclSnapshot.of(scd);
+        // When
+        List<SubNetworkDTO> subNetworks = SclService.getSubnetwork(sclSnapshot);
+        // Then
+        assertThat(subNetworks).extracting(SubNetworkDTO::getName).containsExactly("SUBNETWORK_NAME");
+        assertThat(subNetworks.get(0).getConnectedAPs()).extracting(ConnectedApDTO::getIedName).containsExactly("IED_NAME");
+    }
+
+    @Test
+    void getSubnetwork_when_no_communication_should_throw_exception() {
+        // Given
+        SclSnapshot sclSnapshot = SclSnapshot.of(new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION).getCurrentElem());
+        // When & Then
+        assertThatThrownBy(() -> SclService.getSubnetwork(sclSnapshot))
+            .isInstanceOf(ScdException.class);
+    }
+
+}
@@ -0,0 +1,42 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TIED;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+import org.lfenergy.compas.sct.commons.util.Utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SclSubtreeHasherTest {
+
+    @Test
+    void hash_when_identical_subtrees_should_return_same_hash() {
+        // Given
+        SCL before = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SCL after = Utils.copySclElement(before, SCL.class);
+        // When
+        long beforeHash = new SclSubtreeHasher().hash(before);
+        long afterHash = new SclSubtreeHasher().hash(after);
+        // Then
+        assertThat(beforeHash).isEqualTo(afterHash);
+        assertThat(SclSubtreeHasher.isSameSubtree(before, after)).isTrue();
+    }
+
+    @Test
+    void isSameSubtree_when_nested_attribute_differs_should_return_false() {
+        // Given
+        SCL before = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SCL after = Utils.copySclElement(before, SCL.class);
+        TIED tied = after.getIED().get(0);
+        tied.getAccessPoint().get(0).getServer().getLDevice().get(0).setDesc("new description");
+        // When
+        boolean sameSubtree = SclSubtreeHasher.isSameSubtree(before, after);
+        // Then
+        assertThat(sameSubtree).isFalse();
+    }
+}
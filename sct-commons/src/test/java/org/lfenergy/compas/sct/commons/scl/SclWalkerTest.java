@@ -0,0 +1,178 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.sct.commons.dto.SclReport;
+import org.lfenergy.compas.sct.commons.scl.ied.AbstractLNAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.LDeviceAdapter;
+import org.lfenergy.compas.sct.commons.testhelpers.MarshallerWrapper;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SclWalkerTest {
+
+    private static final String SCD_UPDATE_INREF_KO = "/scd-test-update-inref/scd_update_inref_issue_231_test_ko.xml";
+
+    @Test
+    void walk_should_visit_all_elements_in_document_order() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile(SCD_UPDATE_INREF_KO);
+        List<String> visitedLDevices = new ArrayList<>();
+        int[] counts = new int[4];
+        SclRule recordingRule = new SclRule() {
+            @Override
+            public void onIed(SclCursor cursor) {
+                counts[0]++;
+            }
+
+            @Override
+            public void onLDevice(SclCursor cursor) {
+                visitedLDevices.add(cursor.getIed().getName() + "/" + cursor.getLDevice().getInst());
+            }
+
+            @Override
+            public void onLn(SclCursor cursor) {
+                counts[1]++;
+            }
+
+            @Override
+            public void onDoi(SclCursor cursor) {
+                counts[2]++;
+            }
+
+            @Override
+            public void onExtRef(SclCursor cursor) {
+                counts[3]++;
+            }
+        };
+        // When
+        SclReport sclReport = SclWalker.walk(scd, List.of(recordingRule));
+        // Then
+        assertThat(sclReport.isSuccess()).isTrue();
+        assertThat(sclReport.getSclReportItems()).isEmpty();
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        assertThat(counts[0]).isEqualTo(scd.getIED().size());
+        assertThat(visitedLDevices).containsExactlyElementsOf(sclRootAdapter.streamIEDAdapters()
+            .flatMap(IEDAdapter::streamLDeviceAdapters)
+            .map(lDeviceAdapter -> lDeviceAdapter.getParentAdapter().getName() + "/" + lDeviceAdapter.getInst())
+            .toList());
+        List<AbstractLNAdapter<?>> lnAdapters = sclRootAdapter.streamIEDAdapters()
+            .flatMap(IEDAdapter::streamLDeviceAdapters)
+            .flatMap(lDeviceAdapter -> lDeviceAdapter.getLNAdaptersIncludingLN0().stream())
+            .toList();
+        assertThat(counts[1]).isEqualTo(lnAdapters.size());
+        assertThat(counts[2]).isEqualTo(lnAdapters.stream().mapToInt(lnAdapter -> lnAdapter.getCurrentElem().getDOI().size()).sum());
+        assertThat(counts[3]).isPositive().isEqualTo(lnAdapters.stream().mapToInt(lnAdapter -> lnAdapter.getExtRefs().size()).sum());
+    }
+
+    @Test
+    void walk_with_several_rules_should_give_same_result_as_separate_services() {
+        // Given
+        SCL scdForServices = SclTestMarshaller.getSCLFromFile(SCD_UPDATE_INREF_KO);
+        SCL scdForWalker = SclTestMarshaller.getSCLFromFile(SCD_UPDATE_INREF_KO);
+        SclReport updateDoInRefReport = SclService.updateDoInRef(scdForServices);
+        SclReport analyzeDataGroupsReport = SclService.analyzeDataGroups(scdForServices);
+        // When
+        SclReport sclReport = SclWalker.walk(scdForWalker, List.of(SclRules.updateDoInRef(), SclRules.analyzeDataGroups()));
+        // Then
+        assertThat(sclReport.getSclRootAdapter().getCurrentElem()).isSameAs(scdForWalker);
+        assertThat(sclReport.getSclReportItems())
+            .hasSize(updateDoInRefReport.getSclReportItems().size() + analyzeDataGroupsReport.getSclReportItems().size())
+            .containsAll(updateDoInRefReport.getSclReportItems())
+            .containsAll(analyzeDataGroupsReport.getSclReportItems());
+        assertThat(MarshallerWrapper.marshall(scdForWalker)).isEqualTo(MarshallerWrapper.marshall(scdForServices));
+    }
+
+    @Test
+    void walk_should_not_visit_elements_deeper_than_depth_of_rules() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile(SCD_UPDATE_INREF_KO);
+        int[] counts = new int[3];
+        SclRule lDeviceRule = new SclRule() {
+            @Override
+            public Depth depth() {
+                return Depth.LDEVICE;
+            }
+
+            @Override
+            public void onLDevice(SclCursor cursor) {
+                counts[0]++;
+            }
+
+            @Override
+            public void onLn(SclCursor cursor) {
+                counts[1]++;
+            }
+
+            @Override
+            public void onExtRef(SclCursor cursor) {
+                counts[2]++;
+            }
+        };
+        // When
+        SclWalker.walk(scd, List.of(lDeviceRule, SclRules.analyzeDataGroups()));
+        // Then
+        assertThat(counts[0]).isPositive();
+        assertThat(counts[1]).isZero();
+        assertThat(counts[2]).isZero();
+    }
+
+    @Test
+    void walk_should_share_adapters_of_enclosing_elements() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile(SCD_UPDATE_INREF_KO);
+        Set<IEDAdapter> iedAdapters = new HashSet<>();
+        Set<LDeviceAdapter> lDeviceAdapters = new HashSet<>();
+        List<Boolean> sameLnAdapters = new ArrayList<>();
+        SclRule rule = new SclRule() {
+            @Override
+            public void onLDevice(SclCursor cursor) {
+                iedAdapters.add(cursor.getIedAdapter());
+                lDeviceAdapters.add(cursor.getLDeviceAdapter());
+            }
+
+            @Override
+            public void onDoi(SclCursor cursor) {
+                assertThat(cursor.getDoiAdapter().getCurrentElem()).isSameAs(cursor.getDoi());
+                sameLnAdapters.add(cursor.getDoiAdapter().getParentAdapter() == cursor.getLnAdapter()
+                    && cursor.getLnAdapter().getParentAdapter() == cursor.getLDeviceAdapter()
+                    && cursor.getLnAdapter().getCurrentElem() == cursor.getLn());
+            }
+        };
+        // When
+        SclWalker.walk(scd, List.of(rule));
+        // Then
+        long lDeviceCount = new SclRootAdapter(scd).streamIEDAdapters().flatMap(IEDAdapter::streamLDeviceAdapters).count();
+        assertThat(lDeviceAdapters).hasSize((int) lDeviceCount);
+        assertThat(iedAdapters).hasSize(scd.getIED().size());
+        assertThat(sameLnAdapters).isNotEmpty().containsOnly(true);
+    }
+
+    @Test
+    void getDoiAdapter_when_cursor_not_on_doi_should_throw_exception() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile(SCD_UPDATE_INREF_KO);
+        SclRule rule = new SclRule() {
+            @Override
+            public void onLDevice(SclCursor cursor) {
+                cursor.getDoiAdapter();
+            }
+        };
+        // When Then
+        assertThatThrownBy(() -> SclWalker.walk(scd, List.of(rule)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("The cursor is not in a LN");
+    }
+}
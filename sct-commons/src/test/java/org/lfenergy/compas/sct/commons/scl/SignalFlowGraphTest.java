@@ -0,0 +1,148 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TExtRef;
+import org.lfenergy.compas.scl2007b4.model.TReportControl;
+import org.lfenergy.compas.sct.commons.scl.SignalFlowGraph.NodeKind;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+import org.lfenergy.compas.sct.commons.util.ControlBlockEnum;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SignalFlowGraphTest {
+
+    @Test
+    void build_should_link_control_blocks_to_datasets_and_subscribing_extRefs() {
+        // Given
+        SCL scd = getScd();
+        // When
+        SignalFlowGraph signalFlowGraph = SignalFlowGraph.build(scd);
+        // Then
+        int goose = findNode(signalFlowGraph, NodeKind.CONTROL_BLOCK, "IED_NAME3/LD_INST31/LLN0.goose1[GSE]");
+        assertThat(signalFlowGraph.getControlBlockType(goose)).contains(ControlBlockEnum.GSE);
+        assertThat(keys(signalFlowGraph, signalFlowGraph.successors(goose))).containsExactly(
+            "IED_NAME3/LD_INST31/LLN0.dataset9",
+            "IED_NAME1/LD_INST11/LLN0/ExtRef[4]",
+            "IED_NAME1/LD_INST21/LLN0/ExtRef[4]");
+        assertThat(keys(signalFlowGraph, signalFlowGraph.predecessors(goose))).containsExactly("IED_NAME3/LD_INST31");
+        int report = findNode(signalFlowGraph, NodeKind.CONTROL_BLOCK, "IED_NAME2/LD_INST22/ANCR1.rpt1[REPORT]");
+        assertThat(signalFlowGraph.fanOut(report)).isEqualTo(3);
+        assertThat(signalFlowGraph.getControlBlockType(findNode(signalFlowGraph, NodeKind.DATASET, "IED_NAME2/LD_INST22/ANCR1.dataset1")))
+            .isEmpty();
+    }
+
+    @Test
+    void build_should_link_extRef_to_matching_fcda_of_its_control_block() {
+        // Given
+        SCL scd = getScd();
+        TExtRef tExtRef = scd.getIED().get(0).getAccessPoint().get(0).getServer().getLDevice().get(0).getLN0().getInputs().getExtRef().get(0);
+        tExtRef.setLdInst("LD_INST22");
+        tExtRef.getLnClass().add("CSWI");
+        tExtRef.setLnInst("1");
+        tExtRef.setDoName("Do23");
+        // When
+        SignalFlowGraph signalFlowGraph = SignalFlowGraph.build(scd);
+        // Then
+        int extRef = findNode(signalFlowGraph, NodeKind.EXT_REF, "IED_NAME1/LD_INST11/LLN0/ExtRef[1]");
+        assertThat(keys(signalFlowGraph, signalFlowGraph.predecessors(extRef))).containsExactly(
+            "IED_NAME2/LD_INST22/LLN0.goose1[GSE]",
+            "IED_NAME2/LD_INST22/LLN0.dataset5/FCDA[1]");
+        assertThat(keys(signalFlowGraph, signalFlowGraph.reachingTo(extRef))).containsExactly(
+            "IED_NAME2",
+            "IED_NAME2/LD_INST22",
+            "IED_NAME2/LD_INST22/LLN0.dataset5",
+            "IED_NAME2/LD_INST22/LLN0.dataset5/FCDA[1]",
+            "IED_NAME2/LD_INST22/LLN0.goose1[GSE]");
+    }
+
+    @Test
+    void build_when_control_blocks_of_different_types_have_same_name_should_link_extRef_by_serviceType() {
+        // Given
+        SCL scd = getScd();
+        TReportControl tReportControl = new TReportControl();
+        tReportControl.setName("goose1");
+        tReportControl.setDatSet("dataset6");
+        scd.getIED().get(1).getAccessPoint().get(0).getServer().getLDevice().get(1).getLN0().getReportControl().add(tReportControl);
+        List<TExtRef> tExtRefs = scd.getIED().get(0).getAccessPoint().get(0).getServer().getLDevice().get(0).getLN0().getInputs().getExtRef();
+        tExtRefs.get(1).setSrcCBName("goose1");
+        tExtRefs.get(1).setServiceType(null);
+        // When
+        SignalFlowGraph signalFlowGraph = SignalFlowGraph.build(scd);
+        // Then
+        int goose = findNode(signalFlowGraph, NodeKind.CONTROL_BLOCK, "IED_NAME2/LD_INST22/LLN0.goose1[GSE]");
+        int report = findNode(signalFlowGraph, NodeKind.CONTROL_BLOCK, "IED_NAME2/LD_INST22/LLN0.goose1[REPORT]");
+        assertThat(signalFlowGraph.getControlBlockType(report)).contains(ControlBlockEnum.REPORT);
+        assertThat(keys(signalFlowGraph, signalFlowGraph.predecessors(findNode(signalFlowGraph, NodeKind.EXT_REF,
+            "IED_NAME1/LD_INST11/LLN0/ExtRef[1]")))).containsExactly(signalFlowGraph.getKey(goose));
+        assertThat(keys(signalFlowGraph, signalFlowGraph.predecessors(findNode(signalFlowGraph, NodeKind.EXT_REF,
+            "IED_NAME1/LD_INST11/LLN0/ExtRef[2]")))).containsExactlyInAnyOrder(signalFlowGraph.getKey(goose), signalFlowGraph.getKey(report));
+    }
+
+    @Test
+    void fanIn_should_find_orphaned_datasets() {
+        // Given
+        SignalFlowGraph signalFlowGraph = SignalFlowGraph.build(getScd());
+        // When
+        int[] result = Arrays.stream(signalFlowGraph.nodes(NodeKind.DATASET))
+            .filter(dataSet -> signalFlowGraph.fanIn(dataSet) == 0)
+            .toArray();
+        // Then
+        assertThat(keys(signalFlowGraph, result)).containsExactly("IED_NAME3/LD_INST31/LLN0.dataset8");
+    }
+
+    @Test
+    void reachableFrom_should_find_extRefs_impacted_by_ied_removal() {
+        // Given
+        SignalFlowGraph signalFlowGraph = SignalFlowGraph.build(getScd());
+        int ied = findNode(signalFlowGraph, NodeKind.IED, "IED_NAME3");
+        // When
+        int[] result = signalFlowGraph.reachableFrom(ied);
+        // Then
+        assertThat(keys(signalFlowGraph, Arrays.stream(result).filter(node -> signalFlowGraph.getKind(node) == NodeKind.EXT_REF).toArray()))
+            .containsExactly("IED_NAME1/LD_INST11/LLN0/ExtRef[4]", "IED_NAME1/LD_INST21/LLN0/ExtRef[4]");
+        assertThat(result).hasSize(12).doesNotContain(ied);
+    }
+
+    @Test
+    void count_should_count_nodes_held_by_access_point() {
+        // Given
+        SignalFlowGraph signalFlowGraph = SignalFlowGraph.build(getScd());
+        // When Then
+        assertThat(signalFlowGraph.count("IED_NAME2", "AP_NAME", NodeKind.DATASET)).isEqualTo(6);
+        assertThat(signalFlowGraph.count("IED_NAME2", "AP_NAME", NodeKind.FCDA)).isEqualTo(9);
+        assertThat(signalFlowGraph.count("IED_NAME2", "AP_NAME", NodeKind.CONTROL_BLOCK)).isEqualTo(7);
+        assertThat(signalFlowGraph.count("IED_NAME1", "AP_NAME", NodeKind.EXT_REF)).isEqualTo(8);
+        assertThat(signalFlowGraph.count("IED_NAME1", "UNKNOWN_AP", NodeKind.EXT_REF)).isZero();
+    }
+
+    @Test
+    void countSubscribedControlBlocks_should_count_distinct_control_blocks_like_checkLimitationForBoundIEDControls() {
+        // Given
+        SignalFlowGraph signalFlowGraph = SignalFlowGraph.build(getScd());
+        // When Then
+        assertThat(signalFlowGraph.countSubscribedControlBlocks("IED_NAME1", "AP_NAME", ControlBlockEnum.GSE)).isEqualTo(3);
+        assertThat(signalFlowGraph.countSubscribedControlBlocks("IED_NAME1", "AP_NAME", ControlBlockEnum.SAMPLED_VALUE)).isEqualTo(2);
+        assertThat(signalFlowGraph.countSubscribedControlBlocks("IED_NAME1", "AP_NAME", ControlBlockEnum.REPORT)).isEqualTo(1);
+        assertThat(signalFlowGraph.countSubscribedControlBlocks("IED_NAME2", "AP_NAME", ControlBlockEnum.GSE)).isZero();
+    }
+
+    private static SCL getScd() {
+        return SclTestMarshaller.getSCLFromFile("/limitation_cb_dataset_fcda/scd_check_limitation_bound_ied_controls_fcda.xml");
+    }
+
+    private static int findNode(SignalFlowGraph signalFlowGraph, NodeKind kind, String key) {
+        return signalFlowGraph.findNode(kind, key).orElseThrow();
+    }
+
+    private static String[] keys(SignalFlowGraph signalFlowGraph, int[] nodes) {
+        return Arrays.stream(nodes).mapToObj(signalFlowGraph::getKey).toArray(String[]::new);
+    }
+}
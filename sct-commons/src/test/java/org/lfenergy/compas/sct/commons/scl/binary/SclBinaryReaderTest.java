@@ -0,0 +1,112 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.binary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TIED;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.testhelpers.MarshallerWrapper;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SclBinaryReaderTest {
+
+    private static final String SCD_WITH_3_IEDS = "/scd-ldepf/scd_ldepf_extref_with_BCU_BPU.xml";
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        SCD_WITH_3_IEDS,
+        "/scd-ied-dtt-com-import-stds/std_SITESITE1SCU1.xml",
+        "/scl-srv-scd-extref-cb/issue_175_scd_get_cbs_test.xml",
+        "/limitation_cb_dataset_fcda/scd_check_limitation_bound_ied_controls_fcda.xml"
+    })
+    void read_should_rebuild_written_scl(String filename) {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile(filename);
+        byte[] snapshot = SclBinaryWriter.write(scd);
+        // When
+        SCL result = new SclBinaryReader(snapshot).read();
+        // Then
+        assertThat(result).isNotSameAs(scd);
+        assertThat(result).usingRecursiveComparison().isEqualTo(scd);
+        assertThat(MarshallerWrapper.marshall(result)).isEqualTo(MarshallerWrapper.marshall(scd));
+    }
+
+    @Test
+    void write_to_stream_should_write_same_snapshot() throws IOException {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile(SCD_WITH_3_IEDS);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        // When
+        SclBinaryWriter.write(scd, outputStream);
+        // Then
+        assertThat(outputStream.toByteArray()).isEqualTo(SclBinaryWriter.write(scd));
+    }
+
+    @Test
+    void read_with_filter_should_skip_other_ieds() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile(SCD_WITH_3_IEDS);
+        SclBinaryReader sclBinaryReader = new SclBinaryReader(SclBinaryWriter.write(scd));
+        // When
+        SCL result = sclBinaryReader.read(iedName -> iedName.startsWith("IED_NAME"));
+        // Then
+        assertThat(sclBinaryReader.getIedNames()).containsExactly("IEDTEST", "IED_NAME1", "IED_NAME2");
+        assertThat(result.getIED()).extracting(TIED::getName).containsExactly("IED_NAME1", "IED_NAME2");
+        assertThat(result.getIED().get(1)).usingRecursiveComparison().isEqualTo(scd.getIED().get(2));
+        assertThat(result.getDataTypeTemplates()).usingRecursiveComparison().isEqualTo(scd.getDataTypeTemplates());
+    }
+
+    @Test
+    void readIed_should_read_only_requested_ied() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile(SCD_WITH_3_IEDS);
+        SclBinaryReader sclBinaryReader = new SclBinaryReader(SclBinaryWriter.write(scd));
+        // When Then
+        assertThat(sclBinaryReader.readIed("IED_NAME1")).get().usingRecursiveComparison().isEqualTo(scd.getIED().get(1));
+        assertThat(sclBinaryReader.readIed("UNKNOWN_IED")).isEmpty();
+    }
+
+    @Test
+    void constructor_when_not_a_snapshot_should_throw_exception() {
+        // Given
+        byte[] data = "<SCL/>".getBytes();
+        // When Then
+        assertThatThrownBy(() -> new SclBinaryReader(data))
+            .isInstanceOf(ScdException.class)
+            .hasMessage("Not an SCD snapshot");
+    }
+
+    @Test
+    void constructor_when_snapshot_truncated_should_throw_exception() {
+        // Given
+        byte[] snapshot = SclBinaryWriter.write(SclTestMarshaller.getSCLFromFile(SCD_WITH_3_IEDS));
+        byte[] truncated = Arrays.copyOf(snapshot, snapshot.length - 1);
+        // When Then
+        assertThatThrownBy(() -> new SclBinaryReader(truncated))
+            .isInstanceOf(ScdException.class)
+            .hasMessageStartingWith("Corrupted SCD snapshot");
+    }
+
+    @Test
+    void write_when_unknown_value_type_should_throw_exception() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile(SCD_WITH_3_IEDS);
+        scd.getIED().get(1).getPrivate().get(0).getContent().add(new Object());
+        // When Then
+        assertThatThrownBy(() -> SclBinaryWriter.write(scd))
+            .isInstanceOf(ScdException.class)
+            .hasMessage("Cannot write value of type java.lang.Object in SCD snapshot");
+    }
+}
@@ -9,8 +9,11 @@ import org.lfenergy.compas.scl2007b4.model.*;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.lfenergy.compas.sct.commons.util.SclConstructorHelper.newConnectedAp;
 
 class CommunicationAdapterTest {
 
@@ -104,4 +107,21 @@ class CommunicationAdapterTest {
         assertThat(result).isEqualTo("Communication");
     }
 
-}
\ No newline at end of file
+    @Test
+    void removeConnectedAPsOfIed_should_remove_only_connectedAPs_of_ied() {
+        // Given
+        CommunicationAdapter communicationAdapter = new CommunicationAdapter(null, new TCommunication());
+        TSubNetwork tSubNetwork1 = new TSubNetwork();
+        tSubNetwork1.getConnectedAP().add(newConnectedAp("IED_NAME_1", "apName"));
+        tSubNetwork1.getConnectedAP().add(newConnectedAp("IED_NAME_2", "apName"));
+        TSubNetwork tSubNetwork2 = new TSubNetwork();
+        tSubNetwork2.getConnectedAP().add(newConnectedAp("IED_NAME_1", "apName2"));
+        communicationAdapter.getCurrentElem().getSubNetwork().addAll(List.of(tSubNetwork1, tSubNetwork2));
+        // When
+        communicationAdapter.removeConnectedAPsOfIed("IED_NAME_1");
+        // Then
+        assertThat(communicationAdapter.getCurrentElem().getSubNetwork()).containsExactly(tSubNetwork1);
+        assertThat(tSubNetwork1.getConnectedAP()).extracting(TConnectedAP::getIedName).containsExactly("IED_NAME_2");
+    }
+
+}
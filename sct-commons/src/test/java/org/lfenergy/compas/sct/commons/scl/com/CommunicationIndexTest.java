@@ -0,0 +1,137 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.com;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.*;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.lfenergy.compas.sct.commons.util.SclConstructorHelper.newConnectedAp;
+import static org.lfenergy.compas.sct.commons.util.SclConstructorHelper.newP;
+
+class CommunicationIndexTest {
+
+    @Test
+    void constructor_should_index_subNetworks_and_connectedAPs() {
+        // Given
+        TCommunication tCommunication = new TCommunication();
+        TSubNetwork subNetwork1 = newSubNetwork("SN1", newConnectedAp("IED1", "AP1"));
+        TSubNetwork subNetwork2 = newSubNetwork("SN2", newConnectedAp("IED2", "AP1"));
+        tCommunication.getSubNetwork().addAll(List.of(subNetwork1, subNetwork2));
+        // When
+        CommunicationIndex communicationIndex = new CommunicationIndex(tCommunication);
+        // Then
+        assertThat(communicationIndex.isIndexOf(tCommunication)).isTrue();
+        assertThat(communicationIndex.findSubNetwork("SN2")).containsSame(subNetwork2);
+        assertThat(communicationIndex.findSubNetwork("SN3")).isEmpty();
+        assertThat(communicationIndex.findConnectedAP("IED2", "AP1")).hasValueSatisfying(connectedApEntry -> {
+            assertThat(connectedApEntry.tSubNetwork()).isSameAs(subNetwork2);
+            assertThat(connectedApEntry.tConnectedAP()).isSameAs(subNetwork2.getConnectedAP().get(0));
+        });
+        assertThat(communicationIndex.findConnectedAP(subNetwork1, "IED2", "AP1")).isEmpty();
+        assertThat(communicationIndex.findConnectedAP("IED3", "AP1")).isEmpty();
+    }
+
+    @Test
+    void find_when_duplicated_keys_should_return_first_element() {
+        // Given
+        TCommunication tCommunication = new TCommunication();
+        TConnectedAP tConnectedAP1 = newConnectedAp("IED1", "AP1");
+        TConnectedAP tConnectedAP2 = newConnectedAp("IED1", "AP1");
+        tConnectedAP1.getGSE().addAll(List.of(newGse("LD1", "CB1"), newGse("LD1", "CB1")));
+        tCommunication.getSubNetwork().add(newSubNetwork("SN1", tConnectedAP1));
+        tCommunication.getSubNetwork().add(newSubNetwork("SN1", tConnectedAP2));
+        // When
+        CommunicationIndex communicationIndex = new CommunicationIndex(tCommunication);
+        // Then
+        assertThat(communicationIndex.findSubNetwork("SN1")).containsSame(tCommunication.getSubNetwork().get(0));
+        assertThat(communicationIndex.findConnectedAP("IED1", "AP1")).map(CommunicationIndex.ConnectedApEntry::tConnectedAP)
+            .containsSame(tConnectedAP1);
+        assertThat(communicationIndex.findGse(tConnectedAP1, "LD1", "CB1")).containsSame(tConnectedAP1.getGSE().get(0));
+        assertThat(communicationIndex.isIndexed(tConnectedAP2)).isTrue();
+    }
+
+    @Test
+    void register_should_make_new_elements_findable() {
+        // Given
+        TCommunication tCommunication = new TCommunication();
+        CommunicationIndex communicationIndex = new CommunicationIndex(tCommunication);
+        TSubNetwork tSubNetwork = newSubNetwork("SN1");
+        TConnectedAP tConnectedAP = newConnectedAp("IED1", "AP1");
+        TGSE tgse = newGse("LD1", "CB1");
+        TSMV tsmv = new TSMV();
+        tsmv.setLdInst("LD1");
+        tsmv.setCbName("CB2");
+        // When
+        communicationIndex.registerSubNetwork(tSubNetwork);
+        communicationIndex.registerConnectedAP(tSubNetwork, tConnectedAP);
+        communicationIndex.registerGse(tConnectedAP, tgse);
+        communicationIndex.registerSmv(tConnectedAP, tsmv);
+        // Then
+        assertThat(communicationIndex.isIndexed(tSubNetwork)).isTrue();
+        assertThat(communicationIndex.findSubNetwork("SN1")).containsSame(tSubNetwork);
+        assertThat(communicationIndex.findConnectedAP(tSubNetwork, "IED1", "AP1")).containsSame(tConnectedAP);
+        assertThat(communicationIndex.findGse(tConnectedAP, "LD1", "CB1")).containsSame(tgse);
+        assertThat(communicationIndex.findSmv(tConnectedAP, "LD1", "CB2")).containsSame(tsmv);
+        assertThat(communicationIndex.findSmv(tConnectedAP, "LD1", "CB1")).isEmpty();
+    }
+
+    @Test
+    void adapters_should_keep_index_up_to_date() {
+        // Given
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("hID", "hVersion", "hRevision");
+        TIED tied = new TIED();
+        tied.setName("IED1");
+        TAccessPoint tAccessPoint = new TAccessPoint();
+        tAccessPoint.setName("AP1");
+        tied.getAccessPoint().add(tAccessPoint);
+        sclRootAdapter.getCurrentElem().getIED().add(tied);
+        CommunicationAdapter communicationAdapter = sclRootAdapter.getCommunicationAdapter(true);
+        assertThat(sclRootAdapter.findConnectedApAdapter("IED1", "AP1")).isEmpty();
+        // When
+        communicationAdapter.addSubnetwork("SN1", "IP", "IED1", "AP1");
+        ConnectedAPAdapter connectedAPAdapter = sclRootAdapter.findConnectedApAdapter("IED1", "AP1").orElseThrow();
+        connectedAPAdapter.updateGseOrCreateIfNotExists("LD1", "CB1", List.of(newP("APPID", "0001")), null, null);
+        connectedAPAdapter.updateGseOrCreateIfNotExists("LD1", "CB1", List.of(newP("APPID", "0002")), null, null);
+        // Then
+        TConnectedAP tConnectedAP = connectedAPAdapter.getCurrentElem();
+        assertThat(tConnectedAP.getGSE()).hasSize(1);
+        assertThat(tConnectedAP.getGSE().get(0).getAddress().getP()).extracting(TP::getValue).containsExactly("0002");
+        assertThat(sclRootAdapter.findCommunicationIndex().orElseThrow().findGse(tConnectedAP, "LD1", "CB1"))
+            .containsSame(tConnectedAP.getGSE().get(0));
+    }
+
+    @Test
+    void removeConnectedAPsOfIed_should_invalidate_index() {
+        // Given
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("hID", "hVersion", "hRevision");
+        CommunicationAdapter communicationAdapter = sclRootAdapter.getCommunicationAdapter(true);
+        communicationAdapter.getCurrentElem().getSubNetwork().add(newSubNetwork("SN1", newConnectedAp("IED1", "AP1")));
+        sclRootAdapter.invalidateCommunicationIndex();
+        assertThat(sclRootAdapter.findConnectedApAdapter("IED1", "AP1")).isPresent();
+        // When
+        communicationAdapter.removeConnectedAPsOfIed("IED1");
+        // Then
+        assertThat(sclRootAdapter.findConnectedApAdapter("IED1", "AP1")).isEmpty();
+        assertThat(communicationAdapter.getSubnetworkByName("SN1")).isEmpty();
+    }
+
+    private static TSubNetwork newSubNetwork(String name, TConnectedAP... tConnectedAPs) {
+        TSubNetwork tSubNetwork = new TSubNetwork();
+        tSubNetwork.setName(name);
+        tSubNetwork.getConnectedAP().addAll(List.of(tConnectedAPs));
+        return tSubNetwork;
+    }
+
+    private static TGSE newGse(String ldInst, String cbName) {
+        TGSE tgse = new TGSE();
+        tgse.setLdInst(ldInst);
+        tgse.setCbName(cbName);
+        return tgse;
+    }
+}
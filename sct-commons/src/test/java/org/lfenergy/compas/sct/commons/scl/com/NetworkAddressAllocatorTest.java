@@ -0,0 +1,151 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.com;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.*;
+import org.lfenergy.compas.sct.commons.dto.ControlBlockNetworkSettings.NetworkRanges;
+import org.lfenergy.compas.sct.commons.scl.com.NetworkAddressAllocator.AllocationOrError;
+import org.lfenergy.compas.sct.commons.scl.com.NetworkAddressAllocator.NetworkAddress;
+import org.lfenergy.compas.sct.commons.util.ControlBlockEnum;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.lfenergy.compas.sct.commons.util.SclConstructorHelper.*;
+
+class NetworkAddressAllocatorTest {
+
+    private static final NetworkRanges NETWORK_RANGES = new NetworkRanges(0x10, 0x13, "01-0C-CD-01-00-00", "01-0C-CD-01-00-03");
+
+    @Test
+    void allocate_when_no_communication_should_return_first_values_of_ranges() {
+        // Given
+        NetworkAddressAllocator networkAddressAllocator = new NetworkAddressAllocator(new SCL(), ControlBlockEnum.GSE, NETWORK_RANGES);
+        // When
+        AllocationOrError first = networkAddressAllocator.allocate("IED_NAME", "LD_INST", "CB1");
+        AllocationOrError second = networkAddressAllocator.allocate("IED_NAME", "LD_INST", "CB2");
+        // Then
+        assertThat(first.errorMessage()).isNull();
+        assertThat(first.networkAddress().appId()).isEqualTo(0x10);
+        assertThat(first.networkAddress().macAddressText()).isEqualTo("01-0C-CD-01-00-00");
+        assertThat(second.networkAddress().appId()).isEqualTo(0x11);
+        assertThat(second.networkAddress().macAddressText()).isEqualTo("01-0C-CD-01-00-01");
+        assertThat(networkAddressAllocator.remainingAppIds()).isEqualTo(2);
+        assertThat(networkAddressAllocator.remainingMacAddresses()).isEqualTo(2);
+    }
+
+    @Test
+    void allocate_should_skip_values_already_used_in_communication() {
+        // Given
+        SCL scd = newScdWithGse("IED_NAME", "LD_INST", "EXISTING_CB", "0010", "01-0C-CD-01-00-00");
+        NetworkAddressAllocator networkAddressAllocator = new NetworkAddressAllocator(scd, ControlBlockEnum.GSE, NETWORK_RANGES);
+        // When
+        AllocationOrError allocationOrError = networkAddressAllocator.allocate("IED_NAME", "LD_INST", "NEW_CB");
+        // Then
+        assertThat(allocationOrError.networkAddress()).isEqualTo(new NetworkAddress(0x11, 0x010CCD010001L));
+    }
+
+    @Test
+    void allocate_when_control_block_already_configured_should_return_same_values() {
+        // Given
+        SCL scd = newScdWithGse("IED_NAME", "LD_INST", "CB1", "0012", "01-0C-CD-01-00-02");
+        NetworkAddressAllocator networkAddressAllocator = new NetworkAddressAllocator(scd, ControlBlockEnum.GSE, NETWORK_RANGES);
+        // When
+        AllocationOrError newCb = networkAddressAllocator.allocate("IED_NAME", "LD_INST", "CB0");
+        AllocationOrError configuredCb = networkAddressAllocator.allocate("IED_NAME", "LD_INST", "CB1");
+        // Then
+        assertThat(newCb.networkAddress()).isEqualTo(new NetworkAddress(0x10, 0x010CCD010000L));
+        assertThat(configuredCb.networkAddress()).isEqualTo(new NetworkAddress(0x12, 0x010CCD010002L));
+    }
+
+    @Test
+    void allocate_should_ignore_existing_values_out_of_range_or_invalid() {
+        // Given
+        SCL scd = newScdWithGse("IED_NAME", "LD_INST", "CB1", "00FF", "not a mac address");
+        NetworkAddressAllocator networkAddressAllocator = new NetworkAddressAllocator(scd, ControlBlockEnum.GSE, NETWORK_RANGES);
+        // When
+        AllocationOrError allocationOrError = networkAddressAllocator.allocate("IED_NAME", "LD_INST", "CB1");
+        // Then
+        assertThat(allocationOrError.networkAddress()).isEqualTo(new NetworkAddress(0x10, 0x010CCD010000L));
+    }
+
+    @Test
+    void allocate_should_only_scan_elements_of_given_control_block_type() {
+        // Given
+        SCL scd = newScdWithGse("IED_NAME", "LD_INST", "CB1", "0010", "01-0C-CD-01-00-00");
+        NetworkAddressAllocator networkAddressAllocator = new NetworkAddressAllocator(scd, ControlBlockEnum.SAMPLED_VALUE, NETWORK_RANGES);
+        // When
+        AllocationOrError allocationOrError = networkAddressAllocator.allocate("IED_NAME", "LD_INST", "CB2");
+        // Then
+        assertThat(allocationOrError.networkAddress()).isEqualTo(new NetworkAddress(0x10, 0x010CCD010000L));
+    }
+
+    @Test
+    void allocate_when_appId_range_exhausted_should_return_error() {
+        // Given
+        NetworkRanges networkRanges = new NetworkRanges(0x10, 0x10, "01-0C-CD-01-00-00", "01-0C-CD-01-00-03");
+        NetworkAddressAllocator networkAddressAllocator = new NetworkAddressAllocator(new SCL(), ControlBlockEnum.GSE, networkRanges);
+        networkAddressAllocator.allocate("IED_NAME", "LD_INST", "CB1");
+        // When
+        AllocationOrError allocationOrError = networkAddressAllocator.allocate("IED_NAME", "LD_INST", "CB2");
+        // Then
+        assertThat(allocationOrError.networkAddress()).isNull();
+        assertThat(allocationOrError.errorMessage()).isEqualTo("range of appId is exhausted");
+        assertThat(networkAddressAllocator.remainingMacAddresses()).isEqualTo(3);
+    }
+
+    @Test
+    void allocate_when_mac_address_range_exhausted_should_return_error_and_keep_appId() {
+        // Given
+        NetworkRanges networkRanges = new NetworkRanges(0x10, 0x13, "01-0C-CD-01-00-00", "01-0C-CD-01-00-00");
+        NetworkAddressAllocator networkAddressAllocator = new NetworkAddressAllocator(new SCL(), ControlBlockEnum.GSE, networkRanges);
+        networkAddressAllocator.allocate("IED_NAME", "LD_INST", "CB1");
+        // When
+        AllocationOrError allocationOrError = networkAddressAllocator.allocate("IED_NAME", "LD_INST", "CB2");
+        // Then
+        assertThat(allocationOrError.networkAddress()).isNull();
+        assertThat(allocationOrError.errorMessage()).isEqualTo("range of MAC Address is exhausted");
+        assertThat(networkAddressAllocator.remainingAppIds()).isEqualTo(3);
+    }
+
+    @Test
+    void release_should_make_values_available_again() {
+        // Given
+        NetworkAddressAllocator networkAddressAllocator = new NetworkAddressAllocator(new SCL(), ControlBlockEnum.GSE, NETWORK_RANGES);
+        NetworkAddress networkAddress = networkAddressAllocator.allocate("IED_NAME", "LD_INST", "CB1").networkAddress();
+        // When
+        networkAddressAllocator.release(networkAddress);
+        // Then
+        assertThat(networkAddressAllocator.allocate("IED_NAME", "LD_INST", "CB2").networkAddress()).isEqualTo(networkAddress);
+    }
+
+    @Test
+    void constructor_when_control_block_type_is_report_should_throw_exception() {
+        // Given
+        SCL scd = new SCL();
+        // When & Then
+        assertThatThrownBy(() -> new NetworkAddressAllocator(scd, ControlBlockEnum.REPORT, NETWORK_RANGES))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static SCL newScdWithGse(String iedName, String ldInst, String cbName, String appId, String macAddress) {
+        TGSE tgse = new TGSE();
+        tgse.setLdInst(ldInst);
+        tgse.setCbName(cbName);
+        tgse.setAddress(newAddress(List.of(newP("APPID", appId), newP("MAC-Address", macAddress))));
+        TConnectedAP tConnectedAP = newConnectedAp(iedName, "AP_NAME");
+        tConnectedAP.getGSE().add(tgse);
+        TSubNetwork tSubNetwork = new TSubNetwork();
+        tSubNetwork.getConnectedAP().add(tConnectedAP);
+        TCommunication tCommunication = new TCommunication();
+        tCommunication.getSubNetwork().add(tSubNetwork);
+        SCL scd = new SCL();
+        scd.setCommunication(tCommunication);
+        return scd;
+    }
+
+}
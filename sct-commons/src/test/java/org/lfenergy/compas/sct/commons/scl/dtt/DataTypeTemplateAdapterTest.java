@@ -18,10 +18,12 @@ import org.lfenergy.compas.sct.commons.testhelpers.MarshallerWrapper;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 
 class DataTypeTemplateAdapterTest {
@@ -496,4 +498,305 @@ class DataTypeTemplateAdapterTest {
         assertThat(result).isEqualTo("DataTypeTemplates");
     }
 
+    @Test
+    void removeUnusedDataTypes_should_remove_only_types_not_reachable_from_LN() {
+        // Given
+        TDataTypeTemplates dtt = dataTypeTemplateAdapter.getCurrentElem();
+        TLDevice tlDevice = new TLDevice();
+        tlDevice.setLN0(new LN0());
+        tlDevice.getLN0().setLnType("LN0_TYPE");
+        TLN tln = new TLN();
+        tln.setLnType("LN_TYPE");
+        tlDevice.getLN().add(tln);
+        TAccessPoint tAccessPoint = new TAccessPoint();
+        tAccessPoint.setServer(new TServer());
+        tAccessPoint.getServer().getLDevice().add(tlDevice);
+        TIED tied = new TIED();
+        tied.getAccessPoint().add(tAccessPoint);
+        dataTypeTemplateAdapter.getParentAdapter().getCurrentElem().getIED().add(tied);
+
+        dtt.getLNodeType().addAll(List.of(newLNodeType("LN0_TYPE", "DO_1"), newLNodeType("LN_TYPE", "DO_1"), newLNodeType("UNUSED_LN_TYPE", "UNUSED_DO")));
+        TDOType do1 = newDOType("DO_1");
+        TSDO tsdo = new TSDO();
+        tsdo.setName("sdo");
+        tsdo.setType("DO_2");
+        do1.getSDOOrDA().addAll(List.of(tsdo, newDA(TPredefinedBasicTypeEnum.STRUCT, "DA_1"), newDA(TPredefinedBasicTypeEnum.ENUM, "ENUM_1")));
+        TDOType unusedDo = newDOType("UNUSED_DO");
+        unusedDo.getSDOOrDA().add(newDA(TPredefinedBasicTypeEnum.STRUCT, "UNUSED_DA"));
+        dtt.getDOType().addAll(List.of(do1, newDOType("DO_2"), unusedDo));
+        TDAType da1 = newDAType("DA_1");
+        da1.getBDA().addAll(List.of(newBDA(TPredefinedBasicTypeEnum.STRUCT, "DA_2"), newBDA(TPredefinedBasicTypeEnum.ENUM, "ENUM_2")));
+        dtt.getDAType().addAll(List.of(da1, newDAType("DA_2"), newDAType("UNUSED_DA")));
+        dtt.getEnumType().addAll(List.of(newEnumType("ENUM_1"), newEnumType("ENUM_2"), newEnumType("UNUSED_ENUM")));
+        // When
+        DataTypeTemplateAdapter.RemovedDataTypes result = dataTypeTemplateAdapter.removeUnusedDataTypes();
+        // Then
+        assertThat(result.lNodeTypeIds()).containsExactly("UNUSED_LN_TYPE");
+        assertThat(result.doTypeIds()).containsExactly("UNUSED_DO");
+        assertThat(result.daTypeIds()).containsExactly("UNUSED_DA");
+        assertThat(result.enumTypeIds()).containsExactly("UNUSED_ENUM");
+        assertThat(result.count()).isEqualTo(4);
+        assertThat(dtt.getLNodeType()).extracting(TLNodeType::getId).containsExactly("LN0_TYPE", "LN_TYPE");
+        assertThat(dtt.getDOType()).extracting(TDOType::getId).containsExactly("DO_1", "DO_2");
+        assertThat(dtt.getDAType()).extracting(TDAType::getId).containsExactly("DA_1", "DA_2");
+        assertThat(dtt.getEnumType()).extracting(TEnumType::getId).containsExactly("ENUM_1", "ENUM_2");
+    }
+
+    @Test
+    void removeUnusedDataTypes_should_keep_types_used_only_by_Substation_LNode() {
+        // Given
+        TDataTypeTemplates dtt = dataTypeTemplateAdapter.getCurrentElem();
+        TLNode bayLNode = new TLNode();
+        bayLNode.setLnType("BAY_LN_TYPE");
+        TLNode equipmentLNode = new TLNode();
+        equipmentLNode.setLnType("EQUIPMENT_LN_TYPE");
+        TLNode subFunctionLNode = new TLNode();
+        subFunctionLNode.setLnType("SUB_FUNCTION_LN_TYPE");
+        TConductingEquipment tConductingEquipment = new TConductingEquipment();
+        tConductingEquipment.getLNode().add(equipmentLNode);
+        TSubFunction tSubFunction = new TSubFunction();
+        tSubFunction.getLNode().add(subFunctionLNode);
+        TFunction tFunction = new TFunction();
+        tFunction.getSubFunction().add(tSubFunction);
+        TBay tBay = new TBay();
+        tBay.getLNode().add(bayLNode);
+        tBay.getConductingEquipment().add(tConductingEquipment);
+        tBay.getFunction().add(tFunction);
+        TVoltageLevel tVoltageLevel = new TVoltageLevel();
+        tVoltageLevel.getBay().add(tBay);
+        TSubstation tSubstation = new TSubstation();
+        tSubstation.getVoltageLevel().add(tVoltageLevel);
+        dataTypeTemplateAdapter.getParentAdapter().getCurrentElem().getSubstation().add(tSubstation);
+
+        dtt.getLNodeType().addAll(List.of(newLNodeType("BAY_LN_TYPE", "DO_1"), newLNodeType("EQUIPMENT_LN_TYPE", "DO_1"),
+                newLNodeType("SUB_FUNCTION_LN_TYPE", "DO_2"), newLNodeType("UNUSED_LN_TYPE", "UNUSED_DO")));
+        dtt.getDOType().addAll(List.of(newDOType("DO_1"), newDOType("DO_2"), newDOType("UNUSED_DO")));
+        // When
+        DataTypeTemplateAdapter.RemovedDataTypes result = dataTypeTemplateAdapter.removeUnusedDataTypes();
+        // Then
+        assertThat(result.lNodeTypeIds()).containsExactly("UNUSED_LN_TYPE");
+        assertThat(result.doTypeIds()).containsExactly("UNUSED_DO");
+        assertThat(dtt.getLNodeType()).extracting(TLNodeType::getId)
+                .containsExactly("BAY_LN_TYPE", "EQUIPMENT_LN_TYPE", "SUB_FUNCTION_LN_TYPE");
+        assertThat(dtt.getDOType()).extracting(TDOType::getId).containsExactly("DO_1", "DO_2");
+    }
+
+    @Test
+    void removeUnusedDataTypes_when_no_IED_should_remove_all_types() throws Exception {
+        // Given
+        DataTypeTemplateAdapter dttAdapter = AbstractDTTLevel.initDttAdapterFromFile(AbstractDTTLevel.SCD_DTT_DIFF_CONTENT_SAME_ID);
+        dttAdapter.getParentAdapter().getCurrentElem().getIED().clear();
+        int nbTypes = dttAdapter.getLNodeTypeAdapters().size() + dttAdapter.getDOTypeAdapters().size()
+                + dttAdapter.getDATypeAdapters().size() + dttAdapter.getEnumTypeAdapters().size();
+        // When
+        DataTypeTemplateAdapter.RemovedDataTypes result = dttAdapter.removeUnusedDataTypes();
+        // Then
+        assertThat(result.count()).isEqualTo(nbTypes);
+        assertThat(dttAdapter.getLNodeTypeAdapters()).isEmpty();
+        assertThat(dttAdapter.getDOTypeAdapters()).isEmpty();
+        assertThat(dttAdapter.getDATypeAdapters()).isEmpty();
+        assertThat(dttAdapter.getEnumTypeAdapters()).isEmpty();
+    }
+
+    @Test
+    void mergeIdenticalDataTypes_should_merge_identical_types_bottom_up_and_update_references() {
+        // Given
+        TDataTypeTemplates dtt = dataTypeTemplateAdapter.getCurrentElem();
+        TLN lnA = new TLN();
+        lnA.setLnType("LN_A");
+        TLN lnB = new TLN();
+        lnB.setLnType("LN_B");
+        TLDevice tlDevice = new TLDevice();
+        tlDevice.getLN().addAll(List.of(lnA, lnB));
+        TAccessPoint tAccessPoint = new TAccessPoint();
+        tAccessPoint.setServer(new TServer());
+        tAccessPoint.getServer().getLDevice().add(tlDevice);
+        TIED tied = new TIED();
+        tied.getAccessPoint().add(tAccessPoint);
+        dataTypeTemplateAdapter.getParentAdapter().getCurrentElem().getIED().add(tied);
+
+        dtt.getLNodeType().addAll(List.of(newLNodeType("LN_A", "DO_A"), newLNodeType("LN_B", "DO_B"), newLNodeType("LN_C", "DO_C")));
+        TDOType doA = newDOType("DO_A");
+        doA.setCdc(TPredefinedCDCEnum.SPS);
+        doA.getSDOOrDA().addAll(List.of(newDA(TPredefinedBasicTypeEnum.STRUCT, "DA_A"), newDA(TPredefinedBasicTypeEnum.ENUM, "ENUM_A")));
+        TDOType doB = newDOType("DO_B");
+        doB.setCdc(TPredefinedCDCEnum.SPS);
+        TDA daOfDoB = newDA(TPredefinedBasicTypeEnum.STRUCT, "DA_B");
+        daOfDoB.setName("daDA_A");
+        TDA enumOfDoB = newDA(TPredefinedBasicTypeEnum.ENUM, "ENUM_B");
+        enumOfDoB.setName("daENUM_A");
+        doB.getSDOOrDA().addAll(List.of(daOfDoB, enumOfDoB));
+        TDOType doC = newDOType("DO_C");
+        doC.setCdc(TPredefinedCDCEnum.DPS);
+        dtt.getDOType().addAll(List.of(doA, doB, doC));
+        dtt.getDAType().addAll(List.of(newDAType("DA_A"), newDAType("DA_B")));
+        TEnumType enumA = newEnumType("ENUM_A");
+        enumA.getEnumVal().add(newEnumVal(1, "on"));
+        TEnumType enumB = newEnumType("ENUM_B");
+        enumB.getEnumVal().add(newEnumVal(1, "on"));
+        dtt.getEnumType().addAll(List.of(enumA, enumB));
+        // When
+        DataTypeTemplateAdapter.MergedDataTypes result = dataTypeTemplateAdapter.mergeIdenticalDataTypes();
+        // Then
+        assertThat(result.enumTypeIds()).containsExactlyEntriesOf(Map.of("ENUM_B", "ENUM_A"));
+        assertThat(result.daTypeIds()).containsExactlyEntriesOf(Map.of("DA_B", "DA_A"));
+        assertThat(result.doTypeIds()).containsExactlyEntriesOf(Map.of("DO_B", "DO_A"));
+        assertThat(result.lNodeTypeIds()).containsExactlyEntriesOf(Map.of("LN_B", "LN_A"));
+        assertThat(result.count()).isEqualTo(4);
+        assertThat(dtt.getLNodeType()).extracting(TLNodeType::getId).containsExactly("LN_A", "LN_C");
+        assertThat(dtt.getDOType()).extracting(TDOType::getId).containsExactly("DO_A", "DO_C");
+        assertThat(dtt.getDAType()).extracting(TDAType::getId).containsExactly("DA_A");
+        assertThat(dtt.getEnumType()).extracting(TEnumType::getId).containsExactly("ENUM_A");
+        assertThat(lnB.getLnType()).isEqualTo("LN_A");
+    }
+
+    @Test
+    void mergeIdenticalDataTypes_when_types_differ_should_not_merge() {
+        // Given
+        TDataTypeTemplates dtt = dataTypeTemplateAdapter.getCurrentElem();
+        TEnumType enumA = newEnumType("ENUM_A");
+        enumA.getEnumVal().add(newEnumVal(1, "on"));
+        TEnumType enumB = newEnumType("ENUM_B");
+        enumB.getEnumVal().add(newEnumVal(2, "on"));
+        dtt.getEnumType().addAll(List.of(enumA, enumB));
+        dtt.getDOType().addAll(List.of(newDOType("DO_A"), newDOType("DO_B")));
+        dtt.getDOType().get(0).getSDOOrDA().add(newDA(TPredefinedBasicTypeEnum.ENUM, "ENUM_A"));
+        TDA tda = newDA(TPredefinedBasicTypeEnum.ENUM, "ENUM_B");
+        tda.setName("daENUM_A");
+        dtt.getDOType().get(1).getSDOOrDA().add(tda);
+        // When
+        DataTypeTemplateAdapter.MergedDataTypes result = dataTypeTemplateAdapter.mergeIdenticalDataTypes();
+        // Then
+        assertThat(result.count()).isZero();
+        assertThat(dtt.getEnumType()).hasSize(2);
+        assertThat(dtt.getDOType()).hasSize(2);
+    }
+
+    @Test
+    void mergeIdenticalDataTypes_when_Private_content_differ_should_not_merge() {
+        // Given
+        TDataTypeTemplates dtt = dataTypeTemplateAdapter.getCurrentElem();
+        TEnumType enumA = newEnumType("ENUM_A");
+        enumA.getPrivate().add(newPrivate("COMPAS-Test", "content A"));
+        TEnumType enumB = newEnumType("ENUM_B");
+        enumB.getPrivate().add(newPrivate("COMPAS-Test", "content B"));
+        TEnumType enumC = newEnumType("ENUM_C");
+        enumC.getPrivate().add(newPrivate("COMPAS-Test", "content A"));
+        dtt.getEnumType().addAll(List.of(enumA, enumB, enumC));
+        // When
+        DataTypeTemplateAdapter.MergedDataTypes result = dataTypeTemplateAdapter.mergeIdenticalDataTypes();
+        // Then
+        assertThat(result.enumTypeIds()).containsExactlyEntriesOf(Map.of("ENUM_C", "ENUM_A"));
+        assertThat(dtt.getEnumType()).extracting(TEnumType::getId).containsExactly("ENUM_A", "ENUM_B");
+    }
+
+    @Test
+    void mergeIdenticalDataTypes_when_DAType_iedType_differ_should_not_merge() {
+        // Given
+        TDataTypeTemplates dtt = dataTypeTemplateAdapter.getCurrentElem();
+        TDAType daA = newDAType("DA_A");
+        daA.setIedType("IED_TYPE_A");
+        TDAType daB = newDAType("DA_B");
+        daB.setIedType("IED_TYPE_B");
+        TDAType daC = newDAType("DA_C");
+        daC.setIedType("IED_TYPE_A");
+        dtt.getDAType().addAll(List.of(daA, daB, daC));
+        // When
+        DataTypeTemplateAdapter.MergedDataTypes result = dataTypeTemplateAdapter.mergeIdenticalDataTypes();
+        // Then
+        assertThat(result.daTypeIds()).containsExactlyEntriesOf(Map.of("DA_C", "DA_A"));
+        assertThat(dtt.getDAType()).extracting(TDAType::getId, TDAType::getIedType)
+            .containsExactly(tuple("DA_A", "IED_TYPE_A"), tuple("DA_B", "IED_TYPE_B"));
+    }
+
+    @Test
+    void mergeIdenticalDataTypes_should_update_LNode_anywhere_in_Substation() {
+        // Given
+        TDataTypeTemplates dtt = dataTypeTemplateAdapter.getCurrentElem();
+        dtt.getLNodeType().addAll(List.of(newLNodeType("LN_A", "DO_A"), newLNodeType("LN_B", "DO_A")));
+        dtt.getDOType().add(newDOType("DO_A"));
+        TLNode equipmentLNode = new TLNode();
+        equipmentLNode.setLnType("LN_B");
+        TLNode subFunctionLNode = new TLNode();
+        subFunctionLNode.setLnType("LN_B");
+        TConductingEquipment tConductingEquipment = new TConductingEquipment();
+        tConductingEquipment.getLNode().add(equipmentLNode);
+        TSubFunction tSubFunction = new TSubFunction();
+        tSubFunction.getLNode().add(subFunctionLNode);
+        TFunction tFunction = new TFunction();
+        tFunction.getSubFunction().add(tSubFunction);
+        TBay tBay = new TBay();
+        tBay.getConductingEquipment().add(tConductingEquipment);
+        tBay.getFunction().add(tFunction);
+        TVoltageLevel tVoltageLevel = new TVoltageLevel();
+        tVoltageLevel.getBay().add(tBay);
+        TSubstation tSubstation = new TSubstation();
+        tSubstation.getVoltageLevel().add(tVoltageLevel);
+        dataTypeTemplateAdapter.getParentAdapter().getCurrentElem().getSubstation().add(tSubstation);
+        // When
+        DataTypeTemplateAdapter.MergedDataTypes result = dataTypeTemplateAdapter.mergeIdenticalDataTypes();
+        // Then
+        assertThat(result.lNodeTypeIds()).containsExactlyEntriesOf(Map.of("LN_B", "LN_A"));
+        assertThat(equipmentLNode.getLnType()).isEqualTo("LN_A");
+        assertThat(subFunctionLNode.getLnType()).isEqualTo("LN_A");
+    }
+
+    private static TPrivate newPrivate(String type, String content) {
+        TPrivate tPrivate = new TPrivate();
+        tPrivate.setType(type);
+        tPrivate.getContent().add(content);
+        return tPrivate;
+    }
+
+    private static TEnumVal newEnumVal(int ord, String value) {
+        TEnumVal tEnumVal = new TEnumVal();
+        tEnumVal.setOrd(ord);
+        tEnumVal.setValue(value);
+        return tEnumVal;
+    }
+
+    private static TLNodeType newLNodeType(String id, String doType) {
+        TLNodeType tlNodeType = new TLNodeType();
+        tlNodeType.setId(id);
+        TDO tdo = new TDO();
+        tdo.setName("Do");
+        tdo.setType(doType);
+        tlNodeType.getDO().add(tdo);
+        return tlNodeType;
+    }
+
+    private static TDOType newDOType(String id) {
+        TDOType tdoType = new TDOType();
+        tdoType.setId(id);
+        return tdoType;
+    }
+
+    private static TDA newDA(TPredefinedBasicTypeEnum bType, String type) {
+        TDA tda = new TDA();
+        tda.setName("da" + type);
+        tda.setBType(bType);
+        tda.setType(type);
+        return tda;
+    }
+
+    private static TDAType newDAType(String id) {
+        TDAType tdaType = new TDAType();
+        tdaType.setId(id);
+        return tdaType;
+    }
+
+    private static TBDA newBDA(TPredefinedBasicTypeEnum bType, String type) {
+        TBDA tbda = new TBDA();
+        tbda.setName("bda" + type);
+        tbda.setBType(bType);
+        tbda.setType(type);
+        return tbda;
+    }
+
+    private static TEnumType newEnumType(String id) {
+        TEnumType tEnumType = new TEnumType();
+        tEnumType.setId(id);
+        return tEnumType;
+    }
+
 }
@@ -0,0 +1,119 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.ied;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TFCEnum;
+import org.lfenergy.compas.scl2007b4.model.TServiceType;
+import org.lfenergy.compas.sct.commons.dto.ControlBlock;
+import org.lfenergy.compas.sct.commons.dto.ExtRefBindingInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefSignalInfo;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ControlBlockIndexTest {
+
+    @Test
+    void findControlBlocks_should_return_same_control_blocks_as_LN_scan() {
+        // Given
+        LDeviceAdapter lDeviceAdapter = findSourceLDevice(new SclRootAdapter(getScd()));
+        List<ExtRefInfo> extRefInfos = List.of(
+            createExtRefInfo("CSWI", "1", "Do21.sdo21", "da21.bda211.bda212.bda213", null),
+            createExtRefInfo("CSWI", "1", "Do21.sdo21", null, null),
+            createExtRefInfo("LLN0", "1", "Do21.sdo21", null, TServiceType.SMV),
+            createExtRefInfo("LLN0", "1", "Do21.sdo21", null, TServiceType.GOOSE),
+            createExtRefInfo(null, null, null, null, null),
+            createExtRefInfo("CSWI", "2", "Do21.sdo21", null, null));
+        ControlBlockIndex controlBlockIndex = new ControlBlockIndex(lDeviceAdapter);
+        for (ExtRefInfo extRefInfo : extRefInfos) {
+            List<String> expected = lDeviceAdapter.getLNAdaptersIncludingLN0().stream()
+                .map(lnAdapter -> lnAdapter.getControlBlocksForMatchingFCDA(extRefInfo))
+                .flatMap(Collection::stream)
+                .map(ControlBlock::getName)
+                .toList();
+            // When
+            List<ControlBlock> result = controlBlockIndex.findControlBlocks(extRefInfo);
+            // Then
+            assertThat(result).extracting(ControlBlock::getName).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void findControlBlocks_should_set_LN_metadata() {
+        // Given
+        LDeviceAdapter lDeviceAdapter = findSourceLDevice(new SclRootAdapter(getScd()));
+        ExtRefInfo extRefInfo = createExtRefInfo("CSWI", "1", "Do21.sdo21", "da21.bda211.bda212.bda213", null);
+        // When
+        List<ControlBlock> result = lDeviceAdapter.getControlBlocksForMatchingFCDA(extRefInfo);
+        // Then
+        assertThat(result).extracting(ControlBlock::getName).containsExactly("goose2");
+        assertThat(result.get(0).getHolderIEDName()).isEqualTo("IED_NAME1");
+        assertThat(result.get(0).getHolderLDInst()).isEqualTo("LD_INST12");
+        assertThat(result.get(0).getHolderLnClass()).isEqualTo("LLN0");
+    }
+
+    @Test
+    void createFCDAIfNotExists_should_register_FCDA_in_built_index() {
+        // Given
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(getScd());
+        LDeviceAdapter lDeviceAdapter = findSourceLDevice(sclRootAdapter);
+        ControlBlockIndex controlBlockIndex = sclRootAdapter.getControlBlockIndex(lDeviceAdapter);
+        ExtRefInfo extRefInfo = createExtRefInfo("PTRC", "1", "Str", "general", null);
+        assertThat(controlBlockIndex.findControlBlocks(extRefInfo)).isEmpty();
+        LN0Adapter ln0Adapter = lDeviceAdapter.getLN0Adapter();
+        DataSetAdapter dataSetAdapter = ln0Adapter.findDataSetByName("dataset121").orElseThrow();
+        // When
+        dataSetAdapter.createFCDAIfNotExists("LD_INST12", null, "PTRC", "1", "Str", "general", TFCEnum.ST);
+        // Then
+        assertThat(sclRootAdapter.getControlBlockIndex(lDeviceAdapter)).isSameAs(controlBlockIndex);
+        assertThat(controlBlockIndex.findControlBlocks(extRefInfo)).extracting(ControlBlock::getName).containsExactly("goose1", "smv1");
+    }
+
+    @Test
+    void removeAllControlBlocksAndDatasets_should_drop_index() {
+        // Given
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(getScd());
+        LDeviceAdapter lDeviceAdapter = findSourceLDevice(sclRootAdapter);
+        sclRootAdapter.getControlBlockIndex(lDeviceAdapter);
+        assertThat(sclRootAdapter.findControlBlockIndex(lDeviceAdapter.getCurrentElem())).isPresent();
+        // When
+        lDeviceAdapter.getLN0Adapter().removeAllControlBlocksAndDatasets();
+        // Then
+        assertThat(sclRootAdapter.findControlBlockIndex(lDeviceAdapter.getCurrentElem())).isEmpty();
+        ExtRefInfo extRefInfo = createExtRefInfo("CSWI", "1", "Do21.sdo21", "da21.bda211.bda212.bda213", null);
+        assertThat(lDeviceAdapter.getControlBlocksForMatchingFCDA(extRefInfo)).isEmpty();
+    }
+
+    private static SCL getScd() {
+        return SclTestMarshaller.getSCLFromFile("/scl-srv-scd-extref-cb/issue_175_scd_get_cbs_test.xml");
+    }
+
+    private static LDeviceAdapter findSourceLDevice(SclRootAdapter sclRootAdapter) {
+        return sclRootAdapter.getIEDAdapterByName("IED_NAME1").findLDeviceAdapterByLdInst("LD_INST12").orElseThrow();
+    }
+
+    private static ExtRefInfo createExtRefInfo(String lnClass, String lnInst, String pDO, String pDA, TServiceType serviceType) {
+        ExtRefSignalInfo signalInfo = new ExtRefSignalInfo();
+        signalInfo.setPDO(pDO);
+        signalInfo.setPDA(pDA);
+        ExtRefBindingInfo bindingInfo = new ExtRefBindingInfo();
+        bindingInfo.setIedName("IED_NAME1");
+        bindingInfo.setLdInst(lnClass == null ? null : "LD_INST12");
+        bindingInfo.setLnClass(lnClass);
+        bindingInfo.setLnInst(lnInst);
+        bindingInfo.setServiceType(serviceType);
+        ExtRefInfo extRefInfo = new ExtRefInfo();
+        extRefInfo.setSignalInfo(signalInfo);
+        extRefInfo.setBindingInfo(bindingInfo);
+        return extRefInfo;
+    }
+}
@@ -7,11 +7,14 @@ package org.lfenergy.compas.sct.commons.scl.ied;
 import org.junit.jupiter.api.Test;
 import org.lfenergy.compas.scl2007b4.model.*;
 import org.lfenergy.compas.sct.commons.dto.DaTypeName;
+import org.lfenergy.compas.sct.commons.dto.DataAttributeRef;
 import org.lfenergy.compas.sct.commons.dto.DoTypeName;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
 import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
 
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class DAITrackerTest {
@@ -112,6 +115,38 @@ class DAITrackerTest {
         assertEquals(DAITracker.MatchResult.FULL_MATCH,matchResult);
     }
 
+    @Test
+    void search_should_find_DOI_SDI_DAI_chain_created_by_same_LN_adapter() {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/ied_unit_test.xml");
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        IEDAdapter iAdapter = sclRootAdapter.getIEDAdapterByName("IED_NAME");
+        LDeviceAdapter lDeviceAdapter = iAdapter.findLDeviceAdapterByLdInst("LD_INS2").orElseThrow();
+        AbstractLNAdapter<?> lnAdapter = AbstractLNAdapter.builder()
+                .withLDeviceAdapter(lDeviceAdapter)
+                .withLnClass(TLLN0Enum.LLN_0.value())
+                .build();
+        DoTypeName doTypeName = new DoTypeName("Do.sdo1.d");
+        DaTypeName daTypeName = new DaTypeName("antRef.bda1.bda2.bda3");
+        assertEquals(DAITracker.MatchResult.FAILED, new DAITracker(lnAdapter, doTypeName, daTypeName).search());
+        daTypeName.setFc(TFCEnum.CF);
+        daTypeName.setValImport(true);
+        daTypeName.setDaiValues(Map.of(0L, "newValue"));
+        DataAttributeRef dataAttributeRef = new DataAttributeRef();
+        dataAttributeRef.setDoName(doTypeName);
+        dataAttributeRef.setDaName(daTypeName);
+
+        lnAdapter.updateDAI(dataAttributeRef);
+
+        DAITracker daiTracker = new DAITracker(lnAdapter, doTypeName, daTypeName);
+        assertEquals(DAITracker.MatchResult.FULL_MATCH, daiTracker.search());
+        assertEquals(1, daiTracker.getIndexDoType());
+        assertEquals(2, daiTracker.getIndexDaType());
+        AbstractDAIAdapter<?> daiAdapter = (AbstractDAIAdapter<?>) daiTracker.getBdaiOrDaiAdapter();
+        assertEquals("bda3", daiAdapter.getCurrentElem().getName());
+        assertEquals("newValue", daiAdapter.getCurrentElem().getVal().get(0).getValue());
+        assertEquals(1, lnAdapter.getCurrentElem().getDOI().stream().filter(tdoi -> tdoi.getName().equals("Do")).count());
+    }
+
     @Test
     void testMatchResult(){
         DAITracker.MatchResult matchResult = DAITracker.MatchResult.FAILED;
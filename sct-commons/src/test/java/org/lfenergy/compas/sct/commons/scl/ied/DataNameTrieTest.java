@@ -0,0 +1,68 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.ied;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.TDAI;
+import org.lfenergy.compas.scl2007b4.model.TDOI;
+import org.lfenergy.compas.scl2007b4.model.TSDI;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataNameTrieTest {
+
+    @Test
+    void findDoi_should_not_index_children_of_other_DOI() {
+        // Given
+        TDOI lookedUpDoi = newDoi("Do1");
+        TDOI otherDoi = newDoi("Do2");
+        lookedUpDoi.getSDIOrDAI().add(newDai("da1"));
+        DataNameTrie dataNameTrie = new DataNameTrie(new ArrayList<>(List.of(lookedUpDoi, otherDoi)));
+        assertThat(dataNameTrie.findDoi("Do1").flatMap(node -> node.findDai("da1"))).isPresent();
+        // DAI added without the trie: only visible when Do2 was not indexed by the lookup of Do1
+        TDAI daiAddedAfterLookup = newDai("da2");
+        otherDoi.getSDIOrDAI().add(daiAddedAfterLookup);
+
+        // When
+        var foundDai = dataNameTrie.findDoi("Do2").flatMap(node -> node.findDai("da2"));
+
+        // Then
+        assertThat(foundDai).containsSame(daiAddedAfterLookup);
+    }
+
+    @Test
+    void findSdi_should_not_index_children_of_found_SDI() {
+        // Given
+        TDOI tdoi = newDoi("Do1");
+        TSDI tsdi = new TSDI();
+        tsdi.setName("sdi1");
+        tdoi.getSDIOrDAI().add(tsdi);
+        DataNameTrie dataNameTrie = new DataNameTrie(new ArrayList<>(List.of(tdoi)));
+        DataNameTrie.Node sdiNode = dataNameTrie.findDoi("Do1").flatMap(node -> node.findSdi("sdi1")).orElseThrow();
+        TDAI daiAddedAfterLookup = newDai("da1");
+        tsdi.getSDIOrDAI().add(daiAddedAfterLookup);
+
+        // When
+        var foundDai = sdiNode.findDai("da1");
+
+        // Then
+        assertThat(foundDai).containsSame(daiAddedAfterLookup);
+    }
+
+    private static TDOI newDoi(String name) {
+        TDOI tdoi = new TDOI();
+        tdoi.setName(name);
+        return tdoi;
+    }
+
+    private static TDAI newDai(String name) {
+        TDAI tdai = new TDAI();
+        tdai.setName(name);
+        return tdai;
+    }
+}
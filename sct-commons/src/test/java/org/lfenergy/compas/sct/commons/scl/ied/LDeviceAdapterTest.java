@@ -117,6 +117,19 @@ class LDeviceAdapterTest {
         assertEquals(2,extRefInfoList.size());
     }
 
+    @Test
+    void getExtRefInfo_should_return_one_item_per_ExtRef_in_document_order() {
+        // Given
+        LDeviceAdapter lDeviceAdapter = assertDoesNotThrow(()-> iAdapter.getLDeviceAdapterByLdInst("LD_INS2"));
+        List<TExtRef> ln0ExtRefs = lDeviceAdapter.getLN0Adapter().getCurrentElem().getInputs().getExtRef();
+        ln0ExtRefs.add(copySclElement(ln0ExtRefs.get(0), TExtRef.class));
+        // When
+        List<ExtRefInfo> extRefInfoList = lDeviceAdapter.getExtRefInfo();
+        // Then
+        assertThat(extRefInfoList).extracting(extRefInfo -> extRefInfo.getSignalInfo().getIntAddr())
+                .containsExactly("INT_ADDR1", "INT_ADDR1", "INT_ADDR2");
+    }
+
     @Test
     void TestGetDAI() {
         LDeviceAdapter lDeviceAdapter = assertDoesNotThrow(()-> iAdapter.getLDeviceAdapterByLdInst("LD_INS1"));
@@ -638,6 +638,26 @@ class LNAdapterTest {
         MarshallerWrapper.assertValidateXmlSchema(scd);
     }
 
+    @Test
+    void updateDAI_when_DAI_added_by_DOI_adapter_after_first_lookup_should_update_added_DAI() {
+        // Given
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/ied_unit_test.xml");
+        AbstractLNAdapter<?> lnAdapter = findLn0(new SclRootAdapter(scd), "IED_NAME", "LD_INS1");
+        DOIAdapter doiAdapter = lnAdapter.getDOIAdapterByName(DATA_ATTRIBUTE_REF_DO_DA2.getDoRef());
+        doiAdapter.getSDIOrDAI().clear();
+        lnAdapter.getDataNameTrie();
+        doiAdapter.addDAI(DATA_ATTRIBUTE_REF_DO_DA2.getDaName().getName(), true);
+
+        // When
+        lnAdapter.updateDAI(DATA_ATTRIBUTE_REF_DO_DA2);
+
+        // Then
+        assertThat(doiAdapter.getSDIOrDAI()).hasSize(1);
+        TDAI dai = findDai(lnAdapter, DATA_ATTRIBUTE_REF_DO_DA2.getDataAttributes()).getCurrentElem();
+        assertThat(dai).isSameAs(doiAdapter.getSDIOrDAI().get(0));
+        assertThat(getValue(dai)).isEqualTo(NEW_VALUE);
+    }
+
     @Test
     void updateDAI_when_already_instantiated_should_do_nothing() {
         // Given
@@ -0,0 +1,128 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.util;
+
+import com.opencsv.bean.CsvBindByPosition;
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.TCompasFlowKind;
+import org.lfenergy.compas.sct.commons.dto.LDEPFSettingData;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRowMapperTest {
+
+    @Test
+    void map_should_convert_values() {
+        // Given
+        CsvRowMapper<TypedRow> csvRowMapper = CsvRowMapper.of(TypedRow.class);
+        // When
+        TypedRow result = csvRowMapper.map(new String[]{" 12 ", "bay_internal", "yes", "123456789012345678901234567890", "inherited"}, 1);
+        // Then
+        assertThat(result.getCount()).isEqualTo(12);
+        assertThat(result.getFlowKind()).isEqualTo(TCompasFlowKind.BAY_INTERNAL);
+        assertThat(result.isEnabled()).isTrue();
+        assertThat(result.getBigNumber()).isEqualTo(new BigInteger("123456789012345678901234567890"));
+        assertThat(result.getInherited()).isEqualTo("inherited");
+    }
+
+    @Test
+    void map_when_values_blank_or_missing_should_keep_default_values() {
+        // Given
+        CsvRowMapper<TypedRow> csvRowMapper = CsvRowMapper.of(TypedRow.class);
+        // When
+        TypedRow result = csvRowMapper.map(new String[]{"  ", null}, 1);
+        // Then
+        assertThat(result.getCount()).isZero();
+        assertThat(result.getFlowKind()).isNull();
+        assertThat(result.isEnabled()).isFalse();
+        assertThat(result.getBigNumber()).isNull();
+        assertThat(result.getInherited()).isNull();
+    }
+
+    @Test
+    void map_should_map_ldepf_settings() {
+        // Given
+        String[] line = "BAY_INTERNAL;BCU;None;1;MR.PX1;X;Other;Positive or Rising;8;N/A;LDPX;;PTRC;0;Str;0;;general;;BOOLEAN;;;;1;P0"
+            .split(";", -1);
+        // When
+        LDEPFSettingData result = CsvRowMapper.of(LDEPFSettingData.class).map(line, 1);
+        // Then
+        assertThat(result.getBayScope()).isEqualTo(TCompasFlowKind.BAY_INTERNAL);
+        assertThat(result.getIedInstance()).isEqualTo(BigInteger.ONE);
+        assertThat(result.getChannelShortLabel()).isEqualTo("MR.PX1");
+        assertThat(result.getChannelAnalogNum()).isNull();
+        assertThat(result.getChannelDigitalNum()).isEqualTo(1);
+        assertThat(result.getOpt()).isEqualTo("P0");
+    }
+
+    @Test
+    void map_when_required_value_missing_should_throw_exception() {
+        // Given
+        CsvRowMapper<RequiredRow> csvRowMapper = CsvRowMapper.of(RequiredRow.class);
+        String[] line = {null};
+        // When Then
+        assertThatThrownBy(() -> csvRowMapper.map(line, 7))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Missing value of required column 0 at line 7");
+    }
+
+    @Test
+    void map_when_enum_constant_unknown_should_throw_exception() {
+        // Given
+        CsvRowMapper<TypedRow> csvRowMapper = CsvRowMapper.of(TypedRow.class);
+        String[] line = {"1", "UNKNOWN"};
+        // When Then
+        assertThatThrownBy(() -> csvRowMapper.map(line, 3))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Cannot convert value 'UNKNOWN' of column 1 at line 3 to TCompasFlowKind: unknown constant");
+    }
+
+    @Test
+    void of_should_return_same_mapper_for_same_class() {
+        // When Then
+        assertThat(CsvRowMapper.of(TypedRow.class)).isSameAs(CsvRowMapper.of(TypedRow.class));
+    }
+
+    @Test
+    void of_when_field_type_not_supported_should_throw_exception() {
+        // When Then
+        assertThatThrownBy(() -> CsvRowMapper.of(UnsupportedRow.class))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("type java.time.LocalDate of field date is not supported");
+    }
+
+    @Getter
+    public static class ParentRow {
+        @CsvBindByPosition(position = 4)
+        private String inherited;
+    }
+
+    @Getter
+    public static class TypedRow extends ParentRow {
+        @CsvBindByPosition(position = 0)
+        private int count;
+        @CsvBindByPosition(position = 1)
+        private TCompasFlowKind flowKind;
+        @CsvBindByPosition(position = 2)
+        private boolean enabled;
+        @CsvBindByPosition(position = 3)
+        private BigInteger bigNumber;
+    }
+
+    public static class RequiredRow {
+        @CsvBindByPosition(position = 0, required = true)
+        private String value;
+    }
+
+    public static class UnsupportedRow {
+        @CsvBindByPosition(position = 0)
+        private LocalDate date;
+    }
+}
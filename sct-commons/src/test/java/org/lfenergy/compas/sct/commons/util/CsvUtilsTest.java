@@ -8,12 +8,17 @@ import com.opencsv.bean.CsvBindByPosition;
 import lombok.*;
 import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.TFCEnum;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class CsvUtilsTest {
 
@@ -107,6 +112,57 @@ class CsvUtilsTest {
             );
     }
 
+    @Test
+    void parseRows_should_parse_quoted_values() {
+        //Given
+        StringReader csvReader = new StringReader("""
+            "cel1;x1";cel1x2;"cel1 ""x3\""
+            """);
+        //When
+        List<Row> rows = CsvUtils.parseRows(csvReader, Row.class);
+        //Then
+        assertThat(rows).extracting(Row::getCol1, Row::getCol2, Row::getCol3)
+            .containsExactly(Tuple.tuple("cel1;x1", "cel1x2", "cel1 \"x3\""));
+    }
+
+    @Test
+    void streamRows_should_read_rows_lazily_and_close_reader() {
+        //Given
+        CloseTrackingReader csvReader = new CloseTrackingReader("""
+            # comment
+            cel1x1;cel1x2;cel1x3
+            cel2x1;cel2x2;cel2x3
+            cel3x1;cel3x2;cel3x3
+            """);
+        //When
+        List<Row> rows;
+        try (Stream<Row> rowStream = CsvUtils.streamRows(csvReader, Row.class)) {
+            rows = rowStream.limit(2).toList();
+            //Then
+            assertThat(csvReader.closed).isFalse();
+        }
+        assertThat(rows).extracting(Row::getCol1, Row::getCol2, Row::getCol3)
+            .containsExactly(
+                ROW_1,
+                ROW_2
+            );
+        assertThat(csvReader.closed).isTrue();
+    }
+
+    @Test
+    void parseRows_when_value_cannot_be_converted_should_throw_exception() {
+        //Given
+        StringReader csvReader = new StringReader("""
+            # comment
+            1;ST
+            two;MX
+            """);
+        //When Then
+        assertThatThrownBy(() -> CsvUtils.parseRows(csvReader, TypedRow.class))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageStartingWith("Cannot convert value 'two' of column 0 at line 3 to Integer");
+    }
+
     @NoArgsConstructor
     @AllArgsConstructor
     @Getter
@@ -121,4 +177,26 @@ class CsvUtilsTest {
         private String col3;
     }
 
+    @Getter
+    public static class TypedRow {
+        @CsvBindByPosition(position = 0)
+        private Integer number;
+        @CsvBindByPosition(position = 1)
+        private TFCEnum fc;
+    }
+
+    private static class CloseTrackingReader extends BufferedReader {
+        private boolean closed;
+
+        CloseTrackingReader(String content) {
+            super(new StringReader(content));
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+
 }
@@ -0,0 +1,50 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MultiSubstringMatcherTest {
+
+    private static final List<String> PATTERNS = List.of("DYN_LDADM_Ind", "Ind", "he", "she", "his", "hers", "DYN_LDADM_Ind_1");
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "DYN_LDADM_Ind_1", "DYN_LDADM_Ind_2", "ushers", "this is his", "h", "Ind", "xxDYN_LDADM_Indxx"})
+    void findContainedPatterns_should_find_same_patterns_as_contains(String text) {
+        // Given
+        MultiSubstringMatcher multiSubstringMatcher = new MultiSubstringMatcher(PATTERNS);
+        // When
+        List<String> containedPatterns = multiSubstringMatcher.findContainedPatterns(text);
+        // Then
+        assertThat(containedPatterns).containsExactlyElementsOf(PATTERNS.stream().filter(text::contains).toList());
+    }
+
+    @Test
+    void findContainedPatterns_should_report_duplicated_pattern_once() {
+        // Given
+        MultiSubstringMatcher multiSubstringMatcher = new MultiSubstringMatcher(List.of("ab", "b", "ab"));
+        // When
+        List<String> containedPatterns = multiSubstringMatcher.findContainedPatterns("abab");
+        // Then
+        assertThat(containedPatterns).containsExactly("ab", "b");
+    }
+
+    @Test
+    void findContainedPatterns_should_ignore_null_and_match_empty_pattern() {
+        // Given
+        MultiSubstringMatcher multiSubstringMatcher = new MultiSubstringMatcher(Arrays.asList(null, "", "a"));
+        // When Then
+        assertThat(multiSubstringMatcher.findContainedPatterns("a")).containsExactly("", "a");
+        assertThat(multiSubstringMatcher.findContainedPatterns("b")).containsExactly("");
+        assertThat(multiSubstringMatcher.findContainedPatterns(null)).isEmpty();
+    }
+}
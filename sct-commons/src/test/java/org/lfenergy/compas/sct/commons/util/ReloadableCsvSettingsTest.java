@@ -0,0 +1,175 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lfenergy.compas.scl2007b4.model.TFCDA;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReloadableCsvSettingsTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void constructor_should_load_settings() throws IOException {
+        // Given
+        Path csvFile = writeCsv("LDGRP1;;GAPC;12;Ind1;ST\n", 1);
+        // When
+        ReloadableCsvSettings<FcdaCsvHelper> reloadableCsvSettings = new ReloadableCsvSettings<>(csvFile, StandardCharsets.UTF_8, FcdaCsvHelper::new);
+        // Then
+        assertThat(reloadableCsvSettings.getVersion()).isZero();
+        assertThat(reloadableCsvSettings.get().getFcdas()).extracting(TFCDA::getLdInst).containsExactly("LDGRP1");
+    }
+
+    @Test
+    void constructor_when_file_missing_should_throw_exception() {
+        // Given
+        Path csvFile = tempDir.resolve("missing.csv");
+        // When Then
+        assertThatThrownBy(() -> new ReloadableCsvSettings<>(csvFile, StandardCharsets.UTF_8, FcdaCsvHelper::new))
+            .isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    void reloadIfModified_when_file_changed_should_publish_new_settings() throws IOException {
+        // Given
+        Path csvFile = writeCsv("LDGRP1;;GAPC;12;Ind1;ST\n", 1);
+        ReloadableCsvSettings<FcdaCsvHelper> reloadableCsvSettings = new ReloadableCsvSettings<>(csvFile, StandardCharsets.UTF_8, FcdaCsvHelper::new);
+        FcdaCsvHelper settingsOfRunningJob = reloadableCsvSettings.get();
+        writeCsv("LDGRP1;;GAPC;12;Ind1;ST\nLDCMDSS2;;LLN0;;Health;MX\n", 2);
+        // When
+        boolean result = reloadableCsvSettings.reloadIfModified();
+        // Then
+        assertThat(result).isTrue();
+        assertThat(reloadableCsvSettings.getVersion()).isEqualTo(1);
+        assertThat(reloadableCsvSettings.get().getFcdas()).extracting(TFCDA::getLdInst).containsExactly("LDGRP1", "LDCMDSS2");
+        assertThat(settingsOfRunningJob.getFcdas()).extracting(TFCDA::getLdInst).containsExactly("LDGRP1");
+    }
+
+    @Test
+    void reloadIfModified_when_file_unchanged_should_keep_settings() throws IOException {
+        // Given
+        Path csvFile = writeCsv("LDGRP1;;GAPC;12;Ind1;ST\n", 1);
+        ReloadableCsvSettings<FcdaCsvHelper> reloadableCsvSettings = new ReloadableCsvSettings<>(csvFile, StandardCharsets.UTF_8, FcdaCsvHelper::new);
+        FcdaCsvHelper settings = reloadableCsvSettings.get();
+        // When
+        boolean result = reloadableCsvSettings.reloadIfModified();
+        // Then
+        assertThat(result).isFalse();
+        assertThat(reloadableCsvSettings.getVersion()).isZero();
+        assertThat(reloadableCsvSettings.get()).isSameAs(settings);
+    }
+
+    @Test
+    void reloadIfModified_when_new_file_invalid_should_keep_previous_settings() throws IOException {
+        // Given
+        Path csvFile = writeCsv("LDGRP1;;GAPC;12;Ind1;ST\n", 1);
+        ReloadableCsvSettings<FcdaCsvHelper> reloadableCsvSettings = new ReloadableCsvSettings<>(csvFile, StandardCharsets.UTF_8, FcdaCsvHelper::new);
+        FcdaCsvHelper settings = reloadableCsvSettings.get();
+        writeCsv("LDGRP1;;GAPC;12;Ind1;UNKNOWN_FC\n", 2);
+        // When
+        boolean result = reloadableCsvSettings.reloadIfModified();
+        // Then
+        assertThat(result).isFalse();
+        assertThat(reloadableCsvSettings.getVersion()).isZero();
+        assertThat(reloadableCsvSettings.get()).isSameAs(settings);
+    }
+
+    @Test
+    void reloadIfModified_when_file_deleted_should_keep_previous_settings() throws IOException {
+        // Given
+        Path csvFile = writeCsv("LDGRP1;;GAPC;12;Ind1;ST\n", 1);
+        ReloadableCsvSettings<FcdaCsvHelper> reloadableCsvSettings = new ReloadableCsvSettings<>(csvFile, StandardCharsets.UTF_8, FcdaCsvHelper::new);
+        FcdaCsvHelper settings = reloadableCsvSettings.get();
+        Files.delete(csvFile);
+        // When
+        boolean result = reloadableCsvSettings.reloadIfModified();
+        // Then
+        assertThat(result).isFalse();
+        assertThat(reloadableCsvSettings.get()).isSameAs(settings);
+    }
+
+    @Test
+    void watch_should_reload_settings_in_background() throws IOException, InterruptedException {
+        // Given
+        Path csvFile = writeCsv("LDGRP1;;GAPC;12;Ind1;ST\n", 1);
+        ReloadableCsvSettings<FcdaCsvHelper> reloadableCsvSettings = new ReloadableCsvSettings<>(csvFile, StandardCharsets.UTF_8, FcdaCsvHelper::new);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            ScheduledFuture<?> watcher = reloadableCsvSettings.watch(executor, Duration.ofMillis(10));
+            // When
+            writeCsv("LDCMDSS2;;LLN0;;Health;MX\n", 2);
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (reloadableCsvSettings.getVersion() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            watcher.cancel(false);
+            // Then
+            assertThat(reloadableCsvSettings.getVersion()).isEqualTo(1);
+            assertThat(reloadableCsvSettings.get().getFcdas()).extracting(TFCDA::getLdInst).containsExactly("LDCMDSS2");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void watch_when_reload_throws_error_should_keep_watching() throws IOException, InterruptedException {
+        // Given
+        Path csvFile = writeCsv("LDGRP1;;GAPC;12;Ind1;ST\n", 1);
+        AtomicInteger parserCalls = new AtomicInteger();
+        ReloadableCsvSettings<FcdaCsvHelper> reloadableCsvSettings = new ReloadableCsvSettings<>(csvFile, StandardCharsets.UTF_8, reader -> {
+            if (parserCalls.incrementAndGet() == 2) {
+                throw new NoClassDefFoundError("failure of the first reload");
+            }
+            return new FcdaCsvHelper(reader);
+        });
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            ScheduledFuture<?> watcher = reloadableCsvSettings.watch(executor, Duration.ofMillis(10));
+            // When
+            writeCsv("LDCMDSS2;;LLN0;;Health;MX\n", 2);
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (reloadableCsvSettings.getVersion() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            // Then
+            assertThat(watcher.isDone()).isFalse();
+            watcher.cancel(false);
+            assertThat(parserCalls.get()).isGreaterThanOrEqualTo(3);
+            assertThat(reloadableCsvSettings.getVersion()).isEqualTo(1);
+            assertThat(reloadableCsvSettings.get().getFcdas()).extracting(TFCDA::getLdInst).containsExactly("LDCMDSS2");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Replaces the file atomically, with an explicit modification time as file systems may have a coarse time resolution
+     */
+    private Path writeCsv(String content, long modificationSecond) throws IOException {
+        Path newFile = tempDir.resolve("settings.csv.new");
+        Files.writeString(newFile, content, StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(newFile, FileTime.from(Instant.ofEpochSecond(1_700_000_000L + modificationSecond)));
+        return Files.move(newFile, tempDir.resolve("settings.csv"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
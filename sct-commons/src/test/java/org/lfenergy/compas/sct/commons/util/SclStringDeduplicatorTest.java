@@ -0,0 +1,108 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.util;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TLN;
+import org.lfenergy.compas.scl2007b4.model.TLN0;
+import org.lfenergy.compas.sct.commons.testhelpers.MarshallerWrapper;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SclStringDeduplicatorTest {
+
+    private static final int IED_COUNT = 50;
+    private static final int LN_COUNT = 20;
+
+    @Test
+    void afterUnmarshal_should_share_repeated_values_of_synthetic_scd() throws JAXBException {
+        // Given
+        String xml = createSyntheticScd();
+        StringPool stringPool = new StringPool(100_000, 64);
+        // When
+        SCL result = unmarshal(xml, new SclStringDeduplicator(stringPool));
+        // Then
+        TLN firstLn = result.getIED().get(0).getAccessPoint().get(0).getServer().getLDevice().get(0).getLN().get(0);
+        TLN lastLn = result.getIED().get(IED_COUNT - 1).getAccessPoint().get(0).getServer().getLDevice().get(0).getLN().get(LN_COUNT - 1);
+        assertThat(lastLn.getLnType()).isSameAs(firstLn.getLnType());
+        assertThat(lastLn.getLnClass().get(0)).isSameAs(firstLn.getLnClass().get(0));
+        assertThat(lastLn.getDOI().get(0).getName()).isSameAs(firstLn.getDOI().get(0).getName());
+        TLN0 firstLn0 = result.getIED().get(0).getAccessPoint().get(0).getServer().getLDevice().get(0).getLN0();
+        TLN0 lastLn0 = result.getIED().get(IED_COUNT - 1).getAccessPoint().get(0).getServer().getLDevice().get(0).getLN0();
+        assertThat(lastLn0.getDataSet().get(0).getFCDA().get(0).getDoName()).isSameAs(firstLn0.getDataSet().get(0).getFCDA().get(0).getDoName());
+        assertThat(lastLn0.getInputs().getExtRef().get(0).getSrcCBName()).isSameAs(firstLn0.getInputs().getExtRef().get(0).getSrcCBName());
+        // names of the IEDs differ, all other values are repeated in each IED
+        assertThat(stringPool.getDeduplicatedCount()).isGreaterThan((long) (IED_COUNT - 1) * LN_COUNT * 5);
+        assertThat(stringPool.getSavedBytes()).isGreaterThan(stringPool.getDeduplicatedCount() * 40);
+    }
+
+    @Test
+    void afterUnmarshal_should_not_change_unmarshalled_scd() throws JAXBException, IOException {
+        // Given
+        String xml = IOUtils.resourceToString("/scl-srv-scd-extref-cb/issue_175_scd_get_cbs_test.xml", StandardCharsets.UTF_8);
+        SCL expected = unmarshal(xml, null);
+        // When
+        SCL result = unmarshal(xml, new SclStringDeduplicator(new StringPool(100_000, 64)));
+        // Then
+        assertThat(result).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(MarshallerWrapper.marshall(result)).isEqualTo(MarshallerWrapper.marshall(expected));
+    }
+
+    private static SCL unmarshal(String xml, Unmarshaller.Listener listener) throws JAXBException {
+        Unmarshaller unmarshaller = JAXBContext.newInstance("org.lfenergy.compas.scl2007b4.model").createUnmarshaller();
+        unmarshaller.setListener(listener);
+        return (SCL) unmarshaller.unmarshal(new StringReader(xml));
+    }
+
+    private static String createSyntheticScd() {
+        StringBuilder xml = new StringBuilder("""
+            <SCL xmlns="http://www.iec.ch/61850/2003/SCL" version="2007" revision="B" release="4">
+                <Header id="hId" version="1" revision="1"/>
+            """);
+        for (int ied = 0; ied < IED_COUNT; ied++) {
+            xml.append("""
+                <IED name="IED_NAME%d">
+                    <AccessPoint name="AP_NAME">
+                        <Server>
+                            <Authentication/>
+                            <LDevice inst="LD_INST">
+                                <LN0 lnClass="LLN0" inst="" lnType="LN0_TYPE">
+                                    <DataSet name="DATASET">
+                                        <FCDA ldInst="LD_INST" lnClass="CSWI" lnInst="1" doName="Pos" daName="stVal" fc="ST"/>
+                                    </DataSet>
+                                    <Inputs>
+                                        <ExtRef iedName="IED_NAME0" ldInst="LD_INST" lnClass="CSWI" lnInst="1" doName="Pos" daName="stVal"
+                                                srcLDInst="LD_INST" srcCBName="CB_GOOSE" serviceType="GOOSE"/>
+                                    </Inputs>
+                                </LN0>
+                """.formatted(ied));
+            for (int ln = 1; ln <= LN_COUNT; ln++) {
+                xml.append("""
+                                <LN lnClass="CSWI" inst="%d" lnType="CSWI_TYPE">
+                                    <DOI name="Pos">
+                                        <DAI name="ctlModel"><Val>status-only</Val></DAI>
+                                    </DOI>
+                                </LN>
+                    """.formatted(ln));
+            }
+            xml.append("""
+                            </LDevice>
+                        </Server>
+                    </AccessPoint>
+                </IED>
+                """);
+        }
+        return xml.append("</SCL>").toString();
+    }
+}
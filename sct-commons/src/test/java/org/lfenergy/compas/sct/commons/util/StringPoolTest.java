@@ -0,0 +1,54 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StringPoolTest {
+
+    @Test
+    void intern_should_return_first_equal_instance() {
+        // Given
+        StringPool stringPool = new StringPool(10, 10);
+        String first = new String("LLN0");
+        String second = new String("LLN0");
+        // When
+        String result1 = stringPool.intern(first);
+        String result2 = stringPool.intern(second);
+        // Then
+        assertThat(result1).isSameAs(first);
+        assertThat(result2).isSameAs(first);
+        assertThat(stringPool.size()).isEqualTo(1);
+        assertThat(stringPool.getDeduplicatedCount()).isEqualTo(1);
+        assertThat(stringPool.getSavedBytes()).isEqualTo(48);
+    }
+
+    @Test
+    void intern_when_pool_full_or_string_too_long_should_return_argument() {
+        // Given
+        StringPool stringPool = new StringPool(1, 4);
+        stringPool.intern("LLN0");
+        String notPooled = new String("CSWI");
+        String tooLong = new String("LD_INST");
+        stringPool.intern(new String("LD_INST"));
+        // When Then
+        assertThat(stringPool.intern(notPooled)).isSameAs(notPooled);
+        assertThat(stringPool.intern(tooLong)).isSameAs(tooLong);
+        assertThat(stringPool.intern(null)).isNull();
+        assertThat(stringPool.intern(new String("LLN0"))).isSameAs("LLN0");
+        assertThat(stringPool.size()).isEqualTo(1);
+        assertThat(stringPool.getDeduplicatedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void constructor_when_negative_size_should_throw_exception() {
+        // When Then
+        assertThatThrownBy(() -> new StringPool(-1, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
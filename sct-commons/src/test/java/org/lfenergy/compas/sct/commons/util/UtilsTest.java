@@ -12,6 +12,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.junit.platform.commons.support.ReflectionSupport;
 import org.lfenergy.compas.scl2007b4.model.TExtRef;
+import org.lfenergy.compas.scl2007b4.model.TLDevice;
 import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
 import org.lfenergy.compas.scl2007b4.model.TLN;
 import org.lfenergy.compas.scl2007b4.model.TServiceType;
@@ -577,6 +578,45 @@ class UtilsTest {
         assertThat(result).usingRecursiveComparison().isEqualTo(tln);
     }
 
+    @Test
+    void copySclElement_with_string_pool_should_share_repeated_attribute_values() {
+        // Given
+        TLDevice tlDevice = new TLDevice();
+        tlDevice.setInst("LD_INST");
+        for (String lnInst : List.of("1", "2")) {
+            TLN tln = new TLN();
+            tln.setLnType("LN_TYPE");
+            tln.getLnClass().add("CSWI");
+            tln.setInst(lnInst);
+            tlDevice.getLN().add(tln);
+        }
+        // When
+        TLDevice result = copySclElement(tlDevice, TLDevice.class, new StringPool(100, 64));
+        // Then
+        assertThat(result.getLN().get(0).getLnType()).isSameAs(result.getLN().get(1).getLnType());
+        assertThat(result.getLN().get(0).getLnClass().get(0)).isSameAs(result.getLN().get(1).getLnClass().get(0));
+        assertThat(result.isSetLN0()).isFalse();
+        assertThat(result.getLN()).extracting(TLN::isSetPrefix).containsExactly(false, false);
+    }
+
+    @Test
+    void copySclElement_without_string_pool_should_not_share_attribute_values() {
+        // Given
+        TLDevice tlDevice = new TLDevice();
+        for (String lnInst : List.of("1", "2")) {
+            TLN tln = new TLN();
+            tln.setLnType("LN_TYPE");
+            tln.getLnClass().add("CSWI");
+            tln.setInst(lnInst);
+            tlDevice.getLN().add(tln);
+        }
+        copySclElement(tlDevice, TLDevice.class, new StringPool(100, 64));
+        // When
+        TLDevice result = copySclElement(tlDevice, TLDevice.class);
+        // Then
+        assertThat(result.getLN().get(0).getLnType()).isNotSameAs(result.getLN().get(1).getLnType());
+    }
+
     @Test
     void copySclElement_should_throwException() {
         // Given
@@ -1,14 +1,66 @@
-
 // SPDX-FileCopyrightText: 2021 RTE FRANCE
 //
 // SPDX-License-Identifier: Apache-2.0
 
 package org.lfenergy.compas.sct.data.model;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * SCD stored in a repository.
+ * <p>
+ * Raw XML can be read at once with {@link #getRawXml()}, or streamed with {@link #openRawXml()} and {@link #transferTo}, which
+ * avoid holding the whole raw XML in heap. Implementations only have to provide {@link #getRawXml()}: the other raw XML methods
+ * are built on it by default, and should be overridden when the raw XML can be streamed without being loaded in heap.
+ * </p>
+ * @param <ID> type of the ids
+ */
 public interface IScd <ID> {
     ID getId();
+
+    /**
+     * Reads the whole raw XML
+     * @return raw XML
+     * @throws UncheckedIOException when the raw XML cannot be read
+     */
     byte[] getRawXml();
+
     ID getHeaderId();
     String getHeaderRevision();
     String getHeaderVersion();
+
+    /**
+     * Opens a new stream on the raw XML. The caller must close it.
+     * By default, the stream is built on {@link #getRawXml()}, which loads the whole raw XML in heap.
+     * @return stream of the raw XML
+     * @throws IOException when the raw XML cannot be read
+     */
+    default InputStream openRawXml() throws IOException {
+        return new ByteArrayInputStream(getRawXml());
+    }
+
+    /**
+     * Gets the size of the raw XML
+     * @return size of the raw XML, in bytes
+     */
+    default long size() {
+        return getRawXml().length;
+    }
+
+    /**
+     * Writes the raw XML to the given channel. The channel is not closed.
+     * @param target channel to write to
+     * @return number of bytes written
+     * @throws IOException when the raw XML cannot be read or written
+     */
+    default long transferTo(WritableByteChannel target) throws IOException {
+        try (InputStream inputStream = openRawXml()) {
+            return inputStream.transferTo(Channels.newOutputStream(target));
+        }
+    }
 }
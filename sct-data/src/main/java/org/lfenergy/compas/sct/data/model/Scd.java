@@ -0,0 +1,141 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.data.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Immutable SCD identified by UUID.
+ * <p>
+ * The raw XML is either held in heap, or read from a {@link RawXmlSource} each time it is requested (for example from a file).
+ * Raw XML held in heap is not copied: callers must not modify the array given to the constructor or returned by
+ * {@link #getRawXml()}.
+ * </p>
+ */
+@Getter
+public final class Scd implements IScd<UUID> {
+
+    private final UUID id;
+    private final UUID headerId;
+    private final String headerVersion;
+    private final String headerRevision;
+    @Getter(AccessLevel.NONE)
+    private final long size;
+    @Getter(AccessLevel.NONE)
+    private final RawXmlSource rawXmlSource;
+
+    /**
+     * Constructor, with raw XML held in heap
+     * @param id SCD id, null when the id must be generated by the repository
+     * @param headerId id of the SCL Header
+     * @param headerVersion version of the SCL Header
+     * @param headerRevision revision of the SCL Header
+     * @param rawXml raw SCD XML
+     */
+    public Scd(UUID id, UUID headerId, String headerVersion, String headerRevision, byte[] rawXml) {
+        this(id, headerId, headerVersion, headerRevision, rawXml.length, new InMemoryRawXmlSource(rawXml));
+    }
+
+    /**
+     * Constructor, with raw XML read on demand
+     * @param id SCD id, null when the id must be generated by the repository
+     * @param headerId id of the SCL Header
+     * @param headerVersion version of the SCL Header
+     * @param headerRevision revision of the SCL Header
+     * @param size size of the raw XML, in bytes
+     * @param rawXmlSource source of the raw XML
+     */
+    public Scd(UUID id, UUID headerId, String headerVersion, String headerRevision, long size, RawXmlSource rawXmlSource) {
+        this.id = id;
+        this.headerId = headerId;
+        this.headerVersion = headerVersion;
+        this.headerRevision = headerRevision;
+        this.size = size;
+        this.rawXmlSource = Objects.requireNonNull(rawXmlSource, "rawXmlSource");
+    }
+
+    /**
+     * Returns a copy of this SCD with the given id
+     * @param id new id
+     * @return SCD with same header and raw XML
+     */
+    public Scd withId(UUID id) {
+        return new Scd(id, headerId, headerVersion, headerRevision, size, rawXmlSource);
+    }
+
+    /**
+     * Reads the whole raw XML. When the raw XML is not held in heap, it is read again on each call.
+     * @return raw XML
+     * @throws UncheckedIOException when the raw XML cannot be read
+     */
+    @Override
+    public byte[] getRawXml() {
+        try {
+            return rawXmlSource.readAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public InputStream openRawXml() throws IOException {
+        return rawXmlSource.open();
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Source of raw XML
+     */
+    @FunctionalInterface
+    public interface RawXmlSource {
+
+        /**
+         * Opens a new stream on the raw XML. The caller must close it.
+         * @return stream of the raw XML
+         * @throws IOException when the raw XML cannot be read
+         */
+        InputStream open() throws IOException;
+
+        /**
+         * Reads the whole raw XML
+         * @return raw XML
+         * @throws IOException when the raw XML cannot be read
+         */
+        default byte[] readAll() throws IOException {
+            try (InputStream inputStream = open()) {
+                return inputStream.readAllBytes();
+            }
+        }
+    }
+
+    private record InMemoryRawXmlSource(byte[] rawXml) implements RawXmlSource {
+
+        private InMemoryRawXmlSource {
+            Objects.requireNonNull(rawXml, "rawXml");
+        }
+
+        @Override
+        public InputStream open() {
+            return new ByteArrayInputStream(rawXml);
+        }
+
+        @Override
+        public byte[] readAll() {
+            return rawXml;
+        }
+    }
+}
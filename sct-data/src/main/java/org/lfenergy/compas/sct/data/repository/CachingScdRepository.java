@@ -0,0 +1,248 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.data.repository;
+
+import org.lfenergy.compas.sct.data.model.IScd;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * {@link IScdCrudRepository} decorator keeping recently parsed SCD, to avoid parsing the raw XML of hot SCD on each request.
+ * <p>
+ * Parsed SCD are found with {@link #findParsedById}, and cached by (id, header version, header revision). The cache is bounded by
+ * the sum of the weights of its entries, estimated by the given weigher (for example from {@link IScd#size()}): least recently used
+ * entries are evicted first. An entry heavier than the maximum weight is never cached.
+ * Concurrent loads of the same key wait for a single parse.
+ * </p>
+ * <p>
+ * Entries of an SCD are dropped by {@link #update} and {@link #deleteById}. Changes made directly in the decorated repository are
+ * only seen when they change the header version or revision: call {@link #invalidate} otherwise.
+ * </p>
+ * <p>
+ * Cached values are shared by all callers: they must not be modified. Immutable values should be cached, such as
+ * SclSnapshot of sct-commons.
+ * </p>
+ * @param <T> type of the SCD
+ * @param <ID> type of the ids
+ * @param <V> type of the parsed SCD
+ */
+public class CachingScdRepository<T extends IScd<ID>, ID, V> implements IScdCrudRepository<T, ID> {
+
+    private final IScdCrudRepository<T, ID> delegate;
+    private final Function<? super T, ? extends V> parser;
+    private final ToLongBiFunction<? super T, ? super V> weigher;
+    private final long maxWeight;
+
+    private final Object lock = new Object();
+    // guarded by lock
+    private final LinkedHashMap<CacheKey<ID>, CacheEntry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // guarded by lock
+    private final Map<CacheKey<ID>, CompletableFuture<V>> loads = new HashMap<>();
+    // guarded by lock
+    private long weight;
+
+    /**
+     * Constructor
+     * @param delegate decorated repository
+     * @param parser parses an SCD. Called once per cache miss.
+     * @param weigher estimates heap footprint of a parsed SCD, in any unit consistent with maxWeight
+     * @param maxWeight maximum sum of the weights of cached entries
+     */
+    public CachingScdRepository(IScdCrudRepository<T, ID> delegate, Function<? super T, ? extends V> parser,
+                                ToLongBiFunction<? super T, ? super V> weigher, long maxWeight) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.parser = Objects.requireNonNull(parser, "parser");
+        this.weigher = Objects.requireNonNull(weigher, "weigher");
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("maxWeight must be positive or zero");
+        }
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Finds an SCD, and parses it unless its current revision is cached
+     * @param id id of the SCD
+     * @return parsed SCD, or empty Optional when no SCD has this id
+     */
+    public Optional<V> findParsedById(ID id) {
+        return delegate.findById(id).map(this::getParsed);
+    }
+
+    private V getParsed(T scd) {
+        CacheKey<ID> cacheKey = new CacheKey<>(scd.getId(), scd.getHeaderVersion(), scd.getHeaderRevision());
+        CompletableFuture<V> load;
+        boolean loader = false;
+        synchronized (lock) {
+            CacheEntry<V> cacheEntry = entries.get(cacheKey);
+            if (cacheEntry != null) {
+                return cacheEntry.value();
+            }
+            load = loads.get(cacheKey);
+            if (load == null) {
+                load = new CompletableFuture<>();
+                loads.put(cacheKey, load);
+                loader = true;
+            }
+        }
+        return loader ? load(scd, cacheKey, load) : join(load);
+    }
+
+    private V load(T scd, CacheKey<ID> cacheKey, CompletableFuture<V> load) {
+        V value;
+        long entryWeight;
+        try {
+            value = parser.apply(scd);
+            entryWeight = weigher.applyAsLong(scd, value);
+        } catch (Throwable e) {
+            // waiters of the load must not block forever, whatever the failure
+            synchronized (lock) {
+                loads.remove(cacheKey, load);
+            }
+            load.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (lock) {
+            // load has been removed when the SCD was invalidated during parsing: value may be outdated
+            if (loads.remove(cacheKey, load) && entryWeight <= maxWeight) {
+                entries.put(cacheKey, new CacheEntry<>(value, entryWeight));
+                weight += entryWeight;
+                evict();
+            }
+        }
+        load.complete(value);
+        return value;
+    }
+
+    private void evict() {
+        Iterator<CacheEntry<V>> iterator = entries.values().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            weight -= iterator.next().weight();
+            iterator.remove();
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops cached entries of an SCD, whatever their revision
+     * @param id id of the SCD
+     */
+    public void invalidate(ID id) {
+        synchronized (lock) {
+            Iterator<Map.Entry<CacheKey<ID>, CacheEntry<V>>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<CacheKey<ID>, CacheEntry<V>> entry = iterator.next();
+                if (Objects.equals(entry.getKey().id(), id)) {
+                    weight -= entry.getValue().weight();
+                    iterator.remove();
+                }
+            }
+            loads.keySet().removeIf(cacheKey -> Objects.equals(cacheKey.id(), id));
+        }
+    }
+
+    /**
+     * Drops all cached entries
+     */
+    public void invalidateAll() {
+        synchronized (lock) {
+            entries.clear();
+            loads.clear();
+            weight = 0;
+        }
+    }
+
+    /**
+     * Gets the number of cached entries
+     * @return number of cached entries
+     */
+    public int getCacheSize() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Gets the sum of the weights of cached entries
+     * @return weight of the cache
+     */
+    public long getCacheWeight() {
+        synchronized (lock) {
+            return weight;
+        }
+    }
+
+    @Override
+    public T save(T s) throws CompasDataAccessException {
+        return delegate.save(s);
+    }
+
+    @Override
+    public T update(T s) throws CompasDataAccessException {
+        try {
+            return delegate.update(s);
+        } finally {
+            invalidate(s.getId());
+        }
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public boolean existsById(ID id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public boolean existsByHeaderId(ID id) {
+        return delegate.existsByHeaderId(id);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public void deleteById(ID id) throws CompasDataAccessException {
+        try {
+            delegate.deleteById(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public long transferRawXmlTo(ID id, WritableByteChannel target) throws IOException {
+        return delegate.transferRawXmlTo(id, target);
+    }
+
+    private record CacheKey<ID>(ID id, String headerVersion, String headerRevision) {
+    }
+
+    private record CacheEntry<V>(V value, long weight) {
+    }
+}
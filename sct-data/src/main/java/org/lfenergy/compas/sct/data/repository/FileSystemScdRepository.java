@@ -0,0 +1,548 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.data.repository;
+
+import org.lfenergy.compas.sct.data.model.Scd;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Embedded {@link IScdCrudRepository} storing SCD on the local file system, without any external database.
+ * <p>
+ * Layout of the repository directory:
+ * </p>
+ * <ul>
+ *   <li><b>blobs/xx/&lt;sha-256&gt;</b>: raw XML of the SCD, deflated, named after the SHA-256 of the raw XML.
+ *   Identical raw XML are stored once, whatever the number of SCD referencing them.
+ *   Blobs are read through a memory-mapped {@link FileChannel}, or streamed with {@link Scd#openRawXml()} and
+ *   {@link #transferDeflatedRawXmlTo}.</li>
+ *   <li><b>scd.index</b>: append-only log of the changes of the repository. Each record maps an SCD id to its header id, header
+ *   version, header revision and blob hash, or deletes an SCD id. Records are checksummed: an incomplete record left by a crash is
+ *   dropped when the repository is opened.</li>
+ * </ul>
+ * <p>
+ * The index is replayed in memory when the repository is opened, so {@link #existsById}, {@link #existsByHeaderId} and
+ * {@link #count()} never read the disk. Writes are serialized; reads can be done concurrently with writes: a blob is only deleted
+ * while no reader is between the lookup of an SCD in the index and the opening of its blob, so a read sees an SCD either before or
+ * after a concurrent update. Once opened, a blob can be read to the end even if a concurrent write deletes it (on file systems
+ * which keep deleted files readable through open handles, like POSIX ones).
+ * A directory must not be opened by more than one repository at a time.
+ * </p>
+ */
+public class FileSystemScdRepository implements IScdCrudRepository<Scd, UUID>, Closeable {
+
+    private static final String BLOBS_DIRECTORY = "blobs";
+    private static final String INDEX_FILE = "scd.index";
+    private static final byte PUT_RECORD = 1;
+    private static final byte DELETE_RECORD = 2;
+    private static final HexFormat HEX_FORMAT = HexFormat.of();
+    private static final int BLOB_HEADER_LENGTH = Integer.BYTES;
+
+    private final Path blobsDirectory;
+    private final FileChannel indexChannel;
+    private final Map<UUID, IndexEntry> entriesById = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> scdCountByHeaderId = new ConcurrentHashMap<>();
+    // guarded by this
+    private final Map<String, Integer> scdCountByBlobHash = new HashMap<>();
+    // read lock: from the lookup of an index entry to the opening of its blob. Write lock: update of the index and blob deletion.
+    private final ReadWriteLock blobLock = new ReentrantReadWriteLock();
+
+    /**
+     * Opens the repository stored in the given directory, and creates it when it does not exist
+     * @param directory repository directory
+     * @throws CompasDataAccessException when the directory cannot be created or the index cannot be read
+     */
+    public FileSystemScdRepository(Path directory) throws CompasDataAccessException {
+        this.blobsDirectory = directory.resolve(BLOBS_DIRECTORY);
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(blobsDirectory);
+            channel = FileChannel.open(directory.resolve(INDEX_FILE), CREATE, READ, WRITE);
+            long validLength = replayIndex(channel);
+            if (validLength < channel.size()) {
+                channel.truncate(validLength);
+            }
+            channel.position(validLength);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new CompasDataAccessException("Cannot open SCD repository " + directory, e);
+        }
+        this.indexChannel = channel;
+    }
+
+    /**
+     * Saves a new SCD. An id is generated when the SCD has none.
+     * @param scd SCD to save
+     * @return saved SCD, with its id
+     * @throws CompasDataAccessException when an SCD with the same id already exists, or on write failure
+     */
+    @Override
+    public synchronized Scd save(Scd scd) throws CompasDataAccessException {
+        Scd scdWithId = scd.getId() == null ? scd.withId(UUID.randomUUID()) : scd;
+        if (entriesById.containsKey(scdWithId.getId())) {
+            throw new CompasDataAccessException(String.format("SCD %s already exists", scdWithId.getId()));
+        }
+        put(scdWithId);
+        return scdWithId;
+    }
+
+    /**
+     * Replaces an existing SCD
+     * @param scd new content of the SCD
+     * @return updated SCD
+     * @throws CompasDataAccessException when no SCD has this id, or on write failure
+     */
+    @Override
+    public synchronized Scd update(Scd scd) throws CompasDataAccessException {
+        if (scd.getId() == null || !entriesById.containsKey(scd.getId())) {
+            throw new CompasDataAccessException(String.format("Unknown SCD %s", scd.getId()));
+        }
+        put(scd);
+        return scd;
+    }
+
+    /**
+     * Finds an SCD. Its raw XML is not read: it is inflated from the blob each time it is requested.
+     * Raw XML of an SCD cannot be read anymore once the SCD has been updated or deleted and no other SCD has the same raw XML:
+     * reading it then throws {@link CompasDataAccessException}. Streams opened before are not affected.
+     * @param id id of the SCD
+     * @return SCD, or empty Optional when no SCD has this id
+     * @throws CompasDataAccessException when the blob of the SCD cannot be read
+     */
+    @Override
+    public Optional<Scd> findById(UUID id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        blobLock.readLock().lock();
+        try {
+            IndexEntry indexEntry = entriesById.get(id);
+            if (indexEntry == null) {
+                return Optional.empty();
+            }
+            long size = readBlobSize(indexEntry.blobHash());
+            return Optional.of(new Scd(id, indexEntry.headerId(), indexEntry.headerVersion(), indexEntry.headerRevision(), size,
+                new BlobRawXmlSource(indexEntry.blobHash())));
+        } finally {
+            blobLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the raw XML of an SCD, deflated, to the given channel, without copying it in heap.
+     * Written bytes are a zlib stream (RFC 1950), which can be served as is with HTTP header <em>Content-Encoding: deflate</em>.
+     * @param id id of the SCD
+     * @param target channel to write to. It is not closed.
+     * @return number of bytes written
+     * @throws CompasDataAccessException when no SCD has this id
+     * @throws IOException when the blob cannot be read or the channel cannot be written
+     */
+    public long transferDeflatedRawXmlTo(UUID id, WritableByteChannel target) throws IOException {
+        FileChannel blobChannel;
+        blobLock.readLock().lock();
+        try {
+            IndexEntry indexEntry = id == null ? null : entriesById.get(id);
+            if (indexEntry == null) {
+                throw new CompasDataAccessException(String.format("Unknown SCD %s", id));
+            }
+            blobChannel = FileChannel.open(blobPath(indexEntry.blobHash()), READ);
+        } finally {
+            blobLock.readLock().unlock();
+        }
+        try (FileChannel channel = blobChannel) {
+            long position = BLOB_HEADER_LENGTH;
+            long end = channel.size();
+            while (position < end) {
+                position += channel.transferTo(position, end - position, target);
+            }
+            return end - BLOB_HEADER_LENGTH;
+        }
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return id != null && entriesById.containsKey(id);
+    }
+
+    @Override
+    public boolean existsByHeaderId(UUID id) {
+        return id != null && scdCountByHeaderId.containsKey(id);
+    }
+
+    @Override
+    public long count() {
+        return entriesById.size();
+    }
+
+    /**
+     * Deletes an SCD. Its blob is deleted when no other SCD has the same raw XML.
+     * @param id id of the SCD
+     * @throws CompasDataAccessException when no SCD has this id, or on write failure
+     */
+    @Override
+    public synchronized void deleteById(UUID id) throws CompasDataAccessException {
+        if (id == null || !entriesById.containsKey(id)) {
+            throw new CompasDataAccessException(String.format("Unknown SCD %s", id));
+        }
+        appendRecord(encodeDeleteRecord(id));
+        blobLock.writeLock().lock();
+        try {
+            applyDelete(id).ifPresent(this::deleteBlob);
+        } finally {
+            blobLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Closes the index file. The repository must not be used afterwards.
+     * @throws IOException when the index file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        indexChannel.close();
+    }
+
+    private void put(Scd scd) {
+        String blobHash = writeBlob(scd.getRawXml());
+        IndexEntry indexEntry = new IndexEntry(scd.getHeaderId(), scd.getHeaderVersion(), scd.getHeaderRevision(), blobHash);
+        appendRecord(encodePutRecord(scd.getId(), indexEntry));
+        blobLock.writeLock().lock();
+        try {
+            applyPut(scd.getId(), indexEntry).ifPresent(this::deleteBlob);
+        } finally {
+            blobLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates in-memory index
+     * @return hash of the replaced blob, when no SCD references it anymore
+     */
+    private Optional<String> applyPut(UUID id, IndexEntry indexEntry) {
+        increment(scdCountByBlobHash, indexEntry.blobHash());
+        if (indexEntry.headerId() != null) {
+            increment(scdCountByHeaderId, indexEntry.headerId());
+        }
+        IndexEntry previousEntry = entriesById.put(id, indexEntry);
+        return previousEntry == null ? Optional.empty() : release(previousEntry);
+    }
+
+    /**
+     * Updates in-memory index
+     * @return hash of the blob of the deleted SCD, when no SCD references it anymore
+     */
+    private Optional<String> applyDelete(UUID id) {
+        IndexEntry previousEntry = entriesById.remove(id);
+        return previousEntry == null ? Optional.empty() : release(previousEntry);
+    }
+
+    private Optional<String> release(IndexEntry indexEntry) {
+        if (indexEntry.headerId() != null) {
+            decrement(scdCountByHeaderId, indexEntry.headerId());
+        }
+        return decrement(scdCountByBlobHash, indexEntry.blobHash()) ? Optional.of(indexEntry.blobHash()) : Optional.empty();
+    }
+
+    private static <K> void increment(Map<K, Integer> counts, K key) {
+        counts.merge(key, 1, Integer::sum);
+    }
+
+    /**
+     * @return true when count reaches 0
+     */
+    private static <K> boolean decrement(Map<K, Integer> counts, K key) {
+        return counts.computeIfPresent(key, (k, count) -> count <= 1 ? null : count - 1) == null;
+    }
+
+    private long replayIndex(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        long validLength = 0;
+        CRC32 crc32 = new CRC32();
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt();
+            if (length <= 0 || buffer.remaining() < length + Integer.BYTES) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            crc32.reset();
+            crc32.update(payload);
+            if ((int) crc32.getValue() != buffer.getInt()) {
+                break;
+            }
+            applyRecord(payload);
+            validLength = buffer.position();
+        }
+        return validLength;
+    }
+
+    private void applyRecord(byte[] payload) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+        byte recordType = input.readByte();
+        UUID id = readUuid(input);
+        if (recordType == PUT_RECORD) {
+            UUID headerId = input.readBoolean() ? readUuid(input) : null;
+            String headerVersion = readNullableString(input);
+            String headerRevision = readNullableString(input);
+            String blobHash = input.readUTF();
+            applyPut(id, new IndexEntry(headerId, headerVersion, headerRevision, blobHash));
+        } else if (recordType == DELETE_RECORD) {
+            applyDelete(id);
+        } else {
+            throw new IOException("Unknown index record type " + recordType);
+        }
+    }
+
+    private static byte[] encodePutRecord(UUID id, IndexEntry indexEntry) {
+        return encodeRecord(output -> {
+            output.writeByte(PUT_RECORD);
+            writeUuid(output, id);
+            output.writeBoolean(indexEntry.headerId() != null);
+            if (indexEntry.headerId() != null) {
+                writeUuid(output, indexEntry.headerId());
+            }
+            writeNullableString(output, indexEntry.headerVersion());
+            writeNullableString(output, indexEntry.headerRevision());
+            output.writeUTF(indexEntry.blobHash());
+        });
+    }
+
+    private static byte[] encodeDeleteRecord(UUID id) {
+        return encodeRecord(output -> {
+            output.writeByte(DELETE_RECORD);
+            writeUuid(output, id);
+        });
+    }
+
+    private static byte[] encodeRecord(RecordWriter recordWriter) {
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            recordWriter.write(new DataOutputStream(payload));
+            CRC32 crc32 = new CRC32();
+            crc32.update(payload.toByteArray());
+            ByteArrayOutputStream frame = new ByteArrayOutputStream(payload.size() + 2 * Integer.BYTES);
+            DataOutputStream output = new DataOutputStream(frame);
+            output.writeInt(payload.size());
+            payload.writeTo(output);
+            output.writeInt((int) crc32.getValue());
+            return frame.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void appendRecord(byte[] record) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            while (buffer.hasRemaining()) {
+                indexChannel.write(buffer);
+            }
+            indexChannel.force(false);
+        } catch (IOException e) {
+            throw new CompasDataAccessException("Cannot write SCD repository index", e);
+        }
+    }
+
+    private String writeBlob(byte[] rawXml) {
+        String blobHash = HEX_FORMAT.formatHex(sha256(rawXml));
+        Path blobPath = blobPath(blobHash);
+        if (Files.exists(blobPath)) {
+            return blobHash;
+        }
+        Path tempFile = null;
+        try {
+            Files.createDirectories(blobPath.getParent());
+            tempFile = Files.createTempFile(blobsDirectory, blobHash, ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                output.writeInt(rawXml.length);
+                DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(output);
+                deflaterOutputStream.write(rawXml);
+                deflaterOutputStream.finish();
+            }
+            Files.move(tempFile, blobPath, StandardCopyOption.ATOMIC_MOVE);
+            return blobHash;
+        } catch (IOException e) {
+            deleteQuietly(tempFile);
+            throw new CompasDataAccessException("Cannot write SCD blob " + blobHash, e);
+        }
+    }
+
+    private byte[] readBlob(String blobHash) {
+        try (FileChannel channel = FileChannel.open(blobPath(blobHash), READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] rawXml = new byte[buffer.getInt()];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(buffer);
+                int inflated = 0;
+                while (inflated < rawXml.length) {
+                    int count = inflater.inflate(rawXml, inflated, rawXml.length - inflated);
+                    if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new CompasDataAccessException("Corrupted SCD blob " + blobHash);
+                    }
+                    inflated += count;
+                }
+            } finally {
+                inflater.end();
+            }
+            return rawXml;
+        } catch (IOException | DataFormatException e) {
+            throw new CompasDataAccessException("Cannot read SCD blob " + blobHash, e);
+        }
+    }
+
+    private long readBlobSize(String blobHash) {
+        try (FileChannel channel = FileChannel.open(blobPath(blobHash), READ)) {
+            ByteBuffer header = ByteBuffer.allocate(BLOB_HEADER_LENGTH);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    throw new CompasDataAccessException("Corrupted SCD blob " + blobHash);
+                }
+            }
+            return header.getInt(0);
+        } catch (IOException e) {
+            throw new CompasDataAccessException("Cannot read SCD blob " + blobHash, e);
+        }
+    }
+
+    private void deleteBlob(String blobHash) {
+        // an undeleted blob is only wasted space: it is not referenced by the index anymore
+        deleteQuietly(blobPath(blobHash));
+    }
+
+    private Path blobPath(String blobHash) {
+        return blobsDirectory.resolve(blobHash.substring(0, 2)).resolve(blobHash);
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeUuid(DataOutputStream output, UUID uuid) throws IOException {
+        output.writeLong(uuid.getMostSignificantBits());
+        output.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream input) throws IOException {
+        return new UUID(input.readLong(), input.readLong());
+    }
+
+    private static void writeNullableString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // ignored
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // ignored
+        }
+    }
+
+    private final class BlobRawXmlSource implements Scd.RawXmlSource {
+
+        private final String blobHash;
+
+        private BlobRawXmlSource(String blobHash) {
+            this.blobHash = blobHash;
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            InputStream inputStream;
+            blobLock.readLock().lock();
+            try {
+                inputStream = new BufferedInputStream(Files.newInputStream(blobPath(blobHash)));
+            } catch (NoSuchFileException e) {
+                throw supersededBlobException(e);
+            } finally {
+                blobLock.readLock().unlock();
+            }
+            try {
+                inputStream.readNBytes(BLOB_HEADER_LENGTH);
+            } catch (IOException e) {
+                inputStream.close();
+                throw e;
+            }
+            return new InflaterInputStream(inputStream);
+        }
+
+        @Override
+        public byte[] readAll() {
+            blobLock.readLock().lock();
+            try {
+                return readBlob(blobHash);
+            } catch (CompasDataAccessException e) {
+                throw e.getCause() instanceof NoSuchFileException noSuchFileException ? supersededBlobException(noSuchFileException) : e;
+            } finally {
+                blobLock.readLock().unlock();
+            }
+        }
+
+        private CompasDataAccessException supersededBlobException(NoSuchFileException e) {
+            return new CompasDataAccessException("SCD blob " + blobHash + " has been deleted: the SCD has been updated or deleted", e);
+        }
+    }
+
+    private record IndexEntry(UUID headerId, String headerVersion, String headerRevision, String blobHash) {
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream output) throws IOException;
+    }
+}
@@ -0,0 +1,317 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.data.repository;
+
+import org.lfenergy.compas.sct.data.model.IScd;
+import org.lfenergy.compas.sct.data.model.Scd;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Stores all the revisions of SCD on the local file system, as chains of element-level deltas.
+ * <p>
+ * Revisions sharing the same header id form a chain, numbered from 0 in the order they are appended (for example after each
+ * HeaderAdapter.updateRevision of sct-commons). A revision is stored either as a keyframe, holding the whole raw XML, or as a delta
+ * from the previous revision, holding only the elements which changed (see {@link XmlDelta}). A keyframe is stored every
+ * <em>keyframeInterval</em> revisions, and when a delta would not be much smaller than the raw XML, so that rebuilding a revision
+ * never applies more than <em>keyframeInterval - 1</em> deltas.
+ * </p>
+ * <p>
+ * Layout of the store directory: <b>&lt;header id&gt;/&lt;revision number&gt;.rev</b>, each file holding the SCD id, header version,
+ * header revision and the deflated keyframe or delta.
+ * Recently rebuilt revisions, including keyframes, are kept in memory.
+ * Revisions are rebuilt byte for byte. Methods are serialized.
+ * </p>
+ */
+public class FileSystemScdRevisionStore {
+
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 16;
+    public static final int DEFAULT_LEAF_DEPTH = 6;
+    public static final int DEFAULT_CACHED_REVISIONS = 8;
+
+    private static final String REVISION_FILE_SUFFIX = ".rev";
+    private static final byte KEYFRAME = 1;
+    private static final byte DELTA = 2;
+
+    private final Path directory;
+    private final int keyframeInterval;
+    private final int leafDepth;
+    private final Map<UUID, List<RevisionInfo>> revisionsByHeaderId = new HashMap<>();
+    private final Map<RevisionKey, byte[]> rebuiltRevisions;
+
+    /**
+     * Opens the store in the given directory, with default settings
+     * @param directory store directory, created when it does not exist
+     * @throws CompasDataAccessException when the directory cannot be created
+     */
+    public FileSystemScdRevisionStore(Path directory) throws CompasDataAccessException {
+        this(directory, DEFAULT_KEYFRAME_INTERVAL, DEFAULT_LEAF_DEPTH, DEFAULT_CACHED_REVISIONS);
+    }
+
+    /**
+     * Opens the store in the given directory
+     * @param directory store directory, created when it does not exist
+     * @param keyframeInterval maximum number of revisions between two keyframes
+     * @param leafDepth depth of the elements compared as a whole (root element SCL has depth 1). Default depth compares LN.
+     * @param cachedRevisions number of rebuilt revisions kept in memory
+     * @throws CompasDataAccessException when the directory cannot be created
+     */
+    public FileSystemScdRevisionStore(Path directory, int keyframeInterval, int leafDepth, int cachedRevisions)
+        throws CompasDataAccessException {
+        if (keyframeInterval < 1 || leafDepth < 1 || cachedRevisions < 0) {
+            throw new IllegalArgumentException("keyframeInterval and leafDepth must be positive, cachedRevisions must be positive or zero");
+        }
+        this.directory = directory;
+        this.keyframeInterval = keyframeInterval;
+        this.leafDepth = leafDepth;
+        this.rebuiltRevisions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RevisionKey, byte[]> eldest) {
+                return size() > cachedRevisions;
+            }
+        };
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new CompasDataAccessException("Cannot open SCD revision store " + directory, e);
+        }
+    }
+
+    /**
+     * Appends a revision at the end of the chain of its header id
+     * @param scd new revision
+     * @return information about the stored revision
+     * @throws CompasDataAccessException when the SCD has no header id, or on read or write failure
+     */
+    public synchronized RevisionInfo append(IScd<UUID> scd) throws CompasDataAccessException {
+        UUID headerId = scd.getHeaderId();
+        if (headerId == null) {
+            throw new CompasDataAccessException("Cannot store revision of an SCD without header id");
+        }
+        List<RevisionInfo> revisions = loadRevisions(headerId);
+        int number = revisions.size();
+        byte[] rawXml = scd.getRawXml();
+        byte kind = KEYFRAME;
+        byte[] payload = rawXml;
+        if (number > 0 && number - lastKeyframe(revisions) < keyframeInterval) {
+            byte[] previousRawXml = rebuild(headerId, revisions, number - 1);
+            byte[] delta = XmlDelta.diff(previousRawXml, XmlSegments.split(previousRawXml, leafDepth),
+                rawXml, XmlSegments.split(rawXml, leafDepth));
+            if (delta.length < rawXml.length / 2) {
+                kind = DELTA;
+                payload = delta;
+            }
+        }
+        long storedSize = writeRevision(revisionPath(headerId, number), kind, scd, payload);
+        RevisionInfo revisionInfo = new RevisionInfo(number, scd.getId(), scd.getHeaderVersion(), scd.getHeaderRevision(),
+            kind == KEYFRAME, storedSize);
+        revisions.add(revisionInfo);
+        // copied: the raw XML of an in-heap SCD is the array of the caller
+        rebuiltRevisions.put(new RevisionKey(headerId, number), rawXml.clone());
+        return revisionInfo;
+    }
+
+    /**
+     * Gets the revisions of a header id
+     * @param headerId header id
+     * @return revisions, ordered by number, empty when no revision has this header id
+     * @throws CompasDataAccessException when revisions cannot be read
+     */
+    public synchronized List<RevisionInfo> getRevisions(UUID headerId) throws CompasDataAccessException {
+        return List.copyOf(loadRevisions(headerId));
+    }
+
+    /**
+     * Rebuilds a revision. Raw XML of the returned SCD is a copy: it can be modified without affecting the revisions kept in memory.
+     * @param headerId header id
+     * @param number revision number
+     * @return SCD of the revision, or empty Optional when this revision does not exist
+     * @throws CompasDataAccessException when revisions cannot be read
+     */
+    public synchronized Optional<Scd> findRevision(UUID headerId, int number) throws CompasDataAccessException {
+        List<RevisionInfo> revisions = loadRevisions(headerId);
+        if (number < 0 || number >= revisions.size()) {
+            return Optional.empty();
+        }
+        RevisionInfo revisionInfo = revisions.get(number);
+        return Optional.of(new Scd(revisionInfo.id(), headerId, revisionInfo.headerVersion(), revisionInfo.headerRevision(),
+            rebuild(headerId, revisions, number).clone()));
+    }
+
+    /**
+     * Rebuilds the last revision
+     * @param headerId header id
+     * @return SCD of the last revision, or empty Optional when no revision has this header id
+     * @throws CompasDataAccessException when revisions cannot be read
+     */
+    public synchronized Optional<Scd> findLatestRevision(UUID headerId) throws CompasDataAccessException {
+        return findRevision(headerId, loadRevisions(headerId).size() - 1);
+    }
+
+    private byte[] rebuild(UUID headerId, List<RevisionInfo> revisions, int number) {
+        byte[] rawXml = rebuiltRevisions.get(new RevisionKey(headerId, number));
+        if (rawXml != null) {
+            return rawXml;
+        }
+        int first = number;
+        while (!revisions.get(first).keyframe() && !rebuiltRevisions.containsKey(new RevisionKey(headerId, first))) {
+            first--;
+        }
+        rawXml = rebuiltRevisions.get(new RevisionKey(headerId, first));
+        if (rawXml == null) {
+            rawXml = readPayload(revisionPath(headerId, first));
+            rebuiltRevisions.put(new RevisionKey(headerId, first), rawXml);
+        }
+        for (int i = first + 1; i <= number; i++) {
+            Path revisionPath = revisionPath(headerId, i);
+            try {
+                rawXml = XmlDelta.apply(rawXml, XmlSegments.split(rawXml, leafDepth), readPayload(revisionPath));
+            } catch (IOException e) {
+                throw new CompasDataAccessException("Cannot read SCD revision " + revisionPath, e);
+            }
+        }
+        rebuiltRevisions.put(new RevisionKey(headerId, number), rawXml);
+        return rawXml;
+    }
+
+    private static int lastKeyframe(List<RevisionInfo> revisions) {
+        int number = revisions.size() - 1;
+        // first revision of a chain is always a keyframe
+        while (number > 0 && !revisions.get(number).keyframe()) {
+            number--;
+        }
+        return number;
+    }
+
+    private List<RevisionInfo> loadRevisions(UUID headerId) {
+        if (headerId == null) {
+            return new ArrayList<>();
+        }
+        List<RevisionInfo> revisions = revisionsByHeaderId.get(headerId);
+        if (revisions != null) {
+            return revisions;
+        }
+        revisions = new ArrayList<>();
+        Path chainDirectory = directory.resolve(headerId.toString());
+        if (Files.isDirectory(chainDirectory)) {
+            try (Stream<Path> paths = Files.list(chainDirectory)) {
+                List<Path> revisionPaths = paths.filter(path -> path.getFileName().toString().endsWith(REVISION_FILE_SUFFIX))
+                    .sorted()
+                    .toList();
+                for (int number = 0; number < revisionPaths.size(); number++) {
+                    if (!revisionPaths.get(number).equals(revisionPath(headerId, number))) {
+                        throw new CompasDataAccessException("Missing SCD revision " + revisionPath(headerId, number));
+                    }
+                    revisions.add(readRevisionInfo(revisionPaths.get(number), number));
+                }
+            } catch (IOException e) {
+                throw new CompasDataAccessException("Cannot read SCD revisions of " + headerId, e);
+            }
+        }
+        revisionsByHeaderId.put(headerId, revisions);
+        return revisions;
+    }
+
+    private Path revisionPath(UUID headerId, int number) {
+        return directory.resolve(headerId.toString()).resolve(String.format("%010d%s", number, REVISION_FILE_SUFFIX));
+    }
+
+    private static long writeRevision(Path revisionPath, byte kind, IScd<UUID> scd, byte[] payload) {
+        Path tempFile = null;
+        try {
+            Files.createDirectories(revisionPath.getParent());
+            tempFile = Files.createTempFile(revisionPath.getParent(), "revision", ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                output.writeByte(kind);
+                output.writeBoolean(scd.getId() != null);
+                if (scd.getId() != null) {
+                    output.writeLong(scd.getId().getMostSignificantBits());
+                    output.writeLong(scd.getId().getLeastSignificantBits());
+                }
+                writeNullableString(output, scd.getHeaderVersion());
+                writeNullableString(output, scd.getHeaderRevision());
+                DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(output);
+                deflaterOutputStream.write(payload);
+                deflaterOutputStream.finish();
+            }
+            Files.move(tempFile, revisionPath, StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(revisionPath);
+        } catch (IOException e) {
+            deleteQuietly(tempFile, e);
+            throw new CompasDataAccessException("Cannot write SCD revision " + revisionPath, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path, IOException cause) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static RevisionInfo readRevisionInfo(Path revisionPath, int number) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(revisionPath)))) {
+            byte kind = input.readByte();
+            UUID id = input.readBoolean() ? new UUID(input.readLong(), input.readLong()) : null;
+            String headerVersion = readNullableString(input);
+            String headerRevision = readNullableString(input);
+            return new RevisionInfo(number, id, headerVersion, headerRevision, kind == KEYFRAME, Files.size(revisionPath));
+        }
+    }
+
+    private static byte[] readPayload(Path revisionPath) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(revisionPath)))) {
+            input.readByte();
+            if (input.readBoolean()) {
+                input.readLong();
+                input.readLong();
+            }
+            readNullableString(input);
+            readNullableString(input);
+            try (InflaterInputStream inflaterInputStream = new InflaterInputStream(input)) {
+                return inflaterInputStream.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new CompasDataAccessException("Cannot read SCD revision " + revisionPath, e);
+        }
+    }
+
+    private static void writeNullableString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    /**
+     * Information about a stored revision
+     * @param number revision number in its chain, from 0
+     * @param id id of the SCD, may be null
+     * @param headerVersion header version
+     * @param headerRevision header revision
+     * @param keyframe true when the whole raw XML is stored, false when a delta from the previous revision is stored
+     * @param storedSize size of the revision file, in bytes
+     */
+    public record RevisionInfo(int number, UUID id, String headerVersion, String headerRevision, boolean keyframe, long storedSize) {
+    }
+
+    private record RevisionKey(UUID headerId, int number) {
+    }
+}
@@ -7,6 +7,8 @@ package org.lfenergy.compas.sct.data.repository;
 
 import org.lfenergy.compas.sct.data.model.IScd;
 
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
 import java.util.Optional;
 
 public interface IScdCrudRepository<T extends IScd,ID> {
@@ -17,4 +19,17 @@ public interface IScdCrudRepository<T extends IScd,ID> {
     boolean existsByHeaderId(ID id) ;
     long count() ;
     void deleteById(ID id) throws CompasDataAccessException;
+
+    /**
+     * Writes the raw XML of an SCD to the given channel, without holding it whole in heap when the repository can stream it
+     * @param id id of the SCD
+     * @param target channel to write to. It is not closed.
+     * @return number of bytes written
+     * @throws CompasDataAccessException when no SCD has this id
+     * @throws IOException when the raw XML cannot be read or the channel cannot be written
+     */
+    default long transferRawXmlTo(ID id, WritableByteChannel target) throws IOException {
+        IScd<?> scd = findById(id).orElseThrow(() -> new CompasDataAccessException(String.format("Unknown SCD %s", id)));
+        return scd.transferTo(target);
+    }
 }
@@ -0,0 +1,140 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.data.repository;
+
+import org.lfenergy.compas.sct.data.repository.XmlSegments.Segment;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Element-level delta between two raw XML documents split by {@link XmlSegments}.
+ * <p>
+ * Each segment of the target document is matched with the segment of the base document having the same element path. Unchanged
+ * segments are copied from the base document, as ranges of consecutive segments. Other segments are stored as literal bytes.
+ * Applying a delta to its base document rebuilds the target document byte for byte.
+ * </p>
+ */
+final class XmlDelta {
+
+    private static final byte END = 0;
+    private static final byte COPY = 1;
+    private static final byte LITERAL = 2;
+
+    private XmlDelta() {
+        throw new IllegalStateException("XmlDelta class");
+    }
+
+    /**
+     * Computes the delta from base to target
+     * @param base base document
+     * @param baseSegments segments of the base document
+     * @param target target document
+     * @param targetSegments segments of the target document
+     * @return encoded delta
+     */
+    static byte[] diff(byte[] base, List<Segment> baseSegments, byte[] target, List<Segment> targetSegments) {
+        Map<String, Integer> baseIndexByKey = new HashMap<>();
+        for (int i = 0; i < baseSegments.size(); i++) {
+            baseIndexByKey.putIfAbsent(baseSegments.get(i).key(), i);
+        }
+        try {
+            ByteArrayOutputStream delta = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(delta);
+            int copyStart = -1;
+            int copyCount = 0;
+            int literalStart = -1;
+            int literalEnd = -1;
+            for (Segment targetSegment : targetSegments) {
+                Integer baseIndex = baseIndexByKey.get(targetSegment.key());
+                boolean unchanged = baseIndex != null && sameBytes(base, baseSegments.get(baseIndex), target, targetSegment);
+                if (unchanged) {
+                    if (literalStart >= 0) {
+                        writeLiteral(output, target, literalStart, literalEnd);
+                        literalStart = -1;
+                    }
+                    if (copyStart >= 0 && copyStart + copyCount == baseIndex) {
+                        copyCount++;
+                    } else {
+                        writeCopy(output, copyStart, copyCount);
+                        copyStart = baseIndex;
+                        copyCount = 1;
+                    }
+                } else {
+                    writeCopy(output, copyStart, copyCount);
+                    copyStart = -1;
+                    copyCount = 0;
+                    if (literalStart < 0) {
+                        literalStart = targetSegment.start();
+                    }
+                    literalEnd = targetSegment.end();
+                }
+            }
+            writeCopy(output, copyStart, copyCount);
+            if (literalStart >= 0) {
+                writeLiteral(output, target, literalStart, literalEnd);
+            }
+            output.writeByte(END);
+            return delta.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Rebuilds the target document
+     * @param base base document
+     * @param baseSegments segments of the base document
+     * @param delta encoded delta, computed from the same base document
+     * @return target document
+     * @throws IOException when the delta is corrupted
+     */
+    static byte[] apply(byte[] base, List<Segment> baseSegments, byte[] delta) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(delta));
+        ByteArrayOutputStream target = new ByteArrayOutputStream(base.length);
+        for (byte operation = input.readByte(); operation != END; operation = input.readByte()) {
+            if (operation == COPY) {
+                int first = input.readInt();
+                int count = input.readInt();
+                if (first < 0 || count <= 0 || first + count > baseSegments.size()) {
+                    throw new IOException("Corrupted delta: invalid segment range");
+                }
+                int start = baseSegments.get(first).start();
+                target.write(base, start, baseSegments.get(first + count - 1).end() - start);
+            } else if (operation == LITERAL) {
+                int length = input.readInt();
+                byte[] literal = input.readNBytes(length);
+                if (literal.length != length) {
+                    throw new IOException("Corrupted delta: truncated literal");
+                }
+                target.write(literal);
+            } else {
+                throw new IOException("Corrupted delta: unknown operation " + operation);
+            }
+        }
+        return target.toByteArray();
+    }
+
+    private static boolean sameBytes(byte[] base, Segment baseSegment, byte[] target, Segment targetSegment) {
+        return Arrays.equals(base, baseSegment.start(), baseSegment.end(), target, targetSegment.start(), targetSegment.end());
+    }
+
+    private static void writeCopy(DataOutputStream output, int copyStart, int copyCount) throws IOException {
+        if (copyCount > 0) {
+            output.writeByte(COPY);
+            output.writeInt(copyStart);
+            output.writeInt(copyCount);
+        }
+    }
+
+    private static void writeLiteral(DataOutputStream output, byte[] target, int start, int end) throws IOException {
+        output.writeByte(LITERAL);
+        output.writeInt(end - start);
+        output.write(target, start, end - start);
+    }
+}
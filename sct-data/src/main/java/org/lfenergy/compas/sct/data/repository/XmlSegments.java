@@ -0,0 +1,261 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.data.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Splits raw XML into contiguous segments keyed by element path, without parsing it into a tree.
+ * <p>
+ * Elements at leaf depth are kept whole in one segment. Shallower elements are split into their start tag, their content and their
+ * end tag. Segments cover the raw XML, in order and without gap, so a document can be rebuilt by concatenating segments.
+ * </p>
+ * <p>
+ * Element path is made of the names of the elements and of their identifying attributes (name, inst, ldInst, ...), for example
+ * <em>/SCL/IED[name=IED1]/AccessPoint[name=AP1]</em>. An occurrence number is added when siblings have the same path.
+ * Raw XML must be encoded in a charset compatible with ASCII, such as UTF-8.
+ * </p>
+ */
+final class XmlSegments {
+
+    private static final List<String> IDENTITY_ATTRIBUTES = List.of("name", "inst", "ldInst", "prefix", "lnClass", "lnInst",
+        "iedName", "apName", "cbName", "id");
+
+    private XmlSegments() {
+        throw new IllegalStateException("XmlSegments class");
+    }
+
+    /**
+     * Segment of raw XML
+     * @param key element path of the segment
+     * @param start index of the first byte of the segment
+     * @param end index following the last byte of the segment
+     */
+    record Segment(String key, int start, int end) {
+    }
+
+    /**
+     * Splits raw XML into segments. Raw XML which is not well-formed is kept in a single segment.
+     * @param xml raw XML
+     * @param leafDepth depth of the elements kept whole (root element has depth 1)
+     * @return contiguous segments covering the raw XML
+     */
+    static List<Segment> split(byte[] xml, int leafDepth) {
+        try {
+            return new Splitter(xml, leafDepth).split();
+        } catch (IllegalArgumentException e) {
+            return List.of(new Segment("", 0, xml.length));
+        }
+    }
+
+    private enum TagKind {START, EMPTY, END, OTHER}
+
+    private record Tag(TagKind kind, int end) {
+    }
+
+    private static final class Frame {
+        private final String path;
+        private final Map<String, Integer> occurrencesByChildPath = new HashMap<>();
+        private int anonymousCount;
+
+        private Frame(String path) {
+            this.path = path;
+        }
+
+        private String childPath(String childPath) {
+            int occurrence = occurrencesByChildPath.merge(childPath, 1, Integer::sum);
+            return occurrence == 1 ? childPath : childPath + "#" + occurrence;
+        }
+
+        private String nextAnonymousKey() {
+            return path + "/#" + (++anonymousCount);
+        }
+    }
+
+    private static final class Splitter {
+        private final byte[] xml;
+        private final int leafDepth;
+        private final List<Segment> segments = new ArrayList<>();
+        private final Deque<Frame> frames = new ArrayDeque<>();
+
+        private Splitter(byte[] xml, int leafDepth) {
+            this.xml = xml;
+            this.leafDepth = leafDepth;
+        }
+
+        private List<Segment> split() {
+            frames.push(new Frame(""));
+            int pos = 0;
+            int leafStart = -1;
+            int leafNesting = 0;
+            String leafKey = null;
+            while (pos < xml.length) {
+                if (xml[pos] != '<') {
+                    int textEnd = indexOf("<", pos);
+                    textEnd = textEnd < 0 ? xml.length : textEnd;
+                    if (leafStart < 0) {
+                        segments.add(new Segment(frames.element().nextAnonymousKey(), pos, textEnd));
+                    }
+                    pos = textEnd;
+                    continue;
+                }
+                Tag tag = readTag(pos);
+                if (leafStart >= 0) {
+                    if (tag.kind() == TagKind.START) {
+                        leafNesting++;
+                    } else if (tag.kind() == TagKind.END && --leafNesting == 0) {
+                        segments.add(new Segment(leafKey, leafStart, tag.end()));
+                        leafStart = -1;
+                    }
+                } else if (tag.kind() == TagKind.START || tag.kind() == TagKind.EMPTY) {
+                    Frame parent = frames.element();
+                    String path = parent.childPath(parent.path + "/" + elementKey(pos, tag.end()));
+                    if (tag.kind() == TagKind.EMPTY) {
+                        segments.add(new Segment(path, pos, tag.end()));
+                    } else if (frames.size() == leafDepth) {
+                        leafStart = pos;
+                        leafNesting = 1;
+                        leafKey = path;
+                    } else {
+                        segments.add(new Segment(path + "<", pos, tag.end()));
+                        frames.push(new Frame(path));
+                    }
+                } else if (tag.kind() == TagKind.END) {
+                    if (frames.size() == 1) {
+                        throw new IllegalArgumentException("Unexpected end tag at " + pos);
+                    }
+                    segments.add(new Segment(frames.pop().path + ">", pos, tag.end()));
+                } else {
+                    segments.add(new Segment(frames.element().nextAnonymousKey(), pos, tag.end()));
+                }
+                pos = tag.end();
+            }
+            if (leafStart >= 0 || frames.size() != 1) {
+                throw new IllegalArgumentException("Unclosed element");
+            }
+            return segments;
+        }
+
+        private Tag readTag(int pos) {
+            if (startsWith("<!--", pos)) {
+                return new Tag(TagKind.OTHER, endOf("-->", pos));
+            }
+            if (startsWith("<![CDATA[", pos)) {
+                return new Tag(TagKind.OTHER, endOf("]]>", pos));
+            }
+            if (startsWith("<?", pos)) {
+                return new Tag(TagKind.OTHER, endOf("?>", pos));
+            }
+            int end = endOfTag(pos);
+            if (startsWith("<!", pos)) {
+                return new Tag(TagKind.OTHER, end);
+            }
+            if (startsWith("</", pos)) {
+                return new Tag(TagKind.END, end);
+            }
+            return new Tag(xml[end - 2] == '/' ? TagKind.EMPTY : TagKind.START, end);
+        }
+
+        /**
+         * @return name of the element with the values of its identifying attributes, for example IED[name=IED1]
+         */
+        private String elementKey(int start, int end) {
+            int pos = start + 1;
+            int nameEnd = pos;
+            while (nameEnd < end && !isTagNameEnd(xml[nameEnd])) {
+                nameEnd++;
+            }
+            String elementName = new String(xml, pos, nameEnd - pos, StandardCharsets.UTF_8);
+            Map<String, String> identity = new TreeMap<>();
+            pos = nameEnd;
+            while (pos < end) {
+                while (pos < end && isWhitespace(xml[pos])) {
+                    pos++;
+                }
+                int attributeNameStart = pos;
+                while (pos < end && xml[pos] != '=' && !isTagNameEnd(xml[pos])) {
+                    pos++;
+                }
+                if (pos >= end || xml[pos] != '=') {
+                    break;
+                }
+                String attributeName = new String(xml, attributeNameStart, pos - attributeNameStart, StandardCharsets.UTF_8);
+                byte quote = ++pos < end ? xml[pos] : 0;
+                if (quote != '"' && quote != '\'') {
+                    throw new IllegalArgumentException("Missing attribute value at " + pos);
+                }
+                int valueEnd = indexOf(quote == '"' ? "\"" : "'", pos + 1);
+                if (valueEnd < 0 || valueEnd >= end) {
+                    throw new IllegalArgumentException("Unclosed attribute value at " + pos);
+                }
+                if (IDENTITY_ATTRIBUTES.contains(attributeName)) {
+                    identity.put(attributeName, new String(xml, pos + 1, valueEnd - pos - 1, StandardCharsets.UTF_8));
+                }
+                pos = valueEnd + 1;
+            }
+            if (identity.isEmpty()) {
+                return elementName;
+            }
+            StringJoiner stringJoiner = new StringJoiner(",", elementName + "[", "]");
+            identity.forEach((attributeName, value) -> stringJoiner.add(attributeName + "=" + value));
+            return stringJoiner.toString();
+        }
+
+        private int endOfTag(int pos) {
+            byte quote = 0;
+            for (int i = pos + 1; i < xml.length; i++) {
+                byte b = xml[i];
+                if (quote != 0) {
+                    if (b == quote) {
+                        quote = 0;
+                    }
+                } else if (b == '"' || b == '\'') {
+                    quote = b;
+                } else if (b == '>') {
+                    return i + 1;
+                }
+            }
+            throw new IllegalArgumentException("Unclosed tag at " + pos);
+        }
+
+        private int endOf(String delimiter, int pos) {
+            int index = indexOf(delimiter, pos);
+            if (index < 0) {
+                throw new IllegalArgumentException("Missing " + delimiter + " after " + pos);
+            }
+            return index + delimiter.length();
+        }
+
+        private boolean startsWith(String prefix, int pos) {
+            if (pos + prefix.length() > xml.length) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length(); i++) {
+                if (xml[pos + i] != prefix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int indexOf(String searched, int from) {
+            for (int i = from; i <= xml.length - searched.length(); i++) {
+                if (startsWith(searched, i)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static boolean isTagNameEnd(byte b) {
+            return isWhitespace(b) || b == '>' || b == '/';
+        }
+
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+        }
+    }
+}
@@ -0,0 +1,91 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.data.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScdTest {
+
+    private static final byte[] RAW_XML = "<SCL/>".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void constructor_with_raw_xml_should_not_copy_it() throws IOException {
+        // When
+        Scd scd = new Scd(UUID.randomUUID(), UUID.randomUUID(), "1", "A", RAW_XML);
+        // Then
+        assertSame(RAW_XML, scd.getRawXml());
+        assertEquals(RAW_XML.length, scd.size());
+        try (InputStream inputStream = scd.openRawXml()) {
+            assertArrayEquals(RAW_XML, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void constructor_with_source_should_read_raw_xml_on_demand() {
+        // Given
+        int[] openCount = {0};
+        Scd scd = new Scd(null, null, "1", "A", RAW_XML.length, () -> {
+            openCount[0]++;
+            return new ByteArrayInputStream(RAW_XML);
+        });
+        // When
+        Scd scdWithId = scd.withId(UUID.randomUUID());
+        // Then
+        assertEquals(0, openCount[0]);
+        assertArrayEquals(RAW_XML, scdWithId.getRawXml());
+        assertArrayEquals(RAW_XML, scdWithId.getRawXml());
+        assertEquals(2, openCount[0]);
+        assertEquals("A", scdWithId.getHeaderRevision());
+    }
+
+    @Test
+    void default_raw_xml_methods_should_use_getRawXml() throws IOException {
+        // Given
+        IScd<String> scd = new IScd<>() {
+            @Override
+            public String getId() {
+                return "id";
+            }
+
+            @Override
+            public byte[] getRawXml() {
+                return RAW_XML.clone();
+            }
+
+            @Override
+            public String getHeaderId() {
+                return "headerId";
+            }
+
+            @Override
+            public String getHeaderRevision() {
+                return "A";
+            }
+
+            @Override
+            public String getHeaderVersion() {
+                return "1";
+            }
+        };
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        // When
+        long written = scd.transferTo(Channels.newChannel(outputStream));
+        // Then
+        assertEquals(RAW_XML.length, written);
+        assertEquals(RAW_XML.length, scd.size());
+        assertArrayEquals(RAW_XML, outputStream.toByteArray());
+        assertArrayEquals(RAW_XML, scd.openRawXml().readAllBytes());
+    }
+}
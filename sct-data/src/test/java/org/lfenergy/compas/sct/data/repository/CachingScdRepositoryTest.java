@@ -0,0 +1,222 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.data.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lfenergy.compas.sct.data.model.Scd;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingScdRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private FileSystemScdRepository fileSystemScdRepository;
+    private final AtomicInteger parseCount = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        fileSystemScdRepository = new FileSystemScdRepository(directory);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        fileSystemScdRepository.close();
+    }
+
+    @Test
+    void findParsedById_should_parse_once() {
+        // Given
+        CachingScdRepository<Scd, UUID, String> repository = newCachingRepository(1000);
+        Scd scd = repository.save(newScd(null, "A", "<SCL/>"));
+        // When
+        String parsed1 = repository.findParsedById(scd.getId()).orElseThrow();
+        String parsed2 = repository.findParsedById(scd.getId()).orElseThrow();
+        // Then
+        assertEquals("<SCL/>", parsed1);
+        assertSame(parsed1, parsed2);
+        assertEquals(1, parseCount.get());
+        assertEquals(1, repository.getCacheSize());
+        assertEquals(6, repository.getCacheWeight());
+        assertTrue(repository.findParsedById(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void update_should_invalidate_cached_entries() {
+        // Given
+        CachingScdRepository<Scd, UUID, String> repository = newCachingRepository(1000);
+        Scd scd = repository.save(newScd(null, "A", "<SCL/>"));
+        repository.findParsedById(scd.getId());
+        // When
+        repository.update(newScd(scd.getId(), "A", "<SCL></SCL>"));
+        // Then
+        assertEquals(0, repository.getCacheSize());
+        assertEquals("<SCL></SCL>", repository.findParsedById(scd.getId()).orElseThrow());
+        assertEquals(2, parseCount.get());
+        // When
+        repository.deleteById(scd.getId());
+        // Then
+        assertEquals(0, repository.getCacheSize());
+        assertEquals(0, repository.getCacheWeight());
+    }
+
+    @Test
+    void findParsedById_when_revision_changed_in_delegate_should_parse_again() {
+        // Given
+        CachingScdRepository<Scd, UUID, String> repository = newCachingRepository(1000);
+        Scd scd = repository.save(newScd(null, "A", "<SCL/>"));
+        repository.findParsedById(scd.getId());
+        // When
+        fileSystemScdRepository.update(newScd(scd.getId(), "B", "<SCL></SCL>"));
+        // Then
+        assertEquals("<SCL></SCL>", repository.findParsedById(scd.getId()).orElseThrow());
+        assertEquals(2, parseCount.get());
+    }
+
+    @Test
+    void findParsedById_should_evict_least_recently_used_entries() {
+        // Given
+        CachingScdRepository<Scd, UUID, String> repository = newCachingRepository(12);
+        Scd scd1 = repository.save(newScd(null, "A", "<SCL/>"));
+        Scd scd2 = repository.save(newScd(null, "A", "<SCL/>"));
+        Scd scd3 = repository.save(newScd(null, "A", "<SCL/>"));
+        Scd tooLargeScd = repository.save(newScd(null, "A", "<SCL><IED/></SCL>"));
+        repository.findParsedById(scd1.getId());
+        repository.findParsedById(scd2.getId());
+        repository.findParsedById(scd1.getId());
+        // When
+        repository.findParsedById(scd3.getId());
+        repository.findParsedById(tooLargeScd.getId());
+        // Then
+        assertEquals(2, repository.getCacheSize());
+        assertEquals(12, repository.getCacheWeight());
+        repository.findParsedById(scd1.getId());
+        assertEquals(4, parseCount.get());
+        repository.findParsedById(scd2.getId());
+        assertEquals(5, parseCount.get());
+    }
+
+    @Test
+    void findParsedById_when_concurrent_loads_should_parse_once() throws Exception {
+        // Given
+        CountDownLatch parsingStarted = new CountDownLatch(1);
+        CountDownLatch releaseParsing = new CountDownLatch(1);
+        CachingScdRepository<Scd, UUID, String> repository = new CachingScdRepository<>(fileSystemScdRepository, scd -> {
+            parseCount.incrementAndGet();
+            parsingStarted.countDown();
+            await(releaseParsing);
+            return new String(scd.getRawXml(), StandardCharsets.UTF_8);
+        }, (scd, parsed) -> scd.size(), 1000);
+        UUID id = repository.save(newScd(null, "A", "<SCL/>")).getId();
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            // When
+            Future<String> first = executorService.submit(() -> repository.findParsedById(id).orElseThrow());
+            parsingStarted.await(10, TimeUnit.SECONDS);
+            Future<String> second = executorService.submit(() -> repository.findParsedById(id).orElseThrow());
+            Thread.sleep(50);
+            releaseParsing.countDown();
+            // Then
+            assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, parseCount.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void findParsedById_when_parser_fails_should_not_cache() {
+        // Given
+        CachingScdRepository<Scd, UUID, String> repository = new CachingScdRepository<>(fileSystemScdRepository, scd -> {
+            throw new IllegalArgumentException("invalid SCD");
+        }, (scd, parsed) -> scd.size(), 1000);
+        UUID id = repository.save(newScd(null, "A", "<SCL/>")).getId();
+        // When Then
+        assertThrows(IllegalArgumentException.class, () -> repository.findParsedById(id));
+        assertThrows(IllegalArgumentException.class, () -> repository.findParsedById(id));
+        assertEquals(0, repository.getCacheSize());
+    }
+
+    @Test
+    void findParsedById_when_weigher_fails_should_release_concurrent_loads() throws Exception {
+        // Given
+        CountDownLatch parsingStarted = new CountDownLatch(1);
+        CountDownLatch releaseParsing = new CountDownLatch(1);
+        CachingScdRepository<Scd, UUID, String> repository = new CachingScdRepository<>(fileSystemScdRepository, scd -> {
+            parseCount.incrementAndGet();
+            parsingStarted.countDown();
+            await(releaseParsing);
+            return new String(scd.getRawXml(), StandardCharsets.UTF_8);
+        }, (scd, parsed) -> {
+            throw new IllegalStateException("cannot weigh SCD");
+        }, 1000);
+        UUID id = repository.save(newScd(null, "A", "<SCL/>")).getId();
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            // When
+            Future<String> first = executorService.submit(() -> repository.findParsedById(id).orElseThrow());
+            parsingStarted.await(10, TimeUnit.SECONDS);
+            Future<String> second = executorService.submit(() -> repository.findParsedById(id).orElseThrow());
+            Thread.sleep(50);
+            releaseParsing.countDown();
+            // Then
+            ExecutionException firstException = assertThrows(ExecutionException.class, () -> first.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, firstException.getCause());
+            ExecutionException secondException = assertThrows(ExecutionException.class, () -> second.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, secondException.getCause());
+            assertEquals(0, repository.getCacheSize());
+            assertThrows(IllegalStateException.class, () -> repository.findParsedById(id));
+            assertEquals(2, parseCount.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void findParsedById_when_parser_throws_error_should_not_keep_load() {
+        // Given
+        CachingScdRepository<Scd, UUID, String> repository = new CachingScdRepository<>(fileSystemScdRepository, scd -> {
+            if (parseCount.incrementAndGet() == 1) {
+                throw new AssertionError("parser failure");
+            }
+            return new String(scd.getRawXml(), StandardCharsets.UTF_8);
+        }, (scd, parsed) -> scd.size(), 1000);
+        UUID id = repository.save(newScd(null, "A", "<SCL/>")).getId();
+        // When Then
+        assertThrows(AssertionError.class, () -> repository.findParsedById(id));
+        assertEquals("<SCL/>", repository.findParsedById(id).orElseThrow());
+        assertEquals(1, repository.getCacheSize());
+    }
+
+    private CachingScdRepository<Scd, UUID, String> newCachingRepository(long maxWeight) {
+        return new CachingScdRepository<>(fileSystemScdRepository, scd -> {
+            parseCount.incrementAndGet();
+            return new String(scd.getRawXml(), StandardCharsets.UTF_8);
+        }, (scd, parsed) -> scd.size(), maxWeight);
+    }
+
+    private static Scd newScd(UUID id, String headerRevision, String rawXml) {
+        return new Scd(id, null, "1", headerRevision, rawXml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void await(CountDownLatch countDownLatch) {
+        try {
+            countDownLatch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,331 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.data.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lfenergy.compas.sct.data.model.Scd;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSystemScdRepositoryTest {
+
+    private static final byte[] RAW_XML_1 = "<SCL><Header id=\"1\"/></SCL>".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RAW_XML_2 = "<SCL><Header id=\"2\"/></SCL>".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void save_should_store_scd_and_findById_should_read_it() throws IOException {
+        // Given
+        UUID id = UUID.randomUUID();
+        UUID headerId = UUID.randomUUID();
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            // When
+            repository.save(new Scd(id, headerId, "1", "A", RAW_XML_1));
+            // Then
+            Scd scd = repository.findById(id).orElseThrow();
+            assertEquals(id, scd.getId());
+            assertEquals(headerId, scd.getHeaderId());
+            assertEquals("1", scd.getHeaderVersion());
+            assertEquals("A", scd.getHeaderRevision());
+            assertArrayEquals(RAW_XML_1, scd.getRawXml());
+            assertTrue(repository.existsById(id));
+            assertTrue(repository.existsByHeaderId(headerId));
+            assertFalse(repository.existsByHeaderId(UUID.randomUUID()));
+            assertEquals(1, repository.count());
+            assertTrue(repository.findById(UUID.randomUUID()).isEmpty());
+        }
+    }
+
+    @Test
+    void save_without_id_should_generate_id() throws IOException {
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            // When
+            Scd scd = repository.save(new Scd(null, null, null, null, RAW_XML_1));
+            // Then
+            assertNotNull(scd.getId());
+            assertTrue(repository.findById(scd.getId()).isPresent());
+            assertNull(repository.findById(scd.getId()).orElseThrow().getHeaderVersion());
+        }
+    }
+
+    @Test
+    void save_when_id_exists_should_throw_exception() throws IOException {
+        // Given
+        UUID id = UUID.randomUUID();
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            repository.save(new Scd(id, null, "1", "A", RAW_XML_1));
+            Scd scd = new Scd(id, null, "1", "B", RAW_XML_2);
+            // When Then
+            assertThrows(CompasDataAccessException.class, () -> repository.save(scd));
+        }
+    }
+
+    @Test
+    void save_identical_raw_xml_should_store_one_blob() throws IOException {
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            // When
+            repository.save(new Scd(UUID.randomUUID(), UUID.randomUUID(), "1", "A", RAW_XML_1));
+            repository.save(new Scd(UUID.randomUUID(), UUID.randomUUID(), "1", "B", RAW_XML_1.clone()));
+            // Then
+            assertEquals(2, repository.count());
+            assertEquals(1, countBlobs());
+        }
+    }
+
+    @Test
+    void update_should_replace_scd_and_delete_unreferenced_blob() throws IOException {
+        // Given
+        UUID id = UUID.randomUUID();
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            repository.save(new Scd(id, null, "1", "A", RAW_XML_1));
+            // When
+            repository.update(new Scd(id, null, "1", "B", RAW_XML_2));
+            // Then
+            Scd scd = repository.findById(id).orElseThrow();
+            assertEquals("B", scd.getHeaderRevision());
+            assertArrayEquals(RAW_XML_2, scd.getRawXml());
+            assertEquals(1, repository.count());
+            assertEquals(1, countBlobs());
+        }
+    }
+
+    @Test
+    void update_when_unknown_id_should_throw_exception() throws IOException {
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            Scd scd = new Scd(UUID.randomUUID(), null, "1", "A", RAW_XML_1);
+            // When Then
+            assertThrows(CompasDataAccessException.class, () -> repository.update(scd));
+        }
+    }
+
+    @Test
+    void deleteById_should_keep_blob_referenced_by_other_scd() throws IOException {
+        // Given
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        UUID headerId = UUID.randomUUID();
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            repository.save(new Scd(id1, headerId, "1", "A", RAW_XML_1));
+            repository.save(new Scd(id2, headerId, "1", "B", RAW_XML_1));
+            // When
+            repository.deleteById(id1);
+            // Then
+            assertFalse(repository.existsById(id1));
+            assertTrue(repository.existsByHeaderId(headerId));
+            assertArrayEquals(RAW_XML_1, repository.findById(id2).orElseThrow().getRawXml());
+            assertEquals(1, countBlobs());
+            // When
+            repository.deleteById(id2);
+            // Then
+            assertFalse(repository.existsByHeaderId(headerId));
+            assertEquals(0, repository.count());
+            assertEquals(0, countBlobs());
+            assertThrows(CompasDataAccessException.class, () -> repository.deleteById(id2));
+        }
+    }
+
+    @Test
+    void constructor_should_replay_index() throws IOException {
+        // Given
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        UUID headerId = UUID.randomUUID();
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            repository.save(new Scd(id1, headerId, "1", "A", RAW_XML_1));
+            repository.save(new Scd(id2, UUID.randomUUID(), "1", "A", RAW_XML_1));
+            repository.update(new Scd(id2, UUID.randomUUID(), "2", "A", RAW_XML_2));
+            repository.deleteById(id1);
+        }
+        // When
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            // Then
+            assertEquals(1, repository.count());
+            assertFalse(repository.existsById(id1));
+            assertFalse(repository.existsByHeaderId(headerId));
+            Scd scd = repository.findById(id2).orElseThrow();
+            assertEquals("2", scd.getHeaderVersion());
+            assertArrayEquals(RAW_XML_2, scd.getRawXml());
+        }
+    }
+
+    @Test
+    void constructor_should_drop_incomplete_last_record() throws IOException {
+        // Given
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            repository.save(new Scd(id1, null, "1", "A", RAW_XML_1));
+            repository.save(new Scd(id2, null, "1", "A", RAW_XML_2));
+        }
+        Path indexFile = directory.resolve("scd.index");
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        // When
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            // Then
+            assertEquals(1, repository.count());
+            assertTrue(repository.existsById(id1));
+            assertFalse(repository.existsById(id2));
+            // When
+            repository.save(new Scd(id2, null, "1", "B", RAW_XML_2));
+        }
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            // Then
+            assertEquals(2, repository.count());
+            assertEquals("B", repository.findById(id2).orElseThrow().getHeaderRevision());
+        }
+    }
+
+    @Test
+    void findById_should_stream_raw_xml_from_blob() throws IOException {
+        // Given
+        byte[] rawXml = largeRawXml();
+        UUID id = UUID.randomUUID();
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            repository.save(new Scd(id, null, "1", "A", rawXml));
+            // When
+            Scd scd = repository.findById(id).orElseThrow();
+            // Then
+            assertEquals(rawXml.length, scd.size());
+            try (InputStream inputStream = scd.openRawXml()) {
+                assertArrayEquals(rawXml, inputStream.readAllBytes());
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            assertEquals(rawXml.length, scd.transferTo(Channels.newChannel(outputStream)));
+            assertArrayEquals(rawXml, outputStream.toByteArray());
+        }
+    }
+
+    @Test
+    void transferRawXmlTo_should_write_raw_xml() throws IOException {
+        // Given
+        UUID id = UUID.randomUUID();
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            repository.save(new Scd(id, null, "1", "A", RAW_XML_1));
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            // When
+            long written = repository.transferRawXmlTo(id, Channels.newChannel(outputStream));
+            // Then
+            assertEquals(RAW_XML_1.length, written);
+            assertArrayEquals(RAW_XML_1, outputStream.toByteArray());
+            assertThrows(CompasDataAccessException.class, () -> repository.transferRawXmlTo(UUID.randomUUID(), Channels.newChannel(outputStream)));
+        }
+    }
+
+    @Test
+    void transferDeflatedRawXmlTo_should_write_zlib_stream() throws IOException {
+        // Given
+        byte[] rawXml = largeRawXml();
+        UUID id = UUID.randomUUID();
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            repository.save(new Scd(id, null, "1", "A", rawXml));
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            // When
+            long written = repository.transferDeflatedRawXmlTo(id, Channels.newChannel(outputStream));
+            // Then
+            assertEquals(outputStream.size(), written);
+            assertTrue(written < rawXml.length);
+            try (InputStream inputStream = new InflaterInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+                assertArrayEquals(rawXml, inputStream.readAllBytes());
+            }
+        }
+    }
+
+    @Test
+    void findById_after_update_should_keep_opened_stream_readable() throws IOException {
+        // Given
+        byte[] rawXml = largeRawXml();
+        UUID id = UUID.randomUUID();
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            repository.save(new Scd(id, null, "1", "A", rawXml));
+            Scd scd = repository.findById(id).orElseThrow();
+            try (InputStream inputStream = scd.openRawXml()) {
+                // When
+                repository.update(new Scd(id, null, "1", "B", RAW_XML_2));
+                // Then
+                assertArrayEquals(rawXml, inputStream.readAllBytes());
+            }
+            CompasDataAccessException exception = assertThrows(CompasDataAccessException.class, scd::getRawXml);
+            assertTrue(exception.getMessage().contains("has been deleted"));
+            assertThrows(CompasDataAccessException.class, scd::openRawXml);
+        }
+    }
+
+    @Test
+    void reads_concurrent_with_updates_should_see_scd_before_or_after_update() throws Exception {
+        // Given
+        UUID id = UUID.randomUUID();
+        try (FileSystemScdRepository repository = new FileSystemScdRepository(directory)) {
+            repository.save(new Scd(id, null, "1", "A", RAW_XML_1));
+            ExecutorService executorService = Executors.newSingleThreadExecutor();
+            try {
+                Future<?> updates = executorService.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        repository.update(new Scd(id, null, "1", "B", i % 2 == 0 ? RAW_XML_2 : RAW_XML_1));
+                    }
+                });
+                // When Then
+                while (!updates.isDone()) {
+                    Scd scd = repository.findById(id).orElseThrow();
+                    try (InputStream inputStream = scd.openRawXml()) {
+                        assertRawXml1Or2(inputStream.readAllBytes());
+                    } catch (CompasDataAccessException e) {
+                        // updated between findById and openRawXml
+                        assertTrue(e.getMessage().contains("has been deleted"));
+                    }
+                    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                    repository.transferDeflatedRawXmlTo(id, Channels.newChannel(outputStream));
+                    try (InputStream inputStream = new InflaterInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+                        assertRawXml1Or2(inputStream.readAllBytes());
+                    }
+                }
+                updates.get();
+            } finally {
+                executorService.shutdownNow();
+            }
+            assertEquals(1, countBlobs());
+        }
+    }
+
+    private static void assertRawXml1Or2(byte[] rawXml) {
+        assertTrue(Arrays.equals(RAW_XML_1, rawXml) || Arrays.equals(RAW_XML_2, rawXml));
+    }
+
+    private static byte[] largeRawXml() {
+        StringBuilder stringBuilder = new StringBuilder("<SCL>");
+        for (int i = 0; i < 10_000; i++) {
+            stringBuilder.append("<IED name=\"IED").append(i).append("\"/>");
+        }
+        return stringBuilder.append("</SCL>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long countBlobs() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory.resolve("blobs"))) {
+            return paths.filter(Files::isRegularFile).count();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.data.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lfenergy.compas.sct.data.model.Scd;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSystemScdRevisionStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_should_store_keyframes_and_deltas() {
+        // Given
+        FileSystemScdRevisionStore store = new FileSystemScdRevisionStore(directory, 3, 2, 2);
+        UUID headerId = UUID.randomUUID();
+        // When
+        List<FileSystemScdRevisionStore.RevisionInfo> revisionInfos = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            revisionInfos.add(store.append(revision(headerId, i)));
+        }
+        // Then
+        assertEquals(List.of(true, false, false, true, false, false, true),
+            revisionInfos.stream().map(FileSystemScdRevisionStore.RevisionInfo::keyframe).toList());
+        assertTrue(revisionInfos.get(1).storedSize() * 4 < revisionInfos.get(0).storedSize());
+        assertEquals(revisionInfos, store.getRevisions(headerId));
+    }
+
+    @Test
+    void findRevision_should_rebuild_each_revision_after_reopening() {
+        // Given
+        UUID headerId = UUID.randomUUID();
+        FileSystemScdRevisionStore store = new FileSystemScdRevisionStore(directory, 4, 2, 1);
+        for (int i = 0; i < 10; i++) {
+            store.append(revision(headerId, i));
+        }
+        // When
+        FileSystemScdRevisionStore reopenedStore = new FileSystemScdRevisionStore(directory, 4, 2, 1);
+        // Then
+        assertEquals(10, reopenedStore.getRevisions(headerId).size());
+        for (int i = 9; i >= 0; i--) {
+            Scd scd = reopenedStore.findRevision(headerId, i).orElseThrow();
+            assertArrayEquals(revision(headerId, i).getRawXml(), scd.getRawXml());
+            assertEquals(String.valueOf(i), scd.getHeaderRevision());
+            assertEquals(headerId, scd.getHeaderId());
+        }
+        assertEquals("9", reopenedStore.findLatestRevision(headerId).orElseThrow().getHeaderRevision());
+        assertTrue(reopenedStore.findRevision(headerId, 10).isEmpty());
+        assertTrue(reopenedStore.findLatestRevision(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void findRevision_should_return_copy_of_cached_raw_xml() {
+        // Given
+        UUID headerId = UUID.randomUUID();
+        FileSystemScdRevisionStore store = new FileSystemScdRevisionStore(directory, 4, 2, 2);
+        Scd appended = revision(headerId, 0);
+        store.append(appended);
+        appended.getRawXml()[0] = 'X';
+        // When
+        byte[] rawXml = store.findRevision(headerId, 0).orElseThrow().getRawXml();
+        rawXml[1] = 'X';
+        // Then
+        assertArrayEquals(revision(headerId, 0).getRawXml(), store.findRevision(headerId, 0).orElseThrow().getRawXml());
+    }
+
+    @Test
+    void append_when_revision_is_very_different_should_store_keyframe() {
+        // Given
+        FileSystemScdRevisionStore store = new FileSystemScdRevisionStore(directory);
+        UUID headerId = UUID.randomUUID();
+        store.append(revision(headerId, 0));
+        // When
+        FileSystemScdRevisionStore.RevisionInfo revisionInfo = store.append(
+            new Scd(null, headerId, "1", "1", "<SCL><Header/></SCL>".getBytes(StandardCharsets.UTF_8)));
+        // Then
+        assertTrue(revisionInfo.keyframe());
+        assertEquals("<SCL><Header/></SCL>", new String(store.findRevision(headerId, 1).orElseThrow().getRawXml(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void append_without_header_id_should_throw_exception() {
+        // Given
+        FileSystemScdRevisionStore store = new FileSystemScdRevisionStore(directory);
+        Scd scd = new Scd(null, null, "1", "A", new byte[0]);
+        // When Then
+        assertThrows(CompasDataAccessException.class, () -> store.append(scd));
+    }
+
+    private static Scd revision(UUID headerId, int number) {
+        String rawXml = XmlDeltaTest.scl(50, number, number % 2 == 0 ? "" : "<IED name=\"NEW\"/>");
+        return new Scd(UUID.nameUUIDFromBytes(headerId.toString().getBytes(StandardCharsets.UTF_8)), headerId, "1",
+            String.valueOf(number), rawXml.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,65 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.data.repository;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.sct.data.repository.XmlSegments.Segment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XmlDeltaTest {
+
+    @Test
+    void apply_should_rebuild_target_byte_for_byte() throws IOException {
+        // Given
+        byte[] base = scl(100, -1, "").getBytes(StandardCharsets.UTF_8);
+        byte[] target = scl(100, 42, "<IED name=\"NEW\"/>").getBytes(StandardCharsets.UTF_8);
+        List<Segment> baseSegments = XmlSegments.split(base, 3);
+        // When
+        byte[] delta = XmlDelta.diff(base, baseSegments, target, XmlSegments.split(target, 3));
+        // Then
+        assertArrayEquals(target, XmlDelta.apply(base, baseSegments, delta));
+        assertTrue(delta.length < target.length / 10);
+    }
+
+    @Test
+    void apply_when_elements_removed_and_reordered_should_rebuild_target() throws IOException {
+        // Given
+        byte[] base = "<SCL><IED name=\"A\"/><IED name=\"B\"/><IED name=\"C\"/></SCL>".getBytes(StandardCharsets.UTF_8);
+        byte[] target = "<SCL>\n<IED name=\"C\"/><IED name=\"A\"/></SCL>".getBytes(StandardCharsets.UTF_8);
+        List<Segment> baseSegments = XmlSegments.split(base, 2);
+        // When
+        byte[] delta = XmlDelta.diff(base, baseSegments, target, XmlSegments.split(target, 2));
+        // Then
+        assertArrayEquals(target, XmlDelta.apply(base, baseSegments, delta));
+    }
+
+    @Test
+    void apply_when_delta_is_corrupted_should_throw_exception() {
+        // Given
+        byte[] base = "<SCL/>".getBytes(StandardCharsets.UTF_8);
+        List<Segment> baseSegments = XmlSegments.split(base, 2);
+        byte[] delta = {1, 0, 0, 0, 0, 0, 0, 0, 9, 0};
+        // When Then
+        assertThrows(IOException.class, () -> XmlDelta.apply(base, baseSegments, delta));
+    }
+
+    static String scl(int iedCount, int changedIed, String extraIed) {
+        StringBuilder stringBuilder = new StringBuilder("<SCL>\n");
+        for (int i = 0; i < iedCount; i++) {
+            stringBuilder.append("  <IED name=\"IED").append(i).append("\" desc=\"").append(UUID.nameUUIDFromBytes(new byte[]{(byte) i}))
+                .append("\"><AccessPoint name=\"AP\"><Server><LDevice inst=\"LD\">")
+                .append("<LN0 lnClass=\"LLN0\" inst=\"\" lnType=\"T\"><DOI name=\"Mod\"><DAI name=\"stVal\"><Val>")
+                .append(i == changedIed ? "off" : "on")
+                .append("</Val></DAI></DOI></LN0></LDevice></Server></AccessPoint></IED>\n");
+        }
+        return stringBuilder.append(extraIed).append("</SCL>\n").toString();
+    }
+}
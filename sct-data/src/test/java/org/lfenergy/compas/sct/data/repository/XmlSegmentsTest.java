@@ -0,0 +1,84 @@
+// SPDX-FileCopyrightText: 2023 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.data.repository;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.sct.data.repository.XmlSegments.Segment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XmlSegmentsTest {
+
+    private static final String XML = "<?xml version=\"1.0\"?>\n<SCL version=\"2007\">"
+        + "<!-- comment > -->"
+        + "<IED name=\"IED1\"><AccessPoint name=\"AP1\"><Server/></AccessPoint></IED>"
+        + "<IED name='IED2' desc=\"a > b\"><AccessPoint name=\"AP1\"/></IED>"
+        + "<DataTypeTemplates><DAType id=\"DA1\"><BDA name=\"b\"/><BDA name=\"b\"/></DAType></DataTypeTemplates>"
+        + "</SCL>";
+
+    @Test
+    void split_should_return_contiguous_segments_keyed_by_element_path() {
+        // Given
+        byte[] xml = XML.getBytes(StandardCharsets.UTF_8);
+        // When
+        List<Segment> segments = XmlSegments.split(xml, 3);
+        // Then
+        assertContiguous(xml, segments);
+        List<String> keys = segments.stream().map(Segment::key).toList();
+        assertEquals(List.of(
+            "/#1", "/#2",
+            "/SCL<",
+            "/SCL/#1",
+            "/SCL/IED[name=IED1]<",
+            "/SCL/IED[name=IED1]/AccessPoint[name=AP1]",
+            "/SCL/IED[name=IED1]>",
+            "/SCL/IED[name=IED2]<",
+            "/SCL/IED[name=IED2]/AccessPoint[name=AP1]",
+            "/SCL/IED[name=IED2]>",
+            "/SCL/DataTypeTemplates<",
+            "/SCL/DataTypeTemplates/DAType[id=DA1]",
+            "/SCL/DataTypeTemplates>",
+            "/SCL>"), keys);
+        Segment accessPoint = segments.get(5);
+        assertEquals("<AccessPoint name=\"AP1\"><Server/></AccessPoint>",
+            new String(xml, accessPoint.start(), accessPoint.end() - accessPoint.start(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void split_should_number_siblings_with_same_path() {
+        // Given
+        byte[] xml = XML.getBytes(StandardCharsets.UTF_8);
+        // When
+        List<Segment> segments = XmlSegments.split(xml, 5);
+        // Then
+        assertContiguous(xml, segments);
+        List<String> keys = segments.stream().map(Segment::key).toList();
+        assertTrue(keys.contains("/SCL/DataTypeTemplates/DAType[id=DA1]/BDA[name=b]"));
+        assertTrue(keys.contains("/SCL/DataTypeTemplates/DAType[id=DA1]/BDA[name=b]#2"));
+    }
+
+    @Test
+    void split_when_xml_is_malformed_should_return_one_segment() {
+        // Given
+        byte[] xml = "<SCL><IED name=\"IED1\"></SCL>".getBytes(StandardCharsets.UTF_8);
+        // When
+        List<Segment> segments = XmlSegments.split(xml, 3);
+        // Then
+        assertEquals(List.of(new Segment("", 0, xml.length)), segments);
+    }
+
+    private static void assertContiguous(byte[] xml, List<Segment> segments) {
+        int position = 0;
+        for (Segment segment : segments) {
+            assertEquals(position, segment.start());
+            assertTrue(segment.end() > segment.start());
+            position = segment.end();
+        }
+        assertEquals(xml.length, position);
+    }
+}